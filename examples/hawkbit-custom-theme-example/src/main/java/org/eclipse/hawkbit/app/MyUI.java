@@ -10,10 +10,10 @@ package org.eclipse.hawkbit.app;
 
 import org.eclipse.hawkbit.ui.HawkbitUI;
 import org.eclipse.hawkbit.ui.UIEventProvider;
-import org.eclipse.hawkbit.ui.push.DelayedEventBusPushStrategy;
+import org.eclipse.hawkbit.ui.push.UIEventHub;
+import org.eclipse.hawkbit.ui.push.UIEventHubPushStrategy;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import com.google.common.eventbus.EventBus;
 import com.vaadin.annotations.Push;
 import com.vaadin.annotations.Theme;
 import com.vaadin.annotations.Title;
@@ -38,8 +38,8 @@ public class MyUI extends HawkbitUI {
     private static final long serialVersionUID = 1L;
 
     @Autowired
-    public MyUI(final EventBus systemEventBus, final org.vaadin.spring.events.EventBus.SessionEventBus eventBus,
+    public MyUI(final UIEventHub eventHub, final org.vaadin.spring.events.EventBus.SessionEventBus eventBus,
             final UIEventProvider provider) {
-        super(new DelayedEventBusPushStrategy(eventBus, systemEventBus, provider));
+        super(new UIEventHubPushStrategy(eventBus, eventHub, provider));
     }
 }
@@ -58,7 +58,9 @@ import com.google.common.io.ByteStreams;
 public class DeviceSimulatorUpdater {
     private static final Logger LOGGER = LoggerFactory.getLogger(DeviceSimulatorUpdater.class);
 
-    private static final ScheduledExecutorService threadPool = Executors.newScheduledThreadPool(8);
+    private static final int DOWNLOAD_THREADS = 8;
+
+    private static final ScheduledExecutorService threadPool = Executors.newScheduledThreadPool(DOWNLOAD_THREADS);
 
     @Autowired
     private SpSenderService spSenderService;
@@ -122,6 +124,9 @@ public class DeviceSimulatorUpdater {
 
         private static final Random rndSleep = new SecureRandom();
 
+        // shared by all downloads so that connections are pooled and reused
+        private static final CloseableHttpClient httpclient = createHttpClientThatAcceptsAllServerCerts();
+
         private final AbstractSimulatedDevice device;
         private final SpSenderService spSenderService;
         private final long actionId;
@@ -214,7 +219,6 @@ public class DeviceSimulatorUpdater {
 
             long overallread = 0;
             try {
-                final CloseableHttpClient httpclient = createHttpClientThatAcceptsAllServerCerts();
                 final HttpGet request = new HttpGet(url);
                 request.addHeader(HttpHeaders.AUTHORIZATION, "TargetToken " + targetToken);
 
@@ -256,7 +260,7 @@ public class DeviceSimulatorUpdater {
                     return new UpdateStatus(ResponseStatus.ERROR, message);
                 }
 
-            } catch (IOException | KeyManagementException | NoSuchAlgorithmException | KeyStoreException e) {
+            } catch (IOException | NoSuchAlgorithmException e) {
                 LOGGER.error("Failed to download" + url, e);
                 return new UpdateStatus(ResponseStatus.ERROR, "Failed to download " + url + ": " + e.getMessage());
             }
@@ -312,12 +316,16 @@ public class DeviceSimulatorUpdater {
             return message;
         }
 
-        private static CloseableHttpClient createHttpClientThatAcceptsAllServerCerts()
-                throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
-            final SSLContextBuilder builder = new SSLContextBuilder();
-            builder.loadTrustMaterial(null, (chain, authType) -> true);
-            final SSLConnectionSocketFactory sslsf = new SSLConnectionSocketFactory(builder.build());
-            return HttpClients.custom().setSSLSocketFactory(sslsf).build();
+        private static CloseableHttpClient createHttpClientThatAcceptsAllServerCerts() {
+            try {
+                final SSLContextBuilder builder = new SSLContextBuilder();
+                builder.loadTrustMaterial(null, (chain, authType) -> true);
+                final SSLConnectionSocketFactory sslsf = new SSLConnectionSocketFactory(builder.build());
+                return HttpClients.custom().setSSLSocketFactory(sslsf).setMaxConnTotal(DOWNLOAD_THREADS)
+                        .setMaxConnPerRoute(DOWNLOAD_THREADS).build();
+            } catch (NoSuchAlgorithmException | KeyStoreException | KeyManagementException e) {
+                throw new IllegalStateException("Cannot create HTTP client for downloads", e);
+            }
         }
     }
 
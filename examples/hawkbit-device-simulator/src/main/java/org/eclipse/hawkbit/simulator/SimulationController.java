@@ -10,9 +10,11 @@ package org.eclipse.hawkbit.simulator;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Map;
 
 import org.eclipse.hawkbit.simulator.AbstractSimulatedDevice.Protocol;
 import org.eclipse.hawkbit.simulator.amqp.SpSenderService;
+import org.eclipse.hawkbit.simulator.load.LoadGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -37,6 +39,9 @@ public class SimulationController {
     @Autowired
     private SimulatedDeviceFactory deviceFactory;
 
+    @Autowired
+    private LoadGenerator loadGenerator;
+
     /**
      * The start resource to start a device creation.
      * 
@@ -90,4 +95,38 @@ public class SimulationController {
 
         return ResponseEntity.ok("Updated " + amount + " DMF connected targets!");
     }
+
+    /**
+     * Starts the DDI load generation as configured by the
+     * {@code hawkbit.device.simulator.load} properties.
+     *
+     * @return a response string whether the load generation has been started
+     */
+    @RequestMapping("/load/start")
+    ResponseEntity<String> startLoad() {
+        if (!loadGenerator.start()) {
+            return ResponseEntity.badRequest().body("Load generation is already running!");
+        }
+        return ResponseEntity.ok("Started load generation!");
+    }
+
+    /**
+     * Stops the DDI load generation.
+     *
+     * @return a response string that the load generation has been stopped
+     */
+    @RequestMapping("/load/stop")
+    ResponseEntity<String> stopLoad() {
+        loadGenerator.stop();
+        return ResponseEntity.ok("Stopped load generation!");
+    }
+
+    /**
+     * @return the request counts and latency percentiles per DDI endpoint of
+     *         the load generation
+     */
+    @RequestMapping("/load/report")
+    ResponseEntity<Map<String, Object>> loadReport() {
+        return ResponseEntity.ok(loadGenerator.getReport());
+    }
 }
@@ -31,10 +31,19 @@ public class SimulationProperties {
      */
     private final List<Autostart> autostarts = new ArrayList<>();
 
+    /**
+     * Configuration of the DDI load generator.
+     */
+    private final Load load = new Load();
+
     public List<Autostart> getAutostarts() {
         return this.autostarts;
     }
 
+    public Load getLoad() {
+        return load;
+    }
+
     /**
      * Auto start configuration for simulation setups that the simulator begins
      * after startup.
@@ -134,4 +143,187 @@ public class SimulationProperties {
             this.gatewayToken = gatewayToken;
         }
     }
+
+    /**
+     * Load generator which simulates a large number of DDI devices with a
+     * shared non-blocking HTTP client, e.g. for capacity tests of a hawkBit
+     * cluster. The devices are not shown in the UI.
+     *
+     */
+    public static class Load {
+        /**
+         * Starts the load generation after startup.
+         */
+        private boolean enabled;
+
+        /**
+         * Name prefix of the simulated devices, followed by counter.
+         */
+        private String name = "load";
+
+        /**
+         * Amount of simulated devices.
+         */
+        private int amount = 100_000;
+
+        /**
+         * Tenant name for the simulation.
+         */
+        @NotEmpty
+        private String tenant = "DEFAULT";
+
+        /**
+         * DDI base endpoint of the hawkBit update server.
+         */
+        private String endpoint = "http://localhost:8080";
+
+        /**
+         * Optional gateway token for authentication of the devices.
+         */
+        private String gatewayToken = "";
+
+        /**
+         * Poll time in {@link TimeUnit#SECONDS} of the simulated devices.
+         */
+        private int pollDelay = 60;
+
+        /**
+         * Random deviation of the poll time as fraction of the poll time, e.g.
+         * 0.2 polls between 80% and 120% of the poll time.
+         */
+        private double pollJitter = 0.2;
+
+        /**
+         * Size of the ranges in bytes in which artifacts are downloaded, 0
+         * downloads an artifact with a single request.
+         */
+        private long downloadRangeSize;
+
+        /**
+         * Maximum number of connections to the update server.
+         */
+        private int maxConnections = 1000;
+
+        /**
+         * Number of IO threads of the HTTP client, 0 for the number of
+         * processors.
+         */
+        private int ioThreads;
+
+        /**
+         * Timeout in {@link TimeUnit#SECONDS} of connecting and of waiting for
+         * the data of a response.
+         */
+        private int requestTimeout = 30;
+
+        /**
+         * Interval in {@link TimeUnit#SECONDS} in which the latency
+         * percentiles are logged.
+         */
+        private int reportInterval = 60;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+
+        public int getAmount() {
+            return amount;
+        }
+
+        public void setAmount(final int amount) {
+            this.amount = amount;
+        }
+
+        public String getTenant() {
+            return tenant;
+        }
+
+        public void setTenant(final String tenant) {
+            this.tenant = tenant;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public void setEndpoint(final String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public String getGatewayToken() {
+            return gatewayToken;
+        }
+
+        public void setGatewayToken(final String gatewayToken) {
+            this.gatewayToken = gatewayToken;
+        }
+
+        public int getPollDelay() {
+            return pollDelay;
+        }
+
+        public void setPollDelay(final int pollDelay) {
+            this.pollDelay = pollDelay;
+        }
+
+        public double getPollJitter() {
+            return pollJitter;
+        }
+
+        public void setPollJitter(final double pollJitter) {
+            this.pollJitter = pollJitter;
+        }
+
+        public long getDownloadRangeSize() {
+            return downloadRangeSize;
+        }
+
+        public void setDownloadRangeSize(final long downloadRangeSize) {
+            this.downloadRangeSize = downloadRangeSize;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(final int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getIoThreads() {
+            return ioThreads;
+        }
+
+        public void setIoThreads(final int ioThreads) {
+            this.ioThreads = ioThreads;
+        }
+
+        public int getRequestTimeout() {
+            return requestTimeout;
+        }
+
+        public void setRequestTimeout(final int requestTimeout) {
+            this.requestTimeout = requestTimeout;
+        }
+
+        public int getReportInterval() {
+            return reportInterval;
+        }
+
+        public void setReportInterval(final int reportInterval) {
+            this.reportInterval = reportInterval;
+        }
+    }
 }
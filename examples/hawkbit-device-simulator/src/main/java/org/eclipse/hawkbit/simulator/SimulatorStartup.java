@@ -12,6 +12,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 
 import org.eclipse.hawkbit.simulator.amqp.SpSenderService;
+import org.eclipse.hawkbit.simulator.load.LoadGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,6 +42,9 @@ public class SimulatorStartup implements ApplicationListener<ContextRefreshedEve
     @Autowired
     private SimulatedDeviceFactory deviceFactory;
 
+    @Autowired
+    private LoadGenerator loadGenerator;
+
     @Override
     public void onApplicationEvent(final ContextRefreshedEvent event) {
         simulationProperties.getAutostarts().forEach(autostart -> {
@@ -55,6 +59,10 @@ public class SimulatorStartup implements ApplicationListener<ContextRefreshedEve
                 }
             }
         });
+
+        if (simulationProperties.getLoad().isEnabled()) {
+            loadGenerator.start();
+        }
     }
 
 }
@@ -0,0 +1,294 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.simulator.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.security.KeyManagementException;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ssl.SSLContextBuilder;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.client.methods.AsyncByteConsumer;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Non-blocking HTTP client which is shared by a large number of simulated
+ * devices, based on the Apache HttpAsyncClient. Connections are kept alive and
+ * pooled, a request waits for a free connection if the limit of connections
+ * is reached. All server certificates are accepted, like for the artifact
+ * downloads of the {@link org.eclipse.hawkbit.simulator.DeviceSimulatorUpdater}.
+ *
+ * The returned futures are completed on the IO threads of the client, so
+ * callbacks must not block.
+ */
+public class AsyncHttpClient implements Closeable {
+
+    private final PoolingNHttpClientConnectionManager connectionManager;
+
+    private final CloseableHttpAsyncClient client;
+
+    /**
+     * @param ioThreads
+     *            number of IO threads, {@code 0} for the number of processors
+     * @param maxConnections
+     *            maximum number of open connections
+     * @param requestTimeoutMillis
+     *            timeout of connecting and of waiting for the data of a
+     *            response
+     */
+    public AsyncHttpClient(final int ioThreads, final int maxConnections, final long requestTimeoutMillis) {
+        final IOReactorConfig.Builder ioReactorConfig = IOReactorConfig.custom().setTcpNoDelay(true)
+                .setSoKeepAlive(true);
+        if (ioThreads > 0) {
+            ioReactorConfig.setIoThreadCount(ioThreads);
+        }
+        try {
+            connectionManager = new PoolingNHttpClientConnectionManager(
+                    new DefaultConnectingIOReactor(ioReactorConfig.build(),
+                            new ThreadFactoryBuilder().setNameFormat("simulator-http-%d").setDaemon(true).build()),
+                    RegistryBuilder.<SchemeIOSessionStrategy> create()
+                            .register("http", NoopIOSessionStrategy.INSTANCE)
+                            .register("https", createSessionStrategyThatAcceptsAllServerCerts()).build());
+        } catch (final IOReactorException e) {
+            throw new IllegalStateException("Cannot create IO reactor", e);
+        }
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+
+        final RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout((int) requestTimeoutMillis)
+                .setSocketTimeout((int) requestTimeoutMillis).build();
+        client = HttpAsyncClients.custom().setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig).build();
+        client.start();
+    }
+
+    /**
+     * Sends the given request.
+     *
+     * @param request
+     *            the request to send
+     * @return future of the response, completed exceptionally if the request
+     *         could not be sent or the response was not received in time
+     */
+    public CompletableFuture<Response> execute(final Request request) {
+        final CompletableFuture<Response> future = new CompletableFuture<>();
+        client.execute(HttpAsyncMethods.create(request.request), new ResponseConsumer(request.discardContent),
+                new FutureCallback<Response>() {
+                    @Override
+                    public void completed(final Response response) {
+                        future.complete(response);
+                    }
+
+                    @Override
+                    public void failed(final Exception cause) {
+                        future.completeExceptionally(cause);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        future.cancel(false);
+                    }
+                });
+        return future;
+    }
+
+    /**
+     * @return the number of requests which wait for a free connection
+     */
+    public int getPendingRequests() {
+        return connectionManager.getTotalStats().getPending();
+    }
+
+    /**
+     * @return the number of currently open connections
+     */
+    public int getOpenConnections() {
+        final PoolStats stats = connectionManager.getTotalStats();
+        return stats.getLeased() + stats.getAvailable();
+    }
+
+    @Override
+    public void close() {
+        try {
+            client.close();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static SSLIOSessionStrategy createSessionStrategyThatAcceptsAllServerCerts() {
+        try {
+            final SSLContextBuilder builder = new SSLContextBuilder();
+            builder.loadTrustMaterial(null, (chain, authType) -> true);
+            return new SSLIOSessionStrategy(builder.build(), SSLIOSessionStrategy.ALLOW_ALL_HOSTNAME_VERIFIER);
+        } catch (NoSuchAlgorithmException | KeyStoreException | KeyManagementException e) {
+            throw new IllegalStateException("Cannot create SSL context", e);
+        }
+    }
+
+    /**
+     * A request to send with the {@link AsyncHttpClient}.
+     */
+    public static final class Request {
+        private final HttpRequestBase request;
+        private boolean discardContent;
+
+        private Request(final HttpRequestBase request) {
+            this.request = request;
+        }
+
+        /**
+         * @param url
+         *            the absolute URL
+         * @return a GET request
+         */
+        public static Request get(final String url) {
+            return new Request(new HttpGet(url));
+        }
+
+        /**
+         * @param url
+         *            the absolute URL
+         * @param json
+         *            the JSON body
+         * @return a POST request
+         */
+        public static Request post(final String url, final String json) {
+            final HttpPost post = new HttpPost(url);
+            post.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
+            return new Request(post);
+        }
+
+        /**
+         * @param name
+         *            of the header
+         * @param value
+         *            of the header
+         * @return this request
+         */
+        public Request header(final String name, final String value) {
+            request.setHeader(name, value);
+            return this;
+        }
+
+        /**
+         * Only counts the received bytes of the response instead of keeping
+         * the content, e.g. for artifact downloads.
+         *
+         * @return this request
+         */
+        public Request discardContent() {
+            this.discardContent = true;
+            return this;
+        }
+    }
+
+    /**
+     * A received response.
+     */
+    public static final class Response {
+        private final int status;
+        private final byte[] content;
+        private final long receivedBytes;
+
+        private Response(final int status, final byte[] content, final long receivedBytes) {
+            this.status = status;
+            this.content = content;
+            this.receivedBytes = receivedBytes;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        /**
+         * @return {@code true} for a 2xx status
+         */
+        public boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+
+        /**
+         * @return the content of the response, empty if the content has been
+         *         discarded
+         */
+        public byte[] getContent() {
+            return content;
+        }
+
+        /**
+         * @return the number of received content bytes
+         */
+        public long getReceivedBytes() {
+            return receivedBytes;
+        }
+    }
+
+    /**
+     * Counts the received bytes and keeps the content unless it is discarded.
+     */
+    private static final class ResponseConsumer extends AsyncByteConsumer<Response> {
+        private final ByteArrayOutputStream content;
+        private int status;
+        private long receivedBytes;
+
+        private ResponseConsumer(final boolean discardContent) {
+            this.content = discardContent ? null : new ByteArrayOutputStream(1024);
+        }
+
+        @Override
+        protected void onResponseReceived(final HttpResponse response) {
+            status = response.getStatusLine().getStatusCode();
+        }
+
+        @Override
+        protected void onByteReceived(final ByteBuffer buf, final IOControl ioctrl) {
+            final int length = buf.remaining();
+            receivedBytes += length;
+            if (content != null) {
+                final byte[] bytes = new byte[length];
+                buf.get(bytes);
+                content.write(bytes, 0, length);
+            }
+        }
+
+        @Override
+        protected Response buildResult(final HttpContext context) {
+            return new Response(status, content == null ? new byte[0] : content.toByteArray(), receivedBytes);
+        }
+    }
+}
@@ -0,0 +1,347 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.simulator.load;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PreDestroy;
+
+import org.eclipse.hawkbit.simulator.SimulationProperties;
+import org.eclipse.hawkbit.simulator.http.AsyncHttpClient;
+import org.eclipse.hawkbit.simulator.http.AsyncHttpClient.Request;
+import org.eclipse.hawkbit.simulator.http.AsyncHttpClient.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Generates the DDI load of a large number of devices from one JVM. Every
+ * device polls the update server, retrieves its deployment, downloads the
+ * artifacts and sends its feedback through one shared
+ * {@link AsyncHttpClient}. The devices are only scheduled polls of one
+ * {@link ScheduledExecutorService}, no thread and no state is bound to a
+ * device between its polls.
+ *
+ * The latencies are recorded per {@link Endpoint} from the submission of the
+ * request until the complete response has been received, so they include the
+ * time a request waits for a free connection if the client is saturated.
+ */
+@Service
+public class LoadGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final String FEEDBACK = "{\"id\":%d,\"time\":\"20140511T121314\",\"status\":{\"execution\":\"closed\","
+            + "\"result\":{\"finished\":\"%s\",\"progress\":{}}}}";
+
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+
+    /**
+     * The DDI resources which are requested by the simulated devices.
+     */
+    public enum Endpoint {
+        /**
+         * Base poll resource of the controller.
+         */
+        POLL,
+        /**
+         * Deployment of an action.
+         */
+        DEPLOYMENT_BASE,
+        /**
+         * Artifact download, one request per range.
+         */
+        DOWNLOAD,
+        /**
+         * Feedback of an action.
+         */
+        FEEDBACK;
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Autowired
+    private SimulationProperties simulationProperties;
+
+    private volatile boolean running;
+    private Map<Endpoint, EndpointStatistics> statistics = createStatistics();
+    private Map<Endpoint, LatencyHistogram.Snapshot> lastReport;
+    private SimulationProperties.Load config;
+    private AsyncHttpClient client;
+    private ScheduledExecutorService scheduler;
+    private long pollDelayMillis;
+
+    /**
+     * Starts the simulation of the devices as configured in
+     * {@link SimulationProperties#getLoad()}. The first polls of the devices
+     * are spread over one poll time.
+     *
+     * @return {@code false} if the load generation is already running
+     */
+    public synchronized boolean start() {
+        if (running) {
+            return false;
+        }
+
+        config = simulationProperties.getLoad();
+        pollDelayMillis = TimeUnit.SECONDS.toMillis(config.getPollDelay());
+        statistics = createStatistics();
+        lastReport = snapshot();
+        client = new AsyncHttpClient(config.getIoThreads(), config.getMaxConnections(),
+                TimeUnit.SECONDS.toMillis(config.getRequestTimeout()));
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("simulator-load-%d").setDaemon(true).build());
+        running = true;
+
+        final String endpoint = config.getEndpoint().replaceAll("/+$", "");
+        for (int i = 0; i < config.getAmount(); i++) {
+            final String controllerUrl = endpoint + "/" + config.getTenant() + "/controller/v1/" + config.getName()
+                    + i;
+            schedulePoll(controllerUrl, ThreadLocalRandom.current().nextLong(Math.max(1, pollDelayMillis)));
+        }
+        scheduleReport();
+
+        LOGGER.info("Started load generation of {} devices for tenant {} at {}", config.getAmount(),
+                config.getTenant(), endpoint);
+        return true;
+    }
+
+    /**
+     * Stops the load generation, requests which are in flight are aborted.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdownNow();
+        client.close();
+        LOGGER.info("Stopped load generation");
+    }
+
+    /**
+     * @return {@code true} if the load generation is running
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return the request counts and latency percentiles in milliseconds per
+     *         {@link Endpoint} since the start of the last load generation
+     */
+    public synchronized Map<String, Object> getReport() {
+        final Map<String, Object> report = new LinkedHashMap<>();
+        report.put("running", running);
+        if (client != null) {
+            report.put("openConnections", client.getOpenConnections());
+            report.put("pendingRequests", client.getPendingRequests());
+        }
+        statistics.forEach((endpoint, endpointStatistics) -> {
+            final LatencyHistogram.Snapshot latencies = endpointStatistics.latencies.snapshot();
+            final Map<String, Object> values = new LinkedHashMap<>();
+            values.put("requests", latencies.getCount());
+            values.put("errors", endpointStatistics.errors.sum());
+            values.put("receivedBytes", endpointStatistics.receivedBytes.sum());
+            values.put("p50", toMillis(latencies.getPercentileMicros(50)));
+            values.put("p99", toMillis(latencies.getPercentileMicros(99)));
+            values.put("p999", toMillis(latencies.getPercentileMicros(99.9)));
+            values.put("max", toMillis(latencies.getMaxMicros()));
+            report.put(endpoint.name(), values);
+        });
+        return report;
+    }
+
+    private void schedulePoll(final String controllerUrl, final long delayMillis) {
+        if (!running) {
+            return;
+        }
+        try {
+            scheduler.schedule(() -> poll(controllerUrl), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException e) {
+            LOGGER.trace("Load generation has been stopped", e);
+        }
+    }
+
+    private long nextPollDelay() {
+        final double jitter = config.getPollJitter() * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return Math.max(0, (long) (pollDelayMillis * (1 + jitter)));
+    }
+
+    private void poll(final String controllerUrl) {
+        send(Endpoint.POLL, Request.get(controllerUrl)).thenCompose(response -> {
+            final JsonNode href = readTree(response).path("_links").path("deploymentBase").path("href");
+            if (href.isMissingNode()) {
+                return DONE;
+            }
+            return send(Endpoint.DEPLOYMENT_BASE, Request.get(href.asText()))
+                    .thenCompose(deployment -> update(controllerUrl, readTree(deployment)));
+        }).whenComplete((result, error) -> {
+            if (error != null) {
+                LOGGER.trace("Poll of {} failed", controllerUrl, error);
+            }
+            schedulePoll(controllerUrl, nextPollDelay());
+        });
+    }
+
+    private CompletableFuture<Void> update(final String controllerUrl, final JsonNode deployment) {
+        final long actionId = deployment.path("id").asLong();
+
+        CompletableFuture<Boolean> downloads = CompletableFuture.completedFuture(true);
+        for (final JsonNode chunk : deployment.path("deployment").path("chunks")) {
+            for (final JsonNode artifact : chunk.path("artifacts")) {
+                JsonNode href = artifact.path("_links").path("download-http").path("href");
+                if (href.isMissingNode()) {
+                    href = artifact.path("_links").path("download").path("href");
+                }
+                if (!href.isMissingNode()) {
+                    final String url = href.asText();
+                    final long size = artifact.path("size").asLong();
+                    downloads = downloads.thenCompose(
+                            successful -> successful ? download(url, size, 0) : CompletableFuture.completedFuture(false));
+                }
+            }
+        }
+
+        return downloads.exceptionally(error -> false)
+                .thenCompose(successful -> send(Endpoint.FEEDBACK,
+                        Request.post(controllerUrl + "/deploymentBase/" + actionId + "/feedback",
+                                String.format(FEEDBACK, actionId, successful ? "success" : "failure"))))
+                .thenApply(response -> null);
+    }
+
+    private CompletableFuture<Boolean> download(final String url, final long size, final long offset) {
+        final long rangeSize = config.getDownloadRangeSize();
+        if (rangeSize <= 0 || size <= rangeSize) {
+            return send(Endpoint.DOWNLOAD, Request.get(url).discardContent())
+                    .thenApply(response -> checkReceived(response, size));
+        }
+
+        final long end = Math.min(offset + rangeSize, size) - 1;
+        return send(Endpoint.DOWNLOAD,
+                Request.get(url).discardContent().header(HttpHeaders.RANGE, "bytes=" + offset + "-" + end))
+                        .thenCompose(response -> {
+                            if (response.getStatus() != HttpStatus.PARTIAL_CONTENT.value()
+                                    || !checkReceived(response, end - offset + 1)) {
+                                return CompletableFuture.completedFuture(false);
+                            }
+                            return end + 1 < size ? download(url, size, end + 1)
+                                    : CompletableFuture.completedFuture(true);
+                        });
+    }
+
+    private boolean checkReceived(final Response response, final long expected) {
+        if (response.getReceivedBytes() != expected) {
+            statistics.get(Endpoint.DOWNLOAD).errors.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private CompletableFuture<Response> send(final Endpoint endpoint, final Request request) {
+        if (!config.getGatewayToken().isEmpty()) {
+            request.header(HttpHeaders.AUTHORIZATION, "GatewayToken " + config.getGatewayToken());
+        }
+        final EndpointStatistics endpointStatistics = statistics.get(endpoint);
+        final long start = System.nanoTime();
+        return client.execute(request).whenComplete((response, error) -> {
+            endpointStatistics.latencies.record(System.nanoTime() - start);
+            if (response != null) {
+                endpointStatistics.receivedBytes.add(response.getReceivedBytes());
+            }
+            if (error != null || !response.isSuccessful()) {
+                endpointStatistics.errors.increment();
+            }
+        }).thenApply(response -> {
+            if (!response.isSuccessful()) {
+                throw new IllegalStateException(endpoint + " failed with HTTP status " + response.getStatus());
+            }
+            return response;
+        });
+    }
+
+    private JsonNode readTree(final Response response) {
+        try {
+            return mapper.readTree(response.getContent());
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void scheduleReport() {
+        try {
+            scheduler.schedule(() -> {
+                logReport();
+                if (running) {
+                    scheduleReport();
+                }
+            }, config.getReportInterval(), TimeUnit.SECONDS);
+        } catch (final RejectedExecutionException e) {
+            LOGGER.trace("Load generation has been stopped", e);
+        }
+    }
+
+    private void logReport() {
+        final Map<Endpoint, LatencyHistogram.Snapshot> current = snapshot();
+        LOGGER.info("Load of the last {} s with {} open connections and {} pending requests:",
+                config.getReportInterval(), client.getOpenConnections(), client.getPendingRequests());
+        current.forEach((endpoint, snapshot) -> {
+            final LatencyHistogram.Snapshot interval = snapshot.since(lastReport.get(endpoint));
+            LOGGER.info("{}: {} requests, p50 {} ms, p99 {} ms, p999 {} ms, max {} ms", endpoint,
+                    interval.getCount(), toMillis(interval.getPercentileMicros(50)),
+                    toMillis(interval.getPercentileMicros(99)), toMillis(interval.getPercentileMicros(99.9)),
+                    toMillis(interval.getMaxMicros()));
+        });
+        lastReport = current;
+    }
+
+    private Map<Endpoint, LatencyHistogram.Snapshot> snapshot() {
+        final Map<Endpoint, LatencyHistogram.Snapshot> snapshots = new EnumMap<>(Endpoint.class);
+        statistics.forEach((endpoint, endpointStatistics) -> snapshots.put(endpoint,
+                endpointStatistics.latencies.snapshot()));
+        return snapshots;
+    }
+
+    private static Map<Endpoint, EndpointStatistics> createStatistics() {
+        final Map<Endpoint, EndpointStatistics> statistics = new EnumMap<>(Endpoint.class);
+        for (final Endpoint endpoint : Endpoint.values()) {
+            statistics.put(endpoint, new EndpointStatistics());
+        }
+        return statistics;
+    }
+
+    private static double toMillis(final long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class EndpointStatistics {
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder receivedBytes = new LongAdder();
+    }
+}
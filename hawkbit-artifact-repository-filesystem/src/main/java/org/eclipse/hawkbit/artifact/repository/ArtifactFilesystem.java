@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.repository;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+
+/**
+ * A wrapper object for the {@link DbArtifact} object which opens a new
+ * {@link InputStream} respectively {@link FileChannel} on the binary file on
+ * every call, so the same artifact can be read concurrently and at any
+ * position.
+ */
+public class ArtifactFilesystem extends DbArtifact {
+
+    private final Path file;
+
+    /**
+     * @param file
+     *            the binary of the artifact
+     */
+    public ArtifactFilesystem(final Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public InputStream getFileInputStream() {
+        try {
+            return new BufferedInputStream(Files.newInputStream(file));
+        } catch (final IOException e) {
+            throw new ArtifactStoreException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public FileChannel openFileChannel() throws IOException {
+        return FileChannel.open(file, StandardOpenOption.READ);
+    }
+}
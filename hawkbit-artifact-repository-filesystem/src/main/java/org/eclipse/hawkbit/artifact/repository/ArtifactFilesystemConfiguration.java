@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.repository;
+
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Auto configuration for the {@link ArtifactFilesystemRepository}. Only active
+ * if enabled by {@code hawkbit.artifact.repository.filesystem.enabled}, in which
+ * case it takes precedence over the MongoDB based artifact store.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "hawkbit.artifact.repository.filesystem", name = "enabled")
+@ConditionalOnMissingBean(value = ArtifactRepository.class)
+@AutoConfigureBefore(name = "org.eclipse.hawkbit.artifact.repository.ArtifactStoreAutoConfiguration")
+@EnableConfigurationProperties(ArtifactFilesystemProperties.class)
+public class ArtifactFilesystemConfiguration {
+
+    /**
+     * @param artifactFilesystemProperties
+     *            the properties of the repository
+     * @return Default {@link ArtifactRepository} implementation.
+     */
+    @Bean
+    public ArtifactRepository artifactRepository(final ArtifactFilesystemProperties artifactFilesystemProperties) {
+        return new ArtifactFilesystemRepository(artifactFilesystemProperties);
+    }
+}
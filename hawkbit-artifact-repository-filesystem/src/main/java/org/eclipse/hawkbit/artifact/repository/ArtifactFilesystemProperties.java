@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.repository;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Bean which holds the necessary properties for configuring the
+ * {@link ArtifactFilesystemRepository}.
+ *
+ */
+@ConfigurationProperties("hawkbit.artifact.repository.filesystem")
+public class ArtifactFilesystemProperties {
+
+    /**
+     * Enables the file system based artifact repository instead of the
+     * MongoDB based one.
+     */
+    private boolean enabled;
+
+    /**
+     * Base directory of the artifact binaries. Has to be on a single file
+     * system as new binaries are moved into place by an atomic rename.
+     */
+    private String path = "./artifactrepo";
+
+    /**
+     * @return <code>true</code> if the file system based artifact repository
+     *         is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param enabled
+     *            the enabled to set
+     */
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return the path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @param path
+     *            the path to set
+     */
+    public void setPath(final String path) {
+        this.path = path;
+    }
+}
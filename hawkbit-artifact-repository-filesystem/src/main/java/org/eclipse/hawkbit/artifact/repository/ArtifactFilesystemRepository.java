@@ -0,0 +1,249 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.repository;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+
+/**
+ * {@link ArtifactRepository} which stores the artifact binaries content
+ * addressed in the file system. The SHA1 hash is used as artifact ID and the
+ * binaries are sharded by the first two bytes of the hash, i.e.
+ * {@code <path>/ab/cd/abcd...}, so no directory grows too large. The MD5 hash
+ * and the content type are kept in a {@code .properties} file next to the
+ * binary.
+ *
+ * New binaries are written to a temporary file in the same file system and
+ * moved into place by an atomic rename after the hashes have been verified.
+ * A binary which exists already is not written again, i.e. identical artifacts
+ * are stored only once across all tenants as in the MongoDB based store.
+ */
+public class ArtifactFilesystemRepository implements ArtifactRepository {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ArtifactFilesystemRepository.class);
+
+    private static final Pattern SHA1_PATTERN = Pattern.compile("[0-9a-f]{40}");
+
+    private static final String TEMP_DIRECTORY = ".tmp";
+
+    private static final String METADATA_SUFFIX = ".properties";
+
+    private static final String MD5 = "md5";
+
+    private static final String CONTENT_TYPE = "contentType";
+
+    private final ArtifactFilesystemProperties artifactFilesystemProperties;
+
+    /**
+     * @param artifactFilesystemProperties
+     *            the properties which contain the base directory
+     */
+    public ArtifactFilesystemRepository(final ArtifactFilesystemProperties artifactFilesystemProperties) {
+        this.artifactFilesystemProperties = artifactFilesystemProperties;
+    }
+
+    @Override
+    public DbArtifact store(final InputStream content, final String filename, final String contentType) {
+        return store(content, filename, contentType, null);
+    }
+
+    @Override
+    public DbArtifact store(final InputStream content, final String filename, final String contentType,
+            final DbArtifactHash hash) {
+        LOG.debug("storing file {} of content {}", filename, contentType);
+        Path tempFile = null;
+        try {
+            final Path tempDirectory = Files.createDirectories(getBasePath().resolve(TEMP_DIRECTORY));
+            tempFile = Files.createTempFile(tempDirectory, "upload", null);
+
+            // Exception squid:S2070 - not used for hashing sensitive
+            // data
+            @SuppressWarnings("squid:S2070")
+            final MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            final MessageDigest md5 = MessageDigest.getInstance("MD5");
+            try (final OutputStream os = new DigestOutputStream(
+                    new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)), md5), sha1)) {
+                ByteStreams.copy(content, os);
+            }
+
+            final String sha1Hash = BaseEncoding.base16().lowerCase().encode(sha1.digest());
+            final String md5Hash = BaseEncoding.base16().lowerCase().encode(md5.digest());
+            checkHashes(hash, sha1Hash, md5Hash);
+
+            final Path file = getFile(sha1Hash);
+            if (Files.exists(file)) {
+                LOG.info("file with sha1 hash {} already exists in repository", sha1Hash);
+            } else {
+                Files.createDirectories(file.getParent());
+                // metadata first, an existing binary implies existing metadata
+                writeMetadata(tempDirectory, getMetadataFile(file), md5Hash, contentType);
+                move(tempFile, file);
+            }
+            return map(file, sha1Hash);
+        } catch (final IOException | NoSuchAlgorithmException e) {
+            throw new ArtifactStoreException(e.getMessage(), e);
+        } finally {
+            deleteTempFile(tempFile);
+        }
+    }
+
+    @Override
+    public void deleteById(final String artifactId) {
+        deleteBySha1(artifactId);
+    }
+
+    @Override
+    public void deleteBySha1(final String sha1Hash) {
+        if (!isSha1(sha1Hash)) {
+            return;
+        }
+        final Path file = getFile(sha1Hash);
+        try {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(getMetadataFile(file));
+        } catch (final IOException e) {
+            throw new ArtifactStoreException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public DbArtifact getArtifactBySha1(final String sha1Hash) {
+        if (!isSha1(sha1Hash)) {
+            return null;
+        }
+        return map(getFile(sha1Hash), sha1Hash);
+    }
+
+    @Override
+    public DbArtifact getArtifactById(final String id) {
+        return getArtifactBySha1(id);
+    }
+
+    @Override
+    public List<DbArtifact> getArtifactsBySha1(final List<String> sha1Hashes) {
+        return sha1Hashes.stream().map(this::getArtifactBySha1).filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static void checkHashes(final DbArtifactHash hash, final String sha1Hash, final String md5Hash) {
+        if (hash == null) {
+            return;
+        }
+        if (hash.getSha1() != null && !hash.getSha1().equalsIgnoreCase(sha1Hash)) {
+            throw new HashNotMatchException(
+                    "The given sha1 hash " + hash.getSha1() + " not matching the calculated sha1 hash " + sha1Hash,
+                    HashNotMatchException.SHA1);
+        }
+        if (hash.getMd5() != null && !hash.getMd5().equalsIgnoreCase(md5Hash)) {
+            throw new HashNotMatchException(
+                    "The given md5 hash " + hash.getMd5() + " not matching the calculated md5 hash " + md5Hash,
+                    HashNotMatchException.MD5);
+        }
+    }
+
+    private static void writeMetadata(final Path tempDirectory, final Path metadataFile, final String md5Hash,
+            final String contentType) throws IOException {
+        final Properties metadata = new Properties();
+        metadata.setProperty(MD5, md5Hash);
+        if (contentType != null) {
+            metadata.setProperty(CONTENT_TYPE, contentType);
+        }
+
+        final Path tempFile = Files.createTempFile(tempDirectory, "metadata", null);
+        try {
+            try (final OutputStream os = Files.newOutputStream(tempFile)) {
+                metadata.store(os, null);
+            }
+            move(tempFile, metadataFile);
+        } finally {
+            deleteTempFile(tempFile);
+        }
+    }
+
+    private static void move(final Path source, final Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            LOG.warn("Atomic move not supported, moving {} to {} non atomically", source, target, e);
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteTempFile(final Path tempFile) {
+        if (tempFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (final IOException e) {
+            LOG.error("Could not delete temporary file: {}", tempFile, e);
+        }
+    }
+
+    private static ArtifactFilesystem map(final Path file, final String sha1Hash) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        final Properties metadata = new Properties();
+        try {
+            try (final InputStream is = Files.newInputStream(getMetadataFile(file))) {
+                metadata.load(is);
+            }
+
+            final ArtifactFilesystem artifact = new ArtifactFilesystem(file);
+            artifact.setArtifactId(sha1Hash);
+            artifact.setSize(Files.size(file));
+            artifact.setContentType(metadata.getProperty(CONTENT_TYPE));
+            artifact.setHashes(new DbArtifactHash(sha1Hash, metadata.getProperty(MD5)));
+            return artifact;
+        } catch (final IOException e) {
+            throw new ArtifactStoreException(e.getMessage(), e);
+        }
+    }
+
+    private static boolean isSha1(final String sha1Hash) {
+        return sha1Hash != null && SHA1_PATTERN.matcher(sha1Hash).matches();
+    }
+
+    private static Path getMetadataFile(final Path file) {
+        return file.resolveSibling(file.getFileName() + METADATA_SUFFIX);
+    }
+
+    private Path getFile(final String sha1Hash) {
+        return getBasePath().resolve(sha1Hash.substring(0, 2)).resolve(sha1Hash.substring(2, 4)).resolve(sha1Hash);
+    }
+
+    private Path getBasePath() {
+        return Paths.get(artifactFilesystemProperties.getPath());
+    }
+}
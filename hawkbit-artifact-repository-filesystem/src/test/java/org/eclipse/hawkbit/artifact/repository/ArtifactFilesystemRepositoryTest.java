@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.repository;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Repository")
+@Stories("Artifact Store Filesystem")
+public class ArtifactFilesystemRepositoryTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private ArtifactFilesystemRepository artifactRepositoryUnderTest;
+
+    @Before
+    public void setUp() {
+        final ArtifactFilesystemProperties properties = new ArtifactFilesystemProperties();
+        properties.setPath(folder.getRoot().getAbsolutePath());
+        artifactRepositoryUnderTest = new ArtifactFilesystemRepository(properties);
+    }
+
+    @Test
+    @Description("Ensures that an artifact is stored in the sharded directory and can be read by its SHA1 hash.")
+    public void storeAndReadArtifact() throws IOException {
+        final byte[] content = generateContent(4096);
+        final String sha1 = Hashing.sha1().hashBytes(content).toString();
+
+        final DbArtifact stored = artifactRepositoryUnderTest.store(new ByteArrayInputStream(content), "file.bin",
+                "application/octet-stream");
+
+        assertThat(stored.getArtifactId()).isEqualTo(sha1);
+        assertThat(stored.getHashes().getMd5()).isEqualTo(Hashing.md5().hashBytes(content).toString());
+        assertThat(stored.getSize()).isEqualTo(content.length);
+        assertThat(Files.exists(folder.getRoot().toPath().resolve(sha1.substring(0, 2)).resolve(sha1.substring(2, 4))
+                .resolve(sha1))).isTrue();
+
+        final DbArtifact loaded = artifactRepositoryUnderTest.getArtifactBySha1(sha1);
+        assertThat(loaded.getContentType()).isEqualTo("application/octet-stream");
+        assertThat(loaded.getHashes().getMd5()).isEqualTo(stored.getHashes().getMd5());
+        assertThat(ByteStreams.toByteArray(loaded.getFileInputStream())).isEqualTo(content);
+        assertThat(artifactRepositoryUnderTest.getArtifactsBySha1(Arrays.asList(sha1, "unknown"))).hasSize(1);
+    }
+
+    @Test
+    @Description("Ensures that identical artifacts are stored only once and no temporary files are left behind.")
+    public void identicalArtifactIsStoredOnce() throws IOException {
+        final byte[] content = generateContent(1024);
+
+        final DbArtifact first = artifactRepositoryUnderTest.store(new ByteArrayInputStream(content), "a.bin", null);
+        final DbArtifact second = artifactRepositoryUnderTest.store(new ByteArrayInputStream(content), "b.bin", null);
+
+        assertThat(second.getArtifactId()).isEqualTo(first.getArtifactId());
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath().resolve(".tmp"))) {
+            assertThat(files.count()).isEqualTo(0);
+        }
+    }
+
+    @Test
+    @Description("Ensures that an artifact with a not matching hash is rejected and not stored.")
+    public void artifactWithWrongHashIsRejected() {
+        final byte[] content = generateContent(1024);
+        final String sha1 = Hashing.sha1().hashBytes(content).toString();
+
+        try {
+            artifactRepositoryUnderTest.store(new ByteArrayInputStream(content), "file.bin", null,
+                    new DbArtifactHash(sha1, "wrongmd5"));
+            fail("HashNotMatchException expected");
+        } catch (final HashNotMatchException e) {
+            assertThat(e.getHashFunction()).isEqualTo(HashNotMatchException.MD5);
+        }
+        assertThat(artifactRepositoryUnderTest.getArtifactBySha1(sha1)).isNull();
+    }
+
+    @Test
+    @Description("Ensures that the artifact binary can be read at any position through the file channel.")
+    public void positionalReadThroughFileChannel() throws IOException {
+        final byte[] content = generateContent(8192);
+        final DbArtifact stored = artifactRepositoryUnderTest.store(new ByteArrayInputStream(content), "file.bin",
+                null);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(100);
+        try (FileChannel channel = stored.openFileChannel()) {
+            channel.read(buffer, 5000);
+        }
+
+        assertThat(buffer.array()).isEqualTo(Arrays.copyOfRange(content, 5000, 5100));
+    }
+
+    @Test
+    @Description("Ensures that a deleted artifact cannot be found anymore.")
+    public void deleteArtifact() {
+        final DbArtifact stored = artifactRepositoryUnderTest.store(new ByteArrayInputStream(generateContent(128)),
+                "file.bin", null);
+
+        artifactRepositoryUnderTest.deleteById(stored.getArtifactId());
+
+        assertThat(artifactRepositoryUnderTest.getArtifactById(stored.getArtifactId())).isNull();
+    }
+
+    private static byte[] generateContent(final int length) {
+        final byte[] bytes = new byte[length];
+        new Random().nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -9,17 +9,14 @@
 package org.eclipse.hawkbit.artifact.repository;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
-import java.security.DigestOutputStream;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
@@ -27,18 +24,22 @@ import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.data.mongodb.MongoDbFactory;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.gridfs.GridFsOperations;
 
 import com.google.common.io.BaseEncoding;
-import com.google.common.io.ByteStreams;
 import com.mongodb.BasicDBObject;
+import com.mongodb.DB;
+import com.mongodb.DuplicateKeyException;
 import com.mongodb.MongoClientException;
 import com.mongodb.MongoException;
+import com.mongodb.gridfs.GridFS;
 import com.mongodb.gridfs.GridFSDBFile;
 import com.mongodb.gridfs.GridFSFile;
+import com.mongodb.gridfs.GridFSInputFile;
 
 /**
  * The file management which looks up all the file in the file tore.
@@ -67,10 +68,34 @@ public class ArtifactStore implements ArtifactRepository {
 
     private static final String ID = "_id";
 
+    /**
+     * The mongoDB field of the chunks which references the file.
+     */
+    private static final String FILES_ID = "files_id";
+
+    /**
+     * Prefix of the filename of binaries which are still uploading, i.e. their
+     * SHA1 hash is not known yet.
+     */
+    private static final String PROVISIONAL_FILENAME_PREFIX = "upload-";
+
+    /**
+     * The mongoDB field of the file document which holds the SHA1 hash. It is
+     * backed by a unique index, so the binary of a SHA1 hash is stored only
+     * once even if it is uploaded concurrently.
+     */
+    private static final String METADATA_SHA1 = "metadata." + SHA1;
+
+    private final AtomicBoolean sha1IndexEnsured = new AtomicBoolean();
+
     @Autowired
     private GridFsOperations gridFs;
 
-    MongoTemplate mongoTemplate;
+    @Autowired
+    private MongoDbFactory mongoDbFactory;
+
+    @Autowired(required = false)
+    private MongoProperties mongoProperties;
 
     /**
      * Retrieves a {@link GridFSDBFile} from the store by it's SHA1 hash.
@@ -116,21 +141,12 @@ public class ArtifactStore implements ArtifactRepository {
     @Override
     public DbArtifact store(final InputStream content, final String filename, final String contentType,
             final DbArtifactHash hash) {
-        File tempFile = null;
-        try {
-            LOGGER.debug("storing file {} of content {}", filename, contentType);
-            tempFile = File.createTempFile("uploadFile", null);
-            try (final BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(tempFile))) {
-                try (BufferedInputStream bis = new BufferedInputStream(content)) {
-                    return store(bis, contentType, bos, tempFile, hash);
-                }
-            }
-        } catch (final IOException | MongoException e1) {
-            throw new ArtifactStoreException(e1.getMessage(), e1);
-        } finally {
-            if (tempFile != null && !tempFile.delete()) {
-                LOGGER.error("Could not delete temporary file: {}", tempFile);
-            }
+        LOGGER.debug("storing file {} of content {}", filename, contentType);
+        try (final DigestInputStream dis = new DigestInputStream(new BufferedInputStream(content),
+                createSha1Digest())) {
+            return store(dis, contentType, hash);
+        } catch (final IOException | NoSuchAlgorithmException | MongoException e) {
+            throw new ArtifactStoreException(e.getMessage(), e);
         }
     }
 
@@ -163,58 +179,138 @@ public class ArtifactStore implements ArtifactRepository {
 
     }
 
-    private DbArtifact store(final InputStream content, final String contentType, final OutputStream os,
-            final File tempFile, final DbArtifactHash hash) {
-        final GridFsArtifact storedArtifact;
+    /**
+     * Streams the content into GridFS under a provisional filename while the
+     * SHA1 hash is calculated on the fly and the MD5 hash by GridFS. Once the
+     * hashes are known the file is either renamed to its SHA1 hash or, if the
+     * binary exists already or a hash does not match, deleted again. The
+     * rename is guarded by the unique index on the SHA1 hash, so of two
+     * concurrent uploads of the same binary only one is kept. Chunks of an
+     * upload which fails midway are deleted as well.
+     */
+    private DbArtifact store(final DigestInputStream content, final String contentType, final DbArtifactHash hash) {
+        final GridFS gridFS = createGridFS();
+        ensureSha1Index(gridFS);
+        final GridFSInputFile provisional = gridFS.createFile(content, PROVISIONAL_FILENAME_PREFIX + UUID.randomUUID(),
+                true);
+        provisional.setContentType(contentType);
         try {
-            final String sha1Hash = computeSHA1Hash(content, os, hash != null ? hash.getSha1() : null);
-            // upload if it does not exist already, check if file exists, not
-            // tenant specific.
-            final GridFSDBFile result = gridFs.findOne(new Query().addCriteria(Criteria.where(FILENAME).is(sha1Hash)));
-            if (null == result) {
-                try (FileInputStream inputStream = new FileInputStream(tempFile)) {
-                    final BasicDBObject metadata = new BasicDBObject();
-                    metadata.put(SHA1, sha1Hash);
-                    storedArtifact = map(gridFs.store(inputStream, sha1Hash, contentType, metadata));
-                }
-            } else {
-                LOGGER.info("file with sha1 hash {} already exists in database, increase reference counter", sha1Hash);
-                result.save();
-                storedArtifact = map(result);
-            }
-        } catch (final NoSuchAlgorithmException | IOException e) {
-            throw new ArtifactStoreException(e.getMessage(), e);
+            provisional.save();
+        } catch (final MongoException e) {
+            deleteChunks(gridFS, provisional.getId());
+            throw e;
         }
+        final String sha1Hash = BaseEncoding.base16().lowerCase().encode(content.getMessageDigest().digest());
 
-        if (hash != null && hash.getMd5() != null
-                && !storedArtifact.getHashes().getMd5().equalsIgnoreCase(hash.getMd5())) {
-            throw new HashNotMatchException("The given md5 hash " + hash.getMd5()
-                    + " not matching the calculated md5 hash " + storedArtifact.getHashes().getMd5(),
-                    HashNotMatchException.MD5);
+        try {
+            checkHashes(hash, sha1Hash, provisional.getMD5());
+        } catch (final HashNotMatchException e) {
+            deleteProvisional(provisional.getId());
+            throw e;
+        }
+
+        // check if file exists, not tenant specific.
+        final GridFSDBFile existing = findBySha1(sha1Hash);
+        if (existing != null) {
+            return useExisting(existing, provisional);
         }
 
-        return storedArtifact;
+        // chunks are saved already, only the file document is updated
+        provisional.put(FILENAME, sha1Hash);
+        provisional.setMetaData(new BasicDBObject(SHA1, sha1Hash));
+        try {
+            provisional.save();
+        } catch (final DuplicateKeyException e) {
+            LOGGER.debug("file with sha1 hash {} has been stored concurrently", sha1Hash, e);
+            return useExisting(findBySha1(sha1Hash), provisional);
+        }
+        return map(provisional);
+    }
 
+    private DbArtifact useExisting(final GridFSDBFile existing, final GridFSInputFile provisional) {
+        LOGGER.info("file with sha1 hash {} already exists in database, increase reference counter",
+                existing.getFilename());
+        deleteProvisional(provisional.getId());
+        existing.save();
+        return map(existing);
     }
 
-    private static String computeSHA1Hash(final InputStream stream, final OutputStream os, final String providedSHA1Sum)
-            throws NoSuchAlgorithmException, IOException {
-        String sha1Hash;
-        // compute digest
-        // Exception squid:S2070 - not used for hashing sensitive
-        // data
-        @SuppressWarnings("squid:S2070")
-        final MessageDigest md = MessageDigest.getInstance("SHA-1");
-        try (final DigestOutputStream dos = new DigestOutputStream(os, md)) {
-            ByteStreams.copy(stream, dos);
+    private GridFSDBFile findBySha1(final String sha1Hash) {
+        return gridFs.findOne(new Query().addCriteria(Criteria.where(FILENAME).is(sha1Hash)));
+    }
+
+    /**
+     * Creates a {@link GridFS} on the same database and bucket as the
+     * {@link GridFsOperations}, i.e. the configured GridFS database if any and
+     * the configured bucket, which is the GridFS default bucket as the
+     * {@link GridFsOperations} of Spring Boot do not set one.
+     */
+    private GridFS createGridFS() {
+        final String gridFsDatabase = mongoProperties != null ? mongoProperties.getGridFsDatabase() : null;
+        final DB db = gridFsDatabase != null && !gridFsDatabase.isEmpty() ? mongoDbFactory.getDb(gridFsDatabase)
+                : mongoDbFactory.getDb();
+        return new GridFS(db);
+    }
+
+    /**
+     * Creates the unique index on the SHA1 hash once. In case the index cannot
+     * be created it is tried again with the next upload, concurrent uploads of
+     * the same binary may be stored twice until then.
+     */
+    private void ensureSha1Index(final GridFS gridFS) {
+        if (sha1IndexEnsured.get()) {
+            return;
+        }
+        try {
+            gridFS.getDB().getCollection(gridFS.getBucketName() + ".files").createIndex(
+                    new BasicDBObject(METADATA_SHA1, 1),
+                    new BasicDBObject("unique", true).append("sparse", true).append("background", true));
+            sha1IndexEnsured.set(true);
+        } catch (final MongoException e) {
+            LOGGER.warn("Could not create unique index on the SHA1 hash of the artifacts, retrying with next upload",
+                    e);
+        }
+    }
+
+    private void deleteProvisional(final Object id) {
+        try {
+            gridFs.delete(new Query().addCriteria(Criteria.where(ID).is(id)));
+        } catch (final MongoException e) {
+            LOGGER.error("Could not delete provisional file {}", id, e);
+        }
+    }
+
+    private static void deleteChunks(final GridFS gridFS, final Object id) {
+        try {
+            gridFS.getDB().getCollection(gridFS.getBucketName() + ".chunks")
+                    .remove(new BasicDBObject(FILES_ID, id));
+        } catch (final MongoException e) {
+            LOGGER.error("Could not delete chunks of failed upload {}", id, e);
         }
-        sha1Hash = BaseEncoding.base16().lowerCase().encode(md.digest());
-        if (providedSHA1Sum != null && !providedSHA1Sum.equalsIgnoreCase(sha1Hash)) {
+    }
+
+    private static void checkHashes(final DbArtifactHash hash, final String sha1Hash, final String md5Hash) {
+        if (hash == null) {
+            return;
+        }
+        if (hash.getSha1() != null && !hash.getSha1().equalsIgnoreCase(sha1Hash)) {
             throw new HashNotMatchException(
-                    "The given sha1 hash " + providedSHA1Sum + " not matching the calculated sha1 hash " + sha1Hash,
+                    "The given sha1 hash " + hash.getSha1() + " not matching the calculated sha1 hash " + sha1Hash,
                     HashNotMatchException.SHA1);
         }
-        return sha1Hash;
+        if (hash.getMd5() != null && !hash.getMd5().equalsIgnoreCase(md5Hash)) {
+            throw new HashNotMatchException(
+                    "The given md5 hash " + hash.getMd5() + " not matching the calculated md5 hash " + md5Hash,
+                    HashNotMatchException.MD5);
+        }
+    }
+
+    private static MessageDigest createSha1Digest() throws NoSuchAlgorithmException {
+        // Exception squid:S2070 - not used for hashing sensitive
+        // data
+        @SuppressWarnings("squid:S2070")
+        final MessageDigest md = MessageDigest.getInstance("SHA-1");
+        return md;
     }
 
     /**
@@ -9,18 +9,27 @@
 package org.eclipse.hawkbit.artifact.repository;
 
 import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.IOUtils;
 import org.eclipse.hawkbit.artifact.MongoDBTestRule;
 import org.eclipse.hawkbit.artifact.TestConfiguration;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
 import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -129,6 +138,72 @@ public class ArtifactStoreTest {
         assertThat(findOne).isNull();
     }
 
+    @Test
+    @Description("Ensures that an artifact with a not matching hash is rejected without leaving data in the database.")
+    public void artifactWithWrongHashLeavesNoData() {
+        final int filelengthBytes = 128;
+        final String filename = "testfile.json";
+        final String contentType = "application/json";
+        final long filesBefore = gridFs.find(new Query()).size();
+
+        try {
+            artifactStoreUnderTest.store(generateInputStream(filelengthBytes), filename, contentType,
+                    new DbArtifactHash("wrongsha1", null));
+            fail("HashNotMatchException expected");
+        } catch (final HashNotMatchException e) {
+            assertThat(e.getHashFunction()).isEqualTo(HashNotMatchException.SHA1);
+        }
+
+        assertThat(gridFs.find(new Query())).hasSize((int) filesBefore);
+    }
+
+    @Test
+    @Description("Ensures that an identical artifact is stored only once.")
+    public void identicalArtifactIsStoredOnce() {
+        final int filelengthBytes = 128;
+        final String filename = "testfile.json";
+        final String contentType = "application/json";
+
+        final ByteArrayInputStream inputStream = generateInputStream(filelengthBytes);
+        final DbArtifact first = artifactStoreUnderTest.store(inputStream, filename, contentType);
+        inputStream.reset();
+        final DbArtifact second = artifactStoreUnderTest.store(inputStream, filename, contentType);
+
+        assertThat(second.getArtifactId()).isEqualTo(first.getArtifactId());
+        assertThat(gridFs.find(new Query().addCriteria(Criteria.where("filename").is(first.getHashes().getSha1()))))
+                .hasSize(1);
+    }
+
+    @Test
+    @Description("Ensures that an identical artifact which is uploaded concurrently is stored only once.")
+    public void concurrentlyUploadedArtifactIsStoredOnce() throws InterruptedException, ExecutionException {
+        final byte[] bytes = new byte[64 * 1024];
+        new Random().nextBytes(bytes);
+        final int uploads = 4;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(uploads);
+        try {
+            final List<Future<DbArtifact>> results = new ArrayList<>();
+            for (int i = 0; i < uploads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return artifactStoreUnderTest.store(new ByteArrayInputStream(bytes), "testfile.bin",
+                            "application/octet-stream");
+                }));
+            }
+            start.countDown();
+
+            final String artifactId = results.get(0).get().getArtifactId();
+            for (final Future<DbArtifact> result : results) {
+                assertThat(result.get().getArtifactId()).isEqualTo(artifactId);
+            }
+            assertThat(gridFs.find(new Query().addCriteria(
+                    Criteria.where("filename").is(results.get(0).get().getHashes().getSha1())))).hasSize(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private static ByteArrayInputStream generateInputStream(final int length) {
         final byte[] bytes = new byte[length];
         new Random().nextBytes(bytes);
@@ -44,6 +44,7 @@ import org.eclipse.hawkbit.security.HttpControllerPreAuthenticatedGatewaySecurit
 import org.eclipse.hawkbit.security.HttpControllerPreAuthenticatedSecurityHeaderFilter;
 import org.eclipse.hawkbit.security.HttpDownloadAuthenticationFilter;
 import org.eclipse.hawkbit.security.PreAuthTokenSourceTrustAuthenticationProvider;
+import org.eclipse.hawkbit.security.RateLimiters;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
 import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.slf4j.Logger;
@@ -228,6 +229,16 @@ public class SecurityManagedConfiguration {
         }
     }
 
+    /**
+     * @return the rate limiters of the denial of service protection filter,
+     *         which can be shared with the other nodes of the cluster
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RateLimiters rateLimiters() {
+        return RateLimiters.of(securityProperties.getDos().getFilter());
+    }
+
     /**
      * Filter to protect the SP server against denial of service attacks.
      *
@@ -240,10 +251,8 @@ public class SecurityManagedConfiguration {
 
         final FilterRegistrationBean filterRegBean = new FilterRegistrationBean();
 
-        filterRegBean.setFilter(new DosFilter(securityProperties.getDos().getFilter().getMaxRead(),
-                securityProperties.getDos().getFilter().getMaxWrite(),
-                securityProperties.getDos().getFilter().getWhitelist(), securityProperties.getClients().getBlacklist(),
-                securityProperties.getClients().getRemoteIpHeader()));
+        filterRegBean.setFilter(new DosFilter(rateLimiters(), securityProperties.getDos().getFilter().getWhitelist(),
+                securityProperties.getClients().getBlacklist(), securityProperties.getClients().getRemoteIpHeader()));
         filterRegBean.addUrlPatterns("/{tenant}/controller/v1/*", "/rest/*");
 
         return filterRegBean;
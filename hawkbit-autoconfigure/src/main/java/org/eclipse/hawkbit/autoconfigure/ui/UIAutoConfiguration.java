@@ -11,6 +11,7 @@ package org.eclipse.hawkbit.autoconfigure.ui;
 import org.eclipse.hawkbit.DistributedResourceBundleMessageSource;
 import org.eclipse.hawkbit.ui.HawkbitEventProvider;
 import org.eclipse.hawkbit.ui.UIEventProvider;
+import org.eclipse.hawkbit.ui.push.UIEventHub;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,6 +19,8 @@ import org.vaadin.spring.annotation.EnableVaadinExtensions;
 import org.vaadin.spring.events.annotation.EnableEventBus;
 import org.vaadin.spring.security.annotation.EnableVaadinSecurity;
 
+import com.google.common.eventbus.EventBus;
+
 /**
  * The hawkbit-ui autoconfiguration.
  */
@@ -48,4 +51,19 @@ public class UIAutoConfiguration {
         return new HawkbitEventProvider();
     }
 
+    /**
+     * The node wide hub which forwards the events of the back-end to the UIs.
+     * 
+     * @param systemEventBus
+     *            the system event bus
+     * @param eventProvider
+     *            the provider of the supported events
+     * @return the hub bean
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    public UIEventHub uiEventHub(final EventBus systemEventBus, final UIEventProvider eventProvider) {
+        return new UIEventHub(systemEventBus, eventProvider);
+    }
+
 }
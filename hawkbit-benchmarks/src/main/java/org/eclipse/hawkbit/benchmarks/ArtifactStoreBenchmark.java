@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.artifact.repository.ArtifactFilesystemProperties;
+import org.eclipse.hawkbit.artifact.repository.ArtifactFilesystemRepository;
+import org.eclipse.hawkbit.artifact.repository.ArtifactRepository;
+import org.eclipse.hawkbit.artifact.repository.ArtifactStore;
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoDbFactory;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import com.mongodb.MongoClient;
+
+import de.flapdoodle.embed.mongo.MongodExecutable;
+import de.flapdoodle.embed.mongo.MongodStarter;
+import de.flapdoodle.embed.mongo.config.MongodConfigBuilder;
+import de.flapdoodle.embed.mongo.config.Net;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.process.runtime.Network;
+
+/**
+ * Throughput of the artifact stores: the {@link ArtifactFilesystemRepository}
+ * compared to the GridFS based {@link ArtifactStore} on an embedded MongoDB.
+ * Every stored binary is unique and deleted again within the same operation,
+ * so the store does not grow during the run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArtifactStoreBenchmark {
+
+    @Param({ "filesystem", "gridfs" })
+    private String store;
+
+    @Param({ "65536", "4194304" })
+    private int size;
+
+    private Path directory;
+
+    private MongodExecutable mongod;
+
+    private MongoClient mongoClient;
+
+    private AnnotationConfigApplicationContext context;
+
+    private ArtifactRepository repository;
+
+    private byte[] content;
+
+    private String storedSha1;
+
+    private long counter;
+
+    @Setup
+    public void setup() throws IOException {
+        if ("gridfs".equals(store)) {
+            repository = startGridFs();
+        } else {
+            directory = Files.createTempDirectory("artifactrepo");
+            final ArtifactFilesystemProperties properties = new ArtifactFilesystemProperties();
+            properties.setPath(directory.toString());
+            repository = new ArtifactFilesystemRepository(properties);
+        }
+
+        content = new byte[size];
+        new Random(size).nextBytes(content);
+        storedSha1 = repository.store(new ByteArrayInputStream(content), "stored.bin", "application/octet-stream")
+                .getHashes().getSha1();
+    }
+
+    private ArtifactRepository startGridFs() throws IOException {
+        final int port = Network.getFreeServerPort();
+        mongod = MongodStarter.getDefaultInstance().prepare(new MongodConfigBuilder().version(Version.V3_0_8)
+                .net(new Net("127.0.0.1", port, Network.localhostIsIPv6())).build());
+        mongod.start();
+        mongoClient = new MongoClient("127.0.0.1", port);
+
+        final MongoDbFactory mongoDbFactory = new SimpleMongoDbFactory(mongoClient, "artifactrepo");
+        context = new AnnotationConfigApplicationContext();
+        context.getBeanFactory().registerSingleton("mongoDbFactory", mongoDbFactory);
+        context.getBeanFactory().registerSingleton("gridFs",
+                new GridFsTemplate(mongoDbFactory, new MongoTemplate(mongoDbFactory).getConverter()));
+        context.register(ArtifactStore.class);
+        context.refresh();
+        return context.getBean(ArtifactStore.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+            mongoClient.close();
+            mongod.stop();
+        }
+        if (directory != null) {
+            FileSystemUtils.deleteRecursively(directory.toFile());
+        }
+    }
+
+    @Benchmark
+    public DbArtifact storeAndDelete() {
+        // a unique binary per operation, otherwise the stores detect the
+        // duplicate
+        final byte[] unique = content.clone();
+        ByteBuffer.wrap(unique).putLong(counter++);
+        final DbArtifact stored = repository.store(new ByteArrayInputStream(unique), "artifact.bin",
+                "application/octet-stream");
+        repository.deleteBySha1(stored.getHashes().getSha1());
+        return stored;
+    }
+
+    @Benchmark
+    public long read() throws IOException {
+        final byte[] buffer = new byte[8192];
+        long total = 0;
+        try (final InputStream in = repository.getArtifactBySha1(storedSha1).getFileInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+            }
+        }
+        return total;
+    }
+}
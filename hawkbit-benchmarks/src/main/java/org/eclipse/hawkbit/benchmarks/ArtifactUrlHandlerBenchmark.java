@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.api.ArtifactUrlHandler;
+import org.eclipse.hawkbit.api.UrlProtocol;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Creation of the artifact download URLs which is done for every artifact of
+ * every deployment a device retrieves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArtifactUrlHandlerBenchmark {
+
+    @Param({ "HTTP", "HTTPS", "COAP" })
+    private UrlProtocol protocol;
+
+    private ConfigurableApplicationContext context;
+
+    private ArtifactUrlHandler artifactUrlHandler;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkData.artifactUrlHandlerContext();
+        artifactUrlHandler = context.getBean(ArtifactUrlHandler.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String getUrl() {
+        return artifactUrlHandler.getUrl("controller-4711", 42L, "firmware-1.0.bin",
+                "2ef7bde608ce5404e97d5f042f95f89f1c232871", protocol);
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.hawkbit.api.ArtifactUrlHandler;
+import org.eclipse.hawkbit.api.ArtifactUrlHandlerProperties;
+import org.eclipse.hawkbit.api.PropertyBasedArtifactUrlHandler;
+import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
+import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSet;
+import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSetType;
+import org.eclipse.hawkbit.repository.jpa.model.JpaLocalArtifact;
+import org.eclipse.hawkbit.repository.jpa.model.JpaSoftwareModule;
+import org.eclipse.hawkbit.repository.jpa.model.JpaSoftwareModuleType;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.model.Action.ActionType;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Creates the entities and collaborators the benchmarks work on. The entities
+ * are only held in memory, they are not persisted.
+ */
+public final class BenchmarkData {
+
+    /**
+     * Tenant of the benchmark data.
+     */
+    public static final String TENANT = "BENCHMARK";
+
+    private static final String SHA1 = "2ef7bde608ce5404e97d5f042f95f89f1c232871";
+
+    private static final String MD5 = "0a4d55a8d778e5022fab701977c5d840";
+
+    private BenchmarkData() {
+        // utility class
+    }
+
+    /**
+     * @return a {@link TenantAware} which always runs as {@link #TENANT}
+     */
+    public static TenantAware tenantAware() {
+        return new TenantAware() {
+            @Override
+            public String getCurrentTenant() {
+                return TENANT;
+            }
+
+            @Override
+            public <T> T runAsTenant(final String tenant, final TenantRunner<T> tenantRunner) {
+                return tenantRunner.run();
+            }
+        };
+    }
+
+    /**
+     * @return a context with a {@link PropertyBasedArtifactUrlHandler} which
+     *         uses the default URL patterns, to be closed by the caller
+     */
+    public static ConfigurableApplicationContext artifactUrlHandlerContext() {
+        return new AnnotationConfigApplicationContext(ArtifactUrlHandlerConfiguration.class);
+    }
+
+    /**
+     * @param controllerId
+     *            of the target
+     * @return a target with the given controller ID
+     */
+    public static JpaTarget target(final String controllerId) {
+        final JpaTarget target = new JpaTarget(controllerId, "securityToken");
+        target.setId(1L);
+        return target;
+    }
+
+    /**
+     * @param modules
+     *            number of software modules of the distribution set
+     * @param artifactsPerModule
+     *            number of artifacts of every module
+     * @return a distribution set with the given number of modules and
+     *         artifacts
+     */
+    public static JpaDistributionSet distributionSet(final int modules, final int artifactsPerModule) {
+        final JpaDistributionSetType dsType = new JpaDistributionSetType("benchmark", "benchmark", null);
+        dsType.setId(1L);
+        final List<SoftwareModule> moduleList = new ArrayList<>(modules);
+        long artifactId = 1;
+        for (int i = 0; i < modules; i++) {
+            final JpaSoftwareModuleType smType = new JpaSoftwareModuleType(i == 0 ? "os" : "application" + i,
+                    "type" + i, null, 1);
+            smType.setId((long) i + 1);
+            dsType.addOptionalModuleType(smType);
+
+            final JpaSoftwareModule module = new JpaSoftwareModule(smType, "module" + i, "1.0." + i, null, "vendor");
+            module.setId((long) i + 1);
+            for (int j = 0; j < artifactsPerModule; j++) {
+                final JpaLocalArtifact artifact = new JpaLocalArtifact(SHA1, "artifact" + j + ".bin", module);
+                artifact.setId(artifactId++);
+                artifact.setSha1Hash(SHA1);
+                artifact.setMd5Hash(MD5);
+                artifact.setSize(1024L * 1024L);
+            }
+            moduleList.add(module);
+        }
+        final JpaDistributionSet distributionSet = new JpaDistributionSet("benchmark", "1.0", null, dsType,
+                moduleList);
+        distributionSet.setId(1L);
+        return distributionSet;
+    }
+
+    /**
+     * @param target
+     *            of the action
+     * @param distributionSet
+     *            assigned by the action
+     * @return a running forced action
+     */
+    public static JpaAction action(final JpaTarget target, final JpaDistributionSet distributionSet) {
+        final JpaAction action = new JpaAction();
+        action.setId(1L);
+        action.setTarget(target);
+        action.setDistributionSet(distributionSet);
+        action.setActive(true);
+        action.setStatus(Status.RUNNING);
+        action.setActionType(ActionType.FORCED);
+        return action;
+    }
+
+    @Configuration
+    static class ArtifactUrlHandlerConfiguration {
+
+        @Bean
+        public ArtifactUrlHandlerProperties artifactUrlHandlerProperties() {
+            return new ArtifactUrlHandlerProperties();
+        }
+
+        @Bean
+        public TenantAware tenantAware() {
+            return BenchmarkData.tenantAware();
+        }
+
+        @Bean
+        public ArtifactUrlHandler artifactUrlHandler() {
+            return new PropertyBasedArtifactUrlHandler();
+        }
+    }
+}
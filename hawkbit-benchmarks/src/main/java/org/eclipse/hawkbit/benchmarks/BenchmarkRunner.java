@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the hawkBit benchmarks. Accepts the usual JMH command line options, but
+ * writes the results as JSON to {@value #DEFAULT_RESULT_FILE} unless another
+ * result file or format is given, so the results of two releases can be
+ * compared with each other.
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * Result file which is used if none is given on the command line.
+     */
+    public static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    private BenchmarkRunner() {
+        // main class
+    }
+
+    /**
+     * @param args
+     *            the JMH command line options, e.g. a regular expression of
+     *            the benchmarks to run
+     * @throws RunnerException
+     *             if the benchmarks fail
+     * @throws CommandLineOptionException
+     *             if the command line options are invalid
+     */
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+        final Options options = new OptionsBuilder().parent(commandLine)
+                .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(commandLine.getResult().orElse(DEFAULT_RESULT_FILE)).build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.api.ArtifactUrlHandler;
+import org.eclipse.hawkbit.ddi.json.model.DdiChunk;
+import org.eclipse.hawkbit.ddi.json.model.DdiControllerBase;
+import org.eclipse.hawkbit.ddi.rest.resource.ControllerPoll;
+import org.eclipse.hawkbit.ddi.rest.resource.DataConversionHelper;
+import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Conversion of the poll and deployment resources of the DDI API by the
+ * {@link DataConversionHelper}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataConversionHelperBenchmark {
+
+    @Param({ "1", "3" })
+    private int modules;
+
+    @Param({ "1", "10" })
+    private int artifactsPerModule;
+
+    private ConfigurableApplicationContext context;
+
+    private ArtifactUrlHandler artifactUrlHandler;
+
+    private TenantAware tenantAware;
+
+    private JpaAction action;
+
+    private ControllerPoll poll;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkData.artifactUrlHandlerContext();
+        artifactUrlHandler = context.getBean(ArtifactUrlHandler.class);
+        tenantAware = BenchmarkData.tenantAware();
+
+        final JpaTarget target = BenchmarkData.target("controller-4711");
+        action = BenchmarkData.action(target, BenchmarkData.distributionSet(modules, artifactsPerModule));
+        poll = new ControllerPoll(target, Collections.<Action> singletonList(action), "00:05:00");
+
+        // the links of the controller base are built from the current request
+        RequestContextHolder
+                .setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("GET", "/")));
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        context.close();
+    }
+
+    @Benchmark
+    public DdiControllerBase fromTarget() {
+        return DataConversionHelper.fromTarget(poll, tenantAware);
+    }
+
+    @Benchmark
+    public List<DdiChunk> createChunks() {
+        return DataConversionHelper.createChunks("controller-4711", action, artifactUrlHandler);
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+
+import org.eclipse.hawkbit.security.DosFilter;
+import org.eclipse.hawkbit.security.RateLimitKey;
+import org.eclipse.hawkbit.security.RateLimiter;
+import org.eclipse.hawkbit.security.RateLimiters;
+import org.eclipse.hawkbit.security.TokenBucket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Admission of requests by the {@link DosFilter} and its {@link RateLimiter}s
+ * and {@link TokenBucket}s, with the requests spread over the given number of
+ * client addresses. The limits are high enough that no request is rejected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class DosFilterBenchmark {
+
+    private static final int UNLIMITED = Integer.MAX_VALUE / 2;
+
+    private static final FilterChain CHAIN = (request, response) -> {
+        // request passed the filter
+    };
+
+    @Param({ "1", "1000", "100000" })
+    private int clients;
+
+    private DosFilter dosFilter;
+
+    private RateLimiter rateLimiter;
+
+    private String[] addresses;
+
+    @Setup
+    public void setup() {
+        dosFilter = new DosFilter(new RateLimiters(RateLimitKey.IP, UNLIMITED, UNLIMITED, UNLIMITED, 2 * clients),
+                "192\\.168\\.0\\.1", "10\\.0\\.0\\.1", "X-Forwarded-For");
+        rateLimiter = new RateLimiter("benchmark", UNLIMITED, 2 * clients);
+        addresses = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            addresses[i] = "172." + (16 + (i >> 16 & 0x0f)) + "." + (i >> 8 & 0xff) + "." + (i & 0xff);
+        }
+    }
+
+    /**
+     * The client address of the next request of a benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class Client {
+
+        private int next;
+
+        String address(final DosFilterBenchmark benchmark) {
+            next = (next + 1) % benchmark.clients;
+            return benchmark.addresses[next];
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilter(final Client client) throws ServletException, IOException {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/controller/v1/4711");
+        request.setRemoteAddr(client.address(this));
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        dosFilter.doFilter(request, response, CHAIN);
+        return response;
+    }
+
+    @Benchmark
+    public boolean rateLimiterTryAcquire(final Client client) {
+        return rateLimiter.tryAcquire(client.address(this));
+    }
+
+    /**
+     * A single bucket which is contended by all benchmark threads.
+     */
+    @State(Scope.Benchmark)
+    public static class SharedBucket {
+
+        private final TokenBucket bucket = new TokenBucket(UNLIMITED, System.nanoTime());
+    }
+
+    @Benchmark
+    public boolean tokenBucketTryAcquire(final SharedBucket shared) {
+        return shared.bucket.tryAcquire(System.nanoTime());
+    }
+}
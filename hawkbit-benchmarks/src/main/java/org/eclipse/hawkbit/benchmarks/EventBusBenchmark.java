@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.benchmarks;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.hawkbit.eventbus.event.DownloadProgressEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.AsyncEventBus;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Dispatch of the {@link DownloadProgressEvent}, which is posted for every
+ * progress step of an artifact download, by the Guava {@link AsyncEventBus}
+ * to the given number of subscribers. An invocation posts a batch of events and waits until all
+ * subscribers received them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark {
+
+    private static final int BATCH = 1000;
+
+    @Param({ "1", "10" })
+    private int subscribers;
+
+    /**
+     * Subscribers which are marked with {@link AllowConcurrentEvents} are
+     * called without synchronization.
+     */
+    @Param({ "true", "false" })
+    private boolean concurrent;
+
+    private final AtomicLong received = new AtomicLong();
+
+    private ExecutorService executor;
+
+    private EventBus eventBus;
+
+    private DownloadProgressEvent event;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newFixedThreadPool(4);
+        eventBus = new AsyncEventBus(executor);
+        for (int i = 0; i < subscribers; i++) {
+            eventBus.register(concurrent ? new ConcurrentSubscriber(received) : new Subscriber(received));
+        }
+        event = new DownloadProgressEvent(BenchmarkData.TENANT, 4711L, 50);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long post() {
+        final long expected = received.get() + (long) BATCH * subscribers;
+        for (int i = 0; i < BATCH; i++) {
+            eventBus.post(event);
+        }
+        long current;
+        while ((current = received.get()) < expected) {
+            Thread.yield();
+        }
+        return current;
+    }
+
+    /**
+     * Subscriber which is called by one thread at a time.
+     */
+    public static class Subscriber {
+        private final AtomicLong received;
+
+        Subscriber(final AtomicLong received) {
+            this.received = received;
+        }
+
+        @Subscribe
+        public void onEvent(final DownloadProgressEvent event) {
+            received.incrementAndGet();
+        }
+    }
+
+    /**
+     * Subscriber which is called concurrently.
+     */
+    public static class ConcurrentSubscriber {
+        private final AtomicLong received;
+
+        ConcurrentSubscriber(final AtomicLong received) {
+            this.received = received;
+        }
+
+        @Subscribe
+        @AllowConcurrentEvents
+        public void onEvent(final DownloadProgressEvent event) {
+            received.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.cache.eventbus.EventCodec;
+import org.eclipse.hawkbit.eventbus.event.DistributedEvent;
+import org.eclipse.hawkbit.eventbus.event.DownloadProgressEvent;
+import org.eclipse.hawkbit.eventbus.event.TargetDeletedEvent;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+/**
+ * Encoding and decoding of a batch of cluster events by the {@link EventCodec}
+ * compared to the Java serialization of every single event, which is how the
+ * events were distributed before. The encoded bytes are reported as secondary
+ * result, divided by the score of the benchmark they are the bytes per batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventCodecBenchmark {
+
+    private static final String NODE_ID = "6c1ed5c4-8a4f-4a4a-bd3b-5e2f0d1c9e77";
+
+    @Param({ "1", "50", "500" })
+    private int batchSize;
+
+    private final EventCodec codec = new EventCodec();
+
+    private final JdkSerializationRedisSerializer jdkSerializer = new JdkSerializationRedisSerializer();
+
+    private List<DistributedEvent> events;
+
+    private byte[] frame;
+
+    private byte[][] serialized;
+
+    @Setup
+    public void setup() {
+        events = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            final DistributedEvent event = i % 10 == 9 ? new TargetDeletedEvent("TENANT" + i % 3, i)
+                    : new DownloadProgressEvent("TENANT" + i % 3, (long) i, i % 100);
+            event.setOriginNodeId(NODE_ID);
+            events.add(event);
+        }
+        frame = codec.encode(NODE_ID, events);
+        serialized = new byte[batchSize][];
+        for (int i = 0; i < batchSize; i++) {
+            serialized[i] = jdkSerializer.serialize(events.get(i));
+        }
+    }
+
+    /**
+     * Encoded bytes of the batches, reported per time unit like the score.
+     */
+    @State(Scope.Thread)
+    @AuxCounters
+    public static class EncodedSize {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeBinary(final EncodedSize size) {
+        final byte[] encoded = codec.encode(NODE_ID, events);
+        size.bytes += encoded.length;
+        return encoded;
+    }
+
+    @Benchmark
+    public List<DistributedEvent> decodeBinary() {
+        return codec.decode(frame, tenant -> true);
+    }
+
+    @Benchmark
+    public byte[][] encodeJdk(final EncodedSize size) {
+        final byte[][] encoded = new byte[batchSize][];
+        for (int i = 0; i < batchSize; i++) {
+            encoded[i] = jdkSerializer.serialize(events.get(i));
+            size.bytes += encoded[i].length;
+        }
+        return encoded;
+    }
+
+    @Benchmark
+    public Object[] decodeJdk() {
+        final Object[] decoded = new Object[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            decoded[i] = jdkSerializer.deserialize(serialized[i]);
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+
+import org.eclipse.hawkbit.artifact.repository.ArtifactFilesystem;
+import org.eclipse.hawkbit.repository.jpa.model.JpaLocalArtifact;
+import org.eclipse.hawkbit.rest.util.RestResourceConversionHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Artifact downloads through
+ * {@link RestResourceConversionHelper#writeFileResponse} including the
+ * handling of RFC7233 range requests. The artifact is stored in a file and the
+ * response discards the written content.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileResponseBenchmark {
+
+    @Param({ "65536", "4194304" })
+    private int size;
+
+    /**
+     * Range header of the request, {@code none} for a full download.
+     */
+    @Param({ "none", "bytes=0-1023", "bytes=1024-", "bytes=0-1023,4096-8191,-512" })
+    private String range;
+
+    private Path file;
+
+    private JpaLocalArtifact artifact;
+
+    @Setup
+    public void setup() throws IOException {
+        final byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        file = Files.createTempFile("benchmark", ".bin");
+        Files.write(file, content);
+
+        artifact = (JpaLocalArtifact) BenchmarkData.distributionSet(1, 1).getModules().iterator().next()
+                .getLocalArtifacts().get(0);
+        artifact.setCreatedAt(System.currentTimeMillis());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ResponseEntity<InputStream> writeFileResponse() {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        if (!"none".equals(range)) {
+            request.addHeader("Range", range);
+        }
+        final ArtifactFilesystem dbArtifact = new ArtifactFilesystem(file);
+        dbArtifact.setSize((long) size);
+        return RestResourceConversionHelper.writeFileResponse(artifact, new DiscardingResponse(), request,
+                dbArtifact);
+    }
+
+    private static final class DiscardingResponse extends MockHttpServletResponse {
+
+        private final ServletOutputStream outputStream = new ServletOutputStream() {
+            @Override
+            public void write(final int b) {
+                // discarded
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                // discarded
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(final WriteListener writeListener) {
+                // blocking
+            }
+        };
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+    }
+}
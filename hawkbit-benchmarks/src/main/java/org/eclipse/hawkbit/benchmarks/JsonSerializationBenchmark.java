@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.ddi.json.model.DdiActionFeedback;
+import org.eclipse.hawkbit.ddi.json.model.DdiArtifact;
+import org.eclipse.hawkbit.ddi.json.model.DdiArtifactHash;
+import org.eclipse.hawkbit.ddi.json.model.DdiChunk;
+import org.eclipse.hawkbit.ddi.json.model.DdiDeployment;
+import org.eclipse.hawkbit.ddi.json.model.DdiDeployment.HandlingType;
+import org.eclipse.hawkbit.ddi.json.model.DdiDeploymentBase;
+import org.eclipse.hawkbit.ddi.json.model.DdiProgress;
+import org.eclipse.hawkbit.ddi.json.model.DdiResult;
+import org.eclipse.hawkbit.ddi.json.model.DdiResult.FinalResult;
+import org.eclipse.hawkbit.ddi.json.model.DdiStatus;
+import org.eclipse.hawkbit.ddi.json.model.DdiStatus.ExecutionStatus;
+import org.eclipse.hawkbit.dmf.json.model.ActionStatus;
+import org.eclipse.hawkbit.dmf.json.model.ActionUpdateStatus;
+import org.eclipse.hawkbit.dmf.json.model.Artifact;
+import org.eclipse.hawkbit.dmf.json.model.Artifact.UrlProtocol;
+import org.eclipse.hawkbit.dmf.json.model.ArtifactHash;
+import org.eclipse.hawkbit.dmf.json.model.DownloadAndUpdateRequest;
+import org.eclipse.hawkbit.dmf.json.model.SoftwareModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson serialization of the JSON models which are exchanged with the
+ * devices, i.e. the deployment and feedback resources of the DDI API and the
+ * update request and status messages of the DMF API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final String SHA1 = "2ef7bde608ce5404e97d5f042f95f89f1c232871";
+
+    private static final String MD5 = "0a4d55a8d778e5022fab701977c5d840";
+
+    @Param({ "1", "10" })
+    private int artifacts;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private DdiDeploymentBase deploymentBase;
+
+    private DownloadAndUpdateRequest downloadAndUpdateRequest;
+
+    private byte[] actionFeedback;
+
+    private byte[] actionUpdateStatus;
+
+    @Setup
+    public void setup() throws IOException {
+        final List<DdiArtifact> ddiArtifacts = new ArrayList<>();
+        final List<Artifact> dmfArtifacts = new ArrayList<>();
+        for (int i = 0; i < artifacts; i++) {
+            final DdiArtifact ddiArtifact = new DdiArtifact();
+            ddiArtifact.setFilename("artifact" + i + ".bin");
+            ddiArtifact.setHashes(new DdiArtifactHash(SHA1, MD5));
+            ddiArtifact.setSize(1024L * 1024L);
+            ddiArtifacts.add(ddiArtifact);
+
+            final Artifact dmfArtifact = new Artifact();
+            dmfArtifact.setFilename("artifact" + i + ".bin");
+            dmfArtifact.setHashes(new ArtifactHash(SHA1, MD5));
+            dmfArtifact.setSize(1024L * 1024L);
+            final Map<UrlProtocol, String> urls = new EnumMap<>(UrlProtocol.class);
+            urls.put(UrlProtocol.HTTP, "http://localhost:8080/TENANT/controller/v1/controller-4711/softwaremodules/"
+                    + i + "/artifacts/artifact" + i + ".bin");
+            urls.put(UrlProtocol.HTTPS, "https://localhost:8080/TENANT/controller/v1/controller-4711/softwaremodules/"
+                    + i + "/artifacts/artifact" + i + ".bin");
+            dmfArtifact.setUrls(urls);
+            dmfArtifacts.add(dmfArtifact);
+        }
+
+        deploymentBase = new DdiDeploymentBase("4711", new DdiDeployment(HandlingType.FORCED, HandlingType.ATTEMPT,
+                Arrays.asList(new DdiChunk("os", "1.0.0", "firmware", ddiArtifacts))));
+
+        downloadAndUpdateRequest = new DownloadAndUpdateRequest();
+        downloadAndUpdateRequest.setActionId(4711L);
+        downloadAndUpdateRequest.setTargetSecurityToken("securityToken");
+        final SoftwareModule module = new SoftwareModule();
+        module.setModuleId(42L);
+        module.setModuleType("os");
+        module.setModuleVersion("1.0.0");
+        module.setArtifacts(dmfArtifacts);
+        downloadAndUpdateRequest.addSoftwareModule(module);
+
+        actionFeedback = mapper.writeValueAsBytes(new DdiActionFeedback(4711L, "20160101T120000",
+                new DdiStatus(ExecutionStatus.PROCEEDING, new DdiResult(FinalResult.NONE, new DdiProgress(2, 5)),
+                        Arrays.asList("downloading", "artifact0.bin"))));
+
+        final ActionUpdateStatus status = new ActionUpdateStatus();
+        status.setActionId(4711L);
+        status.setSoftwareModuleId(42L);
+        status.setActionStatus(ActionStatus.RUNNING);
+        status.getMessage().add("downloading artifact0.bin");
+        actionUpdateStatus = mapper.writeValueAsBytes(status);
+    }
+
+    @Benchmark
+    public byte[] writeDdiDeploymentBase() throws IOException {
+        return mapper.writeValueAsBytes(deploymentBase);
+    }
+
+    @Benchmark
+    public DdiActionFeedback readDdiActionFeedback() throws IOException {
+        return mapper.readValue(actionFeedback, DdiActionFeedback.class);
+    }
+
+    @Benchmark
+    public byte[] writeDmfDownloadAndUpdateRequest() throws IOException {
+        return mapper.writeValueAsBytes(downloadAndUpdateRequest);
+    }
+
+    @Benchmark
+    public ActionUpdateStatus readDmfActionUpdateStatus() throws IOException {
+        return mapper.readValue(actionUpdateStatus, ActionUpdateStatus.class);
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.eclipse.hawkbit.repository.TargetFields;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.EclipseLinkJpaVendorAdapter;
+
+/**
+ * Parsing of target filter queries by the {@link RSQLUtility} and building of
+ * the JPA predicates against the entity model on an in-memory H2 database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RsqlBenchmark {
+
+    @Param({ "name==target*", "name==target* and updatestatus==registered",
+            "(name==a* or description==b*) and attribute.revision==1.0 and tag!=blocked" })
+    private String query;
+
+    /**
+     * {@code false} makes every query unique, so the parsed query cannot be
+     * taken from the cache.
+     */
+    @Param({ "true", "false" })
+    private boolean cached;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private EntityManager entityManager;
+
+    private long counter;
+
+    @Setup
+    public void setup() {
+        final LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(new DriverManagerDataSource("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1", "sa", "sa"));
+        factory.setJpaVendorAdapter(new EclipseLinkJpaVendorAdapter());
+        factory.setPackagesToScan("org.eclipse.hawkbit.repository.jpa.model");
+        factory.setJpaPropertyMap(Collections.singletonMap("eclipselink.weaving", "false"));
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+        entityManager = entityManagerFactory.createEntityManager();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public Predicate parseAndBuildPredicate() {
+        final Specification<JpaTarget> specification = RSQLUtility.parse(nextQuery(), TargetFields.class);
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<JpaTarget> criteriaQuery = cb.createQuery(JpaTarget.class);
+        final Root<JpaTarget> root = criteriaQuery.from(JpaTarget.class);
+        return specification.toPredicate(root, criteriaQuery, cb);
+    }
+
+    private String nextQuery() {
+        return cached ? query : query + " and name!=x" + counter++;
+    }
+}
@@ -0,0 +1,4 @@
+package org.eclipse.hawkbit.benchmarks.generated;
+public class ArtifactStoreBenchmark_jmhType extends ArtifactStoreBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package org.eclipse.hawkbit.benchmarks.generated;
+public class ArtifactUrlHandlerBenchmark_jmhType extends ArtifactUrlHandlerBenchmark_jmhType_B3 {
+}
+
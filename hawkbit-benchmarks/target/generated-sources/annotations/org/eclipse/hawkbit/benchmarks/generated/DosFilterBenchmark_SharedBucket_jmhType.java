@@ -0,0 +1,4 @@
+package org.eclipse.hawkbit.benchmarks.generated;
+public class DosFilterBenchmark_SharedBucket_jmhType extends DosFilterBenchmark_SharedBucket_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package org.eclipse.hawkbit.benchmarks.generated;
+public class EventBusBenchmark_jmhType extends EventBusBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package org.eclipse.hawkbit.benchmarks.generated;
+public class EventCodecBenchmark_EncodedSize_jmhType extends EventCodecBenchmark_EncodedSize_jmhType_B3 {
+}
+
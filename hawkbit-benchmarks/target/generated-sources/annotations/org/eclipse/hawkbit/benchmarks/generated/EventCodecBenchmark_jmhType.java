@@ -0,0 +1,4 @@
+package org.eclipse.hawkbit.benchmarks.generated;
+public class EventCodecBenchmark_jmhType extends EventCodecBenchmark_jmhType_B3 {
+}
+
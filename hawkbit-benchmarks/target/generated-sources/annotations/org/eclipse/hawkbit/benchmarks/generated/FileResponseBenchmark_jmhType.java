@@ -0,0 +1,4 @@
+package org.eclipse.hawkbit.benchmarks.generated;
+public class FileResponseBenchmark_jmhType extends FileResponseBenchmark_jmhType_B3 {
+}
+
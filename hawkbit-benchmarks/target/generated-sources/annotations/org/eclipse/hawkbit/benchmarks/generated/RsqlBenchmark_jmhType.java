@@ -0,0 +1,4 @@
+package org.eclipse.hawkbit.benchmarks.generated;
+public class RsqlBenchmark_jmhType extends RsqlBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package org.eclipse.hawkbit.ddi.rest.resource.generated;
+public class DataConversionHelperBenchmark_jmhType extends DataConversionHelperBenchmark_jmhType_B3 {
+}
+
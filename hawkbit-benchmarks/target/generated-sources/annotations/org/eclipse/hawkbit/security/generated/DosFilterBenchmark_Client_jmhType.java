@@ -0,0 +1,4 @@
+package org.eclipse.hawkbit.security.generated;
+public class DosFilterBenchmark_Client_jmhType extends DosFilterBenchmark_Client_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package org.eclipse.hawkbit.security.generated;
+public class DosFilterBenchmark_jmhType extends DosFilterBenchmark_jmhType_B3 {
+}
+
@@ -9,17 +9,21 @@
 package org.eclipse.hawkbit.cache;
 
 import org.eclipse.hawkbit.cache.eventbus.EventDistributor;
+import org.eclipse.hawkbit.cache.eventbus.TenantInterest;
+import org.eclipse.hawkbit.cache.eventbus.TenantInterestFilter;
+import org.eclipse.hawkbit.cache.ratelimit.RateLimitSynchronizer;
 import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.embedded.FilterRegistrationBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
-import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
 import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
 
 /**
@@ -46,6 +50,42 @@ public class RedisConfiguration {
         return new EventDistributor();
     }
 
+    /**
+     * @return the {@link TenantInterest} which decides whether the events of
+     *         other nodes are relevant for this node
+     */
+    @Bean
+    public TenantInterest tenantInterest() {
+        return new TenantInterest(redisProperties.getEvents().isTenantFilterEnabled(),
+                redisProperties.getEvents().getTenantInterestTimeout());
+    }
+
+    /**
+     * Filter which records the {@link TenantInterest} of the inbound requests.
+     * Registered with the lowest precedence to run behind the security filter
+     * chain which resolves the tenant.
+     *
+     * @return the spring filter registration bean for registering the
+     *         {@link TenantInterestFilter} in the filter chain
+     */
+    @Bean
+    public FilterRegistrationBean tenantInterestFilter() {
+        final FilterRegistrationBean filterRegBean = new FilterRegistrationBean(
+                new TenantInterestFilter(tenantInterest(), tenantAware));
+        filterRegBean.setOrder(Ordered.LOWEST_PRECEDENCE);
+        filterRegBean.setEnabled(redisProperties.getEvents().isTenantFilterEnabled());
+        return filterRegBean;
+    }
+
+    /**
+     * @return the {@link RateLimitSynchronizer} to share the rate limits of
+     *         the DOS filter within the cluster
+     */
+    @Bean
+    public RateLimitSynchronizer rateLimitSynchronizer() {
+        return new RateLimitSynchronizer();
+    }
+
     /**
      * @return the spring redis cache manager.
      */
@@ -81,26 +121,15 @@ public class RedisConfiguration {
         return redisTemplate;
     }
 
-    /**
-     * @return the spring-redis message listener adapter to consume messages
-     *         from the Redis server
-     */
-    @Bean
-    public MessageListenerAdapter messageListenerAdapter() {
-        final MessageListenerAdapter messageListenerAdapter = new MessageListenerAdapter(eventDistributor());
-        messageListenerAdapter.setSerializer(new JdkSerializationRedisSerializer());
-        return messageListenerAdapter;
-    }
-
     /**
      * @return the spring-redis message listener container to register the
-     *         message listener adapter
+     *         {@link EventDistributor}
      */
     @Bean
     public RedisMessageListenerContainer redisContainer() {
         final RedisMessageListenerContainer container = new RedisMessageListenerContainer();
         container.setConnectionFactory(jedisConnectionFactory());
-        container.addMessageListener(messageListenerAdapter(), eventDistributor().getTopics());
+        container.addMessageListener(eventDistributor(), eventDistributor().getTopics());
         return container;
     }
 
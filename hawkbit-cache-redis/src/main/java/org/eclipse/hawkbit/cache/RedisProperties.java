@@ -28,6 +28,10 @@ public class RedisProperties {
      */
     private int port;
 
+    private final RateLimit rateLimit = new RateLimit();
+
+    private final Events events = new Events();
+
     /**
      * @return the host
      */
@@ -57,4 +61,122 @@ public class RedisProperties {
     public void setPort(final int port) {
         this.port = port;
     }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public Events getEvents() {
+        return events;
+    }
+
+    /**
+     * Sharing of the DOS filter rate limits with the other nodes of the
+     * cluster.
+     */
+    public static class RateLimit {
+
+        /**
+         * Shares the rate limits of the DOS filter with the other nodes.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Interval in milliseconds in which the granted requests are reported
+         * to the other nodes.
+         */
+        private long syncInterval = 500;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getSyncInterval() {
+            return syncInterval;
+        }
+
+        public void setSyncInterval(final long syncInterval) {
+            this.syncInterval = syncInterval;
+        }
+    }
+
+    /**
+     * Distribution of the events within the cluster.
+     */
+    public static class Events {
+
+        /**
+         * Interval in milliseconds in which the events of this node are
+         * published to the other nodes as one batch.
+         */
+        private long flushInterval = 20;
+
+        /**
+         * Maximum number of events which are published in one message.
+         */
+        private int maxBatchSize = 500;
+
+        /**
+         * Maximum number of events which wait for being published, e.g. while
+         * the Redis server is not reachable. The oldest events are dropped if
+         * more events are queued.
+         */
+        private int maxPendingEvents = 100000;
+
+        /**
+         * Only accepts the events of other nodes for tenants this node has
+         * distributed events or served HTTP requests for recently.
+         */
+        private boolean tenantFilterEnabled;
+
+        /**
+         * Time in milliseconds after which this node loses interest in the
+         * events of an inactive tenant.
+         */
+        private long tenantInterestTimeout = 600000;
+
+        public long getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(final long flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(final int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public int getMaxPendingEvents() {
+            return maxPendingEvents;
+        }
+
+        public void setMaxPendingEvents(final int maxPendingEvents) {
+            this.maxPendingEvents = maxPendingEvents;
+        }
+
+        public boolean isTenantFilterEnabled() {
+            return tenantFilterEnabled;
+        }
+
+        public void setTenantFilterEnabled(final boolean tenantFilterEnabled) {
+            this.tenantFilterEnabled = tenantFilterEnabled;
+        }
+
+        public long getTenantInterestTimeout() {
+            return tenantInterestTimeout;
+        }
+
+        public void setTenantInterestTimeout(final long tenantInterestTimeout) {
+            this.tenantInterestTimeout = tenantInterestTimeout;
+        }
+    }
 }
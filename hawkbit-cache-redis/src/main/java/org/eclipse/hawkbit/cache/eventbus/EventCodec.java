@@ -0,0 +1,279 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.cache.eventbus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.eclipse.hawkbit.eventbus.EventSchema;
+import org.eclipse.hawkbit.eventbus.event.DistributedEvent;
+import org.eclipse.hawkbit.eventbus.event.DownloadProgressEvent;
+import org.eclipse.hawkbit.eventbus.event.TargetDeletedEvent;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Versioned binary codec for batches of {@link DistributedEvent}s which are
+ * distributed within the cluster. A frame consists of
+ *
+ * <pre>
+ * version         byte
+ * originNodeId    UTF
+ * tenantCount     short, followed by the tenants as UTF
+ * eventCount      int, followed by the events:
+ *   tenantIndex   short, -1 for events without tenant
+ *   typeId        short
+ *   length        int
+ *   payload       length bytes written by the {@link EventSchema}
+ * </pre>
+ *
+ * Every tenant is written only once per frame and the payload of an event is
+ * length prefixed, so the receiver can skip the events of tenants it is not
+ * interested in without decoding them. Events without a registered schema are
+ * written with Java serialization under type ID {@code 0}.
+ */
+public class EventCodec {
+
+    /**
+     * Current version of the frame layout.
+     */
+    public static final byte VERSION = 1;
+
+    private static final int JAVA_SERIALIZATION_TYPE_ID = 0;
+
+    private static final int NO_TENANT = -1;
+
+    private final Map<Class<?>, EventSchema<?>> schemasByType = new HashMap<>();
+
+    private final Map<Integer, EventSchema<?>> schemasById = new HashMap<>();
+
+    /**
+     * Creates a codec with the schemas of the hawkBit core events.
+     */
+    public EventCodec() {
+        this(coreSchemas());
+    }
+
+    /**
+     * @param schemas
+     *            the schemas of the event types which are written in binary
+     *            form
+     */
+    public EventCodec(final Collection<EventSchema<?>> schemas) {
+        schemas.forEach(schema -> {
+            if (schema.getTypeId() == JAVA_SERIALIZATION_TYPE_ID || schemasById.containsKey(schema.getTypeId())) {
+                throw new IllegalArgumentException("Type ID " + schema.getTypeId() + " of " + schema.getEventType()
+                        + " is reserved or used twice");
+            }
+            schemasById.put(schema.getTypeId(), schema);
+            schemasByType.put(schema.getEventType(), schema);
+        });
+    }
+
+    /**
+     * @return the schemas of the hawkBit core events
+     */
+    public static List<EventSchema<?>> coreSchemas() {
+        return Arrays.asList(new DownloadProgressEventSchema(), new TargetDeletedEventSchema());
+    }
+
+    /**
+     * Encodes the given events into one frame.
+     *
+     * @param originNodeId
+     *            the ID of the node which distributes the events
+     * @param events
+     *            the events to encode
+     * @return the encoded frame
+     * @throws SerializationException
+     *             if an event cannot be encoded
+     */
+    public byte[] encode(final String originNodeId, final List<? extends DistributedEvent> events) {
+        final Map<String, Integer> tenants = new LinkedHashMap<>();
+        events.forEach(event -> {
+            if (event.getTenant() != null) {
+                tenants.putIfAbsent(event.getTenant(), tenants.size());
+            }
+        });
+
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + events.size() * 32);
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(VERSION);
+            out.writeUTF(originNodeId);
+            out.writeShort(tenants.size());
+            for (final String tenant : tenants.keySet()) {
+                out.writeUTF(tenant);
+            }
+            out.writeInt(events.size());
+
+            final ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+            for (final DistributedEvent event : events) {
+                payload.reset();
+                final int typeId = writePayload(event, payload);
+                out.writeShort(event.getTenant() == null ? NO_TENANT : tenants.get(event.getTenant()));
+                out.writeShort(typeId);
+                out.writeInt(payload.size());
+                payload.writeTo(out);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (final IOException e) {
+            throw new SerializationException("Cannot encode events", e);
+        }
+    }
+
+    /**
+     * Decodes a frame which has been written by {@link #encode}. The origin
+     * node ID of the decoded events is set.
+     *
+     * @param frame
+     *            the encoded frame
+     * @param tenantFilter
+     *            decides whether the events of a tenant are decoded at all
+     * @return the decoded events of the accepted tenants, in the order of
+     *         encoding
+     * @throws SerializationException
+     *             if the frame has an unknown version or cannot be decoded
+     */
+    public List<DistributedEvent> decode(final byte[] frame, final Predicate<String> tenantFilter) {
+        try {
+            final DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+            final byte version = in.readByte();
+            if (version != VERSION) {
+                throw new SerializationException("Unsupported event frame version " + version);
+            }
+            final String originNodeId = in.readUTF();
+            final int tenantCount = in.readUnsignedShort();
+            final String[] tenants = new String[tenantCount];
+            final boolean[] accepted = new boolean[tenantCount];
+            for (int i = 0; i < tenantCount; i++) {
+                tenants[i] = in.readUTF();
+                accepted[i] = tenantFilter.test(tenants[i]);
+            }
+
+            final int eventCount = in.readInt();
+            final List<DistributedEvent> events = new ArrayList<>(eventCount);
+            for (int i = 0; i < eventCount; i++) {
+                final int tenantIndex = in.readShort();
+                final int typeId = in.readShort();
+                final int length = in.readInt();
+                if (tenantIndex != NO_TENANT && !accepted[tenantIndex]) {
+                    in.skipBytes(length);
+                    continue;
+                }
+                final byte[] payload = new byte[length];
+                in.readFully(payload);
+                final DistributedEvent event = readPayload(typeId,
+                        tenantIndex == NO_TENANT ? null : tenants[tenantIndex], payload);
+                event.setOriginNodeId(originNodeId);
+                events.add(event);
+            }
+            return events;
+        } catch (final IOException | ClassNotFoundException e) {
+            throw new SerializationException("Cannot decode events", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private int writePayload(final DistributedEvent event, final ByteArrayOutputStream payload) throws IOException {
+        final EventSchema<DistributedEvent> schema = (EventSchema<DistributedEvent>) schemasByType
+                .get(event.getClass());
+        if (schema == null) {
+            final ObjectOutputStream out = new ObjectOutputStream(payload);
+            out.writeObject(event);
+            out.flush();
+            return JAVA_SERIALIZATION_TYPE_ID;
+        }
+        final DataOutputStream out = new DataOutputStream(payload);
+        schema.write(event, out);
+        out.flush();
+        return schema.getTypeId();
+    }
+
+    private DistributedEvent readPayload(final int typeId, final String tenant, final byte[] payload)
+            throws IOException, ClassNotFoundException {
+        if (typeId == JAVA_SERIALIZATION_TYPE_ID) {
+            try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+                return (DistributedEvent) in.readObject();
+            }
+        }
+        final EventSchema<?> schema = schemasById.get(typeId);
+        if (schema == null) {
+            throw new SerializationException("Unknown event type ID " + typeId);
+        }
+        return schema.read(tenant, new DataInputStream(new ByteArrayInputStream(payload)));
+    }
+
+    private static final class DownloadProgressEventSchema implements EventSchema<DownloadProgressEvent> {
+
+        @Override
+        public int getTypeId() {
+            return 1;
+        }
+
+        @Override
+        public Class<DownloadProgressEvent> getEventType() {
+            return DownloadProgressEvent.class;
+        }
+
+        @Override
+        public void write(final DownloadProgressEvent event, final DataOutput out) throws IOException {
+            out.writeLong(event.getStatusId());
+            out.writeByte(event.getProgressPercent());
+        }
+
+        @Override
+        public DownloadProgressEvent read(final String tenant, final DataInput in) throws IOException {
+            return new DownloadProgressEvent(tenant, in.readLong(), in.readByte());
+        }
+    }
+
+    private static final class TargetDeletedEventSchema implements EventSchema<TargetDeletedEvent> {
+
+        @Override
+        public int getTypeId() {
+            return 2;
+        }
+
+        @Override
+        public Class<TargetDeletedEvent> getEventType() {
+            return TargetDeletedEvent.class;
+        }
+
+        @Override
+        public void write(final TargetDeletedEvent event, final DataOutput out) throws IOException {
+            out.writeLong(event.getTargetId());
+            out.writeBoolean(event.getControllerId() != null);
+            if (event.getControllerId() != null) {
+                out.writeUTF(event.getControllerId());
+            }
+        }
+
+        @Override
+        public TargetDeletedEvent read(final String tenant, final DataInput in) throws IOException {
+            final long targetId = in.readLong();
+            return new TargetDeletedEvent(tenant, targetId, in.readBoolean() ? in.readUTF() : null);
+        }
+    }
+}
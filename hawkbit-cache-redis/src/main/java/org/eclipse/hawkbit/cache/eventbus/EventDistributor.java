@@ -8,31 +8,59 @@
  */
 package org.eclipse.hawkbit.cache.eventbus;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.eclipse.hawkbit.cache.RedisProperties;
+import org.eclipse.hawkbit.eventbus.EventSchema;
 import org.eclipse.hawkbit.eventbus.EventSubscriber;
 import org.eclipse.hawkbit.eventbus.event.DistributedEvent;
 import org.eclipse.hawkbit.eventbus.event.Event;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.listener.PatternTopic;
 import org.springframework.data.redis.listener.Topic;
-import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
+import org.springframework.data.redis.serializer.SerializationException;
 
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
+ * Distributes the {@link DistributedEvent}s posted on the local
+ * {@link EventBus} to the other nodes of the cluster and posts the events of
+ * the other nodes on the local {@link EventBus}.
  *
- *
+ * The outgoing events are collected and published as one message per flush
+ * interval, encoded by the {@link EventCodec} with the schemas of the core
+ * events and the {@link EventSchema} beans of the application. Events which
+ * cannot be published are kept and published with the next flush, up to the
+ * configured maximum of pending events, beyond which the oldest events are
+ * dropped. Incoming
+ * events of tenants this node has no {@link TenantInterest interest} in are
+ * skipped without decoding.
  */
 @EventSubscriber
-public class EventDistributor {
+public class EventDistributor implements MessageListener {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EventDistributor.class);
     /**
@@ -44,6 +72,31 @@ public class EventDistributor {
     private static final String DISTRIBUTION_CHANNEL_TOPIC = "com/bosch/sp/distEvent";
     private static final String SEND_DISTRIBUTION_CHANNEL = DISTRIBUTION_CHANNEL_TOPIC + "/" + NODE_ID;
     private static final String SUB_DISTRIBUTION_CHANNEL = DISTRIBUTION_CHANNEL_TOPIC + "*";
+    private static final byte[] SEND_DISTRIBUTION_CHANNEL_BYTES = SEND_DISTRIBUTION_CHANNEL
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final ScheduledExecutorService flushScheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("event-distributor-%d").setDaemon(true).build());
+
+    private final ConcurrentLinkedDeque<DistributedEvent> pending = new ConcurrentLinkedDeque<>();
+
+    /**
+     * size of {@link #pending}, as {@link ConcurrentLinkedDeque#size()} has to
+     * traverse the whole queue.
+     */
+    private final AtomicInteger pendingSize = new AtomicInteger();
+
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private final AtomicLong unloggedDroppedEvents = new AtomicLong();
+
+    private final Lock flushLock = new ReentrantLock();
+
+    private final AtomicLong publishedMessages = new AtomicLong();
+
+    private final AtomicLong publishedEvents = new AtomicLong();
+
+    private EventCodec eventCodec = new EventCodec();
 
     @Autowired(required = false)
     private RedisTemplate<String, Object> redisTemplate;
@@ -51,9 +104,41 @@ public class EventDistributor {
     @Autowired
     private EventBus eventBus;
 
+    @Autowired
+    private RedisProperties redisProperties;
+
+    @Autowired
+    private TenantInterest tenantInterest;
+
+    /**
+     * Adds the schemas of the application events to the schemas of the core
+     * events.
+     *
+     * @param eventSchemas
+     *            the schemas declared as beans
+     */
+    @Autowired(required = false)
+    void setEventSchemas(final List<EventSchema<?>> eventSchemas) {
+        final List<EventSchema<?>> schemas = new ArrayList<>(EventCodec.coreSchemas());
+        schemas.addAll(eventSchemas);
+        eventCodec = new EventCodec(schemas);
+    }
+
+    @PostConstruct
+    void start() {
+        final long interval = redisProperties.getEvents().getFlushInterval();
+        flushScheduler.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushScheduler.shutdownNow();
+        flush();
+    }
+
     /**
      * consumes all {@link DistributedEvent}s posted on the {@link EventBus} and
-     * distribute them to the Redis server.
+     * queues them for the distribution to the Redis server.
      * 
      * @param event
      *            the distributed event posted on the {@link EventBus}
@@ -64,7 +149,10 @@ public class EventDistributor {
             if (!NODE_ID.equals(event.getNodeId())) {
                 logDistributingEvent(event, SEND_DISTRIBUTION_CHANNEL);
                 event.setOriginNodeId(NODE_ID);
-                redisTemplate.convertAndSend(SEND_DISTRIBUTION_CHANNEL, event);
+                tenantInterest.touch(event.getTenant());
+                pending.add(event);
+                pendingSize.incrementAndGet();
+                dropOldest();
             }
         } else {
             logNotDistributingEvent(event, SEND_DISTRIBUTION_CHANNEL);
@@ -72,13 +160,119 @@ public class EventDistributor {
     }
 
     /**
-     * message listener callback method for the {@link MessageListenerAdapter}
-     * which calls the method in case a message is received from the Redis
-     * server of the type {@link DistributedEventWrapper}.
+     * Publishes the queued events to the Redis server, split into messages of
+     * at most the configured batch size. A flush which is already running on
+     * another thread is not waited for. In case a message cannot be published
+     * its events are queued again in front of the newer events and the flush
+     * stops, so they are published with the next flush in their original
+     * order. Dropped events of exceeding the maximum of pending events are
+     * logged.
+     */
+    public void flush() {
+        logDroppedEvents();
+        if (pending.isEmpty() || !flushLock.tryLock()) {
+            return;
+        }
+        try {
+            final int maxBatchSize = redisProperties.getEvents().getMaxBatchSize();
+            List<DistributedEvent> batch;
+            while (!(batch = pollBatch(maxBatchSize)).isEmpty()) {
+                if (!publish(batch)) {
+                    return;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private List<DistributedEvent> pollBatch(final int maxBatchSize) {
+        final List<DistributedEvent> batch = new ArrayList<>();
+        DistributedEvent event;
+        while (batch.size() < maxBatchSize && (event = pending.poll()) != null) {
+            pendingSize.decrementAndGet();
+            batch.add(event);
+        }
+        return batch;
+    }
+
+    private void dropOldest() {
+        final int maxPendingEvents = redisProperties.getEvents().getMaxPendingEvents();
+        while (pendingSize.get() > maxPendingEvents && pending.pollFirst() != null) {
+            pendingSize.decrementAndGet();
+            droppedEvents.incrementAndGet();
+            unloggedDroppedEvents.incrementAndGet();
+        }
+    }
+
+    private void logDroppedEvents() {
+        final long dropped = unloggedDroppedEvents.getAndSet(0);
+        if (dropped > 0) {
+            LOGGER.warn("Dropped {} events which could not be distributed within the cluster in time, {} in total",
+                    dropped, droppedEvents.get());
+        }
+    }
+
+    private boolean publish(final List<DistributedEvent> batch) {
+        final byte[] frame;
+        try {
+            frame = eventCodec.encode(NODE_ID, batch);
+        } catch (final SerializationException e) {
+            // publishing the batch again would fail again
+            LOGGER.error("Dropping {} events which cannot be encoded", batch.size(), e);
+            return true;
+        }
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection
+                    .publish(SEND_DISTRIBUTION_CHANNEL_BYTES, frame));
+        } catch (final RuntimeException e) {
+            LOGGER.warn("Failed to distribute {} events within the cluster, retrying with the next flush",
+                    batch.size(), e);
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                pending.addFirst(batch.get(i));
+            }
+            pendingSize.addAndGet(batch.size());
+            dropOldest();
+            return false;
+        }
+        publishedMessages.incrementAndGet();
+        publishedEvents.addAndGet(batch.size());
+        return true;
+    }
+
+    /**
+     * message listener callback method which is called in case a message is
+     * received from the Redis server. Messages which have been published by
+     * this node are ignored.
+     * 
+     * @param message
+     *            the message containing the frame of events encoded by the
+     *            {@link EventCodec}
+     * @param pattern
+     *            the pattern of the subscription
+     */
+    @Override
+    public void onMessage(final Message message, final byte[] pattern) {
+        final String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        if (SEND_DISTRIBUTION_CHANNEL.equals(channel)) {
+            return;
+        }
+        final List<DistributedEvent> events;
+        try {
+            events = eventCodec.decode(message.getBody(), tenantInterest::isInterested);
+        } catch (final SerializationException e) {
+            LOGGER.warn("Dropping events received on channel {} which cannot be decoded", channel, e);
+            return;
+        }
+        events.forEach(event -> handleMessage(event, channel));
+    }
+
+    /**
+     * posts an event received from the Redis server to the local
+     * {@link EventBus}.
      * 
      * @param event
-     *            the {@link DistributedEventWrapper} event which was received
-     *            by the Redis client
+     *            the event which was received by the Redis client
      * @param channel
      *            the on which the event was received
      */
@@ -100,6 +294,28 @@ public class EventDistributor {
         return topics;
     }
 
+    /**
+     * @return number of messages published to the Redis server
+     */
+    public long getPublishedMessages() {
+        return publishedMessages.get();
+    }
+
+    /**
+     * @return number of events published to the Redis server
+     */
+    public long getPublishedEvents() {
+        return publishedEvents.get();
+    }
+
+    /**
+     * @return number of events which have been dropped as the maximum of
+     *         pending events was exceeded
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
     private void logDistributingEvent(final Event event, final String channel) {
         LOGGER.trace("distributing event {} from node {} to topic {}", event, NODE_ID, channel);
     }
@@ -129,6 +345,26 @@ public class EventDistributor {
         this.eventBus = eventBus;
     }
 
+    /**
+     * testing purposes.
+     * 
+     * @param redisProperties
+     *            the redisProperties to set
+     */
+    void setRedisProperties(final RedisProperties redisProperties) {
+        this.redisProperties = redisProperties;
+    }
+
+    /**
+     * testing purposes.
+     * 
+     * @param tenantInterest
+     *            the tenantInterest to set
+     */
+    void setTenantInterest(final TenantInterest tenantInterest) {
+        this.tenantInterest = tenantInterest;
+    }
+
     /**
      * @return the nodeId
      */
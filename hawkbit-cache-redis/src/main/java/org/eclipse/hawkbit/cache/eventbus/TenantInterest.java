@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.cache.eventbus;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of the tenants this node is interested in. The events of other
+ * nodes are only decoded and posted to the local event bus if this node has
+ * been active for their tenant within the configured timeout, i.e. it has
+ * distributed an event of the tenant itself or served a request of the tenant,
+ * see {@link TenantInterestFilter}. The filter is disabled by default, as a
+ * node would miss the events of tenants it serves over other channels than
+ * HTTP only, e.g. the AMQP device integration. Tenants are compared case
+ * insensitive, as the tenant of a request URL may differ in case from the
+ * tenant of an event.
+ */
+public class TenantInterest {
+
+    private final ConcurrentMap<String, Long> lastActivity = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+
+    private final long timeoutNanos;
+
+    /**
+     * @param enabled
+     *            {@code false} to accept the events of all tenants
+     * @param timeoutMillis
+     *            time in milliseconds after which the interest in an inactive
+     *            tenant is lost
+     */
+    public TenantInterest(final boolean enabled, final long timeoutMillis) {
+        this.enabled = enabled;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Records activity of this node for the given tenant.
+     *
+     * @param tenant
+     *            the tenant
+     */
+    public void touch(final String tenant) {
+        if (enabled && tenant != null) {
+            lastActivity.put(normalize(tenant), System.nanoTime());
+        }
+    }
+
+    /**
+     * @param tenant
+     *            the tenant
+     * @return {@code true} if the events of the tenant are relevant for this
+     *         node
+     */
+    public boolean isInterested(final String tenant) {
+        if (!enabled) {
+            return true;
+        }
+        if (tenant == null) {
+            return false;
+        }
+        final String key = normalize(tenant);
+        final Long last = lastActivity.get(key);
+        if (last == null) {
+            return false;
+        }
+        if (System.nanoTime() - last > timeoutNanos) {
+            lastActivity.remove(key, last);
+            return false;
+        }
+        return true;
+    }
+
+    private static String normalize(final String tenant) {
+        return tenant.toUpperCase();
+    }
+}
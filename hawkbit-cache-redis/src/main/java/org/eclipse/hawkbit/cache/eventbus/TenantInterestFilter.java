@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.cache.eventbus;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Records the {@link TenantInterest} of this node for the tenant of every
+ * authenticated inbound request, e.g. of controllers, management API clients
+ * and the UI sessions including their heartbeats. Has to be registered behind
+ * the security filter chain so the tenant of the request is known.
+ */
+public class TenantInterestFilter extends OncePerRequestFilter {
+
+    private final TenantInterest tenantInterest;
+
+    private final TenantAware tenantAware;
+
+    /**
+     * @param tenantInterest
+     *            to record the activity in
+     * @param tenantAware
+     *            to resolve the tenant of the request
+     */
+    public TenantInterestFilter(final TenantInterest tenantInterest, final TenantAware tenantAware) {
+        this.tenantInterest = tenantInterest;
+        this.tenantAware = tenantAware;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+            final FilterChain filterChain) throws ServletException, IOException {
+        tenantInterest.touch(tenantAware.getCurrentTenant());
+        filterChain.doFilter(request, response);
+    }
+}
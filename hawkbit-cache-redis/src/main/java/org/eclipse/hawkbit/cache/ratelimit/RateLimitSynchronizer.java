@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.cache.ratelimit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.eclipse.hawkbit.cache.RedisProperties;
+import org.eclipse.hawkbit.security.RateLimiter;
+import org.eclipse.hawkbit.security.RateLimiters;
+import org.eclipse.hawkbit.security.TokenBucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Shares the {@link RateLimiters} of the DOS filter with the other nodes of the
+ * cluster. The requests are granted by the local token buckets without any
+ * round trip to Redis. The granted permits are reported to Redis in the
+ * configured interval and summed up per key and second for all nodes. A key
+ * which exceeds its limit within the cluster is blocked on this node until the
+ * end of the second, i.e. the limit is enforced cluster-wide with a delay of
+ * one sync interval.
+ */
+public class RateLimitSynchronizer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RateLimitSynchronizer.class);
+
+    private static final String KEY_PREFIX = "hawkbit:ratelimit:";
+
+    private static final long WINDOW_MILLIS = 1000;
+
+    private static final long WINDOW_EXPIRE_SECONDS = 2;
+
+    private final ScheduledExecutorService syncScheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("rate-limit-sync-%d").setDaemon(true).build());
+
+    @Autowired(required = false)
+    private RateLimiters rateLimiters;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private RedisProperties redisProperties;
+
+    @PostConstruct
+    void start() {
+        if (rateLimiters == null || !redisProperties.getRateLimit().isEnabled()) {
+            LOG.info("Rate limits are not shared within the cluster");
+            return;
+        }
+        final long interval = redisProperties.getRateLimit().getSyncInterval();
+        syncScheduler.scheduleWithFixedDelay(this::synchronize, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        syncScheduler.shutdownNow();
+    }
+
+    /**
+     * Reports the permits granted since the last synchronization to Redis and
+     * blocks the keys which exceeded their limit within the cluster.
+     */
+    void synchronize() {
+        try {
+            final long window = System.currentTimeMillis() / WINDOW_MILLIS;
+            final List<GrantedPermits> granted = new ArrayList<>();
+            rateLimiters.getAll().forEach(rateLimiter -> rateLimiter.forEachBucket((key, bucket) -> {
+                final long permits = bucket.drainAcquiredPermits();
+                if (permits > 0) {
+                    granted.add(new GrantedPermits(rateLimiter, bucket,
+                            (KEY_PREFIX + rateLimiter.getName() + ":" + key + ":" + window)
+                                    .getBytes(StandardCharsets.UTF_8),
+                            permits));
+                }
+            }));
+            if (granted.isEmpty()) {
+                return;
+            }
+
+            final List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                report(connection, granted);
+                return null;
+            }, null);
+
+            blockExceededKeys(granted, results, window);
+        } catch (final RuntimeException e) {
+            LOG.warn("Failed to share the rate limits within the cluster", e);
+        }
+    }
+
+    private static void report(final RedisConnection connection, final List<GrantedPermits> granted) {
+        granted.forEach(permits -> {
+            connection.incrBy(permits.redisKey, permits.permits);
+            connection.expire(permits.redisKey, WINDOW_EXPIRE_SECONDS);
+        });
+    }
+
+    private static void blockExceededKeys(final List<GrantedPermits> granted, final List<Object> results,
+            final long window) {
+        final long remainingNanos = TimeUnit.MILLISECONDS
+                .toNanos((window + 1) * WINDOW_MILLIS - System.currentTimeMillis());
+        if (remainingNanos <= 0) {
+            return;
+        }
+        final long blockedUntil = System.nanoTime() + remainingNanos;
+        for (int i = 0; i < granted.size(); i++) {
+            final Object total = results.get(2 * i);
+            final GrantedPermits permits = granted.get(i);
+            if (total instanceof Long && (Long) total > permits.rateLimiter.getPermitsPerSecond()) {
+                permits.bucket.block(blockedUntil);
+            }
+        }
+    }
+
+    private static final class GrantedPermits {
+        private final RateLimiter rateLimiter;
+        private final TokenBucket bucket;
+        private final byte[] redisKey;
+        private final long permits;
+
+        private GrantedPermits(final RateLimiter rateLimiter, final TokenBucket bucket, final byte[] redisKey,
+                final long permits) {
+            this.rateLimiter = rateLimiter;
+            this.bucket = bucket;
+            this.redisKey = redisKey;
+            this.permits = permits;
+        }
+    }
+}
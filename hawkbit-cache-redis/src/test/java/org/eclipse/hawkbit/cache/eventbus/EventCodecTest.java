@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.cache.eventbus;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.hawkbit.eventbus.event.AbstractDistributedEvent;
+import org.eclipse.hawkbit.eventbus.event.DistributedEvent;
+import org.eclipse.hawkbit.eventbus.event.DownloadProgressEvent;
+import org.eclipse.hawkbit.eventbus.event.TargetDeletedEvent;
+import org.junit.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Cluster Cache")
+@Stories("EventCodec Test")
+public class EventCodecTest {
+
+    private final EventCodec underTest = new EventCodec();
+
+    @Test
+    @Description("Verifies that events with and without schema survive the encoding in their original order.")
+    public void encodedEventsAreDecodedInOrder() {
+        final byte[] frame = underTest.encode("node", Arrays.asList(new DownloadProgressEvent("t1", 5L, 42),
+                new CustomEvent("t2", "payload"), new TargetDeletedEvent("t1", 7L, "controller7")));
+
+        final List<DistributedEvent> events = underTest.decode(frame, tenant -> true);
+
+        assertThat(events).hasSize(3);
+        final DownloadProgressEvent progress = (DownloadProgressEvent) events.get(0);
+        assertThat(progress.getTenant()).isEqualTo("t1");
+        assertThat(progress.getStatusId()).isEqualTo(5L);
+        assertThat(progress.getProgressPercent()).isEqualTo(42);
+        assertThat(((CustomEvent) events.get(1)).value).isEqualTo("payload");
+        assertThat(events.get(1).getTenant()).isEqualTo("t2");
+        assertThat(((TargetDeletedEvent) events.get(2)).getTargetId()).isEqualTo(7L);
+        assertThat(((TargetDeletedEvent) events.get(2)).getControllerId()).isEqualTo("controller7");
+        events.forEach(event -> assertThat(event.getOriginNodeId()).isEqualTo("node"));
+    }
+
+    @Test
+    @Description("Verifies that the events of filtered tenants are skipped.")
+    public void eventsOfFilteredTenantsAreSkipped() {
+        final byte[] frame = underTest.encode("node", Arrays.asList(new DownloadProgressEvent("t1", 5L, 42),
+                new CustomEvent("t2", "payload"), new TargetDeletedEvent("t1", 7L)));
+
+        final List<DistributedEvent> events = underTest.decode(frame, "t2"::equals);
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0)).isInstanceOf(CustomEvent.class);
+    }
+
+    @Test
+    @Description("Verifies that the binary schema is considerably smaller than Java serialization.")
+    public void schemaEncodingIsSmallerThanJavaSerialization() {
+        final byte[] binary = underTest.encode("node", Arrays.asList(new DownloadProgressEvent("tenant", 5L, 42)));
+        final byte[] serialized = new EventCodec(Arrays.asList()).encode("node",
+                Arrays.asList(new DownloadProgressEvent("tenant", 5L, 42)));
+
+        assertThat(binary.length * 4).isLessThan(serialized.length);
+    }
+
+    @Test
+    @Description("Verifies that frames of an unknown version are rejected.")
+    public void unknownVersionIsRejected() {
+        final byte[] frame = underTest.encode("node", Arrays.asList(new TargetDeletedEvent("t1", 7L)));
+        frame[0] = EventCodec.VERSION + 1;
+
+        try {
+            underTest.decode(frame, tenant -> true);
+            fail("SerializationException expected");
+        } catch (final SerializationException e) {
+            assertThat(e.getMessage()).contains("version");
+        }
+    }
+
+    private static final class CustomEvent extends AbstractDistributedEvent {
+        private static final long serialVersionUID = 1L;
+        private final String value;
+
+        private CustomEvent(final String tenant, final String value) {
+            super(0, tenant);
+            this.value = value;
+        }
+    }
+}
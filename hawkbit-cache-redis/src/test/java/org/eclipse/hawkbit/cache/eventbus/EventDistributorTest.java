@@ -9,26 +9,40 @@
 package org.eclipse.hawkbit.cache.eventbus;
 
 import static org.fest.assertions.api.Assertions.assertThat;
-import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
+import org.eclipse.hawkbit.cache.RedisProperties;
+import org.eclipse.hawkbit.eventbus.event.DistributedEvent;
 import org.eclipse.hawkbit.eventbus.event.DownloadProgressEvent;
 import org.eclipse.hawkbit.eventbus.event.EntityEvent;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.listener.Topic;
 import org.springframework.hateoas.Identifiable;
 
 import com.google.common.eventbus.EventBus;
 
+import ru.yandex.qatools.allure.annotations.Description;
 import ru.yandex.qatools.allure.annotations.Features;
 import ru.yandex.qatools.allure.annotations.Stories;
 
@@ -44,6 +58,12 @@ public class EventDistributorTest {
     @Mock
     private EventBus eventBusMock;
 
+    @Mock
+    private RedisConnection redisConnectionMock;
+
+    @Captor
+    private ArgumentCaptor<RedisCallback<Long>> callbackCaptor;
+
     private EventDistributor underTest;
 
     @Before
@@ -51,6 +71,8 @@ public class EventDistributorTest {
         underTest = new EventDistributor();
         underTest.setEventBus(eventBusMock);
         underTest.setRedisTemplate(redisTemplateMock);
+        underTest.setRedisProperties(new RedisProperties());
+        underTest.setTenantInterest(new TenantInterest(false, 0));
     }
 
     @Test
@@ -58,10 +80,127 @@ public class EventDistributorTest {
 
         final DownloadProgressEvent event = new DownloadProgressEvent("tenant", 123L, 10);
         underTest.distribute(event);
+        underTest.flush();
 
         // origin node ID should be set by distributing the event
         assertThat(event.getOriginNodeId()).isNotNull();
-        verify(redisTemplateMock).convertAndSend(anyString(), eq(event));
+        verify(redisTemplateMock).execute(Matchers.<RedisCallback<Long>> any());
+    }
+
+    @Test
+    @Description("Verifies that the events of one flush interval are published as one message which is decoded by the receiving node.")
+    public void distributedEventsArePublishedAsOneBatch() {
+        underTest.distribute(new DownloadProgressEvent("tenant", 123L, 10));
+        underTest.distribute(new DownloadProgressEvent("tenant", 123L, 20));
+        underTest.flush();
+
+        assertThat(underTest.getPublishedMessages()).isEqualTo(1);
+        assertThat(underTest.getPublishedEvents()).isEqualTo(2);
+
+        final List<DistributedEvent> published = new EventCodec().decode(publishedFrame(), tenant -> true);
+        assertThat(published).hasSize(2);
+        assertThat(published.get(0).getOriginNodeId()).isEqualTo(EventDistributor.getNodeId());
+        assertThat(((DownloadProgressEvent) published.get(0)).getProgressPercent()).isEqualTo(10);
+        assertThat(((DownloadProgressEvent) published.get(1)).getProgressPercent()).isEqualTo(20);
+    }
+
+    @Test
+    @Description("Verifies that the events of a message which cannot be published are published with the next flush in their original order.")
+    public void eventsOfFailedPublishAreRetriedWithNextFlush() {
+        when(redisTemplateMock.execute(Matchers.<RedisCallback<Long>> any()))
+                .thenThrow(new RedisConnectionFailureException("connection lost")).thenReturn(1L);
+        underTest.distribute(new DownloadProgressEvent("tenant", 123L, 10));
+        underTest.distribute(new DownloadProgressEvent("tenant", 123L, 20));
+        underTest.flush();
+        assertThat(underTest.getPublishedMessages()).isEqualTo(0);
+
+        underTest.distribute(new DownloadProgressEvent("tenant", 123L, 30));
+        underTest.flush();
+
+        assertThat(underTest.getPublishedMessages()).isEqualTo(1);
+        assertThat(underTest.getPublishedEvents()).isEqualTo(3);
+        verify(redisTemplateMock, times(2)).execute(callbackCaptor.capture());
+        callbackCaptor.getValue().doInRedis(redisConnectionMock);
+        final ArgumentCaptor<byte[]> frame = ArgumentCaptor.forClass(byte[].class);
+        verify(redisConnectionMock).publish(any(byte[].class), frame.capture());
+        final List<DistributedEvent> published = new EventCodec().decode(frame.getValue(), tenant -> true);
+        assertThat(published).hasSize(3);
+        assertThat(((DownloadProgressEvent) published.get(0)).getProgressPercent()).isEqualTo(10);
+        assertThat(((DownloadProgressEvent) published.get(1)).getProgressPercent()).isEqualTo(20);
+        assertThat(((DownloadProgressEvent) published.get(2)).getProgressPercent()).isEqualTo(30);
+    }
+
+    @Test
+    @Description("Verifies that the oldest events are dropped if more events than the configured maximum wait for being published.")
+    public void oldestEventsAreDroppedIfMaxPendingEventsIsExceeded() {
+        final RedisProperties redisProperties = new RedisProperties();
+        redisProperties.getEvents().setMaxPendingEvents(2);
+        underTest.setRedisProperties(redisProperties);
+        when(redisTemplateMock.execute(Matchers.<RedisCallback<Long>> any()))
+                .thenThrow(new RedisConnectionFailureException("connection lost")).thenReturn(1L);
+        underTest.distribute(new DownloadProgressEvent("tenant", 123L, 10));
+        underTest.distribute(new DownloadProgressEvent("tenant", 123L, 20));
+        underTest.flush();
+        underTest.distribute(new DownloadProgressEvent("tenant", 123L, 30));
+        assertThat(underTest.getDroppedEvents()).isEqualTo(1);
+
+        underTest.flush();
+
+        assertThat(underTest.getPublishedEvents()).isEqualTo(2);
+        verify(redisTemplateMock, times(2)).execute(callbackCaptor.capture());
+        callbackCaptor.getValue().doInRedis(redisConnectionMock);
+        final ArgumentCaptor<byte[]> frame = ArgumentCaptor.forClass(byte[].class);
+        verify(redisConnectionMock).publish(any(byte[].class), frame.capture());
+        final List<DistributedEvent> published = new EventCodec().decode(frame.getValue(), tenant -> true);
+        assertThat(published).hasSize(2);
+        assertThat(((DownloadProgressEvent) published.get(0)).getProgressPercent()).isEqualTo(20);
+        assertThat(((DownloadProgressEvent) published.get(1)).getProgressPercent()).isEqualTo(30);
+    }
+
+    @Test
+    @Description("Verifies that received events are skipped for tenants this node has not been active for.")
+    public void receivedEventsOfUninterestingTenantsAreSkipped() {
+        final TenantInterest tenantInterest = new TenantInterest(true, 60000);
+        tenantInterest.touch("local");
+        final byte[] frame = new EventCodec().encode("otherNode", Arrays.asList(
+                new DownloadProgressEvent("local", 1L, 10), new DownloadProgressEvent("remote", 2L, 20)));
+        underTest.setTenantInterest(tenantInterest);
+
+        underTest.onMessage(new DefaultMessage("com/bosch/sp/distEvent/otherNode".getBytes(StandardCharsets.UTF_8),
+                frame), null);
+
+        final ArgumentCaptor<DistributedEvent> posted = ArgumentCaptor.forClass(DistributedEvent.class);
+        verify(eventBusMock).post(posted.capture());
+        assertThat(posted.getValue().getTenant()).isEqualTo("local");
+        assertThat(posted.getValue().getOriginNodeId()).isEqualTo("otherNode");
+    }
+
+    @Test
+    @Description("Verifies that the interest in a tenant does not depend on the case of the tenant.")
+    public void tenantInterestIsCaseInsensitive() {
+        final TenantInterest tenantInterest = new TenantInterest(true, 60000);
+        tenantInterest.touch("MixedCase");
+        final byte[] frame = new EventCodec().encode("otherNode", Arrays.asList(
+                new DownloadProgressEvent("MIXEDCASE", 1L, 10), new DownloadProgressEvent("mixedcase", 2L, 20),
+                new DownloadProgressEvent("other", 3L, 30)));
+        underTest.setTenantInterest(tenantInterest);
+
+        underTest.onMessage(new DefaultMessage("com/bosch/sp/distEvent/otherNode".getBytes(StandardCharsets.UTF_8),
+                frame), null);
+
+        final ArgumentCaptor<DistributedEvent> posted = ArgumentCaptor.forClass(DistributedEvent.class);
+        verify(eventBusMock, times(2)).post(posted.capture());
+        assertThat(posted.getAllValues().get(0).getTenant()).isEqualTo("MIXEDCASE");
+        assertThat(posted.getAllValues().get(1).getTenant()).isEqualTo("mixedcase");
+        assertThat(tenantInterest.isInterested("mixedCASE")).isTrue();
+    }
+
+    private byte[] publishedFrame() {
+        verify(redisTemplateMock).execute(callbackCaptor.capture());
+        callbackCaptor.getValue().doInRedis(redisConnectionMock);
+        final ArgumentCaptor<byte[]> frame = ArgumentCaptor.forClass(byte[].class);
+        verify(redisConnectionMock).publish(any(byte[].class), frame.capture());
+        return frame.getValue();
     }
 
     @Test
@@ -73,8 +212,10 @@ public class EventDistributorTest {
         // test
         underTest.distribute(event);
 
+        underTest.flush();
+
         assertThat(event.getOriginNodeId()).isNull();
-        verify(redisTemplateMock, times(0)).convertAndSend(anyString(), eq(event));
+        verify(redisTemplateMock, times(0)).execute(Matchers.<RedisCallback<Long>> any());
     }
 
     @Test
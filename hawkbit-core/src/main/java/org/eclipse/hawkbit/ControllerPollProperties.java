@@ -27,6 +27,43 @@ import org.springframework.stereotype.Component;
 @ConfigurationProperties(prefix = "hawkbit.controller")
 public class ControllerPollProperties {
 
+    /**
+     * Configuration of the cache for the poll results and the deployments of
+     * the controllers.
+     */
+    public static class Cache {
+
+        /**
+         * Set to <code>true</code> to cache the poll result of the controllers
+         * until an assignment, cancellation or configuration change
+         * invalidates it and the deployment of an action until the action
+         * changes.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum time in milliseconds a cached poll result or deployment is
+         * used before it is reloaded from the repository.
+         */
+        private long timeToLive = 60000L;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(final long timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
     /**
      * Maximum polling time that can be configured by a tenant in HH:MM:SS
      * notation.
@@ -39,6 +76,8 @@ public class ControllerPollProperties {
      */
     private String minPollingTime = "00:00:30";
 
+    private final Cache cache = new Cache();
+
     public String getMaxPollingTime() {
         return maxPollingTime;
     }
@@ -55,4 +94,8 @@ public class ControllerPollProperties {
         this.minPollingTime = minPollingTime;
     }
 
+    public Cache getCache() {
+        return cache;
+    }
+
 }
@@ -8,10 +8,10 @@
  */
 package org.eclipse.hawkbit.api;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 import org.eclipse.hawkbit.api.ArtifactUrlHandlerProperties.ProtocolProperties;
 import org.eclipse.hawkbit.tenancy.TenantAware;
@@ -20,10 +20,18 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.stereotype.Component;
 
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 /**
  * Implementation for ArtifactUrlHandler for creating urls to download resource
  * based on pattern.
+ *
+ * The pattern of a protocol is compiled once into an {@link UrlTemplate} with
+ * the configured host resolved. The target independent placeholders of an
+ * artifact are resolved once and the resulting template is cached, so that
+ * an URL for a target only requires to insert the target ID.
  */
 @Component
 @EnableConfigurationProperties(ArtifactUrlHandlerProperties.class)
@@ -39,49 +47,64 @@ public class PropertyBasedArtifactUrlHandler implements ArtifactUrlHandler {
     private static final String TENANT_PLACEHOLDER = "tenant";
     private static final String SOFTWARE_MODULE_ID_PLACDEHOLDER = "softwareModuleId";
 
+    private static final int MAX_CACHED_ARTIFACT_TEMPLATES = 10_000;
+
     @Autowired
     private ArtifactUrlHandlerProperties urlHandlerProperties;
 
     @Autowired
     private TenantAware tenantAware;
 
+    private final Map<UrlProtocol, ProtocolTemplate> protocolTemplates = new ConcurrentHashMap<>();
+
+    private final Cache<ArtifactKey, UrlTemplate> artifactTemplates = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_ARTIFACT_TEMPLATES).build();
+
     @Override
     public String getUrl(final String targetId, final Long softwareModuleId, final String filename,
             final String sha1Hash, final UrlProtocol protocol) {
 
-        final String protocolString = protocol.name().toLowerCase();
-        final ProtocolProperties properties = urlHandlerProperties.getProperties(protocolString);
+        final ProtocolProperties properties = urlHandlerProperties.getProperties(protocol.name().toLowerCase());
         if (properties == null || properties.getPattern() == null) {
             return null;
         }
 
-        String urlPattern = properties.getPattern();
-        final Set<Entry<String, String>> entrySet = getReplaceMap(targetId, softwareModuleId, filename, sha1Hash,
-                protocolString, properties).entrySet();
-        for (final Entry<String, String> entry : entrySet) {
-            if (entry.getKey().equals(PORT_PLACEHOLDER)) {
-                urlPattern = urlPattern.replace(":{" + entry.getKey() + "}",
-                        Strings.isNullOrEmpty(entry.getValue()) ? "" : (":" + entry.getValue()));
-            } else {
-                urlPattern = urlPattern.replace("{" + entry.getKey() + "}", entry.getValue());
-            }
+        final ProtocolTemplate protocolTemplate = getProtocolTemplate(protocol, properties);
+        final ArtifactKey key = new ArtifactKey(protocolTemplate, tenantAware.getCurrentTenant(), softwareModuleId,
+                filename, sha1Hash);
+        final UrlTemplate artifactTemplate;
+        try {
+            artifactTemplate = artifactTemplates.get(key, () -> protocolTemplate.template.resolve(placeholder -> {
+                switch (placeholder) {
+                case ARTIFACT_FILENAME_PLACEHOLDER:
+                    return filename;
+                case ARTIFACT_SHA1_PLACEHOLDER:
+                    return sha1Hash;
+                case TENANT_PLACEHOLDER:
+                    return key.tenant;
+                case SOFTWARE_MODULE_ID_PLACDEHOLDER:
+                    return String.valueOf(softwareModuleId);
+                default:
+                    return null;
+                }
+            }));
+        } catch (final ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
         }
-        return urlPattern;
+
+        return artifactTemplate
+                .expand(placeholder -> TARGET_ID_PLACEHOLDER.equals(placeholder) ? targetId : null);
     }
 
-    private Map<String, String> getReplaceMap(final String targetId, final Long softwareModuleId, final String filename,
-            final String sha1Hash, final String protocol, final ProtocolProperties properties) {
-        final Map<String, String> replaceMap = new HashMap<>();
-        replaceMap.put(IP_PLACEHOLDER, properties.getIp());
-        replaceMap.put(HOSTNAME_PLACEHOLDER, properties.getHostname());
-        replaceMap.put(ARTIFACT_FILENAME_PLACEHOLDER, filename);
-        replaceMap.put(ARTIFACT_SHA1_PLACEHOLDER, sha1Hash);
-        replaceMap.put(PROTOCOL_PLACEHOLDER, protocol);
-        replaceMap.put(PORT_PLACEHOLDER, properties.getPort());
-        replaceMap.put(TENANT_PLACEHOLDER, tenantAware.getCurrentTenant());
-        replaceMap.put(TARGET_ID_PLACEHOLDER, targetId);
-        replaceMap.put(SOFTWARE_MODULE_ID_PLACDEHOLDER, String.valueOf(softwareModuleId));
-        return replaceMap;
+    private ProtocolTemplate getProtocolTemplate(final UrlProtocol protocol, final ProtocolProperties properties) {
+        final ProtocolTemplate current = protocolTemplates.get(protocol);
+        if (current != null && current.isCompiledFrom(properties)) {
+            return current;
+        }
+
+        final ProtocolTemplate compiled = new ProtocolTemplate(protocol, properties);
+        protocolTemplates.put(protocol, compiled);
+        return compiled;
     }
 
     @Override
@@ -95,4 +118,91 @@ public class PropertyBasedArtifactUrlHandler implements ArtifactUrlHandler {
         return properties.isEnabled();
     }
 
+    /**
+     * The compiled pattern of a protocol with the protocol and the host
+     * resolved. The properties it has been compiled from are kept to detect
+     * changes of the configuration.
+     */
+    private static final class ProtocolTemplate {
+        private final String pattern;
+        private final String ip;
+        private final String hostname;
+        private final String port;
+        private final UrlTemplate template;
+
+        private ProtocolTemplate(final UrlProtocol protocol, final ProtocolProperties properties) {
+            this.pattern = properties.getPattern();
+            this.ip = properties.getIp();
+            this.hostname = properties.getHostname();
+            this.port = properties.getPort();
+
+            // the port separator is removed together with an empty port
+            final String effectivePattern = Strings.isNullOrEmpty(port)
+                    ? pattern.replace(":{" + PORT_PLACEHOLDER + "}", "") : pattern;
+            this.template = UrlTemplate.compile(effectivePattern).resolve(placeholder -> {
+                switch (placeholder) {
+                case PROTOCOL_PLACEHOLDER:
+                    return protocol.name().toLowerCase();
+                case IP_PLACEHOLDER:
+                    return ip;
+                case HOSTNAME_PLACEHOLDER:
+                    return hostname;
+                case PORT_PLACEHOLDER:
+                    return port;
+                default:
+                    return null;
+                }
+            });
+        }
+
+        private boolean isCompiledFrom(final ProtocolProperties properties) {
+            return Objects.equals(pattern, properties.getPattern()) && Objects.equals(ip, properties.getIp())
+                    && Objects.equals(hostname, properties.getHostname())
+                    && Objects.equals(port, properties.getPort());
+        }
+    }
+
+    /**
+     * Identifies the target independent URL of an artifact. The
+     * {@link ProtocolTemplate} is compared by identity, so templates of an
+     * outdated configuration are not used anymore.
+     */
+    private static final class ArtifactKey {
+        private final ProtocolTemplate protocolTemplate;
+        private final String tenant;
+        private final Long softwareModuleId;
+        private final String filename;
+        private final String sha1Hash;
+        private final int hashCode;
+
+        private ArtifactKey(final ProtocolTemplate protocolTemplate, final String tenant, final Long softwareModuleId,
+                final String filename, final String sha1Hash) {
+            this.protocolTemplate = protocolTemplate;
+            this.tenant = tenant;
+            this.softwareModuleId = softwareModuleId;
+            this.filename = filename;
+            this.sha1Hash = sha1Hash;
+            this.hashCode = Objects.hash(System.identityHashCode(protocolTemplate), tenant, softwareModuleId,
+                    filename, sha1Hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ArtifactKey)) {
+                return false;
+            }
+            final ArtifactKey other = (ArtifactKey) obj;
+            return protocolTemplate == other.protocolTemplate && Objects.equals(tenant, other.tenant)
+                    && Objects.equals(softwareModuleId, other.softwareModuleId)
+                    && Objects.equals(filename, other.filename) && Objects.equals(sha1Hash, other.sha1Hash);
+        }
+    }
 }
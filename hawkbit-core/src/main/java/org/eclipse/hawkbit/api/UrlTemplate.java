@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * An URL pattern with {@code {placeholder}}s which has been split once into
+ * its literal and placeholder segments, so that an URL is built by appending
+ * the segments instead of searching and replacing in the pattern. Templates
+ * are immutable, placeholders can be resolved step by step with
+ * {@link #resolve(Function)}, e.g. the configured host once and the artifact
+ * per software module, before the remaining placeholders are expanded per
+ * target with {@link #expand(Function)}.
+ */
+final class UrlTemplate {
+
+    // a template always starts and ends with a literal, which might be empty
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int literalLength;
+
+    private UrlTemplate(final List<String> literals, final List<String> placeholders) {
+        this.literals = literals.toArray(new String[literals.size()]);
+        this.placeholders = placeholders.toArray(new String[placeholders.size()]);
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    /**
+     * @param pattern
+     *            the URL pattern
+     * @return the compiled template of the pattern
+     */
+    static UrlTemplate compile(final String pattern) {
+        final List<String> literals = new ArrayList<>();
+        final List<String> placeholders = new ArrayList<>();
+
+        int literalStart = 0;
+        int open = pattern.indexOf('{');
+        while (open >= 0) {
+            final int close = pattern.indexOf('}', open);
+            if (close < 0) {
+                break;
+            }
+            literals.add(pattern.substring(literalStart, open));
+            placeholders.add(pattern.substring(open + 1, close));
+            literalStart = close + 1;
+            open = pattern.indexOf('{', literalStart);
+        }
+        literals.add(pattern.substring(literalStart));
+
+        return new UrlTemplate(literals, placeholders);
+    }
+
+    /**
+     * Resolves the placeholders for which the given function returns a value.
+     *
+     * @param values
+     *            returns the value of a placeholder or {@code null} if the
+     *            placeholder should stay unresolved
+     * @return a template which only contains the unresolved placeholders
+     */
+    UrlTemplate resolve(final Function<String, String> values) {
+        final List<String> resolvedLiterals = new ArrayList<>(literals.length);
+        final List<String> unresolved = new ArrayList<>(placeholders.length);
+
+        final StringBuilder literal = new StringBuilder(literals[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            final String value = values.apply(placeholders[i]);
+            if (value == null) {
+                resolvedLiterals.add(literal.toString());
+                unresolved.add(placeholders[i]);
+                literal.setLength(0);
+            } else {
+                literal.append(value);
+            }
+            literal.append(literals[i + 1]);
+        }
+        resolvedLiterals.add(literal.toString());
+
+        return new UrlTemplate(resolvedLiterals, unresolved);
+    }
+
+    /**
+     * Builds the URL.
+     *
+     * @param values
+     *            returns the value of a placeholder, placeholders without
+     *            value are kept as they are
+     * @return the URL
+     */
+    String expand(final Function<String, String> values) {
+        if (placeholders.length == 0) {
+            return literals[0];
+        }
+
+        final StringBuilder url = new StringBuilder(literalLength + placeholders.length * 16);
+        url.append(literals[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            final String value = values.apply(placeholders[i]);
+            if (value == null) {
+                url.append('{').append(placeholders[i]).append('}');
+            } else {
+                url.append(value);
+            }
+            url.append(literals[i + 1]);
+        }
+        return url.toString();
+    }
+}
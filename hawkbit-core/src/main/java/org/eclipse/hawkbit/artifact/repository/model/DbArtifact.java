@@ -8,8 +8,10 @@
  */
 package org.eclipse.hawkbit.artifact.repository.model;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 
 /**
  * Database representation of artifact.
@@ -69,6 +71,21 @@ public class DbArtifact {
         return fileInputStream;
     }
 
+    /**
+     * Opens a seekable channel on the binary of the artifact which allows to
+     * read a range of it without reading the binary from the start. Stores
+     * which keep the binary in a file override this method.
+     *
+     * @return a new {@link FileChannel} which has to be closed by the caller
+     *         or <code>null</code> if the store cannot provide one, in which
+     *         case {@link #getFileInputStream()} has to be used
+     * @throws IOException
+     *             if the channel could not be opened
+     */
+    public FileChannel openFileChannel() throws IOException {
+        return null;
+    }
+
     public OutputStream getFileOutputStream() {
         return fileOutputStream;
     }
@@ -21,6 +21,16 @@ public final class CacheConstants {
      */
     public static final String DOWNLOAD_ID_CACHE = "DowonloadIdCache";
 
+    /**
+     * Constant for the cache of the controller poll results.
+     */
+    public static final String CONTROLLER_POLL_CACHE = "ControllerPollCache";
+
+    /**
+     * Constant for the cache of the deployments retrieved by the controllers.
+     */
+    public static final String CONTROLLER_DEPLOYMENT_CACHE = "ControllerDeploymentCache";
+
     private CacheConstants() {
     }
 
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.eventbus;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.eclipse.hawkbit.eventbus.event.DistributedEvent;
+
+/**
+ * Binary schema of a {@link DistributedEvent} type for the codec which
+ * distributes the events within the cluster. The tenant and the origin node of
+ * the event are written by the codec itself, a schema only writes the fields
+ * which are specific for its event type. Schemas which are declared as beans
+ * are picked up by the codec in addition to the schemas of the core events.
+ *
+ * The type ID identifies the schema on the wire and must never be reused for
+ * another event type. Changing the binary layout of an event requires a new
+ * type ID so that nodes of different versions can still be part of the same
+ * cluster. The IDs {@code 1} to {@code 15} are used by the core events, the
+ * events of the repository start at {@code 16}.
+ *
+ * @param <E>
+ *            the type of the event
+ */
+public interface EventSchema<E extends DistributedEvent> {
+
+    /**
+     * @return the unique ID of the schema on the wire, {@code 0} is reserved
+     *         for the Java serialization fallback
+     */
+    int getTypeId();
+
+    /**
+     * @return the exact type of the events which are written by this schema
+     */
+    Class<E> getEventType();
+
+    /**
+     * Writes the fields of the given event.
+     *
+     * @param event
+     *            the event to write
+     * @param out
+     *            the output to write to
+     * @throws IOException
+     *             if the event cannot be written
+     */
+    void write(E event, DataOutput out) throws IOException;
+
+    /**
+     * Reads an event which has been written by {@link #write}.
+     *
+     * @param tenant
+     *            the tenant of the event
+     * @param in
+     *            the input to read from
+     * @return the read event
+     * @throws IOException
+     *             if the event cannot be read
+     */
+    E read(String tenant, DataInput in) throws IOException;
+}
@@ -17,6 +17,7 @@ public class TargetDeletedEvent extends AbstractDistributedEvent {
 
     private static final long serialVersionUID = 1L;
     private final long targetId;
+    private final String controllerId;
 
     /**
      * @param tenant
@@ -25,8 +26,22 @@ public class TargetDeletedEvent extends AbstractDistributedEvent {
      *            the ID of the target which has been deleted
      */
     public TargetDeletedEvent(final String tenant, final long targetId) {
+        this(tenant, targetId, null);
+    }
+
+    /**
+     * @param tenant
+     *            the tenant for this event
+     * @param targetId
+     *            the ID of the target which has been deleted
+     * @param controllerId
+     *            the controller ID of the target which has been deleted, might
+     *            be {@code null} if unknown
+     */
+    public TargetDeletedEvent(final String tenant, final long targetId, final String controllerId) {
         super(-1, tenant);
         this.targetId = targetId;
+        this.controllerId = controllerId;
     }
 
     /**
@@ -36,4 +51,12 @@ public class TargetDeletedEvent extends AbstractDistributedEvent {
         return targetId;
     }
 
+    /**
+     * @return the controllerId of the deleted target or {@code null} if
+     *         unknown
+     */
+    public String getControllerId() {
+        return controllerId;
+    }
+
 }
@@ -13,6 +13,7 @@ import java.util.Optional;
 
 import org.eclipse.hawkbit.ControllerPollProperties;
 import org.eclipse.hawkbit.tenancy.configuration.validator.TenantConfigurationBooleanValidator;
+import org.eclipse.hawkbit.tenancy.configuration.validator.TenantConfigurationIntegerValidator;
 import org.eclipse.hawkbit.tenancy.configuration.validator.TenantConfigurationPollingDurationValidator;
 import org.eclipse.hawkbit.tenancy.configuration.validator.TenantConfigurationStringValidator;
 import org.eclipse.hawkbit.tenancy.configuration.validator.TenantConfigurationValidator;
@@ -68,7 +69,19 @@ public enum TenantConfigurationKey {
     /**
      * boolean value {@code true} {@code false}.
      */
-    ANONYMOUS_DOWNLOAD_MODE_ENABLED("anonymous.download.enabled", "hawkbit.server.download.anonymous.enabled", Boolean.class, Boolean.FALSE.toString(), TenantConfigurationBooleanValidator.class);
+    ANONYMOUS_DOWNLOAD_MODE_ENABLED("anonymous.download.enabled", "hawkbit.server.download.anonymous.enabled", Boolean.class, Boolean.FALSE.toString(), TenantConfigurationBooleanValidator.class),
+
+    /**
+     * boolean value {@code true} {@code false}, compacts the status history of
+     * closed actions.
+     */
+    ACTION_STATUS_RETENTION_ENABLED("action.status.retention.enabled", "hawkbit.server.repository.actionStatusRetention.enabled", Boolean.class, Boolean.FALSE.toString(), TenantConfigurationBooleanValidator.class),
+
+    /**
+     * integer value which holds the number of days after which the status
+     * history of a closed action is compacted.
+     */
+    ACTION_STATUS_RETENTION_DAYS("action.status.retention.days", "hawkbit.server.repository.actionStatusRetention.days", Integer.class, "90", TenantConfigurationIntegerValidator.class);
 
     private final String keyName;
     private final String defaultKeyName;
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Artifact URL Handler")
+@Stories("Cached artifact URL templates")
+@RunWith(MockitoJUnitRunner.class)
+public class PropertyBasedArtifactUrlHandlerCacheTest {
+
+    private static final String TENANT = "TEST_TENANT";
+    private static final String SHA1 = "2d86c2a659e364e9abba49ea6ffcd53dd5559f05";
+    private static final Long MODULE_ID = 5L;
+
+    @Spy
+    private final ArtifactUrlHandlerProperties properties = new ArtifactUrlHandlerProperties();
+
+    @Mock
+    private TenantAware tenantAware;
+
+    @InjectMocks
+    private PropertyBasedArtifactUrlHandler urlHandlerUnderTest;
+
+    @Before
+    public void before() {
+        when(tenantAware.getCurrentTenant()).thenReturn(TENANT);
+    }
+
+    @Test
+    @Description("Verifies that a cached template is expanded for every target.")
+    public void cachedTemplateIsExpandedPerTarget() {
+        for (final String target : new String[] { "target1", "target2" }) {
+            assertEquals("http://localhost:8080/" + TENANT + "/controller/v1/" + target
+                    + "/softwaremodules/5/artifacts/file.bin",
+                    urlHandlerUnderTest.getUrl(target, MODULE_ID, "file.bin", SHA1, UrlProtocol.HTTP));
+        }
+    }
+
+    @Test
+    @Description("Verifies that the port separator is omitted together with an empty port.")
+    public void emptyPortIsOmitted() {
+        properties.getHttp().setPort("");
+
+        assertEquals("http://localhost/" + TENANT + "/controller/v1/target/softwaremodules/5/artifacts/file.bin",
+                urlHandlerUnderTest.getUrl("target", MODULE_ID, "file.bin", SHA1, UrlProtocol.HTTP));
+    }
+
+    @Test
+    @Description("Verifies that cached artifacts follow changes of the pattern and the tenant.")
+    public void cachedArtifactFollowsConfigurationAndTenant() {
+        urlHandlerUnderTest.getUrl("target", MODULE_ID, "file.bin", SHA1, UrlProtocol.HTTP);
+
+        properties.getHttp().setPattern("{protocol}://{ip}:{port}/{unknown}/{targetId}/{artifactSHA1}");
+        assertEquals("http://127.0.0.1:8080/{unknown}/target/" + SHA1,
+                urlHandlerUnderTest.getUrl("target", MODULE_ID, "file.bin", SHA1, UrlProtocol.HTTP));
+
+        when(tenantAware.getCurrentTenant()).thenReturn("OTHER");
+        properties.getHttp().setPattern("{protocol}://{hostname}/{tenant}/{targetId}");
+        assertEquals("http://localhost/OTHER/target",
+                urlHandlerUnderTest.getUrl("target", MODULE_ID, "file.bin", SHA1, UrlProtocol.HTTP));
+    }
+}
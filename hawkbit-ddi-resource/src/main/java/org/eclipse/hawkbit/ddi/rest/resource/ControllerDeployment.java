@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ddi.rest.resource;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Action.ActionType;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.LocalArtifact;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+
+/**
+ * Snapshot of everything the deployment base resource needs to answer the
+ * retrieval of an {@link Action} by a target, i.e. the chunks and artifacts of
+ * the assigned {@link DistributionSet}. Instances are immutable and
+ * {@link Serializable} so they can be kept in any cache implementation. The
+ * download links are not part of the snapshot as they are rendered per
+ * request.
+ */
+public final class ControllerDeployment implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Long actionId;
+    private final Long targetId;
+    private final String controllerId;
+    private final ActionType actionType;
+    private final long forcedTime;
+    private final Long distributionSetId;
+    private final long distributionSetRevision;
+    private final List<DeploymentChunk> chunks;
+    private final long createdAt;
+
+    /**
+     * Creates a snapshot of the given action.
+     *
+     * @param action
+     *            the retrieved action
+     */
+    public ControllerDeployment(final Action action) {
+        this.actionId = action.getId();
+        this.targetId = action.getTarget().getId();
+        this.controllerId = action.getTarget().getControllerId();
+        this.actionType = action.getActionType();
+        this.forcedTime = action.getForcedTime();
+        this.distributionSetId = action.getDistributionSet().getId();
+        this.distributionSetRevision = action.getDistributionSet().getOptLockRevision();
+        final List<DeploymentChunk> deploymentChunks = new ArrayList<>();
+        action.getDistributionSet().getModules().forEach(module -> deploymentChunks.add(new DeploymentChunk(module)));
+        this.chunks = Collections.unmodifiableList(deploymentChunks);
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    /**
+     * @param timeToLive
+     *            the maximum age of the snapshot in milliseconds
+     * @return <code>true</code> if the snapshot can still answer a retrieval
+     */
+    boolean isValid(final long timeToLive) {
+        return System.currentTimeMillis() - createdAt <= timeToLive;
+    }
+
+    public Long getActionId() {
+        return actionId;
+    }
+
+    public Long getTargetId() {
+        return targetId;
+    }
+
+    public String getControllerId() {
+        return controllerId;
+    }
+
+    public Long getDistributionSetId() {
+        return distributionSetId;
+    }
+
+    public long getDistributionSetRevision() {
+        return distributionSetRevision;
+    }
+
+    public List<DeploymentChunk> getChunks() {
+        return chunks;
+    }
+
+    /**
+     * @return see {@link Action#isForce()}, evaluated on every call so that
+     *         cached {@link ActionType#TIMEFORCED} actions switch as well
+     */
+    public boolean isForce() {
+        switch (actionType) {
+        case FORCED:
+            return true;
+        case TIMEFORCED:
+            return System.currentTimeMillis() >= forcedTime;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * The parts of a {@link SoftwareModule} of the deployment.
+     */
+    public static final class DeploymentChunk implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String typeKey;
+        private final String version;
+        private final String name;
+        private final List<DeploymentArtifact> artifacts;
+
+        private DeploymentChunk(final SoftwareModule module) {
+            this.typeKey = module.getType().getKey();
+            this.version = module.getVersion();
+            this.name = module.getName();
+            final List<DeploymentArtifact> moduleArtifacts = new ArrayList<>();
+            module.getLocalArtifacts()
+                    .forEach(artifact -> moduleArtifacts.add(new DeploymentArtifact(module.getId(), artifact)));
+            this.artifacts = Collections.unmodifiableList(moduleArtifacts);
+        }
+
+        public String getTypeKey() {
+            return typeKey;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public List<DeploymentArtifact> getArtifacts() {
+            return artifacts;
+        }
+    }
+
+    /**
+     * The parts of a {@link LocalArtifact} the download links and hashes are
+     * rendered from.
+     */
+    public static final class DeploymentArtifact implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final Long softwareModuleId;
+        private final String filename;
+        private final String sha1Hash;
+        private final String md5Hash;
+        private final Long size;
+
+        private DeploymentArtifact(final Long softwareModuleId, final LocalArtifact artifact) {
+            this.softwareModuleId = softwareModuleId;
+            this.filename = artifact.getFilename();
+            this.sha1Hash = artifact.getSha1Hash();
+            this.md5Hash = artifact.getMd5Hash();
+            this.size = artifact.getSize();
+        }
+
+        public Long getSoftwareModuleId() {
+            return softwareModuleId;
+        }
+
+        public String getFilename() {
+            return filename;
+        }
+
+        public String getSha1Hash() {
+            return sha1Hash;
+        }
+
+        public String getMd5Hash() {
+            return md5Hash;
+        }
+
+        public Long getSize() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ddi.rest.resource;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.hawkbit.ControllerPollProperties;
+import org.eclipse.hawkbit.cache.CacheConstants;
+import org.eclipse.hawkbit.eventbus.EventSubscriber;
+import org.eclipse.hawkbit.eventbus.event.CancelTargetAssignmentEvent;
+import org.eclipse.hawkbit.eventbus.event.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.ActionPropertyChangeEvent;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Read-through cache of the {@link ControllerDeployment} per tenant and action
+ * ID. The cache is backed by the {@link CacheManager} so it works with the
+ * tenant aware Guava cache as well as with the Redis cache.
+ *
+ * Entries are evicted when the action changes, e.g. by a feedback of the
+ * target or a switch to forced, when the action is canceled or the target is
+ * deleted. As the events are delivered asynchronously the entries are
+ * additionally limited by
+ * {@link ControllerPollProperties.Cache#getTimeToLive()}.
+ */
+@EventSubscriber
+public class ControllerDeploymentCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ControllerDeploymentCache.class);
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private ControllerPollProperties controllerPollProperties;
+
+    /**
+     * @return <code>true</code> if deployments should be cached
+     */
+    public boolean isEnabled() {
+        return controllerPollProperties.getCache().isEnabled();
+    }
+
+    /**
+     * Looks up the deployment of the given action for the current tenant.
+     *
+     * @param controllerId
+     *            the ID of the retrieving controller
+     * @param actionId
+     *            the ID of the retrieved action
+     * @return the cached deployment or <code>null</code> if there is none or
+     *         the action is not assigned to the given controller
+     */
+    public ControllerDeployment get(final String controllerId, final Long actionId) {
+        final Cache cache = getCache();
+        final ControllerDeployment deployment = cache != null ? cache.get(actionId, ControllerDeployment.class)
+                : null;
+        if (deployment != null && deployment.getControllerId().equals(controllerId)
+                && deployment.isValid(controllerPollProperties.getCache().getTimeToLive())) {
+            hits.incrementAndGet();
+            return deployment;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Caches the given deployment for the current tenant.
+     *
+     * @param deployment
+     *            the deployment to cache
+     */
+    public void put(final ControllerDeployment deployment) {
+        final Cache cache = getCache();
+        if (cache != null) {
+            cache.put(deployment.getActionId(), deployment);
+        }
+    }
+
+    /**
+     * Evicts the deployment of the given action of the current tenant.
+     *
+     * @param actionId
+     *            the ID of the action
+     */
+    public void evict(final Long actionId) {
+        final Cache cache = getCache();
+        if (cache != null) {
+            cache.evict(actionId);
+        }
+    }
+
+    /**
+     * @return the number of retrievals answered from the cache since startup
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of retrievals which had to be loaded from the
+     *         repository since startup
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Evicts the deployment of a changed action, e.g. updated by a feedback or
+     * switched to forced.
+     *
+     * @param event
+     *            the action change event
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onActionChange(final ActionPropertyChangeEvent event) {
+        evict(event.getTenant(), event.getEntity().getId());
+    }
+
+    /**
+     * Evicts the deployment of a canceled action.
+     *
+     * @param event
+     *            the cancel event
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onCancel(final CancelTargetAssignmentEvent event) {
+        evict(event.getTenant(), event.getActionId());
+    }
+
+    /**
+     * Evicts all deployments of the tenant as the event does not contain the
+     * actions of the deleted target.
+     *
+     * @param event
+     *            the delete event
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onTargetDeleted(final TargetDeletedEvent event) {
+        tenantAware.runAsTenant(event.getTenant(), () -> {
+            final Cache cache = getCache();
+            if (cache != null) {
+                cache.clear();
+            }
+            return null;
+        });
+    }
+
+    private void evict(final String tenant, final Long actionId) {
+        LOG.trace("Evicting deployment of action {} of tenant {}", actionId, tenant);
+        tenantAware.runAsTenant(tenant, () -> {
+            evict(actionId);
+            return null;
+        });
+    }
+
+    private Cache getCache() {
+        return cacheManager.getCache(CacheConstants.CONTROLLER_DEPLOYMENT_CACHE);
+    }
+}
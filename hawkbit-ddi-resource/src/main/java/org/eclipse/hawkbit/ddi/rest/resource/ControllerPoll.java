@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ddi.rest.resource;
+
+import java.io.Serializable;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Action.ActionType;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.Target;
+
+/**
+ * Snapshot of everything the controller base resource needs to answer a poll
+ * of a target. Instances are immutable and {@link Serializable} so they can be
+ * kept in any cache implementation, e.g. the Guava or the Redis one. The
+ * security token is not part of the snapshot as the authentication happens
+ * before the controller is called.
+ */
+public final class ControllerPoll implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Long targetId;
+    private final String controllerId;
+    private final String address;
+    private final boolean requestControllerAttributes;
+    private final String pollingTime;
+    private final List<PolledAction> actions;
+    private final long createdAt;
+
+    /**
+     * Creates a snapshot of the given target.
+     *
+     * @param target
+     *            the polling target
+     * @param activeActions
+     *            the active actions of the target
+     * @param pollingTime
+     *            the polling time of the tenant
+     */
+    public ControllerPoll(final Target target, final List<Action> activeActions, final String pollingTime) {
+        this.targetId = target.getId();
+        this.controllerId = target.getControllerId();
+        final URI targetAddress = target.getTargetInfo().getAddress();
+        this.address = targetAddress != null ? targetAddress.toString() : null;
+        this.requestControllerAttributes = target.getTargetInfo().isRequestControllerAttributes();
+        this.pollingTime = pollingTime;
+        final List<PolledAction> polledActions = new ArrayList<>(activeActions.size());
+        activeActions.forEach(action -> polledActions.add(new PolledAction(action)));
+        this.actions = Collections.unmodifiableList(polledActions);
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    /**
+     * @param currentAddress
+     *            the address of the current request
+     * @param timeToLive
+     *            the maximum age of the snapshot in milliseconds
+     * @return <code>true</code> if the snapshot can answer a poll from the
+     *         given address
+     */
+    boolean isValidFor(final URI currentAddress, final long timeToLive) {
+        if (System.currentTimeMillis() - createdAt > timeToLive) {
+            return false;
+        }
+        return currentAddress == null || Objects.equals(address, currentAddress.toString());
+    }
+
+    public Long getTargetId() {
+        return targetId;
+    }
+
+    public String getControllerId() {
+        return controllerId;
+    }
+
+    public boolean isRequestControllerAttributes() {
+        return requestControllerAttributes;
+    }
+
+    public String getPollingTime() {
+        return pollingTime;
+    }
+
+    public List<PolledAction> getActions() {
+        return actions;
+    }
+
+    /**
+     * The parts of an active {@link Action} the controller base resource
+     * needs to render its links.
+     */
+    public static final class PolledAction implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final Long id;
+        private final Status status;
+        private final ActionType actionType;
+        private final long forcedTime;
+        private final int entityHash;
+
+        private PolledAction(final Action action) {
+            this.id = action.getId();
+            this.status = action.getStatus();
+            this.actionType = action.getActionType();
+            this.forcedTime = action.getForcedTime();
+            this.entityHash = action.hashCode();
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * @return <code>true</code> if the action is in status
+         *         {@link Status#CANCELING} or {@link Status#CANCELED}
+         */
+        public boolean isCancelingOrCanceled() {
+            return Status.CANCELING.equals(status) || Status.CANCELED.equals(status);
+        }
+
+        /**
+         * @param hitTimeMillis
+         *            the time to check
+         * @return see {@link Action#isHitAutoForceTime(long)}
+         */
+        public boolean isHitAutoForceTime(final long hitTimeMillis) {
+            return ActionType.TIMEFORCED.equals(actionType) && hitTimeMillis >= forcedTime;
+        }
+
+        /**
+         * @return the {@link Action#hashCode()} of the action entity which
+         *         changes with every modification of the action
+         */
+        public int getEntityHash() {
+            return entityHash;
+        }
+    }
+}
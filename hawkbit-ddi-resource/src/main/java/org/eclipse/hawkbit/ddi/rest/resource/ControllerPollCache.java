@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ddi.rest.resource;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.hawkbit.ControllerPollProperties;
+import org.eclipse.hawkbit.cache.CacheConstants;
+import org.eclipse.hawkbit.eventbus.EventSubscriber;
+import org.eclipse.hawkbit.eventbus.event.CancelTargetAssignmentEvent;
+import org.eclipse.hawkbit.eventbus.event.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.ActionPropertyChangeEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetAssignDistributionSetBulkEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Read-through cache of the {@link ControllerPoll} per tenant and controller
+ * ID. The cache is backed by the {@link CacheManager} so it works with the
+ * tenant aware Guava cache as well as with the Redis cache.
+ *
+ * Entries are evicted when a distribution set gets assigned, an assignment is
+ * canceled, an action changes or the target is deleted. Changes of the tenant
+ * configuration evict all entries of the tenant. As the events are delivered
+ * asynchronously the entries are additionally limited by
+ * {@link ControllerPollProperties.Cache#getTimeToLive()}.
+ */
+@EventSubscriber
+public class ControllerPollCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ControllerPollCache.class);
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private ControllerPollProperties controllerPollProperties;
+
+    /**
+     * @return <code>true</code> if poll results should be cached
+     */
+    public boolean isEnabled() {
+        return controllerPollProperties.getCache().isEnabled();
+    }
+
+    /**
+     * Looks up the poll result of the given controller for the current tenant.
+     *
+     * @param controllerId
+     *            the ID of the polling controller
+     * @param address
+     *            the address of the current request
+     * @return the cached poll result or <code>null</code> if there is none or
+     *         it cannot be used for the given address
+     */
+    public ControllerPoll get(final String controllerId, final URI address) {
+        final Cache cache = getCache();
+        final ControllerPoll poll = cache != null ? cache.get(controllerId, ControllerPoll.class) : null;
+        if (poll != null && poll.isValidFor(address, controllerPollProperties.getCache().getTimeToLive())) {
+            hits.incrementAndGet();
+            return poll;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Caches the given poll result for the current tenant.
+     *
+     * @param poll
+     *            the poll result to cache
+     */
+    public void put(final ControllerPoll poll) {
+        final Cache cache = getCache();
+        if (cache != null) {
+            cache.put(poll.getControllerId(), poll);
+        }
+    }
+
+    /**
+     * Evicts the poll result of the given controller of the current tenant.
+     *
+     * @param controllerId
+     *            the ID of the controller
+     */
+    public void evict(final String controllerId) {
+        final Cache cache = getCache();
+        if (cache != null) {
+            cache.evict(controllerId);
+        }
+    }
+
+    /**
+     * @return the number of polls answered from the cache since startup
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of polls which had to be loaded from the repository
+     *         since startup
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Evicts the poll result of the target a distribution set has been
+     * assigned to.
+     *
+     * @param event
+     *            the assignment event
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onAssignment(final TargetAssignDistributionSetEvent event) {
+        evict(event.getTenant(), event.getControllerId());
+    }
+
+    /**
+     * Evicts the poll results of the targets of a chunk of a bulk assignment.
+     *
+     * @param event
+     *            the bulk assignment event
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onBulkAssignment(final TargetAssignDistributionSetBulkEvent event) {
+        event.getAssignments().forEach(this::onAssignment);
+    }
+
+    /**
+     * Evicts the poll result of the target an assignment has been canceled
+     * for.
+     *
+     * @param event
+     *            the cancel event
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onCancel(final CancelTargetAssignmentEvent event) {
+        evict(event.getTenant(), event.getControllerId());
+    }
+
+    /**
+     * Evicts the poll result of the target of a changed action, e.g. closed by
+     * a feedback.
+     *
+     * @param event
+     *            the action change event
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onActionChange(final ActionPropertyChangeEvent event) {
+        evict(event.getTenant(), event.getControllerId());
+    }
+
+    /**
+     * Evicts the poll result of a deleted target. All poll results of the
+     * tenant are evicted only if the controller ID of the target is unknown.
+     *
+     * @param event
+     *            the delete event
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onTargetDeleted(final TargetDeletedEvent event) {
+        if (event.getControllerId() != null) {
+            evict(event.getTenant(), event.getControllerId());
+            return;
+        }
+        tenantAware.runAsTenant(event.getTenant(), () -> {
+            final Cache cache = getCache();
+            if (cache != null) {
+                cache.clear();
+            }
+            return null;
+        });
+    }
+
+    private void evict(final String tenant, final String controllerId) {
+        LOG.trace("Evicting poll result of controller {} of tenant {}", controllerId, tenant);
+        tenantAware.runAsTenant(tenant, () -> {
+            evict(controllerId);
+            return null;
+        });
+    }
+
+    private Cache getCache() {
+        return cacheManager.getCache(CacheConstants.CONTROLLER_POLL_CACHE);
+    }
+}
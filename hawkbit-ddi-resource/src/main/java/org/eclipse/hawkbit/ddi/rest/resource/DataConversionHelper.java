@@ -14,6 +14,8 @@ import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletResponse;
@@ -26,12 +28,16 @@ import org.eclipse.hawkbit.ddi.json.model.DdiArtifactHash;
 import org.eclipse.hawkbit.ddi.json.model.DdiChunk;
 import org.eclipse.hawkbit.ddi.json.model.DdiConfig;
 import org.eclipse.hawkbit.ddi.json.model.DdiControllerBase;
+import org.eclipse.hawkbit.ddi.json.model.DdiDeployment;
+import org.eclipse.hawkbit.ddi.json.model.DdiDeployment.HandlingType;
+import org.eclipse.hawkbit.ddi.json.model.DdiDeploymentBase;
 import org.eclipse.hawkbit.ddi.json.model.DdiPolling;
 import org.eclipse.hawkbit.ddi.rest.api.DdiRestConstants;
+import org.eclipse.hawkbit.ddi.rest.resource.ControllerDeployment.DeploymentArtifact;
+import org.eclipse.hawkbit.ddi.rest.resource.ControllerPoll.PolledAction;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.Status;
 import org.eclipse.hawkbit.repository.model.LocalArtifact;
-import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.springframework.hateoas.Link;
 
@@ -46,7 +52,19 @@ public final class DataConversionHelper {
 
     }
 
-    static List<DdiChunk> createChunks(final String targetid, final Action uAction,
+    /**
+     * Creates the chunks of the deployment resource, one per software module
+     * of the distribution set of the action.
+     *
+     * @param targetid
+     *            of the target
+     * @param uAction
+     *            the update action
+     * @param artifactUrlHandler
+     *            to generate the download links
+     * @return the chunks
+     */
+    public static List<DdiChunk> createChunks(final String targetid, final Action uAction,
             final ArtifactUrlHandler artifactUrlHandler) {
         return uAction.getDistributionSet().getModules().stream()
                 .map(module -> new DdiChunk(mapChunkLegacyKeys(module.getType().getKey()), module.getVersion(),
@@ -55,6 +73,21 @@ public final class DataConversionHelper {
 
     }
 
+    static DdiDeploymentBase fromDeployment(final String targetid, final ControllerDeployment deployment,
+            final ArtifactUrlHandler artifactUrlHandler) {
+        final List<DdiChunk> chunks = deployment.getChunks().stream()
+                .map(chunk -> new DdiChunk(mapChunkLegacyKeys(chunk.getTypeKey()), chunk.getVersion(),
+                        chunk.getName(), chunk.getArtifacts().stream()
+                                .map(artifact -> createArtifact(targetid, artifactUrlHandler, artifact))
+                                .collect(Collectors.toList())))
+                .collect(Collectors.toList());
+
+        final HandlingType handlingType = deployment.isForce() ? HandlingType.FORCED : HandlingType.ATTEMPT;
+
+        return new DdiDeploymentBase(Long.toString(deployment.getActionId()),
+                new DdiDeployment(handlingType, handlingType, chunks));
+    }
+
     private static String mapChunkLegacyKeys(final String key) {
         if ("application".equals(key)) {
             return "bApp";
@@ -87,73 +120,187 @@ public final class DataConversionHelper {
 
     private static DdiArtifact createArtifact(final String targetid, final ArtifactUrlHandler artifactUrlHandler,
             final LocalArtifact artifact) {
+        return createArtifact(targetid, artifactUrlHandler, artifact.getSoftwareModule().getId(),
+                artifact.getFilename(), artifact.getSha1Hash(), artifact.getMd5Hash(), artifact.getSize());
+    }
+
+    private static DdiArtifact createArtifact(final String targetid, final ArtifactUrlHandler artifactUrlHandler,
+            final DeploymentArtifact artifact) {
+        return createArtifact(targetid, artifactUrlHandler, artifact.getSoftwareModuleId(), artifact.getFilename(),
+                artifact.getSha1Hash(), artifact.getMd5Hash(), artifact.getSize());
+    }
+
+    private static DdiArtifact createArtifact(final String targetid, final ArtifactUrlHandler artifactUrlHandler,
+            final Long softwareModuleId, final String filename, final String sha1Hash, final String md5Hash,
+            final Long size) {
         final DdiArtifact file = new DdiArtifact();
-        file.setHashes(new DdiArtifactHash(artifact.getSha1Hash(), artifact.getMd5Hash()));
-        file.setFilename(artifact.getFilename());
-        file.setSize(artifact.getSize());
+        file.setHashes(new DdiArtifactHash(sha1Hash, md5Hash));
+        file.setFilename(filename);
+        file.setSize(size);
 
         if (artifactUrlHandler.protocolSupported(UrlProtocol.HTTP)) {
-            final String linkHttp = artifactUrlHandler.getUrl(targetid, artifact.getSoftwareModule().getId(),
-                    artifact.getFilename(), artifact.getSha1Hash(), UrlProtocol.HTTP);
+            final String linkHttp = artifactUrlHandler.getUrl(targetid, softwareModuleId, filename, sha1Hash,
+                    UrlProtocol.HTTP);
             file.add(new Link(linkHttp).withRel("download-http"));
             file.add(new Link(linkHttp + DdiDlRestConstants.ARTIFACT_MD5_DWNL_SUFFIX).withRel("md5sum-http"));
         }
 
         if (artifactUrlHandler.protocolSupported(UrlProtocol.HTTPS)) {
-            final String linkHttps = artifactUrlHandler.getUrl(targetid, artifact.getSoftwareModule().getId(),
-                    artifact.getFilename(), artifact.getSha1Hash(), UrlProtocol.HTTPS);
+            final String linkHttps = artifactUrlHandler.getUrl(targetid, softwareModuleId, filename, sha1Hash,
+                    UrlProtocol.HTTPS);
             file.add(new Link(linkHttps).withRel("download"));
             file.add(new Link(linkHttps + DdiDlRestConstants.ARTIFACT_MD5_DWNL_SUFFIX).withRel("md5sum"));
         }
         return file;
     }
 
-    static DdiControllerBase fromTarget(final Target target, final List<Action> actions,
-            final String defaultControllerPollTime, final TenantAware tenantAware) {
-        final DdiControllerBase result = new DdiControllerBase(
-                new DdiConfig(new DdiPolling(defaultControllerPollTime)));
-
-        boolean addedUpdate = false;
-        boolean addedCancel = false;
-        final long countCancelingActions = actions.stream().filter(a -> a.getStatus() == Status.CANCELING).count();
-        for (final Action action : actions) {
-            if (countCancelingActions <= 0 && !action.isCancelingOrCanceled() && !addedUpdate) {
-                // we need to add the hashcode here of the actionWithStatus
-                // because the action might
-                // have changed from 'soft' to 'forced' type and we need to
-                // change the payload of the
-                // response because of eTags.
-                result.add(linkTo(methodOn(DdiRootController.class, tenantAware.getCurrentTenant())
-                        .getControllerBasedeploymentAction(target.getControllerId(), action.getId(),
-                                calculateEtag(action))).withRel(DdiRestConstants.DEPLOYMENT_BASE_ACTION));
-                addedUpdate = true;
-            } else if (action.isCancelingOrCanceled() && !addedCancel) {
-                result.add(linkTo(methodOn(DdiRootController.class, tenantAware.getCurrentTenant())
-                        .getControllerCancelAction(target.getControllerId(), action.getId()))
-                                .withRel(DdiRestConstants.CANCEL_ACTION));
-                addedCancel = true;
-            }
+    /**
+     * Creates the controller base resource of a poll.
+     *
+     * @param poll
+     *            the polled target with its active actions
+     * @param tenantAware
+     *            to resolve the tenant of the links
+     * @return the controller base resource
+     */
+    public static DdiControllerBase fromTarget(final ControllerPoll poll, final TenantAware tenantAware) {
+        final DdiControllerBase result = new DdiControllerBase(new DdiConfig(new DdiPolling(poll.getPollingTime())));
+
+        final Optional<PolledAction> updateAction = findUpdateAction(poll);
+        if (updateAction.isPresent()) {
+            // we need to add the hashcode here of the actionWithStatus
+            // because the action might
+            // have changed from 'soft' to 'forced' type and we need to
+            // change the payload of the
+            // response because of eTags.
+            result.add(linkTo(methodOn(DdiRootController.class, tenantAware.getCurrentTenant())
+                    .getControllerBasedeploymentAction(poll.getControllerId(), updateAction.get().getId(),
+                            calculateEtag(updateAction.get()))).withRel(DdiRestConstants.DEPLOYMENT_BASE_ACTION));
         }
 
-        if (target.getTargetInfo().isRequestControllerAttributes()) {
+        final Optional<PolledAction> cancelAction = findCancelAction(poll);
+        if (cancelAction.isPresent()) {
+            result.add(linkTo(methodOn(DdiRootController.class, tenantAware.getCurrentTenant())
+                    .getControllerCancelAction(poll.getControllerId(), cancelAction.get().getId()))
+                            .withRel(DdiRestConstants.CANCEL_ACTION));
+        }
+
+        if (poll.isRequestControllerAttributes()) {
             result.add(linkTo(methodOn(DdiRootController.class, tenantAware.getCurrentTenant()).putConfigData(null,
-                    target.getControllerId())).withRel(DdiRestConstants.CONFIG_DATA_ACTION));
+                    poll.getControllerId())).withRel(DdiRestConstants.CONFIG_DATA_ACTION));
         }
         return result;
     }
 
     /**
-     * Calculates an etag for the given {@link Action} based on the entities
-     * hashcode and the {@link Action#isHitAutoForceTime(long)} to reflect a
-     * force switch.
+     * The deployment base is offered for the first action which is neither
+     * canceling nor canceled as long as no action is canceling.
+     */
+    private static Optional<PolledAction> findUpdateAction(final ControllerPoll poll) {
+        if (poll.getActions().stream().anyMatch(action -> action.getStatus() == Status.CANCELING)) {
+            return Optional.empty();
+        }
+        return poll.getActions().stream().filter(action -> !action.isCancelingOrCanceled()).findFirst();
+    }
+
+    private static Optional<PolledAction> findCancelAction(final ControllerPoll poll) {
+        return poll.getActions().stream().filter(PolledAction::isCancelingOrCanceled).findFirst();
+    }
+
+    /**
+     * Calculates the strong ETag of the controller base resource from
+     * everything {@link #fromTarget(ControllerPoll, TenantAware)} renders, so
+     * that it can be compared with the If-None-Match header of a poll without
+     * rendering the response.
+     *
+     * @param poll
+     *            to calculate the ETag for
+     * @return the quoted ETag
+     */
+    static String calculateEtag(final ControllerPoll poll) {
+        final Optional<PolledAction> updateAction = findUpdateAction(poll);
+        final Optional<PolledAction> cancelAction = findCancelAction(poll);
+
+        final StringBuilder etag = new StringBuilder("\"").append(poll.getPollingTime());
+        etag.append("-d");
+        if (updateAction.isPresent()) {
+            etag.append(updateAction.get().getId()).append('.').append(calculateEtag(updateAction.get()));
+        }
+        etag.append("-c");
+        if (cancelAction.isPresent()) {
+            etag.append(cancelAction.get().getId());
+        }
+        if (poll.isRequestControllerAttributes()) {
+            etag.append("-a");
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Calculates the strong ETag of the deployment base resource of the given
+     * action from its ID, the handling type, the version of the assigned
+     * distribution set and the artifacts of its modules. The artifacts are
+     * included as adding or deleting an artifact does not change the version
+     * of the distribution set.
+     *
+     * @param action
+     *            to calculate the ETag for
+     * @return the quoted ETag
+     */
+    static String calculateEtag(final Action action) {
+        final int artifactsHash = action.getDistributionSet().getModules().stream()
+                .flatMapToInt(module -> module.getLocalArtifacts().stream().mapToInt(
+                        artifact -> hashArtifact(module.getId(), artifact.getFilename(), artifact.getSha1Hash())))
+                .sum();
+        return calculateDeploymentEtag(action.getId(), action.isForce(), action.getDistributionSet().getId(),
+                action.getDistributionSet().getOptLockRevision(), artifactsHash);
+    }
+
+    /**
+     * Calculates the strong ETag of the deployment base resource of the given
+     * cached deployment, see {@link #calculateEtag(Action)}.
+     *
+     * @param deployment
+     *            to calculate the ETag for
+     * @return the quoted ETag
+     */
+    static String calculateEtag(final ControllerDeployment deployment) {
+        final int artifactsHash = deployment.getChunks().stream()
+                .flatMapToInt(chunk -> chunk.getArtifacts().stream().mapToInt(artifact -> hashArtifact(
+                        artifact.getSoftwareModuleId(), artifact.getFilename(), artifact.getSha1Hash())))
+                .sum();
+        return calculateDeploymentEtag(deployment.getActionId(), deployment.isForce(),
+                deployment.getDistributionSetId(), deployment.getDistributionSetRevision(), artifactsHash);
+    }
+
+    /**
+     * The hashes of the artifacts are summed up, so the order of the modules
+     * and artifacts does not matter.
+     */
+    private static int hashArtifact(final Long softwareModuleId, final String filename, final String sha1Hash) {
+        return Objects.hash(softwareModuleId, filename, sha1Hash);
+    }
+
+    private static String calculateDeploymentEtag(final Long actionId, final boolean force,
+            final Long distributionSetId, final long distributionSetRevision, final int artifactsHash) {
+        final HandlingType handlingType = force ? HandlingType.FORCED : HandlingType.ATTEMPT;
+        return "\"" + actionId + "-" + handlingType.getName() + "-" + distributionSetId + "."
+                + distributionSetRevision + "-" + Integer.toHexString(artifactsHash) + "\"";
+    }
+
+    /**
+     * Calculates an etag for the given {@link PolledAction} based on the
+     * entities hashcode and the {@link Action#isHitAutoForceTime(long)} to
+     * reflect a force switch. The force switch is evaluated on every call so
+     * cached actions switch as well.
      * 
      * @param action
      *            to calculate the etag for
      * @return the etag
      */
-    private static int calculateEtag(final Action action) {
+    private static int calculateEtag(final PolledAction action) {
         final int prime = 31;
-        int result = action.hashCode();
+        int result = action.getEntityHash();
         result = prime * result + (action.isHitAutoForceTime(System.currentTimeMillis()) ? 1231 : 1237);
         return result;
     }
@@ -10,6 +10,7 @@ package org.eclipse.hawkbit.ddi.rest.resource;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
@@ -20,11 +21,8 @@ import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
 import org.eclipse.hawkbit.ddi.json.model.DdiActionFeedback;
 import org.eclipse.hawkbit.ddi.json.model.DdiCancel;
 import org.eclipse.hawkbit.ddi.json.model.DdiCancelActionToStop;
-import org.eclipse.hawkbit.ddi.json.model.DdiChunk;
 import org.eclipse.hawkbit.ddi.json.model.DdiConfigData;
 import org.eclipse.hawkbit.ddi.json.model.DdiControllerBase;
-import org.eclipse.hawkbit.ddi.json.model.DdiDeployment;
-import org.eclipse.hawkbit.ddi.json.model.DdiDeployment.HandlingType;
 import org.eclipse.hawkbit.ddi.json.model.DdiDeploymentBase;
 import org.eclipse.hawkbit.ddi.json.model.DdiResult.FinalResult;
 import org.eclipse.hawkbit.ddi.rest.api.DdiRootControllerRestApi;
@@ -51,6 +49,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -97,6 +96,12 @@ public class DdiRootController implements DdiRootControllerRestApi {
     @Autowired
     private EntityFactory entityFactory;
 
+    @Autowired
+    private ControllerPollCache controllerPollCache;
+
+    @Autowired
+    private ControllerDeploymentCache controllerDeploymentCache;
+
     @Override
     public ResponseEntity<List<org.eclipse.hawkbit.ddi.json.model.DdiArtifact>> getSoftwareModulesArtifacts(
             @PathVariable("targetid") final String targetid,
@@ -119,22 +124,56 @@ public class DdiRootController implements DdiRootControllerRestApi {
     public ResponseEntity<DdiControllerBase> getControllerBase(@PathVariable("targetid") final String targetid) {
         LOG.debug("getControllerBase({})", targetid);
 
-        final Target target = controllerManagement.findOrRegisterTargetIfItDoesNotexist(targetid, IpUtil
-                .getClientIpFromRequest(requestResponseContextHolder.getHttpServletRequest(), securityProperties));
+        final URI address = IpUtil.getClientIpFromRequest(requestResponseContextHolder.getHttpServletRequest(),
+                securityProperties);
+
+        if (controllerPollCache.isEnabled()) {
+            final ControllerPoll cached = controllerPollCache.get(targetid, address);
+            if (cached != null) {
+                controllerManagement.updateLastTargetQuery(cached.getTargetId(), address);
+                return createControllerBaseResponse(cached);
+            }
+        }
+
+        final Target target = controllerManagement.findOrRegisterTargetIfItDoesNotexist(targetid, address);
 
         if (target.getTargetInfo().getUpdateStatus() == TargetUpdateStatus.UNKNOWN) {
             LOG.debug("target with {} extsisted but was in status UNKNOWN -> REGISTERED)", targetid);
             controllerManagement.updateTargetStatus(target.getTargetInfo(), TargetUpdateStatus.REGISTERED,
-                    System.currentTimeMillis(), IpUtil.getClientIpFromRequest(
-                            requestResponseContextHolder.getHttpServletRequest(), securityProperties));
+                    System.currentTimeMillis(), address);
         }
 
-        return new ResponseEntity<>(
-                DataConversionHelper.fromTarget(target, controllerManagement.findActionByTargetAndActive(target),
-                        controllerManagement.getPollingTime(), tenantAware),
+        final ControllerPoll poll = new ControllerPoll(target, controllerManagement.findActionByTargetAndActive(target),
+                controllerManagement.getPollingTime());
+
+        if (controllerPollCache.isEnabled() && target.getTargetInfo().getUpdateStatus() != TargetUpdateStatus.UNKNOWN) {
+            controllerPollCache.put(poll);
+        }
+
+        return createControllerBaseResponse(poll);
+    }
+
+    private ResponseEntity<DdiControllerBase> createControllerBaseResponse(final ControllerPoll poll) {
+        final String etag = DataConversionHelper.calculateEtag(poll);
+        if (isNotModified(etag)) {
+            return new ResponseEntity<>(createEtagHeaders(etag), HttpStatus.NOT_MODIFIED);
+        }
+        return new ResponseEntity<>(DataConversionHelper.fromTarget(poll, tenantAware), createEtagHeaders(etag),
                 HttpStatus.OK);
     }
 
+    private static HttpHeaders createEtagHeaders(final String etag) {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        return headers;
+    }
+
+    private boolean isNotModified(final String etag) {
+        final String ifNoneMatch = requestResponseContextHolder.getHttpServletRequest()
+                .getHeader(HttpHeaders.IF_NONE_MATCH);
+        return ifNoneMatch != null && RestResourceConversionHelper.matchesHttpHeader(ifNoneMatch, etag);
+    }
+
     @Override
     public ResponseEntity<InputStream> downloadArtifact(@PathVariable("targetid") final String targetid,
             @PathVariable("softwareModuleId") final Long softwareModuleId,
@@ -224,8 +263,20 @@ public class DdiRootController implements DdiRootControllerRestApi {
             @RequestParam(value = "c", required = false, defaultValue = "-1") final int resource) {
         LOG.debug("getControllerBasedeploymentAction({},{})", targetid, resource);
 
-        final Target target = controllerManagement.updateLastTargetQuery(targetid, IpUtil
-                .getClientIpFromRequest(requestResponseContextHolder.getHttpServletRequest(), securityProperties));
+        final URI address = IpUtil.getClientIpFromRequest(requestResponseContextHolder.getHttpServletRequest(),
+                securityProperties);
+
+        if (controllerDeploymentCache.isEnabled()) {
+            final ControllerDeployment cached = controllerDeploymentCache.get(targetid, actionId);
+            if (cached != null) {
+                // the retrieval has been registered when the deployment was
+                // cached
+                controllerManagement.updateLastTargetQuery(cached.getTargetId(), address);
+                return createDeploymentBaseResponse(targetid, cached, DataConversionHelper.calculateEtag(cached));
+            }
+        }
+
+        final Target target = controllerManagement.updateLastTargetQuery(targetid, address);
 
         final Action action = findActionWithExceptionIfNotFound(actionId);
         if (!action.getTarget().getId().equals(target.getId())) {
@@ -235,24 +286,41 @@ public class DdiRootController implements DdiRootControllerRestApi {
 
         if (!action.isCancelingOrCanceled()) {
 
-            final List<DdiChunk> chunks = DataConversionHelper.createChunks(targetid, action, artifactUrlHandler);
-
-            final HandlingType handlingType = action.isForce() ? HandlingType.FORCED : HandlingType.ATTEMPT;
-
-            final DdiDeploymentBase base = new DdiDeploymentBase(Long.toString(action.getId()),
-                    new DdiDeployment(handlingType, handlingType, chunks));
+            // the target already has the deployment and the retrieval has been
+            // registered before, so neither is it loaded nor registered again
+            final String etag = DataConversionHelper.calculateEtag(action);
+            if (isNotModified(etag)) {
+                return new ResponseEntity<>(createEtagHeaders(etag), HttpStatus.NOT_MODIFIED);
+            }
 
-            LOG.debug("Found an active UpdateAction for target {}. returning deyploment: {}", targetid, base);
+            final ControllerDeployment deployment = new ControllerDeployment(action);
 
             controllerManagement.registerRetrieved(action, RepositoryConstants.SERVER_MESSAGE_PREFIX
                     + "Target retrieved update action and should start now the download.");
 
-            return new ResponseEntity<>(base, HttpStatus.OK);
+            if (controllerDeploymentCache.isEnabled()) {
+                controllerDeploymentCache.put(deployment);
+            }
+
+            return createDeploymentBaseResponse(targetid, deployment, etag);
         }
 
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
+    private ResponseEntity<DdiDeploymentBase> createDeploymentBaseResponse(final String targetid,
+            final ControllerDeployment deployment, final String etag) {
+        if (isNotModified(etag)) {
+            return new ResponseEntity<>(createEtagHeaders(etag), HttpStatus.NOT_MODIFIED);
+        }
+
+        final DdiDeploymentBase base = DataConversionHelper.fromDeployment(targetid, deployment, artifactUrlHandler);
+
+        LOG.debug("Found an active UpdateAction for target {}. returning deyploment: {}", targetid, base);
+
+        return new ResponseEntity<>(base, createEtagHeaders(etag), HttpStatus.OK);
+    }
+
     @Override
     public ResponseEntity<Void> postBasedeploymentActionFeedback(@Valid @RequestBody final DdiActionFeedback feedback,
             @PathVariable("targetid") final String targetid, @PathVariable("actionId") @NotEmpty final Long actionId) {
@@ -355,6 +423,7 @@ public class DdiRootController implements DdiRootControllerRestApi {
                 .getClientIpFromRequest(requestResponseContextHolder.getHttpServletRequest(), securityProperties));
 
         controllerManagement.updateControllerAttributes(targetid, configData.getData());
+        controllerPollCache.evict(targetid);
 
         return new ResponseEntity<>(HttpStatus.OK);
     }
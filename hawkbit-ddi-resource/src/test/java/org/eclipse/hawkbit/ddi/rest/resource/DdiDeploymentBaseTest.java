@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.RandomUtils;
+import org.eclipse.hawkbit.ControllerPollProperties;
 import org.eclipse.hawkbit.repository.DistributionSetAssignmentResult;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.ActionType;
@@ -41,6 +42,7 @@ import org.eclipse.hawkbit.rest.util.JsonBuilder;
 import org.eclipse.hawkbit.rest.util.MockMvcResultPrinter;
 import org.fest.assertions.core.Condition;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.hateoas.MediaTypes;
@@ -63,6 +65,12 @@ public class DdiDeploymentBaseTest extends AbstractRestIntegrationTestWithMongoD
     private static final String HTTP_LOCALHOST = "http://localhost:8080/";
     private static final String HTTPS_LOCALHOST = "https://localhost:8080/";
 
+    @Autowired
+    private ControllerPollProperties controllerPollProperties;
+
+    @Autowired
+    private ControllerDeploymentCache controllerDeploymentCache;
+
     @Test()
     @Description("Ensures that artifacts are not found, when softare module does not exists.")
     public void artifactsNotFound() throws Exception {
@@ -273,6 +281,103 @@ public class DdiDeploymentBaseTest extends AbstractRestIntegrationTestWithMongoD
                 .toString()).isNotEqualTo(urlBeforeSwitch);
     }
 
+    @Test
+    @Description("Ensures that the deployment base carries an ETag of the action and that a conditional retrieval "
+            + "with that ETag is answered with not modified without registering the retrieval again.")
+    public void deploymentBaseNotModified() throws Exception {
+        final Target target = targetManagement.createTarget(entityFactory.generateTarget("4712"));
+        final DistributionSet ds = testdataFactory.createDistributionSet("", true);
+        deploymentManagement.assignDistributionSet(ds.getId(), ActionType.SOFT, RepositoryModelConstants.NO_FORCE_TIME,
+                target.getControllerId());
+        final Action action = deploymentManagement.findActiveActionsByTarget(target).get(0);
+
+        final String etag = mvc
+                .perform(get("/{tenant}/controller/v1/4712/deploymentBase/" + action.getId(),
+                        tenantAware.getCurrentTenant()))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                .andExpect(jsonPath("$deployment.update", equalTo("attempt"))).andReturn().getResponse()
+                .getHeader("ETag");
+        assertThat(etag).startsWith("\"" + action.getId() + "-attempt-" + ds.getId() + ".");
+        final long statusCount = deploymentManagement.countActionStatusAll();
+
+        mvc.perform(get("/{tenant}/controller/v1/4712/deploymentBase/" + action.getId(),
+                tenantAware.getCurrentTenant()).header("If-None-Match", etag)).andDo(MockMvcResultPrinter.print())
+                .andExpect(status().isNotModified());
+        assertThat(deploymentManagement.countActionStatusAll()).isEqualTo(statusCount);
+
+        // adding an artifact changes the payload but not the distribution set
+        artifactManagement.createLocalArtifact(new ByteArrayInputStream(RandomUtils.nextBytes(1024)),
+                ds.findFirstModuleByType(osType).getId(), "added", false);
+        final String artifactEtag = mvc
+                .perform(get("/{tenant}/controller/v1/4712/deploymentBase/" + action.getId(),
+                        tenantAware.getCurrentTenant()).header("If-None-Match", etag))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                .andExpect(jsonPath("$deployment.chunks[?(@.part==os)][0].artifacts[0].filename", equalTo("added")))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(artifactEtag).isNotEqualTo(etag);
+
+        // switching to forced changes the payload and with it the ETag
+        deploymentManagement.forceTargetAction(action.getId());
+        final String forcedEtag = mvc
+                .perform(get("/{tenant}/controller/v1/4712/deploymentBase/" + action.getId(),
+                        tenantAware.getCurrentTenant()).header("If-None-Match", artifactEtag))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                .andExpect(jsonPath("$deployment.update", equalTo("forced"))).andReturn().getResponse()
+                .getHeader("ETag");
+        assertThat(forcedEtag).isNotEqualTo(artifactEtag);
+    }
+
+    @Test
+    @Description("Ensures that the deployment base is served from the cache if enabled until the action changes.")
+    public void deploymentBaseServedFromCacheUntilActionChanges() throws Exception {
+        controllerPollProperties.getCache().setEnabled(true);
+        try {
+            final Target target = targetManagement.createTarget(entityFactory.generateTarget("4712"));
+            final DistributionSet ds = testdataFactory.createDistributionSet("", true);
+            deploymentManagement.assignDistributionSet(ds.getId(), ActionType.SOFT,
+                    RepositoryModelConstants.NO_FORCE_TIME, target.getControllerId());
+            final Action action = deploymentManagement.findActiveActionsByTarget(target).get(0);
+
+            final String etag = mvc
+                    .perform(get("/{tenant}/controller/v1/4712/deploymentBase/" + action.getId(),
+                            tenantAware.getCurrentTenant()))
+                    .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk()).andReturn().getResponse()
+                    .getHeader("ETag");
+
+            final long hits = controllerDeploymentCache.getHits();
+            mvc.perform(get("/{tenant}/controller/v1/4712/deploymentBase/" + action.getId(),
+                    tenantAware.getCurrentTenant())).andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                    .andExpect(jsonPath("$id", equalTo(String.valueOf(action.getId()))))
+                    .andExpect(jsonPath("$deployment.chunks", hasSize(ds.getModules().size())));
+            mvc.perform(get("/{tenant}/controller/v1/4712/deploymentBase/" + action.getId(),
+                    tenantAware.getCurrentTenant()).header("If-None-Match", etag))
+                    .andDo(MockMvcResultPrinter.print()).andExpect(status().isNotModified());
+            assertThat(controllerDeploymentCache.getHits()).isEqualTo(hits + 2);
+
+            // another target cannot retrieve the cached deployment
+            targetManagement.createTarget(entityFactory.generateTarget("4713"));
+            mvc.perform(get("/{tenant}/controller/v1/4713/deploymentBase/" + action.getId(),
+                    tenantAware.getCurrentTenant())).andDo(MockMvcResultPrinter.print())
+                    .andExpect(status().isNotFound());
+
+            // the eviction is triggered by the asynchronous event bus
+            deploymentManagement.forceTargetAction(action.getId());
+            String update = "";
+            for (int i = 0; i < 50 && !"forced".equals(update); i++) {
+                Thread.sleep(100);
+                update = JsonPath.compile("deployment.update")
+                        .read(mvc
+                                .perform(get("/{tenant}/controller/v1/4712/deploymentBase/" + action.getId(),
+                                        tenantAware.getCurrentTenant()))
+                                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString())
+                        .toString();
+            }
+            assertThat(update).isEqualTo("forced");
+        } finally {
+            controllerPollProperties.getCache().setEnabled(false);
+        }
+    }
+
     @Test
     @Description("Attempt/soft deployment to a controller. Checks if the resource reponse payload  for a given deployment is as expected.")
     public void deplomentAttemptAction() throws Exception {
@@ -21,7 +21,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
+import org.eclipse.hawkbit.ControllerPollProperties;
 import org.eclipse.hawkbit.im.authentication.SpPermission;
 import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
 import org.eclipse.hawkbit.repository.model.Action;
@@ -38,6 +42,7 @@ import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationKey;
 import org.eclipse.hawkbit.util.IpUtil;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.MediaType;
 
@@ -55,6 +60,16 @@ public class DdiRootControllerTest extends AbstractRestIntegrationTestWithMongoD
     @Autowired
     private HawkbitSecurityProperties securityProperties;
 
+    @Autowired
+    private ControllerPollProperties controllerPollProperties;
+
+    @Autowired
+    private ControllerPollCache controllerPollCache;
+
+    @Autowired
+    @Qualifier("asyncExecutor")
+    private Executor asyncExecutor;
+
     @Test
     @Description("Ensures that targets cannot be created e.g. in plug'n play scenarios when tenant does not exists but can be created if the tenant exists.")
     @WithUser(tenantId = "tenantDoesNotExists", allSpPermissions = true, authorities = "ROLE_CONTROLLER", autoCreateTenant = false)
@@ -224,6 +239,41 @@ public class DdiRootControllerTest extends AbstractRestIntegrationTestWithMongoD
                 .andReturn().getResponse().getHeader("ETag");
     }
 
+    @Test
+    @Description("Ensures that the poll result is served from the cache if enabled and that an assignment evicts it.")
+    public void rootRsServedFromCacheUntilAssignment() throws Exception {
+        controllerPollProperties.getCache().setEnabled(true);
+        try {
+            mvc.perform(get("/{tenant}/controller/v1/4711", tenantAware.getCurrentTenant()))
+                    .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk());
+            mvc.perform(get("/{tenant}/controller/v1/4711", tenantAware.getCurrentTenant()))
+                    .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk());
+
+            final long hits = controllerPollCache.getHits();
+            final long current = System.currentTimeMillis();
+            mvc.perform(get("/{tenant}/controller/v1/4711", tenantAware.getCurrentTenant()))
+                    .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                    .andExpect(jsonPath("$config.polling.sleep", equalTo("00:01:00")));
+            assertThat(controllerPollCache.getHits()).isEqualTo(hits + 1);
+            assertThat(targetManagement.findTargetByControllerID("4711").getTargetInfo().getLastTargetQuery())
+                    .isGreaterThanOrEqualTo(current);
+
+            final Target target = targetManagement.findTargetByControllerID("4711");
+            final DistributionSet ds = testdataFactory.createDistributionSet("");
+            deploymentManagement.assignDistributionSet(ds.getId(), new String[] { "4711" });
+            final Action updateAction = deploymentManagement.findActiveActionsByTarget(target).get(0);
+
+            awaitEventBus();
+            mvc.perform(get("/{tenant}/controller/v1/4711", tenantAware.getCurrentTenant()))
+                    .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                    .andExpect(jsonPath("$_links.deploymentBase.href",
+                            startsWith("http://localhost/" + tenantAware.getCurrentTenant()
+                                    + "/controller/v1/4711/deploymentBase/" + updateAction.getId())));
+        } finally {
+            controllerPollProperties.getCache().setEnabled(false);
+        }
+    }
+
     @Test
     @Description("Ensures that the target state machine of a precomissioned target switches from "
             + "UNKNOWN to REGISTERED when the target polls for the first time.")
@@ -310,4 +360,15 @@ public class DdiRootControllerTest extends AbstractRestIntegrationTestWithMongoD
                 .andDo(MockMvcResultPrinter.print()).andExpect(status().isGone());
     }
 
+
+    /**
+     * The eviction is triggered by the asynchronous event bus. Its handlers
+     * are executed by the single threaded test executor in the order of
+     * submission, so a task submitted afterwards runs after the eviction.
+     */
+    private void awaitEventBus() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        asyncExecutor.execute(latch::countDown);
+        assertThat(latch.await(5, TimeUnit.SECONDS)).as("event bus did not dispatch in time").isTrue();
+    }
 }
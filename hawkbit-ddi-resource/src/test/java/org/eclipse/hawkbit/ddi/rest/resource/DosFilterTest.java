@@ -21,11 +21,16 @@ import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.rest.AbstractRestIntegrationTest;
 import org.eclipse.hawkbit.rest.util.JsonBuilder;
+import org.eclipse.hawkbit.security.DosFilter;
+import org.eclipse.hawkbit.security.RateLimitKey;
+import org.eclipse.hawkbit.security.RateLimiters;
 import org.junit.Test;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import com.google.common.net.HttpHeaders;
 
@@ -145,6 +150,36 @@ public class DosFilterTest extends AbstractRestIntegrationTest {
         }
     }
 
+    @Test
+    @Description("Ensures that artifact downloads of the direct device integration API are limited by the download threshold per controller and that management requests for artifacts are not")
+    public void downloadFloodingAttackThatIsPreventedPerController() throws Exception {
+        final MockMvc downloadLimitedMvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilter(new DosFilter(new RateLimiters(RateLimitKey.CONTROLLER, 100, 10, 2, 1_000), null, null,
+                        "X-Forwarded-For"))
+                .build();
+
+        // management requests are limited by the read threshold
+        for (int i = 0; i < 10; i++) {
+            assertThat(downloadLimitedMvc.perform(get("/rest/v1/softwaremodules/1/artifacts/1")
+                    .header(HttpHeaders.X_FORWARDED_FOR, "10.0.0.1")).andReturn().getResponse().getStatus())
+                            .isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        }
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(downloadLimitedMvc.perform(get("/{tenant}/controller/v1/4711/softwaremodules/1/artifacts/file1",
+                    tenantAware.getCurrentTenant()).header(HttpHeaders.X_FORWARDED_FOR, "10.0.0.1")).andReturn()
+                    .getResponse().getStatus()).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        }
+        downloadLimitedMvc.perform(get("/{tenant}/controller/v1/4711/softwaremodules/1/artifacts/file1",
+                tenantAware.getCurrentTenant()).header(HttpHeaders.X_FORWARDED_FOR, "10.0.0.1"))
+                .andExpect(status().isTooManyRequests());
+
+        // other controllers have their own budget
+        assertThat(downloadLimitedMvc.perform(get("/{tenant}/controller/v1/4712/softwaremodules/1/artifacts/file1",
+                tenantAware.getCurrentTenant()).header(HttpHeaders.X_FORWARDED_FOR, "10.0.0.1")).andReturn()
+                .getResponse().getStatus()).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
     private Long prepareDeploymentBase() {
         final DistributionSet ds = testdataFactory.createDistributionSet("test");
         final Target target = targetManagement.createTarget(entityFactory.generateTarget("4711"));
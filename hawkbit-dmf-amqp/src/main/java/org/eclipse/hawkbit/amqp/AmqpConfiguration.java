@@ -251,14 +251,21 @@ public class AmqpConfiguration {
     }
 
     /**
-     * Create default amqp sender service bean.
+     * Create default amqp sender service bean. The messages are sent by a
+     * dispatcher thread in batches only if
+     * {@link AmqpProperties#getDispatchBatchSize()} is greater than one.
      *
      * @return the default amqp sender service bean
      */
     @Bean
     @ConditionalOnMissingBean
     public AmqpSenderService amqpSenderServiceBean() {
-        return new DefaultAmqpSenderService(rabbitTemplate());
+        final DefaultAmqpSenderService senderService = new DefaultAmqpSenderService(rabbitTemplate());
+        if (amqpProperties.getDispatchBatchSize() <= 1) {
+            return senderService;
+        }
+        return new BatchingAmqpSenderService(senderService, amqpProperties.getDispatchBatchSize(),
+                amqpProperties.getDispatchQueueCapacity());
     }
 
     /**
@@ -12,6 +12,8 @@ import java.net.URI;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.api.ArtifactUrlHandler;
@@ -25,6 +27,7 @@ import org.eclipse.hawkbit.dmf.json.model.DownloadAndUpdateRequest;
 import org.eclipse.hawkbit.dmf.json.model.SoftwareModule;
 import org.eclipse.hawkbit.eventbus.EventSubscriber;
 import org.eclipse.hawkbit.eventbus.event.CancelTargetAssignmentEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetAssignDistributionSetBulkEvent;
 import org.eclipse.hawkbit.repository.eventbus.event.TargetAssignDistributionSetEvent;
 import org.eclipse.hawkbit.repository.model.LocalArtifact;
 import org.eclipse.hawkbit.util.IpUtil;
@@ -33,6 +36,9 @@ import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.eventbus.Subscribe;
 
 /**
@@ -46,12 +52,22 @@ import com.google.common.eventbus.Subscribe;
 @EventSubscriber
 public class AmqpMessageDispatcherService extends BaseAmqpService {
 
+    private static final int MODULE_TEMPLATE_CACHE_SIZE = 1000;
+
     @Autowired
     private ArtifactUrlHandler artifactUrlHandler;
 
     @Autowired
     private AmqpSenderService amqpSenderService;
 
+    /**
+     * Target independent part of the software modules by module ID, revision
+     * and artifact IDs, see {@link #templateKey}. During a mass deployment the
+     * same modules are sent to all targets, so they are converted only once.
+     */
+    private final Cache<String, SoftwareModule> moduleTemplates = CacheBuilder.newBuilder()
+            .maximumSize(MODULE_TEMPLATE_CACHE_SIZE).expireAfterWrite(1, TimeUnit.MINUTES).build();
+
     /**
      * Constructor.
      * 
@@ -95,6 +111,19 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         amqpSenderService.sendMessage(message, targetAdress);
     }
 
+    /**
+     * Method to send the messages to a RabbitMQ Exchange after the
+     * Distribution set has been assigned to a chunk of targets in bulk.
+     *
+     * @param targetAssignDistributionSetBulkEvent
+     *            the assignments to be send.
+     */
+    @Subscribe
+    public void targetAssignDistributionSetBulk(
+            final TargetAssignDistributionSetBulkEvent targetAssignDistributionSetBulkEvent) {
+        targetAssignDistributionSetBulkEvent.getAssignments().forEach(this::targetAssignDistributionSet);
+    }
+
     /**
      * Method to send a message to a RabbitMQ Exchange after the assignment of
      * the Distribution set to a Target has been canceled.
@@ -131,51 +160,92 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         return messageProperties;
     }
 
+    /**
+     * Creates the software module of the message for the given target. The
+     * target independent part of the module is converted once and taken from
+     * the {@link #moduleTemplates} for all further targets, only the artifact
+     * URLs are created per target.
+     */
     private SoftwareModule convertToAmqpSoftwareModule(final String targetId,
             final org.eclipse.hawkbit.repository.model.SoftwareModule softwareModule) {
+        final SoftwareModule template;
+        try {
+            template = moduleTemplates.get(templateKey(softwareModule),
+                    () -> convertToAmqpSoftwareModuleTemplate(softwareModule));
+        } catch (final ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+
+        final SoftwareModule amqpSoftwareModule = new SoftwareModule();
+        amqpSoftwareModule.setModuleId(template.getModuleId());
+        amqpSoftwareModule.setModuleType(template.getModuleType());
+        amqpSoftwareModule.setModuleVersion(template.getModuleVersion());
+        amqpSoftwareModule.setArtifacts(template.getArtifacts().stream()
+                .map(artifact -> convertArtifact(targetId, template.getModuleId(), artifact))
+                .collect(Collectors.toList()));
+        return amqpSoftwareModule;
+    }
+
+    /**
+     * Creating or deleting an artifact does not change the revision of the
+     * software module, so the IDs of the artifacts are part of the key.
+     */
+    private static String templateKey(final org.eclipse.hawkbit.repository.model.SoftwareModule softwareModule) {
+        return softwareModule.getId() + "@" + softwareModule.getOptLockRevision() + ":" + softwareModule
+                .getLocalArtifacts().stream().map(artifact -> String.valueOf(artifact.getId()))
+                .collect(Collectors.joining(","));
+    }
+
+    private static SoftwareModule convertToAmqpSoftwareModuleTemplate(
+            final org.eclipse.hawkbit.repository.model.SoftwareModule softwareModule) {
         final SoftwareModule amqpSoftwareModule = new SoftwareModule();
         amqpSoftwareModule.setModuleId(softwareModule.getId());
         amqpSoftwareModule.setModuleType(softwareModule.getType().getKey());
         amqpSoftwareModule.setModuleVersion(softwareModule.getVersion());
 
-        final List<Artifact> artifacts = convertArtifacts(targetId, softwareModule.getLocalArtifacts());
+        final List<Artifact> artifacts = convertArtifacts(softwareModule.getLocalArtifacts());
         amqpSoftwareModule.setArtifacts(artifacts);
         return amqpSoftwareModule;
     }
 
-    private List<Artifact> convertArtifacts(final String targetId, final List<LocalArtifact> localArtifacts) {
+    private static List<Artifact> convertArtifacts(final List<LocalArtifact> localArtifacts) {
         if (localArtifacts.isEmpty()) {
             return Collections.emptyList();
         }
 
-        return localArtifacts.stream().map(localArtifact -> convertArtifact(targetId, localArtifact))
+        return localArtifacts.stream().map(AmqpMessageDispatcherService::convertArtifact)
                 .collect(Collectors.toList());
     }
 
-    private Artifact convertArtifact(final String targetId, final LocalArtifact localArtifact) {
+    private static Artifact convertArtifact(final LocalArtifact localArtifact) {
+        final Artifact artifact = new Artifact();
+        artifact.setFilename(localArtifact.getFilename());
+        artifact.setHashes(new ArtifactHash(localArtifact.getSha1Hash(), localArtifact.getMd5Hash()));
+        artifact.setSize(localArtifact.getSize());
+        return artifact;
+    }
+
+    private Artifact convertArtifact(final String targetId, final Long softwareModuleId, final Artifact template) {
         final Artifact artifact = new Artifact();
 
         if (artifactUrlHandler.protocolSupported(UrlProtocol.COAP)) {
-            artifact.getUrls().put(Artifact.UrlProtocol.COAP,
-                    artifactUrlHandler.getUrl(targetId, localArtifact.getSoftwareModule().getId(),
-                            localArtifact.getFilename(), localArtifact.getSha1Hash(), UrlProtocol.COAP));
+            artifact.getUrls().put(Artifact.UrlProtocol.COAP, artifactUrlHandler.getUrl(targetId, softwareModuleId,
+                    template.getFilename(), template.getHashes().getSha1(), UrlProtocol.COAP));
         }
 
         if (artifactUrlHandler.protocolSupported(UrlProtocol.HTTP)) {
-            artifact.getUrls().put(Artifact.UrlProtocol.HTTP,
-                    artifactUrlHandler.getUrl(targetId, localArtifact.getSoftwareModule().getId(),
-                            localArtifact.getFilename(), localArtifact.getSha1Hash(), UrlProtocol.HTTP));
+            artifact.getUrls().put(Artifact.UrlProtocol.HTTP, artifactUrlHandler.getUrl(targetId, softwareModuleId,
+                    template.getFilename(), template.getHashes().getSha1(), UrlProtocol.HTTP));
         }
 
         if (artifactUrlHandler.protocolSupported(UrlProtocol.HTTPS)) {
-            artifact.getUrls().put(Artifact.UrlProtocol.HTTPS,
-                    artifactUrlHandler.getUrl(targetId, localArtifact.getSoftwareModule().getId(),
-                            localArtifact.getFilename(), localArtifact.getSha1Hash(), UrlProtocol.HTTPS));
+            artifact.getUrls().put(Artifact.UrlProtocol.HTTPS, artifactUrlHandler.getUrl(targetId, softwareModuleId,
+                    template.getFilename(), template.getHashes().getSha1(), UrlProtocol.HTTPS));
         }
 
-        artifact.setFilename(localArtifact.getFilename());
-        artifact.setHashes(new ArtifactHash(localArtifact.getSha1Hash(), localArtifact.getMd5Hash()));
-        artifact.setSize(localArtifact.getSize());
+        artifact.setFilename(template.getFilename());
+        artifact.setHashes(template.getHashes());
+        artifact.setSize(template.getSize());
         return artifact;
     }
 
@@ -76,6 +76,35 @@ public class AmqpProperties {
      */
     private int declarationRetries = 50;
 
+    /**
+     * Maximum number of messages which are taken from the dispatch queue at
+     * once. Messages are sent directly by the caller if set to one, which is
+     * the default.
+     */
+    private int dispatchBatchSize = 1;
+
+    /**
+     * Maximum number of messages waiting to be sent in batches. Senders are
+     * blocked if the limit is reached.
+     */
+    private int dispatchQueueCapacity = 10000;
+
+    public int getDispatchBatchSize() {
+        return dispatchBatchSize;
+    }
+
+    public void setDispatchBatchSize(final int dispatchBatchSize) {
+        this.dispatchBatchSize = dispatchBatchSize;
+    }
+
+    public int getDispatchQueueCapacity() {
+        return dispatchQueueCapacity;
+    }
+
+    public void setDispatchQueueCapacity(final int dispatchQueueCapacity) {
+        this.dispatchQueueCapacity = dispatchQueueCapacity;
+    }
+
     /**
      * @return the declarationRetries
      */
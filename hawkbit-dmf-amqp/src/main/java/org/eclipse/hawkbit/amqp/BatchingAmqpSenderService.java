@@ -0,0 +1,231 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+
+/**
+ * A sender service which decouples the callers from the broker. The messages
+ * are collected in a bounded queue and sent by a dispatcher thread, which
+ * takes up to {@link AmqpProperties#getDispatchBatchSize()} messages at once
+ * and sends them grouped by receiver with
+ * {@link AmqpSenderService#sendMessage(Message, URI)} of the delegate, i.e.
+ * through the configured {@link org.springframework.amqp.rabbit.core.RabbitTemplate}
+ * including its publisher confirm handling. Callers are blocked in case the
+ * queue is full.
+ *
+ * The messages of one receiver are sent in the order they have been queued.
+ * If sending fails, the failed message and the following messages of the
+ * receiver are sent again after {@link #RETRY_DELAY_MILLIS} before any newer
+ * message. A message is discarded only after {@link #MAX_SEND_ATTEMPTS}
+ * failed attempts.
+ */
+public class BatchingAmqpSenderService implements AmqpSenderService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingAmqpSenderService.class);
+
+    private static final long POLL_TIMEOUT_MILLIS = 100L;
+
+    static final long RETRY_DELAY_MILLIS = 1000L;
+
+    static final int MAX_SEND_ATTEMPTS = 5;
+
+    private final AmqpSenderService delegate;
+
+    private final int batchSize;
+
+    private final BlockingQueue<PendingMessage> queue;
+
+    private final AtomicLong sentMessages = new AtomicLong();
+
+    private final AtomicLong sentBatches = new AtomicLong();
+
+    private final AtomicLong retriedMessages = new AtomicLong();
+
+    private final AtomicLong failedMessages = new AtomicLong();
+
+    private final Thread dispatcher;
+
+    private volatile boolean running = true;
+
+    /**
+     * Constructor which starts the dispatcher thread.
+     *
+     * @param delegate
+     *            the sender service which sends the messages
+     * @param batchSize
+     *            the maximum number of messages taken from the queue at once
+     * @param queueCapacity
+     *            the maximum number of messages waiting to be sent
+     */
+    public BatchingAmqpSenderService(final AmqpSenderService delegate, final int batchSize,
+            final int queueCapacity) {
+        this.delegate = delegate;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.dispatcher = new Thread(this::dispatch, "amqp-message-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @Override
+    public void sendMessage(final Message message, final URI replyTo) {
+        if (!running) {
+            delegate.sendMessage(message, replyTo);
+            return;
+        }
+
+        try {
+            queue.put(new PendingMessage(message, replyTo));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while queueing message for {}, sending directly", replyTo);
+            delegate.sendMessage(message, replyTo);
+        }
+    }
+
+    /**
+     * Stops the dispatcher thread after all queued messages have been sent.
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            dispatcher.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            LOGGER.warn("Discarding {} messages which have not been sent before shutdown", queue.size());
+        }
+    }
+
+    private void dispatch() {
+        // messages which have to be sent again before any newer message
+        List<PendingMessage> retries = new ArrayList<>();
+        while (running || !queue.isEmpty() || !retries.isEmpty()) {
+            try {
+                final List<PendingMessage> batch = new ArrayList<>(batchSize);
+                if (retries.isEmpty()) {
+                    final PendingMessage first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                } else {
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                    batch.addAll(retries);
+                }
+                queue.drainTo(batch, Math.max(0, batchSize - batch.size()));
+                retries = send(batch);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the messages which have to be sent again
+     */
+    private List<PendingMessage> send(final List<PendingMessage> batch) {
+        final Map<URI, List<PendingMessage>> messagesByReceiver = new LinkedHashMap<>();
+        batch.forEach(pending -> messagesByReceiver.computeIfAbsent(pending.replyTo, key -> new ArrayList<>())
+                .add(pending));
+
+        final List<PendingMessage> retries = new ArrayList<>();
+        messagesByReceiver.forEach((replyTo, messages) -> {
+            for (int i = 0; i < messages.size(); i++) {
+                final PendingMessage pending = messages.get(i);
+                try {
+                    delegate.sendMessage(pending.message, replyTo);
+                    sentMessages.incrementAndGet();
+                } catch (final RuntimeException e) {
+                    retries.addAll(failed(messages.subList(i, messages.size()), e));
+                    break;
+                }
+            }
+            sentBatches.incrementAndGet();
+        });
+        return retries;
+    }
+
+    private List<PendingMessage> failed(final List<PendingMessage> messages, final RuntimeException e) {
+        final PendingMessage pending = messages.get(0);
+        pending.attempts++;
+        if (pending.attempts < MAX_SEND_ATTEMPTS) {
+            LOGGER.warn("Failed to send message to {}, retrying {} messages of the receiver", pending.replyTo,
+                    messages.size(), e);
+            retriedMessages.addAndGet(messages.size());
+            return messages;
+        }
+        LOGGER.error("Discarding message to {} after {} failed attempts", pending.replyTo, pending.attempts, e);
+        failedMessages.incrementAndGet();
+        return messages.subList(1, messages.size());
+    }
+
+    /**
+     * @return the number of messages waiting to be sent
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * @return the number of messages sent since startup
+     */
+    public long getSentMessages() {
+        return sentMessages.get();
+    }
+
+    /**
+     * @return the number of batches sent since startup
+     */
+    public long getSentBatches() {
+        return sentBatches.get();
+    }
+
+    /**
+     * @return the number of messages which have been queued again after a
+     *         failed attempt since startup
+     */
+    public long getRetriedMessages() {
+        return retriedMessages.get();
+    }
+
+    /**
+     * @return the number of messages which have been discarded after
+     *         {@link #MAX_SEND_ATTEMPTS} failed attempts since startup
+     */
+    public long getFailedMessages() {
+        return failedMessages.get();
+    }
+
+    private static final class PendingMessage {
+        private final Message message;
+        private final URI replyTo;
+        private int attempts;
+
+        private PendingMessage(final Message message, final URI replyTo) {
+            this.message = message;
+            this.replyTo = replyTo;
+        }
+    }
+}
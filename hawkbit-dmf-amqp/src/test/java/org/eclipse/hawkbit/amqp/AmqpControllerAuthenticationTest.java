@@ -11,7 +11,6 @@ package org.eclipse.hawkbit.amqp;
 import static org.fest.assertions.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -98,7 +97,7 @@ public class AmqpControllerAuthenticationTest {
                 .thenReturn(CONFIG_VALUE_FALSE);
 
         final ControllerManagement controllerManagement = mock(ControllerManagement.class);
-        when(controllerManagement.getSecurityTokenByControllerId(anyString())).thenReturn(CONTROLLLER_ID);
+        when(controllerManagement.verifySecurityToken(CONTROLLLER_ID, CONTROLLLER_ID)).thenReturn(true);
         authenticationManager.setControllerManagement(controllerManagement);
         amqpMessageHandlerService.setArtifactManagement(mock(ArtifactManagement.class));
 
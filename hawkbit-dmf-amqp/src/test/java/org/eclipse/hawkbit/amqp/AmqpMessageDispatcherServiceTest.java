@@ -179,6 +179,36 @@ public class AmqpMessageDispatcherServiceTest extends AbstractIntegrationTestWit
         }
     }
 
+    @Test
+    @Description("Verfies that artifacts which are added to a software module after it has been sent are part of "
+            + "the next download and install event")
+    public void testSendDownloadRequestAfterArtifactsAdded() {
+        final DistributionSet dsA = testdataFactory.createDistributionSet("");
+        final SoftwareModule module = dsA.getModules().iterator().next();
+        final TargetAssignDistributionSetEvent firstEvent = new TargetAssignDistributionSetEvent(1L, TENANT,
+                CONTROLLER_ID, 1L, dsA.getModules(), AMQP_URI, TEST_TOKEN);
+        amqpMessageDispatcherService.targetAssignDistributionSet(firstEvent);
+        assertDownloadAndInstallMessage(createArgumentCapture(AMQP_URI)).getSoftwareModules()
+                .forEach(softwareModule -> assertThat(softwareModule.getArtifacts()).isEmpty());
+
+        for (final Artifact artifact : testdataFactory.createLocalArtifacts(module.getId())) {
+            module.addArtifact((LocalArtifact) artifact);
+        }
+        Mockito.reset(senderService);
+
+        final TargetAssignDistributionSetEvent secondEvent = new TargetAssignDistributionSetEvent(1L, TENANT,
+                CONTROLLER_ID, 1L, dsA.getModules(), AMQP_URI, TEST_TOKEN);
+        amqpMessageDispatcherService.targetAssignDistributionSet(secondEvent);
+        final DownloadAndUpdateRequest downloadAndUpdateRequest = assertDownloadAndInstallMessage(
+                createArgumentCapture(AMQP_URI));
+        final org.eclipse.hawkbit.dmf.json.model.SoftwareModule sentModule = downloadAndUpdateRequest
+                .getSoftwareModules().stream().filter(softwareModule -> softwareModule.getModuleId()
+                        .equals(module.getId()))
+                .findFirst().get();
+        assertThat(sentModule.getArtifacts()).hasSize(module.getArtifacts().size());
+        assertThat(sentModule.getArtifacts()).isNotEmpty();
+    }
+
     @Test
     @Description("Verfies that send cancel event works")
     public void testSendCancelRequest() {
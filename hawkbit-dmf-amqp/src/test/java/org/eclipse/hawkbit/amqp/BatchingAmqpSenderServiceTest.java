@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.util.IpUtil;
+import org.junit.Test;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Device Management Federation API")
+@Stories("Batching Amqp Sender Service Test")
+public class BatchingAmqpSenderServiceTest {
+
+    private static final URI FIRST_RECEIVER = IpUtil.createAmqpUri("vHost", "first");
+
+    private static final URI SECOND_RECEIVER = IpUtil.createAmqpUri("vHost", "second");
+
+    @Test
+    @Description("Verify that all queued messages are sent in the order per receiver")
+    public void messagesAreSentInOrderPerReceiver() {
+        final RecordingSenderService delegate = new RecordingSenderService();
+        final BatchingAmqpSenderService senderService = new BatchingAmqpSenderService(delegate, 10, 100);
+
+        for (int i = 0; i < 50; i++) {
+            senderService.sendMessage(createMessage(i), i % 2 == 0 ? FIRST_RECEIVER : SECOND_RECEIVER);
+        }
+        senderService.shutdown();
+
+        assertThat(senderService.getQueueSize()).isEqualTo(0);
+        assertThat(senderService.getSentMessages()).isEqualTo(50);
+        assertThat(senderService.getFailedMessages()).isEqualTo(0);
+        assertThat(bodies(delegate.sent.get(FIRST_RECEIVER))).isEqualTo(expectedBodies(0));
+        assertThat(bodies(delegate.sent.get(SECOND_RECEIVER))).isEqualTo(expectedBodies(1));
+    }
+
+    @Test
+    @Description("Verify that a failed message and the following messages of the receiver are sent again in order")
+    public void failedMessagesAreRetriedInOrder() {
+        final RecordingSenderService delegate = new RecordingSenderService();
+        delegate.failuresLeft = 2;
+        delegate.failingBody = "2";
+        final BatchingAmqpSenderService senderService = new BatchingAmqpSenderService(delegate, 10, 100);
+
+        for (int i = 0; i < 6; i++) {
+            senderService.sendMessage(createMessage(i), FIRST_RECEIVER);
+        }
+        senderService.shutdown();
+
+        assertThat(bodies(delegate.sent.get(FIRST_RECEIVER))).containsExactly("0", "1", "2", "3", "4", "5");
+        assertThat(senderService.getSentMessages()).isEqualTo(6);
+        assertThat(senderService.getRetriedMessages()).isGreaterThanOrEqualTo(2);
+        assertThat(senderService.getFailedMessages()).isEqualTo(0);
+    }
+
+    @Test
+    @Description("Verify that a message is discarded after the maximum number of failed attempts only")
+    public void messageIsDiscardedAfterMaxAttempts() {
+        final RecordingSenderService delegate = new RecordingSenderService();
+        delegate.failuresLeft = Integer.MAX_VALUE;
+        delegate.failingBody = "1";
+        final BatchingAmqpSenderService senderService = new BatchingAmqpSenderService(delegate, 10, 100);
+
+        for (int i = 0; i < 3; i++) {
+            senderService.sendMessage(createMessage(i), FIRST_RECEIVER);
+        }
+        senderService.shutdown();
+
+        assertThat(bodies(delegate.sent.get(FIRST_RECEIVER))).containsExactly("0", "2");
+        assertThat(delegate.attempts.get()).isEqualTo(BatchingAmqpSenderService.MAX_SEND_ATTEMPTS);
+        assertThat(senderService.getFailedMessages()).isEqualTo(1);
+    }
+
+    @Test
+    @Description("Verify that messages are sent directly after the service has been shut down")
+    public void messagesAreSentDirectlyAfterShutdown() {
+        final RecordingSenderService delegate = new RecordingSenderService();
+        final BatchingAmqpSenderService senderService = new BatchingAmqpSenderService(delegate, 10, 100);
+        senderService.shutdown();
+
+        senderService.sendMessage(createMessage(1), FIRST_RECEIVER);
+
+        assertThat(bodies(delegate.sent.get(FIRST_RECEIVER))).containsOnly("1");
+        assertThat(senderService.getSentBatches()).isEqualTo(0);
+    }
+
+    private static Message createMessage(final int index) {
+        return new Message(String.valueOf(index).getBytes(), new MessageProperties());
+    }
+
+    private static List<String> bodies(final List<Message> messages) {
+        return messages.stream().map(message -> new String(message.getBody())).collect(Collectors.toList());
+    }
+
+    private static List<String> expectedBodies(final int start) {
+        final List<String> expected = new ArrayList<>();
+        for (int i = start; i < 50; i += 2) {
+            expected.add(String.valueOf(i));
+        }
+        return expected;
+    }
+
+    private static final class RecordingSenderService implements AmqpSenderService {
+        private final Map<URI, List<Message>> sent = new ConcurrentHashMap<>();
+        private final AtomicInteger attempts = new AtomicInteger();
+        private volatile String failingBody;
+        private volatile int failuresLeft;
+
+        @Override
+        public void sendMessage(final Message message, final URI replyTo) {
+            if (new String(message.getBody()).equals(failingBody)) {
+                attempts.incrementAndGet();
+                if (failuresLeft-- > 0) {
+                    throw new AmqpConnectException(new IOException("broker not reachable"));
+                }
+            }
+            sent.computeIfAbsent(replyTo, key -> new ArrayList<>()).add(message);
+        }
+    }
+}
@@ -179,6 +179,23 @@ public interface ControllerManagement {
      */
     String getSecurityTokenByControllerId(@NotEmpty String controllerId);
 
+    /**
+     * Verifies the given security token against the
+     * {@link Target#getSecurityToken()} without authorization, like
+     * {@link #getSecurityTokenByControllerId(String)}. The token digests of the
+     * targets, as well as unknown controller IDs, are cached for
+     * {@link RepositoryProperties.SecurityTokenCache#getTtl()}, so a
+     * verification normally needs no database access.
+     *
+     * @param controllerId
+     *            the ID of the controller to verify the security token for
+     * @param securityToken
+     *            the security token provided by the controller
+     * @return <code>true</code> if a target with the given controllerId exists
+     *         and has the given security token
+     */
+    boolean verifySecurityToken(@NotEmpty String controllerId, @NotEmpty String securityToken);
+
     /**
      * Checks if a given target has currently or has even been assigned to the
      * given artifact through the action history list. This can e.g. indicate if
@@ -250,6 +267,10 @@ public interface ControllerManagement {
      * Refreshes the time of the last time the controller has been connected to
      * the server.
      *
+     * In case {@link RepositoryProperties.TargetPoll#isWriteBehind()} is
+     * enabled and the address has not changed the update is written
+     * asynchronously and the given target is returned unchanged.
+     *
      * @param target
      *            to update
      * @param address
@@ -260,6 +281,26 @@ public interface ControllerManagement {
     @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
     TargetInfo updateLastTargetQuery(@NotNull TargetInfo target, @NotNull URI address);
 
+    /**
+     * Refreshes the time of the last time the controller has been connected to
+     * the server for a target which is known to be registered with the given
+     * address, e.g. from a cached poll result. Unlike
+     * {@link #updateLastTargetQuery(String, URI)} only the target info is
+     * loaded by its primary key. A changed address or a target in status
+     * UNKNOWN is still written immediately, only unchanged polls are collected
+     * by the write-behind buffer.
+     *
+     * @param targetId
+     *            the ID of the target to update
+     * @param address
+     *            the client address of the target, might be {@code null}
+     *
+     * @throws EntityNotFoundException
+     *             if target with given ID could not be found
+     */
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
+    void updateLastTargetQuery(@NotNull Long targetId, URI address);
+
     /**
      * Update selective the target status of a given {@code target}.
      *
@@ -59,6 +59,27 @@ public interface ReportManagement {
          * @return String
          */
         String mySqlFormat();
+
+        /**
+         * @param date
+         *            a date within the period
+         * @return the first day of the period of the given date
+         */
+        LocalDate periodStart(LocalDate date);
+
+        /**
+         * @param periodStart
+         *            the first day of a period
+         * @return the first day of the following period
+         */
+        LocalDate nextPeriodStart(LocalDate periodStart);
+
+        /**
+         * @param periodStart
+         *            the first day of a period
+         * @return the period as T
+         */
+        T toPeriod(LocalDate periodStart);
     }
 
     /**
@@ -108,6 +129,21 @@ public interface ReportManagement {
             return "%Y-%m";
         }
 
+        @Override
+        public LocalDate periodStart(final LocalDate date) {
+            return date.withDayOfMonth(1);
+        }
+
+        @Override
+        public LocalDate nextPeriodStart(final LocalDate periodStart) {
+            return periodStart.plusMonths(1);
+        }
+
+        @Override
+        public LocalDate toPeriod(final LocalDate periodStart) {
+            return periodStart;
+        }
+
     }
 
     /**
@@ -18,6 +18,411 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties("hawkbit.server.repository")
 public class RepositoryProperties {
 
+    /**
+     * Configuration of the target poll handling, i.e. the update of the last
+     * target query and address on every controller request.
+     */
+    public static class TargetPoll {
+        // used by @Scheduled annotation which needs constant
+        public static final String PROP_FLUSH_INTERVAL_PLACEHOLDER = "${hawkbit.server.repository.targetPoll.flushInterval:5000}";
+
+        /**
+         * Set to <code>true</code> to collect poll time and address updates of
+         * the targets in memory and write them in batches instead of updating
+         * the target info on every controller request. A changed address or
+         * status is always written immediately.
+         */
+        private boolean writeBehind = false;
+
+        /**
+         * Interval in milliseconds in which the collected poll updates are
+         * written to the database.
+         */
+        private long flushInterval = 5000L;
+
+        /**
+         * Number of collected poll updates which triggers a write before the
+         * {@link #flushInterval} has passed.
+         */
+        private int maxBufferSize = 10000;
+
+        public boolean isWriteBehind() {
+            return writeBehind;
+        }
+
+        public void setWriteBehind(final boolean writeBehind) {
+            this.writeBehind = writeBehind;
+        }
+
+        public long getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(final long flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public int getMaxBufferSize() {
+            return maxBufferSize;
+        }
+
+        public void setMaxBufferSize(final int maxBufferSize) {
+            this.maxBufferSize = maxBufferSize;
+        }
+    }
+
+    /**
+     * Configuration of the distribution set assignment.
+     */
+    public static class Assignment {
+
+        /**
+         * Number of targets from which on a distribution set assignment is
+         * written by JDBC batch statements in chunks instead of persisting
+         * every action as entity.
+         */
+        private int bulkThreshold = 1000;
+
+        /**
+         * Number of targets which are assigned in one chunk of a bulk
+         * assignment. Limited by the maximum number of entries the database
+         * supports in an IN statement.
+         */
+        private int chunkSize = 500;
+
+        public int getBulkThreshold() {
+            return bulkThreshold;
+        }
+
+        public void setBulkThreshold(final int bulkThreshold) {
+            this.bulkThreshold = bulkThreshold;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(final int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    /**
+     * Configuration of the cached target counts, e.g. used for the footer of
+     * the target table in the UI.
+     */
+    public static class TargetCount {
+
+        /**
+         * Time in milliseconds after which a cached count is refreshed
+         * asynchronously. Until the refresh is done the outdated count is
+         * returned.
+         */
+        private long refreshInterval = 30000L;
+
+        /**
+         * Maximum number of cached counts over all tenants and filters.
+         */
+        private int maxEntries = 1000;
+
+        public long getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(final long refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(final int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    /**
+     * Configuration of the cache for the security tokens of the targets which
+     * is used to authenticate the controllers.
+     */
+    public static class SecurityTokenCache {
+
+        /**
+         * Time in milliseconds a cached security token, or the absence of a
+         * target, is valid. Tokens changed on another node are accepted for at
+         * most this time.
+         */
+        private long ttl = 60000L;
+
+        /**
+         * Maximum number of cached security tokens over all tenants.
+         */
+        private int maxEntries = 100000;
+
+        public long getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(final long ttl) {
+            this.ttl = ttl;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(final int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    /**
+     * Configuration of the in-memory index which authorizes and resolves the
+     * artifact downloads of the controllers.
+     */
+    public static class DownloadIndex {
+
+        /**
+         * Time in milliseconds an indexed action or artifact is used before it
+         * is looked up in the repository again. Limits how long an artifact
+         * which has been created on another node of the cluster stays
+         * invisible to the downloads of an indexed file name.
+         */
+        private long ttl = 300000L;
+
+        /**
+         * Maximum number of indexed targets and artifact file names each over
+         * all tenants.
+         */
+        private int maxEntries = 100000;
+
+        public long getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(final long ttl) {
+            this.ttl = ttl;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(final int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    /**
+     * Configuration of the retention of the {@link ActionStatus} history of
+     * closed actions. The retention is enabled and its period configured per
+     * tenant.
+     */
+    public static class ActionStatusRetention {
+        // used by @Scheduled annotation which needs constant
+        public static final String PROP_SCHEDULER_DELAY_PLACEHOLDER = "${hawkbit.server.repository.actionStatusRetention.fixedDelay:3600000}";
+
+        /**
+         * Delay in milliseconds between the retention runs.
+         */
+        private long fixedDelay = 3_600_000L;
+
+        /**
+         * Number of status entries which are deleted in one transaction.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Maximum duration in milliseconds of the retention of a tenant per
+         * run, the remaining entries are deleted by the next run.
+         */
+        private long tenantTimeBudget = 60_000L;
+
+        /**
+         * Directory in which the deleted status entries are archived as
+         * compressed files per tenant and run, no archive if not set.
+         */
+        private String archiveDirectory;
+
+        public long getFixedDelay() {
+            return fixedDelay;
+        }
+
+        public void setFixedDelay(final long fixedDelay) {
+            this.fixedDelay = fixedDelay;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(final int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public long getTenantTimeBudget() {
+            return tenantTimeBudget;
+        }
+
+        public void setTenantTimeBudget(final long tenantTimeBudget) {
+            this.tenantTimeBudget = tenantTimeBudget;
+        }
+
+        public String getArchiveDirectory() {
+            return archiveDirectory;
+        }
+
+        public void setArchiveDirectory(final String archiveDirectory) {
+            this.archiveDirectory = archiveDirectory;
+        }
+    }
+
+    /**
+     * Configuration of the deletion of tenants, which runs in the background
+     * and deletes the data of a tenant in chunks.
+     */
+    public static class TenantDeletion {
+        // used by @Scheduled annotation which needs constant
+        public static final String PROP_SCHEDULER_DELAY_PLACEHOLDER = "${hawkbit.server.repository.tenantDeletion.fixedDelay:60000}";
+
+        /**
+         * Delay in milliseconds between the checks for interrupted tenant
+         * deletions, e.g. by a restart, which are resumed.
+         */
+        private long fixedDelay = 60_000L;
+
+        /**
+         * Number of rows of a table which are deleted in one transaction.
+         */
+        private int chunkSize = 1000;
+
+        public long getFixedDelay() {
+            return fixedDelay;
+        }
+
+        public void setFixedDelay(final long fixedDelay) {
+            this.fixedDelay = fixedDelay;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(final int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    /**
+     * Configuration of the usage counters of the tenants which back the system
+     * and tenant statistics.
+     */
+    public static class TenantUsage {
+        // used by @Scheduled annotation which needs constant
+        public static final String PROP_FLUSH_INTERVAL_PLACEHOLDER = "${hawkbit.server.repository.tenantUsage.flushInterval:10000}";
+
+        // used by @Scheduled annotation which needs constant
+        public static final String PROP_RECONCILE_INTERVAL_PLACEHOLDER = "${hawkbit.server.repository.tenantUsage.reconcileInterval:3600000}";
+
+        /**
+         * Interval in milliseconds in which the changes of the counters
+         * collected on this node are added to the stored counters.
+         */
+        private long flushInterval = 10_000L;
+
+        /**
+         * Interval in milliseconds in which the stored counters of all tenants
+         * are recounted from the database to correct a drift.
+         */
+        private long reconcileInterval = 3_600_000L;
+
+        public long getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(final long flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public long getReconcileInterval() {
+            return reconcileInterval;
+        }
+
+        public void setReconcileInterval(final long reconcileInterval) {
+            this.reconcileInterval = reconcileInterval;
+        }
+    }
+
+    /**
+     * Configuration of the time series rollups which back the reports of
+     * created targets and received feedback.
+     */
+    public static class ReportRollup {
+        // used by @Scheduled annotation which needs constant
+        public static final String PROP_FLUSH_INTERVAL_PLACEHOLDER = "${hawkbit.server.repository.reportRollup.flushInterval:10000}";
+
+        // used by @Scheduled annotation which needs constant
+        public static final String PROP_BACKFILL_DELAY_PLACEHOLDER = "${hawkbit.server.repository.reportRollup.backfillDelay:600000}";
+
+        /**
+         * Interval in milliseconds in which the events collected on this node
+         * are added to the stored buckets.
+         */
+        private long flushInterval = 10_000L;
+
+        /**
+         * Delay in milliseconds between the checks for tenants whose buckets
+         * have to be backfilled from the existing data, e.g. after an update
+         * or a bulk delete.
+         */
+        private long backfillDelay = 600_000L;
+
+        /**
+         * Age in milliseconds after which the buckets of a tenant are
+         * backfilled again to correct a drift.
+         */
+        private long rebuildInterval = 86_400_000L;
+
+        /**
+         * Number of days the hourly buckets are kept, the daily buckets are
+         * kept as long as the tenant exists.
+         */
+        private int hourlyRetentionDays = 30;
+
+        public long getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(final long flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public long getBackfillDelay() {
+            return backfillDelay;
+        }
+
+        public void setBackfillDelay(final long backfillDelay) {
+            this.backfillDelay = backfillDelay;
+        }
+
+        public long getRebuildInterval() {
+            return rebuildInterval;
+        }
+
+        public void setRebuildInterval(final long rebuildInterval) {
+            this.rebuildInterval = rebuildInterval;
+        }
+
+        public int getHourlyRetentionDays() {
+            return hourlyRetentionDays;
+        }
+
+        public void setHourlyRetentionDays(final int hourlyRetentionDays) {
+            this.hourlyRetentionDays = hourlyRetentionDays;
+        }
+    }
+
     /**
      * Set to <code>true</code> if the repository has to reject
      * {@link ActionStatus} entries for actions that are closed. Note: if this
@@ -26,6 +431,24 @@ public class RepositoryProperties {
      */
     private boolean rejectActionStatusForClosedAction = false;
 
+    private final TargetPoll targetPoll = new TargetPoll();
+
+    private final Assignment assignment = new Assignment();
+
+    private final TargetCount targetCount = new TargetCount();
+
+    private final SecurityTokenCache securityTokenCache = new SecurityTokenCache();
+
+    private final DownloadIndex downloadIndex = new DownloadIndex();
+
+    private final ActionStatusRetention actionStatusRetention = new ActionStatusRetention();
+
+    private final TenantDeletion tenantDeletion = new TenantDeletion();
+
+    private final TenantUsage tenantUsage = new TenantUsage();
+
+    private final ReportRollup reportRollup = new ReportRollup();
+
     public boolean isRejectActionStatusForClosedAction() {
         return rejectActionStatusForClosedAction;
     }
@@ -34,4 +457,40 @@ public class RepositoryProperties {
         this.rejectActionStatusForClosedAction = rejectActionStatusForClosedAction;
     }
 
+    public TargetPoll getTargetPoll() {
+        return targetPoll;
+    }
+
+    public Assignment getAssignment() {
+        return assignment;
+    }
+
+    public TargetCount getTargetCount() {
+        return targetCount;
+    }
+
+    public SecurityTokenCache getSecurityTokenCache() {
+        return securityTokenCache;
+    }
+
+    public DownloadIndex getDownloadIndex() {
+        return downloadIndex;
+    }
+
+    public ActionStatusRetention getActionStatusRetention() {
+        return actionStatusRetention;
+    }
+
+    public TenantDeletion getTenantDeletion() {
+        return tenantDeletion;
+    }
+
+    public TenantUsage getTenantUsage() {
+        return tenantUsage;
+    }
+
+    public ReportRollup getReportRollup() {
+        return reportRollup;
+    }
+
 }
@@ -31,6 +31,27 @@ public class RolloutProperties {
          */
         private long fixedDelay = 30000L;
 
+        /**
+         * Interval in milliseconds in which the action counters of a running
+         * rollout group are recounted from the actions. The counters are
+         * maintained incrementally, the recount corrects changes which are
+         * not tracked, e.g. deleted targets.
+         */
+        private long reconcileInterval = 300000L;
+
+        /**
+         * Number of threads which check the rollouts of different tenants in
+         * parallel.
+         */
+        private int threads = 4;
+
+        /**
+         * Time in milliseconds the check of the rollouts of one tenant may
+         * take. Rollouts which are not checked within this time are released
+         * for the next check.
+         */
+        private long tenantTimeBudget = 30000L;
+
         public long getFixedDelay() {
             return fixedDelay;
         }
@@ -39,6 +60,30 @@ public class RolloutProperties {
             this.fixedDelay = fixedDelay;
         }
 
+        public long getReconcileInterval() {
+            return reconcileInterval;
+        }
+
+        public void setReconcileInterval(final long reconcileInterval) {
+            this.reconcileInterval = reconcileInterval;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(final int threads) {
+            this.threads = threads;
+        }
+
+        public long getTenantTimeBudget() {
+            return tenantTimeBudget;
+        }
+
+        public void setTenantTimeBudget(final long tenantTimeBudget) {
+            this.tenantTimeBudget = tenantTimeBudget;
+        }
+
     }
 
     private final Scheduler scheduler = new Scheduler();
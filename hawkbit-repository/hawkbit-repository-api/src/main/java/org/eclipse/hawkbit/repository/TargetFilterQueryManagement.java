@@ -8,11 +8,14 @@
  */
 package org.eclipse.hawkbit.repository;
 
+import java.util.List;
+
 import javax.validation.constraints.NotNull;
 
 import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
 import org.eclipse.hawkbit.repository.exception.RSQLParameterSyntaxException;
 import org.eclipse.hawkbit.repository.exception.RSQLParameterUnsupportedFieldException;
+import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetFilterQuery;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -59,6 +62,19 @@ public interface TargetFilterQueryManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
     boolean verifyTargetFilterQuerySyntax(String query);
 
+    /**
+     * Retrieves all {@link TargetFilterQuery}s which match the given target.
+     * The queries are evaluated in memory, so new or updated targets can be
+     * checked against all stored queries without querying the targets.
+     *
+     * @param target
+     *            to check against the stored queries
+     *
+     * @return the matching {@link TargetFilterQuery}s
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    List<TargetFilterQuery> findTargetFilterQueryMatchingTarget(@NotNull Target target);
+
     /**
      *
      * Retrieves all target filter query{@link TargetFilterQuery}.
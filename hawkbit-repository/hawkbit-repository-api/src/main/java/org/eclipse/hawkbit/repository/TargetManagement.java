@@ -31,6 +31,7 @@ import org.hibernate.validator.constraints.NotEmpty;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
 
 /**
@@ -89,6 +90,38 @@ public interface TargetManagement {
     Long countTargetByFilters(Collection<TargetUpdateStatus> status, String searchText,
             Long installedOrAssignedDistributionSetId, Boolean selectTargetWithNoTag, String... tagNames);
 
+    /**
+     * Counts number of targets with the given filter parameters like
+     * {@link #countTargetByFilters(Collection, String, Long, Boolean, String...)}
+     * but returns a cached count, which is refreshed asynchronously after
+     * {@link RepositoryProperties.TargetCount#getRefreshInterval()}. Only the
+     * first count of a filter combination is executed directly. Intended for
+     * counts which are only displayed, e.g. in the UI, as the result might
+     * be outdated.
+     *
+     * @param status
+     *            find targets having on of these {@link TargetUpdateStatus}s.
+     *            Set to <code>null</code> in case this is not required.
+     * @param searchText
+     *            to find targets having the text anywhere in name or
+     *            description. Set <code>null</code> in case this is not
+     *            required.
+     * @param installedOrAssignedDistributionSetId
+     *            to find targets having the {@link DistributionSet} as
+     *            installed or assigned. Set to <code>null</code> in case this
+     *            is not required.
+     * @param selectTargetWithNoTag
+     *            flag to select targets with no tag assigned
+     * @param tagNames
+     *            to find targets which are having any one in this tag names.
+     *            Set <code>null</code> in case this is not required.
+     *
+     * @return the cached number of found {@link Target}s
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    Long countTargetByFiltersCached(Collection<TargetUpdateStatus> status, String searchText,
+            Long installedOrAssignedDistributionSetId, Boolean selectTargetWithNoTag, String... tagNames);
+
     /**
      * Counts number of targets with given
      * {@link TargetInfo#getInstalledDistributionSet()}.
@@ -120,6 +153,19 @@ public interface TargetManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
     Long countTargetByTargetFilterQuery(@NotNull TargetFilterQuery targetFilterQuery);
 
+    /**
+     * Count {@link Target}s for given target filter query like
+     * {@link #countTargetByTargetFilterQuery(TargetFilterQuery)} but returns a
+     * cached count, which is refreshed asynchronously after
+     * {@link RepositoryProperties.TargetCount#getRefreshInterval()}.
+     *
+     * @param targetFilterQuery
+     *            {link TargetFilterQuery}
+     * @return the cached number of found {@link Target}s
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    Long countTargetByTargetFilterQueryCached(@NotNull TargetFilterQuery targetFilterQuery);
+
     /**
      * Counts all {@link Target}s in the repository.
      *
@@ -349,6 +395,48 @@ public interface TargetManagement {
             String searchText, Long installedOrAssignedDistributionSetId, Boolean selectTargetWithNoTag,
             String... tagNames);
 
+    /**
+     * Retrieves the {@link Target}s with the given filter parameters like
+     * {@link #findTargetByFilters(Pageable, Collection, String, Long, Boolean, String...)}
+     * but seeks to the page after the given last {@link Target} by its sort
+     * values instead of skipping an offset. The cost of a page is independent
+     * of its position.
+     *
+     * The {@link Target#getId()} is added as last sort criteria. The sort
+     * properties have to be non-null attributes of the {@link Target}, e.g.
+     * <code>createdAt</code> or <code>controllerId</code>.
+     *
+     * @param sort
+     *            the order of the targets
+     * @param lastTarget
+     *            the last {@link Target} of the previous page or
+     *            <code>null</code> for the first page
+     * @param pageSize
+     *            the maximum number of targets of the page
+     * @param status
+     *            find targets having on of these {@link TargetUpdateStatus}s.
+     *            Set to <code>null</code> in case this is not required.
+     * @param searchText
+     *            to find targets having the text anywhere in name or
+     *            description. Set <code>null</code> in case this is not
+     *            required.
+     * @param installedOrAssignedDistributionSetId
+     *            to find targets having the {@link DistributionSet} as
+     *            installed or assigned. Set to <code>null</code> in case this
+     *            is not required.
+     * @param selectTargetWithNoTag
+     *            flag to select targets with no tag assigned
+     * @param tagNames
+     *            to find targets which are having any one in this tag names.
+     *            Set <code>null</code> in case this is not required.
+     *
+     * @return the found {@link Target}s
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    Slice<Target> findTargetByFiltersAfter(@NotNull Sort sort, Target lastTarget, int pageSize,
+            Collection<TargetUpdateStatus> status, String searchText, Long installedOrAssignedDistributionSetId,
+            Boolean selectTargetWithNoTag, String... tagNames);
+
     /**
      * retrieves {@link Target}s by the installed {@link DistributionSet}without
      * details, i.e. NO {@link Target#getTags()} and {@link Target#getActions()}
@@ -453,6 +541,36 @@ public interface TargetManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
     Slice<Target> findTargetsAll(@NotNull TargetFilterQuery targetFilterQuery, @NotNull Pageable pageable);
 
+    /**
+     * Retrieves the {@link Target}s of the given {@link TargetFilterQuery}
+     * like {@link #findTargetsAll(TargetFilterQuery, Pageable)} but seeks to
+     * the page after the given last {@link Target} by its sort values instead
+     * of skipping an offset, see
+     * {@link #findTargetByFiltersAfter(Sort, Target, int, Collection, String, Long, Boolean, String...)}
+     * .
+     *
+     * @param targetFilterQuery
+     *            the specification for the query
+     * @param sort
+     *            the order of the targets
+     * @param lastTarget
+     *            the last {@link Target} of the previous page or
+     *            <code>null</code> for the first page
+     * @param pageSize
+     *            the maximum number of targets of the page
+     *
+     * @return the found {@link Target}s, never {@code null}
+     *
+     * @throws RSQLParameterUnsupportedFieldException
+     *             if a field in the RSQL string is used but not provided by the
+     *             given {@code fieldNameProvider}
+     * @throws RSQLParameterSyntaxException
+     *             if the RSQL syntax is wrong
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    Slice<Target> findTargetsAllAfter(@NotNull TargetFilterQuery targetFilterQuery, @NotNull Sort sort,
+            Target lastTarget, int pageSize);
+
     /**
      * method retrieves all {@link Target}s from the repo in the following
      * order:
@@ -499,6 +617,42 @@ public interface TargetManagement {
             Collection<TargetUpdateStatus> filterByStatus, String filterBySearchText, Boolean selectTargetWithNoTag,
             String... filterByTagNames);
 
+    /**
+     * Retrieves the {@link Target}s in the order of
+     * {@link #findTargetsAllOrderByLinkedDistributionSet(Pageable, Long, Long, Collection, String, Boolean, String...)}
+     * but seeks to the page after the given last {@link Target} instead of
+     * skipping an offset. The cost of a page is independent of its position.
+     *
+     * @param lastTarget
+     *            the last {@link Target} of the previous page or
+     *            <code>null</code> for the first page
+     * @param pageSize
+     *            the maximum number of targets of the page
+     * @param orderByDistributionId
+     *            {@link DistributionSet#getId()} to be ordered by
+     * @param filterByDistributionId
+     *            {@link DistributionSet#getId()} to be filter the result. Set
+     *            to <code>null</code> in case this is not required.
+     * @param filterByStatus
+     *            find targets having this {@link TargetUpdateStatus}s. Set to
+     *            <code>null</code> in case this is not required.
+     * @param filterBySearchText
+     *            to find targets having the text anywhere in name or
+     *            description. Set <code>null</code> in case this is not
+     *            required.
+     * @param selectTargetWithNoTag
+     *            flag to select targets with no tag assigned
+     * @param filterByTagNames
+     *            to find targets which are having any one in this tag names.
+     *            Set <code>null</code> in case this is not required.
+     * @return the {@link Target}s of the page in a defined order.
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    Slice<Target> findTargetsAllOrderByLinkedDistributionSetAfter(Target lastTarget, int pageSize,
+            @NotNull Long orderByDistributionId, Long filterByDistributionId,
+            Collection<TargetUpdateStatus> filterByStatus, String filterBySearchText, Boolean selectTargetWithNoTag,
+            String... filterByTagNames);
+
     /**
      * retrieves a list of {@link Target}s by their controller ID with details,
      * i.e. {@link Target#getTags()} are possible.
@@ -13,11 +13,16 @@ import java.util.Map;
 import org.eclipse.hawkbit.repository.model.Action;
 
 /**
- * Defines the {@link AbstractPropertyChangeEvent} of {@link Action}.
+ * Defines the {@link AbstractPropertyChangeEvent} of {@link Action}. The IDs of
+ * the target are resolved when the event is created, so subscribers do not
+ * have to load the target of the action outside of the transaction.
  */
 public class ActionPropertyChangeEvent extends AbstractPropertyChangeEvent<Action> {
     private static final long serialVersionUID = 181780358321768629L;
 
+    private final Long targetId;
+    private final String controllerId;
+
     /**
      * @param action
      * @param changeSetValues
@@ -25,6 +30,22 @@ public class ActionPropertyChangeEvent extends AbstractPropertyChangeEvent<Actio
     public ActionPropertyChangeEvent(final Action action,
             final Map<String, AbstractPropertyChangeEvent<Action>.Values> changeSetValues) {
         super(action, changeSetValues);
+        this.targetId = action.getTarget().getId();
+        this.controllerId = action.getTarget().getControllerId();
+    }
+
+    /**
+     * @return the ID of the target of the action
+     */
+    public Long getTargetId() {
+        return targetId;
+    }
+
+    /**
+     * @return the controller ID of the target of the action
+     */
+    public String getControllerId() {
+        return controllerId;
     }
 
 }
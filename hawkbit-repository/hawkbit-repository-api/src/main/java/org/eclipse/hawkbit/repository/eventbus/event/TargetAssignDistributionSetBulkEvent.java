@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.eventbus.event;
+
+import java.util.List;
+
+import org.eclipse.hawkbit.eventbus.event.AbstractEvent;
+import org.eclipse.hawkbit.repository.model.TargetInfo;
+
+/**
+ * Event that gets sent once for every chunk of a committed distribution set
+ * assignment to a large number of targets instead of a
+ * {@link TargetAssignDistributionSetEvent} and a {@link TargetInfoUpdateEvent}
+ * per target. Additionally it reports the progress of the assignment.
+ */
+public class TargetAssignDistributionSetBulkEvent extends AbstractEvent {
+
+    private final Long distributionSetId;
+    private final List<TargetAssignDistributionSetEvent> assignments;
+    private final List<TargetInfo> targetInfos;
+    private final int processedTargets;
+    private final int totalTargets;
+
+    /**
+     * Creates a new {@link TargetAssignDistributionSetBulkEvent}.
+     *
+     * @param tenant
+     *            the tenant of the event
+     * @param distributionSetId
+     *            the ID of the assigned distribution set
+     * @param assignments
+     *            the assignments of the chunk which have to be sent to the
+     *            targets
+     * @param targetInfos
+     *            the updated target infos of the chunk
+     * @param processedTargets
+     *            the number of targets processed including this chunk
+     * @param totalTargets
+     *            the total number of targets of the assignment
+     */
+    public TargetAssignDistributionSetBulkEvent(final String tenant, final Long distributionSetId,
+            final List<TargetAssignDistributionSetEvent> assignments, final List<TargetInfo> targetInfos,
+            final int processedTargets, final int totalTargets) {
+        super(-1, tenant);
+        this.distributionSetId = distributionSetId;
+        this.assignments = assignments;
+        this.targetInfos = targetInfos;
+        this.processedTargets = processedTargets;
+        this.totalTargets = totalTargets;
+    }
+
+    /**
+     * @return the ID of the assigned distribution set
+     */
+    public Long getDistributionSetId() {
+        return distributionSetId;
+    }
+
+    /**
+     * @return the assignments of the chunk, without the targets whose
+     *         previous action is canceled first
+     */
+    public List<TargetAssignDistributionSetEvent> getAssignments() {
+        return assignments;
+    }
+
+    /**
+     * @return the updated target infos of all targets of the chunk
+     */
+    public List<TargetInfo> getTargetInfos() {
+        return targetInfos;
+    }
+
+    /**
+     * @return the number of targets processed including this chunk
+     */
+    public int getProcessedTargets() {
+        return processedTargets;
+    }
+
+    /**
+     * @return the total number of targets of the assignment
+     */
+    public int getTotalTargets() {
+        return totalTargets;
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.eventbus.event;
+
+import org.eclipse.hawkbit.eventbus.event.AbstractDistributedEvent;
+
+/**
+ * Event which is published after the security token of a target has been
+ * changed, so the nodes of the cluster evict the cached token of the target.
+ * The event does not contain the token itself.
+ */
+public class TargetSecurityTokenChangedEvent extends AbstractDistributedEvent {
+
+    private static final long serialVersionUID = 1L;
+    private final String controllerId;
+
+    /**
+     * @param tenant
+     *            the tenant of the target
+     * @param controllerId
+     *            the controller ID of the target whose security token has
+     *            been changed
+     */
+    public TargetSecurityTokenChangedEvent(final String tenant, final String controllerId) {
+        super(-1, tenant);
+        this.controllerId = controllerId;
+    }
+
+    /**
+     * @return the controller ID of the target
+     */
+    public String getControllerId() {
+        return controllerId;
+    }
+}
@@ -51,6 +51,7 @@ import org.eclipse.hawkbit.repository.jpa.model.helper.SystemManagementHolder;
 import org.eclipse.hawkbit.repository.jpa.model.helper.SystemSecurityContextHolder;
 import org.eclipse.hawkbit.repository.jpa.model.helper.TenantAwareHolder;
 import org.eclipse.hawkbit.repository.jpa.model.helper.TenantConfigurationManagementHolder;
+import org.eclipse.hawkbit.repository.jpa.model.helper.WriteBehindCountersHolder;
 import org.eclipse.hawkbit.security.SecurityTokenGenerator;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
 import org.eclipse.hawkbit.tenancy.TenantAware;
@@ -127,6 +128,17 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
         return TenantAwareHolder.getInstance();
     }
 
+    /**
+     * @return the {@link WriteBehindCountersHolder} singleton bean which holds
+     *         the incrementally maintained counters of the tenants and make
+     *         them accessible in beans which cannot access them directly, e.g.
+     *         entity listeners.
+     */
+    @Bean
+    public WriteBehindCountersHolder writeBehindCountersHolder() {
+        return WriteBehindCountersHolder.getInstance();
+    }
+
     /**
      * @return the {@link SecurityTokenGeneratorHolder} singleton bean which
      *         holds the current {@link SecurityTokenGenerator} service and make
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.hawkbit.repository.jpa.ReportRollups.Series;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.TargetWithActionType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Service;
+
+/**
+ * Writes the actions and initial action status of a distribution set
+ * assignment with JDBC statements instead of persisting every action as
+ * entity. Has to be called within the transaction of the assignment as the
+ * statements run on the connection of the JPA transaction.
+ *
+ * The rows are written without the entity listeners, i.e. the caller has to
+ * publish the events of the assignment. Only the {@link TenantUsageCounters}
+ * and the {@link ReportRollups} are maintained by the writer.
+ */
+@Service
+public class ActionBulkWriter {
+
+    private static final String INSERT_ACTION = "INSERT INTO sp_action (created_at, created_by, last_modified_at, last_modified_by, optlock_revision, tenant, action_type, active, forced_time, status, distribution_set, target, rollout, rolloutgroup) VALUES (?, ?, ?, ?, 1, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ACTION_STATUS = "INSERT INTO sp_action_status (created_at, created_by, last_modified_at, last_modified_by, optlock_revision, tenant, target_occurred_at, status, action) VALUES (?, ?, ?, ?, 1, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TenantUsageCounters tenantUsageCounters;
+
+    @Autowired
+    private ReportRollups reportRollups;
+
+    /**
+     * Inserts a running action and its initial {@link Status#RUNNING} status
+     * for every given target.
+     *
+     * @param targets
+     *            the targets of one chunk, all of the same tenant
+     * @param targetsWithActionType
+     *            action type and forced time by controller ID
+     * @param setId
+     *            the ID of the assigned distribution set
+     * @param rolloutId
+     *            the ID of the rollout or <code>null</code>
+     * @param rolloutGroupId
+     *            the ID of the rollout group or <code>null</code>
+     * @param createdAt
+     *            the creation time of the actions
+     * @param createdBy
+     *            the current user
+     * @return the IDs of the created actions by target ID
+     */
+    public Map<Long, Long> insertActions(final List<JpaTarget> targets,
+            final Map<String, TargetWithActionType> targetsWithActionType, final Long setId, final Long rolloutId,
+            final Long rolloutGroupId, final long createdAt, final String createdBy) {
+        final String tenant = targets.get(0).getTenant();
+
+        // the actions are inserted one by one on the same statement as not
+        // all drivers return the generated keys of a batch, e.g. H2
+        final PreparedStatementCreator insertAction = con -> con.prepareStatement(INSERT_ACTION,
+                Statement.RETURN_GENERATED_KEYS);
+        final Map<Long, Long> actionIdsByTarget = jdbcTemplate.execute(insertAction,
+                (PreparedStatementCallback<Map<Long, Long>>) ps -> {
+                    final Map<Long, Long> actionIds = new LinkedHashMap<>(targets.size());
+                    for (final JpaTarget target : targets) {
+                        final TargetWithActionType actionType = targetsWithActionType.get(target.getControllerId());
+                        ps.setLong(1, createdAt);
+                        ps.setString(2, createdBy);
+                        // the auditing listener sets the last modification on
+                        // creation as well
+                        ps.setLong(3, createdAt);
+                        ps.setString(4, createdBy);
+                        ps.setString(5, tenant);
+                        ps.setString(6, actionType.getActionType().name());
+                        ps.setBoolean(7, true);
+                        ps.setLong(8, actionType.getForceTime());
+                        ps.setInt(9, Status.RUNNING.ordinal());
+                        ps.setLong(10, setId);
+                        ps.setLong(11, target.getId());
+                        setNullableLong(ps, 12, rolloutId);
+                        setNullableLong(ps, 13, rolloutGroupId);
+                        ps.executeUpdate();
+                        try (final ResultSet keys = ps.getGeneratedKeys()) {
+                            keys.next();
+                            actionIds.put(target.getId(), keys.getLong(1));
+                        }
+                    }
+                    return actionIds;
+                });
+
+        // create initial action status when action is created so we remember
+        // the initial running status
+        final List<Long> actionIds = new ArrayList<>(actionIdsByTarget.values());
+        jdbcTemplate.batchUpdate(INSERT_ACTION_STATUS, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(final PreparedStatement ps, final int i) throws SQLException {
+                ps.setLong(1, createdAt);
+                ps.setString(2, createdBy);
+                ps.setLong(3, createdAt);
+                ps.setString(4, createdBy);
+                ps.setString(5, tenant);
+                ps.setLong(6, createdAt);
+                ps.setInt(7, Status.RUNNING.ordinal());
+                ps.setLong(8, actionIds.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return actionIds.size();
+            }
+        });
+
+        tenantUsageCounters.add(tenant, 0, targets.size(), 0, 0);
+        reportRollups.add(tenant, Series.ACTION_CREATED, createdAt, targets.size());
+        return actionIdsByTarget;
+    }
+
+    private static void setNullableLong(final PreparedStatement ps, final int index, final Long value)
+            throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+}
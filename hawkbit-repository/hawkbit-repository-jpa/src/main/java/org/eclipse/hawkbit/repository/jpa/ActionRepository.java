@@ -25,7 +25,6 @@ import org.eclipse.hawkbit.repository.model.RolloutGroup;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TotalTargetCountActionStatus;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
@@ -203,6 +202,25 @@ public interface ActionRepository extends BaseEntityRepository<JpaAction, Long>,
     void switchStatus(@Param("statusToSet") Action.Status statusToSet, @Param("targetsIds") List<Long> targetIds,
             @Param("active") boolean active, @Param("currentStatus") Action.Status currentStatus);
 
+    /**
+     * Counts the actions per rollout group which are affected by
+     * {@link #switchStatus(Action.Status, List, boolean, Action.Status)} with
+     * the same parameters. Actions which do not belong to a rollout group are
+     * not counted.
+     *
+     * @param targetIds
+     *            the IDs of the targets of the actions
+     * @param active
+     *            the active flag of the actions
+     * @param currentStatus
+     *            the current status of the actions
+     * @return the rollout group ID and the count of actions for every affected
+     *         rollout group
+     */
+    @Query("SELECT a.rolloutGroup.id, COUNT(a) FROM JpaAction a WHERE a.target IN :targetsIds AND a.active = :active AND a.status = :currentStatus AND a.distributionSet.requiredMigrationStep = false GROUP BY a.rolloutGroup.id")
+    List<Object[]> countByRolloutGroupForSwitchStatus(@Param("targetsIds") List<Long> targetIds,
+            @Param("active") boolean active, @Param("currentStatus") Action.Status currentStatus);
+
     /**
      * Switches the status of actions from one specific status into another,
      * only if the actions are in a specific status. This should be a atomar
@@ -238,6 +256,23 @@ public interface ActionRepository extends BaseEntityRepository<JpaAction, Long>,
     List<JpaAction> findByActiveAndTargetIdInAndActionStatusNotEqualToAndDistributionSetRequiredMigrationStep(
             Collection<Long> targetIds, Action.Status notStatus);
 
+    /**
+     * Retrieves the active {@link Action} with the given ID if it belongs to
+     * the given target and has none of the given statuses, e.g. to confirm an
+     * entry of the {@link ArtifactDownloadIndex}.
+     *
+     * @param actionId
+     *            the ID of the action
+     * @param controllerId
+     *            the ID of the target of the action
+     * @param notStatus
+     *            the statuses which the action should not have
+     * @return the found {@link Action} or <code>null</code>
+     */
+    @Query("SELECT a FROM JpaAction a WHERE a.id = ?1 AND a.target.controllerId = ?2 AND a.active = true AND a.status NOT IN ?3")
+    Action findActiveByIdAndTargetAndStatusNotIn(Long actionId, String controllerId,
+            Collection<Action.Status> notStatus);
+
     /**
      * Counts all {@link Action}s referring to the given target.
      *
@@ -248,13 +283,8 @@ public interface ActionRepository extends BaseEntityRepository<JpaAction, Long>,
     Long countByTarget(JpaTarget target);
 
     @Override
-    @CacheEvict(value = "feedbackReceivedOverTime", allEntries = true)
     <S extends JpaAction> List<S> save(Iterable<S> entities);
 
-    @Override
-    @CacheEvict(value = "feedbackReceivedOverTime", allEntries = true)
-    <S extends JpaAction> S save(S entity);
-
     /**
      * Counts all {@link Action}s referring to the given DistributionSet.
      *
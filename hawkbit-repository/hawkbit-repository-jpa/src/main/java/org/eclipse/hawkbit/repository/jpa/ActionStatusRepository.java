@@ -8,6 +8,11 @@
  */
 package org.eclipse.hawkbit.repository.jpa;
 
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
 import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
 import org.eclipse.hawkbit.repository.model.Action;
@@ -18,6 +23,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -78,4 +87,53 @@ public interface ActionStatusRepository
     @EntityGraph(value = "ActionStatus.withMessages", type = EntityGraphType.LOAD)
     Page<ActionStatus> getByAction(Pageable pageReq, JpaAction action);
 
+    /**
+     * Retrieves the IDs of the {@link ActionStatus} entries of closed actions
+     * which can be removed from the history, i.e. all entries except the
+     * first, the last and the entries with the given status of every action.
+     *
+     * @param lastModifiedBefore
+     *            only actions which have been closed before are considered
+     * @param keepStatus
+     *            status of the entries which are kept, e.g. errors
+     * @param pageable
+     *            to limit the number of IDs
+     * @return the IDs of the removable entries in ascending order
+     */
+    @Query("SELECT s.id FROM JpaActionStatus s WHERE s.action.active = false AND s.action.lastModifiedAt < :before"
+            + " AND s.status <> :keepStatus"
+            + " AND s.id <> (SELECT MIN(f.id) FROM JpaActionStatus f WHERE f.action = s.action)"
+            + " AND s.id <> (SELECT MAX(l.id) FROM JpaActionStatus l WHERE l.action = s.action) ORDER BY s.id")
+    List<Long> findRemovableIdsOfClosedActions(@Param("before") Long lastModifiedBefore,
+            @Param("keepStatus") Status keepStatus, Pageable pageable);
+
+    /**
+     * Retrieves and locks the {@link ActionStatus} entries with the given IDs
+     * including {@link ActionStatus#getMessages()} until the end of the
+     * transaction. Entries which have been deleted by another transaction in
+     * the meantime are not returned, so the entries are claimed by exactly one
+     * transaction, e.g. of one node of a cluster.
+     *
+     * @param ids
+     *            of the entries
+     * @return the found entries
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(value = "ActionStatus.withMessages", type = EntityGraphType.LOAD)
+    @Query("SELECT s FROM JpaActionStatus s WHERE s.id IN :ids ORDER BY s.id")
+    List<JpaActionStatus> findAndLockByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes the {@link ActionStatus} entries with the given IDs. The messages
+     * of the entries are deleted by the database.
+     *
+     * @param ids
+     *            of the entries to delete
+     * @return the number of deleted entries
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM JpaActionStatus s WHERE s.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
 }
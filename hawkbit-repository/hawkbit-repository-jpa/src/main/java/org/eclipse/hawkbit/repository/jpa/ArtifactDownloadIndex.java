@@ -0,0 +1,315 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.eclipse.hawkbit.eventbus.EventSubscriber;
+import org.eclipse.hawkbit.eventbus.event.CancelTargetAssignmentEvent;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.eventbus.event.ActionPropertyChangeEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetAssignDistributionSetBulkEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.LocalArtifact;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * In-memory index for the artifact downloads of the controllers. It maps the
+ * {@link SoftwareModule}s of a target to its active {@link Action} which
+ * authorizes the download, and the file names to the IDs of the
+ * {@link LocalArtifact}s, so that a download does not have to join the
+ * actions with the distribution sets and modules or scan the artifacts by
+ * file name.
+ *
+ * The actions are indexed on assignment and removed when an action is
+ * canceled or closed. The artifacts are indexed on the first lookup of a file
+ * name and evicted by the repository after the commit of a created or deleted
+ * artifact on this node. All entries expire after
+ * {@link RepositoryProperties.DownloadIndex#getTtl()}. The index is only a
+ * hint: the repository confirms every hit by loading the action or artifacts
+ * by primary key and falls back to the full query on a miss.
+ *
+ * Artifacts are not evicted on the other nodes of a cluster. A deleted
+ * artifact is detected by the confirmation, but an artifact created on
+ * another node with an indexed file name is not found by this node until the
+ * entry expires.
+ */
+@EventSubscriber
+public class ArtifactDownloadIndex {
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private Cache<TargetKey, Map<Long, Long>> actions;
+
+    private Cache<FilenameKey, List<Long>> artifacts;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
+    @PostConstruct
+    void init() {
+        final RepositoryProperties.DownloadIndex properties = repositoryProperties.getDownloadIndex();
+        actions = CacheBuilder.newBuilder().maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getTtl(), TimeUnit.MILLISECONDS).build();
+        artifacts = CacheBuilder.newBuilder().maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getTtl(), TimeUnit.MILLISECONDS).build();
+    }
+
+    /**
+     * @param controllerId
+     *            of the downloading target
+     * @param softwareModuleId
+     *            of the downloaded artifact
+     * @return the ID of the active action of the target of the current tenant
+     *         which contains the module or <code>null</code> if none is
+     *         indexed
+     */
+    public Long getActionId(final String controllerId, final Long softwareModuleId) {
+        final Map<Long, Long> modules = actions
+                .getIfPresent(new TargetKey(tenantAware.getCurrentTenant(), controllerId));
+        return recordLookup(modules != null ? modules.get(softwareModuleId) : null);
+    }
+
+    /**
+     * Indexes the active action of a target of the current tenant for the
+     * given module.
+     *
+     * @param controllerId
+     *            of the target
+     * @param softwareModuleId
+     *            of the module
+     * @param actionId
+     *            of the action which contains the module
+     */
+    public void putAction(final String controllerId, final Long softwareModuleId, final Long actionId) {
+        putAction(tenantAware.getCurrentTenant(), controllerId, Collections.singletonMap(softwareModuleId, actionId));
+    }
+
+    /**
+     * Removes the indexed actions of the given target of the current tenant.
+     *
+     * @param controllerId
+     *            of the target
+     */
+    public void evictTarget(final String controllerId) {
+        actions.invalidate(new TargetKey(tenantAware.getCurrentTenant(), controllerId));
+    }
+
+    /**
+     * @param filename
+     *            of the artifacts
+     * @return the IDs of the artifacts of the current tenant with the given
+     *         file name or <code>null</code> if they are not indexed
+     */
+    public List<Long> getArtifactIds(final String filename) {
+        return recordLookup(artifacts.getIfPresent(new FilenameKey(tenantAware.getCurrentTenant(), filename)));
+    }
+
+    /**
+     * Indexes the artifacts of the current tenant with the given file name.
+     *
+     * @param filename
+     *            of the artifacts
+     * @param artifactIds
+     *            the IDs of all artifacts with the file name
+     */
+    public void putArtifacts(final String filename, final List<Long> artifactIds) {
+        artifacts.put(new FilenameKey(tenantAware.getCurrentTenant(), filename),
+                Collections.unmodifiableList(artifactIds));
+    }
+
+    /**
+     * Removes the indexed artifacts of the current tenant with the given file
+     * name.
+     *
+     * @param filename
+     *            of the created or deleted artifact
+     */
+    public void evictArtifacts(final String filename) {
+        artifacts.invalidate(new FilenameKey(tenantAware.getCurrentTenant(), filename));
+    }
+
+    /**
+     * Removes all entries of the given tenant.
+     *
+     * @param tenant
+     *            which has been deleted
+     */
+    public void evictTenant(final String tenant) {
+        final String normalizedTenant = normalize(tenant);
+        actions.asMap().keySet().removeIf(key -> Objects.equals(key.tenant, normalizedTenant));
+        artifacts.asMap().keySet().removeIf(key -> Objects.equals(key.tenant, normalizedTenant));
+    }
+
+    /**
+     * @return the number of lookups answered from the index since startup
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups which were not indexed since startup
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Indexes the modules of an assigned distribution set for the new action.
+     *
+     * @param event
+     *            the assignment event
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onAssignment(final TargetAssignDistributionSetEvent event) {
+        final Map<Long, Long> modules = new HashMap<>();
+        event.getSoftwareModules().forEach(module -> modules.put(module.getId(), event.getActionId()));
+        putAction(event.getTenant(), event.getControllerId(), modules);
+    }
+
+    /**
+     * Indexes the actions of the targets of a chunk of a bulk assignment.
+     *
+     * @param event
+     *            the bulk assignment event
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onBulkAssignment(final TargetAssignDistributionSetBulkEvent event) {
+        event.getAssignments().forEach(this::onAssignment);
+    }
+
+    /**
+     * Removes the actions of the target an assignment has been canceled for.
+     *
+     * @param event
+     *            the cancel event
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onCancel(final CancelTargetAssignmentEvent event) {
+        actions.invalidate(new TargetKey(event.getTenant(), event.getControllerId()));
+    }
+
+    /**
+     * Removes the actions of the target of an action which has been closed or
+     * is canceled.
+     *
+     * @param event
+     *            the action change event
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onActionChange(final ActionPropertyChangeEvent event) {
+        final Action action = event.getEntity();
+        if (!action.isActive() || action.isCancelingOrCanceled()) {
+            actions.invalidate(new TargetKey(event.getTenant(), event.getControllerId()));
+        }
+    }
+
+    private void putAction(final String tenant, final String controllerId, final Map<Long, Long> modules) {
+        // the maps are copied on write as they are read concurrently
+        actions.asMap().merge(new TargetKey(tenant, controllerId), Collections.unmodifiableMap(modules),
+                (current, added) -> {
+                    final Map<Long, Long> merged = new HashMap<>(current);
+                    merged.putAll(added);
+                    return Collections.unmodifiableMap(merged);
+                });
+    }
+
+    private <T> T recordLookup(final T value) {
+        if (value != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return value;
+    }
+
+    private static String normalize(final String tenant) {
+        return tenant == null ? null : tenant.toUpperCase();
+    }
+
+    private static final class TargetKey {
+        private final String tenant;
+        private final String controllerId;
+
+        private TargetKey(final String tenant, final String controllerId) {
+            this.tenant = normalize(tenant);
+            this.controllerId = controllerId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, controllerId);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof TargetKey)) {
+                return false;
+            }
+            final TargetKey other = (TargetKey) obj;
+            return Objects.equals(tenant, other.tenant) && Objects.equals(controllerId, other.controllerId);
+        }
+    }
+
+    private static final class FilenameKey {
+        private final String tenant;
+        private final String filename;
+
+        private FilenameKey(final String tenant, final String filename) {
+            this.tenant = normalize(tenant);
+            this.filename = filename;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, filename);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FilenameKey)) {
+                return false;
+            }
+            final FilenameKey other = (FilenameKey) obj;
+            return Objects.equals(tenant, other.tenant) && Objects.equals(filename, other.filename);
+        }
+    }
+}
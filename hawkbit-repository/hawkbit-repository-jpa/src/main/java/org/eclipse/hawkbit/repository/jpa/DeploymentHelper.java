@@ -77,14 +77,15 @@ public final class DeploymentHelper {
      *            for the operation
      * @param targetInfoRepository
      *            for the operation
+     * @param rolloutGroupRepository
+     *            for the operation
      */
     static void successCancellation(final JpaAction action, final ActionRepository actionRepository,
             final TargetManagement targetManagement, final TargetInfoRepository targetInfoRepository,
-            final EntityManager entityManager) {
+            final EntityManager entityManager, final RolloutGroupRepository rolloutGroupRepository) {
 
         // set action inactive
-        action.setActive(false);
-        action.setStatus(Status.CANCELED);
+        closeAction(action, Status.CANCELED, rolloutGroupRepository);
 
         final JpaTarget target = (JpaTarget) action.getTarget();
         final List<Action> nextActiveActions = actionRepository.findByTargetAndActiveOrderByIdAsc(target, true).stream()
@@ -99,4 +100,46 @@ public final class DeploymentHelper {
         targetManagement.updateTarget(target);
     }
 
+    /**
+     * Sets the action inactive with the given final status. The action is
+     * counted in the action counters of its rollout group if it was active
+     * before, so repeated feedback does not count an action twice.
+     *
+     * @param action
+     *            the action to close
+     * @param status
+     *            the final status of the action
+     * @param rolloutGroupRepository
+     *            for the operation
+     */
+    static void closeAction(final JpaAction action, final Status status,
+            final RolloutGroupRepository rolloutGroupRepository) {
+        if (action.isActive()) {
+            countClosedAction(action, status, rolloutGroupRepository);
+        }
+        action.setActive(false);
+        action.setStatus(status);
+    }
+
+    /**
+     * Counts the action with the given final status in the action counters of
+     * its rollout group. Does nothing if the action does not belong to a
+     * rollout.
+     *
+     * @param action
+     *            the closed action
+     * @param status
+     *            the final status of the action
+     * @param rolloutGroupRepository
+     *            for the operation
+     */
+    static void countClosedAction(final Action action, final Status status,
+            final RolloutGroupRepository rolloutGroupRepository) {
+        if (action.getRolloutGroup() == null) {
+            return;
+        }
+        rolloutGroupRepository.incrementActionCounters(action.getRolloutGroup().getId(),
+                Status.FINISHED == status ? 1 : 0, Status.ERROR == status ? 1 : 0, Status.CANCELED == status ? 1 : 0);
+    }
+
 }
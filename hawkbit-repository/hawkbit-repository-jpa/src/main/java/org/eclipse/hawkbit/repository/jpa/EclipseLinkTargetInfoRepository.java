@@ -43,7 +43,7 @@ public class EclipseLinkTargetInfoRepository implements TargetInfoRepository {
                 "update JpaTargetInfo ti set ti.updateStatus = :status where ti.targetId in :targets and ti.updateStatus != :status");
         query.setParameter("targets", targets);
         query.setParameter("status", status);
-
+        query.executeUpdate();
     }
 
     @Override
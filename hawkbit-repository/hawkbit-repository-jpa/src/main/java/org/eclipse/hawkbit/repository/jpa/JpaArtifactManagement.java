@@ -9,7 +9,10 @@
 package org.eclipse.hawkbit.repository.jpa;
 
 import java.io.InputStream;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.artifact.repository.ArtifactRepository;
 import org.eclipse.hawkbit.artifact.repository.ArtifactStoreException;
@@ -24,6 +27,7 @@ import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
 import org.eclipse.hawkbit.repository.exception.GridFSDBFileNotFoundException;
 import org.eclipse.hawkbit.repository.exception.InvalidMD5HashException;
 import org.eclipse.hawkbit.repository.exception.InvalidSHA1HashException;
+import org.eclipse.hawkbit.repository.jpa.executor.AfterTransactionCommitExecutor;
 import org.eclipse.hawkbit.repository.jpa.model.JpaExternalArtifact;
 import org.eclipse.hawkbit.repository.jpa.model.JpaExternalArtifactProvider;
 import org.eclipse.hawkbit.repository.jpa.model.JpaLocalArtifact;
@@ -70,6 +74,12 @@ public class JpaArtifactManagement implements ArtifactManagement {
     @Autowired
     private ArtifactRepository artifactRepository;
 
+    @Autowired
+    private ArtifactDownloadIndex artifactDownloadIndex;
+
+    @Autowired
+    private AfterTransactionCommitExecutor afterCommit;
+
     private static LocalArtifact checkForExistingArtifact(final String filename, final boolean overrideExisting,
             final SoftwareModule softwareModule) {
         if (softwareModule.getLocalArtifactByFilename(filename).isPresent()) {
@@ -191,6 +201,7 @@ public class JpaArtifactManagement implements ArtifactManagement {
         existing.getSoftwareModule().removeArtifact(existing);
         softwareModuleRepository.save((JpaSoftwareModule) existing.getSoftwareModule());
         localArtifactRepository.delete(id);
+        evictIndexedArtifacts(existing.getFilename());
     }
 
     @Override
@@ -210,7 +221,41 @@ public class JpaArtifactManagement implements ArtifactManagement {
 
     @Override
     public List<LocalArtifact> findLocalArtifactByFilename(final String filename) {
-        return localArtifactRepository.findByFilename(filename);
+        final List<Long> indexed = artifactDownloadIndex.getArtifactIds(filename);
+        if (indexed != null) {
+            final List<LocalArtifact> artifacts = findIndexedArtifacts(filename, indexed);
+            if (artifacts != null) {
+                return artifacts;
+            }
+            artifactDownloadIndex.evictArtifacts(filename);
+        }
+
+        final List<LocalArtifact> artifacts = localArtifactRepository.findByFilename(filename);
+        if (!artifacts.isEmpty()) {
+            artifactDownloadIndex.putArtifacts(filename,
+                    artifacts.stream().map(LocalArtifact::getId).collect(Collectors.toList()));
+        }
+        return artifacts;
+    }
+
+    /**
+     * Loads the artifacts of the {@link ArtifactDownloadIndex} by primary key
+     * in the indexed order.
+     *
+     * @return the artifacts or <code>null</code> if the index is outdated
+     */
+    private List<LocalArtifact> findIndexedArtifacts(final String filename, final List<Long> artifactIds) {
+        final Map<Long, LocalArtifact> found = new HashMap<>(artifactIds.size());
+        for (final JpaLocalArtifact artifact : localArtifactRepository.findByIdIn(artifactIds)) {
+            if (!filename.equals(artifact.getFilename())) {
+                return null;
+            }
+            found.put(artifact.getId(), artifact);
+        }
+        if (found.size() != artifactIds.size()) {
+            return null;
+        }
+        return artifactIds.stream().map(found::get).collect(Collectors.toList());
     }
 
     @Override
@@ -268,9 +313,18 @@ public class JpaArtifactManagement implements ArtifactManagement {
         artifact.setSize(result.getSize());
 
         LOG.debug("storing new artifact into repository {}", artifact);
+        evictIndexedArtifacts(providedFilename);
         return localArtifactRepository.save(artifact);
     }
 
+    /**
+     * Evicts the indexed artifacts with the given file name after commit, so a
+     * lookup before the commit cannot index the old artifacts again.
+     */
+    private void evictIndexedArtifacts(final String filename) {
+        afterCommit.afterCommit(() -> artifactDownloadIndex.evictArtifacts(filename));
+    }
+
     @Override
     @Modifying
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
@@ -10,6 +10,7 @@ package org.eclipse.hawkbit.repository.jpa;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -49,6 +50,7 @@ import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
 import org.eclipse.hawkbit.repository.model.TenantConfiguration;
 import org.eclipse.hawkbit.security.HawkbitSecurityProperties;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,6 +58,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
@@ -69,6 +72,8 @@ public class JpaControllerManagement implements ControllerManagement {
     private static final Logger LOG = LoggerFactory.getLogger(ControllerManagement.class);
     private static final Logger LOG_DOS = LoggerFactory.getLogger("server-security.dos");
 
+    private static final List<Status> CANCELING_OR_CANCELED = Arrays.asList(Status.CANCELING, Status.CANCELED);
+
     @Autowired
     private EntityManager entityManager;
 
@@ -90,6 +95,9 @@ public class JpaControllerManagement implements ControllerManagement {
     @Autowired
     private ActionStatusRepository actionStatusRepository;
 
+    @Autowired
+    private RolloutGroupRepository rolloutGroupRepository;
+
     @Autowired
     private HawkbitSecurityProperties securityProperties;
 
@@ -108,6 +116,18 @@ public class JpaControllerManagement implements ControllerManagement {
     @Autowired
     private SystemSecurityContext systemSecurityContext;
 
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private TargetPollWriteBehindBuffer targetPollWriteBehindBuffer;
+
+    @Autowired
+    private TargetSecurityTokenCache targetSecurityTokenCache;
+
+    @Autowired
+    private ArtifactDownloadIndex artifactDownloadIndex;
+
     @Override
     public String getPollingTime() {
         final TenantConfigurationKey configurationKey = TenantConfigurationKey.POLLING_TIME_INTERVAL;
@@ -135,6 +155,11 @@ public class JpaControllerManagement implements ControllerManagement {
     @Override
     public Action getActionForDownloadByTargetAndSoftwareModule(final String controllerId,
             final SoftwareModule module) {
+        final Action indexed = findIndexedDownloadAction(controllerId, module.getId());
+        if (indexed != null) {
+            return indexed;
+        }
+
         final List<Action> action = actionRepository.findActionByTargetAndSoftwareModule(controllerId,
                 (JpaSoftwareModule) module);
 
@@ -143,11 +168,19 @@ public class JpaControllerManagement implements ControllerManagement {
                     "No assigment found for module " + module.getId() + " to target " + controllerId);
         }
 
+        if (action.get(0).isActive()) {
+            artifactDownloadIndex.putAction(controllerId, module.getId(), action.get(0).getId());
+        }
+
         return action.get(0);
     }
 
     @Override
     public boolean hasTargetArtifactAssigned(final String controllerId, final LocalArtifact localArtifact) {
+        if (findIndexedDownloadAction(controllerId, localArtifact.getSoftwareModule().getId()) != null) {
+            return true;
+        }
+
         final Target target = targetRepository.findByControllerId(controllerId);
         if (target == null) {
             return false;
@@ -155,6 +188,29 @@ public class JpaControllerManagement implements ControllerManagement {
         return actionRepository.count(ActionSpecifications.hasTargetAssignedArtifact(target, localArtifact)) > 0;
     }
 
+    /**
+     * Confirms the action of the {@link ArtifactDownloadIndex} with one query
+     * as the index is not aware of changes on other nodes.
+     *
+     * @return the indexed action if it is still active and not canceled or
+     *         <code>null</code> if there is none
+     */
+    private Action findIndexedDownloadAction(final String controllerId, final Long softwareModuleId) {
+        final Long actionId = artifactDownloadIndex.getActionId(controllerId, softwareModuleId);
+        if (actionId == null) {
+            return null;
+        }
+
+        final Action action = actionRepository.findActiveByIdAndTargetAndStatusNotIn(actionId, controllerId,
+                CANCELING_OR_CANCELED);
+        if (action != null) {
+            return action;
+        }
+
+        artifactDownloadIndex.evictTarget(controllerId);
+        return null;
+    }
+
     @Override
     public List<Action> findActionByTargetAndActive(final Target target) {
         return actionRepository.findByTargetAndActiveOrderByIdAsc((JpaTarget) target, true);
@@ -196,6 +252,10 @@ public class JpaControllerManagement implements ControllerManagement {
     public TargetInfo updateTargetStatus(final TargetInfo targetInfo, final TargetUpdateStatus status,
             final Long lastTargetQuery, final URI address) {
         final JpaTargetInfo mtargetInfo = (JpaTargetInfo) entityManager.merge(targetInfo);
+        if (targetPollWriteBehindBuffer.isEnabled()) {
+            // written directly, so a buffered poll is outdated
+            targetPollWriteBehindBuffer.discard(tenantAware.getCurrentTenant(), mtargetInfo.getTarget().getId());
+        }
         if (status != null) {
             mtargetInfo.setUpdateStatus(status);
         }
@@ -244,7 +304,7 @@ public class JpaControllerManagement implements ControllerManagement {
         actionStatus.addMessage(
                 RepositoryConstants.SERVER_MESSAGE_PREFIX + "Cancellation completion is finished sucessfully.");
         DeploymentHelper.successCancellation(action, actionRepository, targetManagement, targetInfoRepository,
-                entityManager);
+                entityManager, rolloutGroupRepository);
     }
 
     @Override
@@ -323,8 +383,7 @@ public class JpaControllerManagement implements ControllerManagement {
     }
 
     private void handleErrorOnAction(final JpaAction mergedAction, final JpaTarget mergedTarget) {
-        mergedAction.setActive(false);
-        mergedAction.setStatus(Status.ERROR);
+        DeploymentHelper.closeAction(mergedAction, Status.ERROR, rolloutGroupRepository);
         mergedTarget.setAssignedDistributionSet(null);
         targetManagement.updateTarget(mergedTarget);
     }
@@ -345,8 +404,7 @@ public class JpaControllerManagement implements ControllerManagement {
     }
 
     private void handleFinishedAndStoreInTargetStatus(final JpaTarget target, final JpaAction action) {
-        action.setActive(false);
-        action.setStatus(Status.FINISHED);
+        DeploymentHelper.closeAction(action, Status.FINISHED, rolloutGroupRepository);
         final JpaTargetInfo targetInfo = (JpaTargetInfo) target.getTargetInfo();
         final JpaDistributionSet ds = (JpaDistributionSet) entityManager.merge(action.getDistributionSet());
         targetInfo.setInstalledDistributionSet(ds);
@@ -461,13 +519,47 @@ public class JpaControllerManagement implements ControllerManagement {
         return target != null ? target.getSecurityToken() : null;
     }
 
+    @Override
+    // no transaction for tokens verified by the cache
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean verifySecurityToken(final String controllerId, final String securityToken) {
+        return targetSecurityTokenCache.verify(controllerId, securityToken);
+    }
+
     @Override
     @Modifying
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
     public TargetInfo updateLastTargetQuery(final TargetInfo target, final URI address) {
+        if (isPollOnlyUpdate(target, address)) {
+            targetPollWriteBehindBuffer.add(tenantAware.getCurrentTenant(), target.getTarget().getId(),
+                    System.currentTimeMillis(), address != null ? address.toString() : null);
+            return target;
+        }
         return updateTargetStatus(target, null, System.currentTimeMillis(), address);
     }
 
+    @Override
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    public void updateLastTargetQuery(final Long targetId, final URI address) {
+        final JpaTargetInfo targetInfo = entityManager.find(JpaTargetInfo.class, targetId);
+        if (targetInfo == null) {
+            throw new EntityNotFoundException("Target with ID " + targetId + " not found");
+        }
+        updateLastTargetQuery(targetInfo, address);
+    }
+
+    /**
+     * A poll can be collected by the {@link TargetPollWriteBehindBuffer} if
+     * neither the address changes nor the target is still in status
+     * {@link TargetUpdateStatus#UNKNOWN}, which becomes
+     * {@link TargetUpdateStatus#REGISTERED} with the first poll.
+     */
+    private boolean isPollOnlyUpdate(final TargetInfo target, final URI address) {
+        return targetPollWriteBehindBuffer.isEnabled() && target.getUpdateStatus() != TargetUpdateStatus.UNKNOWN
+                && (address == null || address.equals(target.getAddress()));
+    }
+
     @Override
     public void downloadProgressPercent(final long statusId, final int progressPercent) {
         cacheWriteNotify.downloadProgressPercent(statusId, progressPercent);
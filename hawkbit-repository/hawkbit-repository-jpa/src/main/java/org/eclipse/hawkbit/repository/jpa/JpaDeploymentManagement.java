@@ -13,12 +13,14 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import javax.persistence.Cache;
 import javax.persistence.EntityManager;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
@@ -32,7 +34,9 @@ import org.eclipse.hawkbit.eventbus.event.CancelTargetAssignmentEvent;
 import org.eclipse.hawkbit.repository.ActionFields;
 import org.eclipse.hawkbit.repository.DeploymentManagement;
 import org.eclipse.hawkbit.repository.DistributionSetAssignmentResult;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.TargetManagement;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetAssignDistributionSetBulkEvent;
 import org.eclipse.hawkbit.repository.eventbus.event.TargetAssignDistributionSetEvent;
 import org.eclipse.hawkbit.repository.eventbus.event.TargetInfoUpdateEvent;
 import org.eclipse.hawkbit.repository.exception.CancelActionNotAllowedException;
@@ -67,6 +71,7 @@ import org.eclipse.hawkbit.repository.model.RolloutGroup;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.SoftwareModuleType;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetInfo;
 import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
 import org.eclipse.hawkbit.repository.model.TargetWithActionType;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
@@ -135,6 +140,15 @@ public class JpaDeploymentManagement implements DeploymentManagement {
     @Autowired
     private SystemSecurityContext systemSecurityContext;
 
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
+    @Autowired
+    private ActionBulkWriter actionBulkWriter;
+
+    @Autowired
+    private RolloutGroupRepository rolloutGroupRepository;
+
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
     @Modifying
@@ -235,6 +249,11 @@ public class JpaDeploymentManagement implements DeploymentManagement {
         final Map<String, TargetWithActionType> targetsWithActionMap = targetsWithActionType.stream()
                 .collect(Collectors.toMap(TargetWithActionType::getTargetId, Function.identity()));
 
+        if (controllerIDs.size() >= repositoryProperties.getAssignment().getBulkThreshold()) {
+            return assignDistributionSetToTargetsInBulk(set, controllerIDs, targetsWithActionMap, rollout,
+                    rolloutGroup);
+        }
+
         // split tIDs length into max entries in-statement because many database
         // have constraint of max entries in in-statements e.g. Oracle with
         // maximum 1000 elements, so we need to split the entries here and
@@ -266,7 +285,7 @@ public class JpaDeploymentManagement implements DeploymentManagement {
         // cancel all scheduled actions which are in-active, these actions were
         // not active before and the manual assignment which has been done
         // cancels the
-        targetIds.forEach(tIds -> actionRepository.switchStatus(Status.CANCELED, tIds, false, Status.SCHEDULED));
+        targetIds.forEach(this::cancelScheduledActions);
 
         // set assigned distribution set and TargetUpdateStatus
         final String currentUser;
@@ -316,6 +335,115 @@ public class JpaDeploymentManagement implements DeploymentManagement {
         return result;
     }
 
+    /**
+     * Assigns the {@link DistributionSet} to a large number of targets chunk
+     * by chunk. The actions and their initial status are written by the
+     * {@link ActionBulkWriter} with JDBC batch statements and the targets are
+     * detached after each chunk, so the persistence context does not grow
+     * with the number of targets.
+     *
+     * All chunks are written within the transaction of the caller, so the
+     * assignment stays atomic. Every chunk is reported by one
+     * {@link TargetAssignDistributionSetBulkEvent} after the commit.
+     */
+    private DistributionSetAssignmentResult assignDistributionSetToTargetsInBulk(final JpaDistributionSet set,
+            final List<String> controllerIDs, final Map<String, TargetWithActionType> targetsWithActionMap,
+            final JpaRollout rollout, final JpaRolloutGroup rolloutGroup) {
+
+        final String currentUser;
+        if (auditorProvider != null) {
+            currentUser = auditorProvider.getCurrentAuditor();
+        } else {
+            currentUser = null;
+        }
+
+        final List<JpaSoftwareModule> softwareModules = softwareModuleRepository.findByAssignedTo(set);
+        final Long rolloutId = rollout != null ? rollout.getId() : null;
+        final Long rolloutGroupId = rolloutGroup != null ? rolloutGroup.getId() : null;
+        final int chunkSize = Math.min(repositoryProperties.getAssignment().getChunkSize(),
+                Constants.MAX_ENTRIES_IN_STATEMENT);
+
+        // detaching as it is not necessary to persist the set itself
+        entityManager.detach(set);
+
+        final Map<String, Long> actionIdsByControllerId = new LinkedHashMap<>();
+        int processed = 0;
+        for (final List<String> ids : Lists.partition(controllerIDs, chunkSize)) {
+            processed += ids.size();
+            final BulkAssignmentChunk chunk = new BulkAssignmentChunk(set, ids, targetsWithActionMap, rolloutId,
+                    rolloutGroupId, currentUser, softwareModules, processed, controllerIDs.size());
+            actionIdsByControllerId.putAll(assignChunk(chunk));
+            LOG.info("assignDistribution({}) processed {} of {} targets", set.getId(), processed,
+                    controllerIDs.size());
+        }
+
+        final DistributionSetAssignmentResult result = new DistributionSetAssignmentResult(
+                new ArrayList<>(actionIdsByControllerId.keySet()), actionIdsByControllerId.size(),
+                controllerIDs.size() - actionIdsByControllerId.size(),
+                new ArrayList<>(actionIdsByControllerId.values()), targetManagement);
+        LOG.debug("assignDistribution({}) finished {}", set, result);
+        return result;
+    }
+
+    /**
+     * Assigns one chunk of a bulk assignment and registers the
+     * {@link TargetAssignDistributionSetBulkEvent} of the chunk to be posted
+     * after the commit.
+     *
+     * @return the IDs of the created actions by controller ID
+     */
+    private Map<String, Long> assignChunk(final BulkAssignmentChunk chunk) {
+        final List<JpaTarget> targets = targetRepository.findAll(
+                TargetSpecifications.hasControllerIdAndAssignedDistributionSetIdNot(chunk.controllerIds,
+                        chunk.set.getId()));
+        if (targets.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final List<Long> targetIds = targets.stream().map(Target::getId).collect(Collectors.toList());
+        final Set<Long> targetIdsCancellList = overrideObsoleteUpdateActions(targetIds);
+        cancelScheduledActions(targetIds);
+        targetRepository.setAssignedDistributionSet(chunk.set, System.currentTimeMillis(), chunk.currentUser,
+                targetIds);
+        targetInfoRepository.setTargetUpdateStatus(TargetUpdateStatus.PENDING, targetIds);
+        entityManager.flush();
+
+        final Map<Long, Long> actionIdsByTarget = actionBulkWriter.insertActions(targets, chunk.targetsWithActionMap,
+                chunk.set.getId(), chunk.rolloutId, chunk.rolloutGroupId, System.currentTimeMillis(),
+                chunk.currentUser);
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        final Collection<SoftwareModule> softwareModules = (Collection) chunk.softwareModules;
+        final String tenant = targets.get(0).getTenant();
+        final List<TargetAssignDistributionSetEvent> assignments = new ArrayList<>(targets.size());
+        final List<TargetInfo> targetInfos = new ArrayList<>(targets.size());
+        final Map<String, Long> actionIdsByControllerId = new LinkedHashMap<>();
+        for (final JpaTarget target : targets) {
+            final Long actionId = actionIdsByTarget.get(target.getId());
+            final JpaTargetInfo targetInfo = (JpaTargetInfo) target.getTargetInfo();
+            // the update status is only changed by statement
+            targetInfo.setUpdateStatus(TargetUpdateStatus.PENDING);
+            targetInfos.add(targetInfo);
+            if (!targetIdsCancellList.contains(target.getId())) {
+                assignments.add(new TargetAssignDistributionSetEvent(target.getOptLockRevision(), tenant,
+                        target.getControllerId(), actionId, softwareModules, targetInfo.getAddress(),
+                        systemSecurityContext.runAsSystem(target::getSecurityToken)));
+            }
+            actionIdsByControllerId.put(target.getControllerId(), actionId);
+            entityManager.detach(target);
+        }
+
+        afterCommit.afterCommit(() -> {
+            // the update status is only changed by statement as the targets
+            // are detached, so the cached target info is stale
+            final Cache cache = entityManager.getEntityManagerFactory().getCache();
+            targetIds.forEach(id -> cache.evict(JpaTargetInfo.class, id));
+            eventBus.post(new TargetAssignDistributionSetBulkEvent(tenant, chunk.set.getId(), assignments,
+                    targetInfos, chunk.processedTargets, chunk.totalTargets));
+        });
+        return actionIdsByControllerId;
+    }
+
     private void sendDistributionSetAssignmentEvent(final List<JpaTarget> targets, final Set<Long> targetIdsCancellList,
             final Map<String, JpaAction> targetIdsToActions, final List<JpaSoftwareModule> softwareModules) {
         targets.stream().filter(t -> !!!targetIdsCancellList.contains(t.getId()))
@@ -399,6 +527,20 @@ public class JpaDeploymentManagement implements DeploymentManagement {
 
     }
 
+    /**
+     * Cancels the scheduled actions of the given targets and counts them in
+     * the action counters of their rollout groups.
+     *
+     * @param targetIds
+     *            the IDs of the targets
+     */
+    private void cancelScheduledActions(final List<Long> targetIds) {
+        actionRepository.countByRolloutGroupForSwitchStatus(targetIds, false, Status.SCHEDULED)
+                .forEach(groupCount -> rolloutGroupRepository.incrementActionCounters((Long) groupCount[0], 0, 0,
+                        (Long) groupCount[1]));
+        actionRepository.switchStatus(Status.CANCELED, targetIds, false, Status.SCHEDULED);
+    }
+
     private DistributionSetAssignmentResult assignDistributionSetByTargetId(@NotNull final JpaDistributionSet set,
             @NotEmpty final List<String> tIDs, final ActionType actionType, final long forcedTime) {
 
@@ -471,7 +613,7 @@ public class JpaDeploymentManagement implements DeploymentManagement {
                 "A force quit has been performed."));
 
         DeploymentHelper.successCancellation(mergedAction, actionRepository, targetManagement, targetInfoRepository,
-                entityManager);
+                entityManager, rolloutGroupRepository);
 
         return actionRepository.save(mergedAction);
     }
@@ -487,7 +629,7 @@ public class JpaDeploymentManagement implements DeploymentManagement {
         // current scheduled action to cancel. E.g. a new scheduled action is
         // created.
         final List<Long> targetIds = targets.stream().map(t -> t.getId()).collect(Collectors.toList());
-        actionRepository.switchStatus(Action.Status.CANCELED, targetIds, false, Action.Status.SCHEDULED);
+        cancelScheduledActions(targetIds);
         targets.forEach(target -> {
             final JpaAction action = new JpaAction();
             action.setTarget(target);
@@ -521,6 +663,7 @@ public class JpaDeploymentManagement implements DeploymentManagement {
         if (hasDistributionSetAlreadyAssigned) {
             // the target has already the distribution set assigned, we don't
             // need to start the scheduled action, just finished it.
+            DeploymentHelper.countClosedAction(mergedAction, Status.FINISHED, rolloutGroupRepository);
             mergedAction.setStatus(Status.FINISHED);
             mergedAction.setActive(false);
             return actionRepository.save(mergedAction);
@@ -710,4 +853,34 @@ public class JpaDeploymentManagement implements DeploymentManagement {
     public Slice<Action> findActionsAll(final Pageable pageable) {
         return convertAcPage(actionRepository.findAll(pageable), pageable);
     }
+
+    /**
+     * One chunk of an assignment to a large number of targets.
+     */
+    private static final class BulkAssignmentChunk {
+        private final JpaDistributionSet set;
+        private final List<String> controllerIds;
+        private final Map<String, TargetWithActionType> targetsWithActionMap;
+        private final Long rolloutId;
+        private final Long rolloutGroupId;
+        private final String currentUser;
+        private final List<JpaSoftwareModule> softwareModules;
+        private final int processedTargets;
+        private final int totalTargets;
+
+        private BulkAssignmentChunk(final JpaDistributionSet set, final List<String> controllerIds,
+                final Map<String, TargetWithActionType> targetsWithActionMap, final Long rolloutId,
+                final Long rolloutGroupId, final String currentUser, final List<JpaSoftwareModule> softwareModules,
+                final int processedTargets, final int totalTargets) {
+            this.set = set;
+            this.controllerIds = controllerIds;
+            this.targetsWithActionMap = targetsWithActionMap;
+            this.rolloutId = rolloutId;
+            this.rolloutGroupId = rolloutGroupId;
+            this.currentUser = currentUser;
+            this.softwareModules = softwareModules;
+            this.processedTargets = processedTargets;
+            this.totalTargets = totalTargets;
+        }
+    }
 }
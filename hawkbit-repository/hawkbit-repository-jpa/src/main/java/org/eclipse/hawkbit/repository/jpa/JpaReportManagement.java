@@ -9,27 +9,32 @@
 package org.eclipse.hawkbit.repository.jpa;
 
 import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
-import javax.persistence.Query;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.ListJoin;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
 import org.eclipse.hawkbit.repository.ReportManagement;
+import org.eclipse.hawkbit.repository.jpa.ReportRollups.Granularity;
+import org.eclipse.hawkbit.repository.jpa.ReportRollups.Series;
 import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSet;
 import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSet_;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
@@ -43,7 +48,6 @@ import org.eclipse.hawkbit.repository.report.model.InnerOuterDataReportSeries;
 import org.eclipse.hawkbit.repository.report.model.SeriesTime;
 import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
@@ -57,29 +61,15 @@ import org.springframework.validation.annotation.Validated;
 @Validated
 public class JpaReportManagement implements ReportManagement {
 
-    @Value("${spring.jpa.database}")
-    private String databaseType;
-
-    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
-
-    private static final String H2_TARGET_CREATED_SQL_TEMPLATE = "SELECT TO_CHAR( DATEADD('second', target0_.created_at / 1000, DATE '1970-01-01'), '%s') AS col_0_0_, count(target0_.controller_id) AS col_1_0_ from sp_target target0_ WHERE TO_CHAR(DATEADD('second', target0_.created_at / 1000, DATE '1970-01-01'),'%s') BETWEEN TO_CHAR('%s', '%s') and TO_CHAR('%s', '%s') AND UPPER(target0_.tenant)=UPPER('%s') GROUP BY TO_CHAR(DATEADD('second', target0_.created_at / 1000, DATE '1970-01-01'), '%s')";
-
-    private static final String H2_CONTROLLER_FRRDBACK_SQL_TEMPLATE = "SELECT TO_CHAR(DATEADD('second', action_.created_at / 1000, DATE '1970-01-01'), '%s') AS col_0_0_, count(action_.id) AS col_1_0_ FROM sp_action action_ WHERE TO_CHAR(DATEADD('second', action_.created_at / 1000, DATE '1970-01-01'), '%s') BETWEEN TO_CHAR('%s', '%s') AND  TO_CHAR('%s', '%s') AND UPPER(action_.tenant)=UPPER('%s') GROUP BY TO_CHAR(DATEADD('second', action_.created_at / 1000, DATE '1970-01-01'), '%s')";
-
-    private static final String MYSQL_TARGET_CREATED_SQL_TEMPLATE = "SELECT DATE_FORMAT(FROM_UNIXTIME(target0_.created_at / 1000), '%s') AS col_0_0_, COUNT(target0_.controller_id) AS col_1_0_ FROM sp_target target0_ WHERE DATE_FORMAT(FROM_UNIXTIME(target0_.created_at / 1000),'%s') BETWEEN DATE_FORMAT('%s', '%s') AND DATE_FORMAT('%s', '%s') AND UPPER(target0_.tenant)=UPPER('%s') GROUP BY DATE_FORMAT(FROM_UNIXTIME(target0_.created_at / 1000), '%s')";
-
-    private static final String MYSQL_CONTROLLER_FRRDBACK_SQL_TEMPLATE = "SELECT DATE_FORMAT(FROM_UNIXTIME(action_.created_at / 1000), '%s') AS col_0_0_, COUNT(action_.id) as col_1_0_ FROM sp_action action_ WHERE DATE_FORMAT(FROM_UNIXTIME(action_.created_at / 1000),'%s') BETWEEN DATE_FORMAT('%s', '%s') AND DATE_FORMAT('%s', '%s') AND UPPER(action_.tenant)=UPPER('%s') GROUP BY DATE_FORMAT(FROM_UNIXTIME(action_.created_at / 1000), '%s')";
-
-    private static final String MYSQL_DB_TYPE = "MYSQL";
-
-    private static final String H2_DB_TYPE = "H2";
-
     @Autowired
     private EntityManager entityManager;
 
     @Autowired
     private TenantAware tenantAware;
 
+    @Autowired
+    private ReportRollups reportRollups;
+
     @Override
     @Cacheable("targetStatus")
     public DataReportSeries<TargetUpdateStatus> targetStatus() {
@@ -157,70 +147,40 @@ public class JpaReportManagement implements ReportManagement {
     }
 
     @Override
-    @Cacheable("targetsCreatedOverPeriod")
     public <T extends Serializable> DataReportSeries<T> targetsCreatedOverPeriod(final DateType<T> dateType,
             final LocalDateTime from, final LocalDateTime to) {
-        final Query createNativeQuery = entityManager
-                .createNativeQuery(getTargetsCreatedQueryTemplate(dateType, from, to));
-        final List<Object[]> resultList = createNativeQuery.getResultList();
-
-        final List<DataReportSeriesItem<T>> reportItems = resultList.stream()
-                .map(r -> new DataReportSeriesItem<>(dateType.format((String) r[0]), ((Number) r[1]).longValue()))
-                .collect(Collectors.toList());
-
-        return new DataReportSeries<>("CreatedTargets", reportItems);
-    }
-
-    private String getTargetsCreatedQueryTemplate(final DateType<?> dateType, final LocalDateTime from,
-            final LocalDateTime to) {
-        switch (databaseType) {
-        case H2_DB_TYPE:
-            return String.format(H2_TARGET_CREATED_SQL_TEMPLATE, dateTimeFormatToSqlFormat(dateType),
-                    dateTimeFormatToSqlFormat(dateType), from.format(DATE_FORMAT), dateTimeFormatToSqlFormat(dateType),
-                    to.format(DATE_FORMAT), dateTimeFormatToSqlFormat(dateType), tenantAware.getCurrentTenant(),
-                    dateTimeFormatToSqlFormat(dateType));
-        case MYSQL_DB_TYPE:
-            return String.format(MYSQL_TARGET_CREATED_SQL_TEMPLATE, dateTimeFormatToSqlFormat(dateType),
-                    dateTimeFormatToSqlFormat(dateType), from.toString(), dateTimeFormatToSqlFormat(dateType),
-                    to.toString(), dateTimeFormatToSqlFormat(dateType), tenantAware.getCurrentTenant(),
-                    dateTimeFormatToSqlFormat(dateType));
-        default:
-            return null;
-        }
-    }
-
-    private String getFeedbackReceivedQueryTemplate(final DateType<?> dateType, final LocalDateTime from,
-            final LocalDateTime to) {
-        switch (databaseType) {
-        case H2_DB_TYPE:
-            return String.format(H2_CONTROLLER_FRRDBACK_SQL_TEMPLATE, dateTimeFormatToSqlFormat(dateType),
-                    dateTimeFormatToSqlFormat(dateType), from.format(DATE_FORMAT), dateTimeFormatToSqlFormat(dateType),
-                    to.format(DATE_FORMAT), dateTimeFormatToSqlFormat(dateType), tenantAware.getCurrentTenant(),
-                    dateTimeFormatToSqlFormat(dateType));
-        case MYSQL_DB_TYPE:
-            return String.format(MYSQL_CONTROLLER_FRRDBACK_SQL_TEMPLATE, dateTimeFormatToSqlFormat(dateType),
-                    dateTimeFormatToSqlFormat(dateType), from.toString(), dateTimeFormatToSqlFormat(dateType),
-                    to.toString(), dateTimeFormatToSqlFormat(dateType), tenantAware.getCurrentTenant(),
-                    dateTimeFormatToSqlFormat(dateType));
-        default:
-            return null;
-        }
+        return new DataReportSeries<>("CreatedTargets",
+                sumBucketsOverPeriod(Series.TARGET_CREATED, dateType, from, to));
     }
 
     @Override
-    @Cacheable("feedbackReceivedOverTime")
     public <T extends Serializable> DataReportSeries<T> feedbackReceivedOverTime(final DateType<T> dateType,
             final LocalDateTime from, final LocalDateTime to) {
-        final Query createNativeQuery = entityManager
-                .createNativeQuery(getFeedbackReceivedQueryTemplate(dateType, from, to));
-        @SuppressWarnings("unchecked")
-        final List<Object[]> resultList = createNativeQuery.getResultList();
+        return new DataReportSeries<>("FeedbackRecieved",
+                sumBucketsOverPeriod(Series.ACTION_CREATED, dateType, from, to));
+    }
 
-        final List<DataReportSeriesItem<T>> reportItems = resultList.stream()
-                .map(r -> new DataReportSeriesItem<>(dateType.format((String) r[0]), ((Number) r[1]).longValue()))
+    /**
+     * Sums the daily buckets of the given series per period of the date type,
+     * e.g. per month. The periods from and to are included, periods without
+     * entries are left out.
+     */
+    private <T extends Serializable> List<DataReportSeriesItem<T>> sumBucketsOverPeriod(final Series series,
+            final DateType<T> dateType, final LocalDateTime from, final LocalDateTime to) {
+        final ZoneId zone = ZoneId.systemDefault();
+        final long start = dateType.periodStart(from.toLocalDate()).atStartOfDay(zone).toInstant().toEpochMilli();
+        final long end = dateType.nextPeriodStart(dateType.periodStart(to.toLocalDate())).atStartOfDay(zone)
+                .toInstant().toEpochMilli();
+
+        final Map<LocalDate, Long> periods = new TreeMap<>();
+        reportRollups.getBuckets(tenantAware.getCurrentTenant(), series, Granularity.DAY, start, end)
+                .forEach((dayStart, amount) -> periods.merge(
+                        dateType.periodStart(Instant.ofEpochMilli(dayStart).atZone(zone).toLocalDate()), amount,
+                        Long::sum));
+
+        return periods.entrySet().stream().filter(period -> period.getValue() > 0)
+                .map(period -> new DataReportSeriesItem<>(dateType.toPeriod(period.getKey()), period.getValue()))
                 .collect(Collectors.toList());
-
-        return new DataReportSeries<>("FeedbackRecieved", reportItems);
     }
 
     @Override
@@ -228,65 +188,47 @@ public class JpaReportManagement implements ReportManagement {
     public DataReportSeries<SeriesTime> targetsLastPoll() {
 
         final LocalDateTime now = LocalDateTime.now();
-        final LocalDateTime beforeHour = now.minusHours(1);
-        final LocalDateTime beforeDay = now.minusDays(1);
-        final LocalDateTime beforeWeek = now.minusWeeks(1);
-        final LocalDateTime beforeMonth = now.minusMonths(1);
-        final LocalDateTime beforeYear = now.minusYears(1);
+        final long beforeHour = toEpochMilli(now.minusHours(1));
+        final long beforeDay = toEpochMilli(now.minusDays(1));
+        final long beforeWeek = toEpochMilli(now.minusWeeks(1));
+        final long beforeMonth = toEpochMilli(now.minusMonths(1));
+        final long beforeYear = toEpochMilli(now.minusYears(1));
 
+        // all ranges are counted with one query instead of one per range
         final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        final List<DataReportSeriesItem<SeriesTime>> resultList = new ArrayList<>();
-
-        // hours
-        resultList.add(new DataReportSeriesItem<SeriesTime>(SeriesTime.HOUR,
-                entityManager.createQuery(createCountSelectTargetsLastPoll(cb, beforeHour, now)).getSingleResult()));
-        // days
-        resultList.add(new DataReportSeriesItem<SeriesTime>(SeriesTime.DAY, entityManager
-                .createQuery(createCountSelectTargetsLastPoll(cb, beforeDay, beforeHour)).getSingleResult()));
-        // weeks
-        resultList.add(new DataReportSeriesItem<SeriesTime>(SeriesTime.WEEK, entityManager
-                .createQuery(createCountSelectTargetsLastPoll(cb, beforeWeek, beforeDay)).getSingleResult()));
-        // months
-        resultList.add(new DataReportSeriesItem<SeriesTime>(SeriesTime.MONTH, entityManager
-                .createQuery(createCountSelectTargetsLastPoll(cb, beforeMonth, beforeWeek)).getSingleResult()));
-        // years
-        resultList.add(new DataReportSeriesItem<SeriesTime>(SeriesTime.YEAR, entityManager
-                .createQuery(createCountSelectTargetsLastPoll(cb, beforeYear, beforeMonth)).getSingleResult()));
-        // years
-        resultList.add(new DataReportSeriesItem<SeriesTime>(SeriesTime.MORE_THAN_YEAR,
-                entityManager.createQuery(createCountSelectTargetsLastPoll(cb, null, beforeYear)).getSingleResult()));
-        // never
-        resultList.add(new DataReportSeriesItem<SeriesTime>(SeriesTime.NEVER,
-                entityManager.createQuery(createCountSelectTargetsLastPoll(cb, null, null)).getSingleResult()));
+        final CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        final Root<JpaTarget> targetRoot = query.from(JpaTarget.class);
+        final Path<Long> lastTargetQuery = targetRoot.join(JpaTarget_.targetInfo)
+                .get(JpaTargetInfo_.lastTargetQuery);
+        query.multiselect(countIf(cb, cb.between(lastTargetQuery, beforeHour, toEpochMilli(now))),
+                countIf(cb, cb.between(lastTargetQuery, beforeDay, beforeHour)),
+                countIf(cb, cb.between(lastTargetQuery, beforeWeek, beforeDay)),
+                countIf(cb, cb.between(lastTargetQuery, beforeMonth, beforeWeek)),
+                countIf(cb, cb.between(lastTargetQuery, beforeYear, beforeMonth)),
+                countIf(cb, cb.lessThanOrEqualTo(lastTargetQuery, beforeYear)),
+                countIf(cb, cb.isNull(lastTargetQuery)));
+
+        // | col1 | col2 | col3 | col4 | col5 | col6 | col7 |
+        // | HOUR | DAY | WEEK | MONTH | YEAR | MORE_THAN_YEAR | NEVER |
+        final Object[] counts = entityManager.createQuery(query).getSingleResult();
+        final SeriesTime[] seriesTimes = new SeriesTime[] { SeriesTime.HOUR, SeriesTime.DAY, SeriesTime.WEEK,
+                SeriesTime.MONTH, SeriesTime.YEAR, SeriesTime.MORE_THAN_YEAR, SeriesTime.NEVER };
+        final List<DataReportSeriesItem<SeriesTime>> resultList = new ArrayList<>(seriesTimes.length);
+        for (int i = 0; i < seriesTimes.length; i++) {
+            // the sum is null if there are no targets at all
+            resultList.add(new DataReportSeriesItem<>(seriesTimes[i],
+                    counts[i] == null ? 0L : ((Number) counts[i]).longValue()));
+        }
 
         return new DataReportSeries<>("TargetLastPoll", resultList);
     }
 
-    private CriteriaQuery<Long> createCountSelectTargetsLastPoll(final CriteriaBuilder cb, final LocalDateTime from,
-            final LocalDateTime to) {
-
-        Long start = null;
-        Long end = null;
-        if (from != null) {
-            start = from.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        }
-        if (to != null) {
-            end = to.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        }
+    private static Expression<Long> countIf(final CriteriaBuilder cb, final Predicate predicate) {
+        return cb.sum(cb.<Long> selectCase().when(predicate, 1L).otherwise(0L));
+    }
 
-        // count select statement
-        final CriteriaQuery<Long> countSelect = cb.createQuery(Long.class);
-        final Root<JpaTarget> countSelectRoot = countSelect.from(JpaTarget.class);
-        final Join<JpaTarget, JpaTargetInfo> targetInfoJoin = countSelectRoot.join(JpaTarget_.targetInfo);
-        countSelect.select(cb.count(countSelectRoot));
-        if (start != null && end != null) {
-            countSelect.where(cb.between(targetInfoJoin.get(JpaTargetInfo_.lastTargetQuery), start, end));
-        } else if (from == null && to != null) {
-            countSelect.where(cb.lessThanOrEqualTo(targetInfoJoin.get(JpaTargetInfo_.lastTargetQuery), end));
-        } else {
-            countSelect.where(cb.isNull(targetInfoJoin.get(JpaTargetInfo_.lastTargetQuery)));
-        }
-        return countSelect;
+    private static long toEpochMilli(final LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 
     private List<InnerOuterDataReportSeries<String>> mapDistirbutionUsageResultToDataReport(final int topXEntries,
@@ -420,15 +362,4 @@ public class JpaReportManagement implements ReportManagement {
         }
     }
 
-    private String dateTimeFormatToSqlFormat(final DateType<?> datatype) {
-        switch (databaseType) {
-        case H2_DB_TYPE:
-            return datatype.h2Format();
-        case MYSQL_DB_TYPE:
-            return datatype.mySqlFormat();
-        default:
-            return null;
-        }
-    }
-
 }
@@ -9,26 +9,34 @@
 package org.eclipse.hawkbit.repository.jpa;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
 
 import org.eclipse.hawkbit.repository.DeploymentManagement;
-import org.eclipse.hawkbit.repository.OffsetBasedPageRequest;
 import org.eclipse.hawkbit.repository.RolloutFields;
 import org.eclipse.hawkbit.repository.RolloutManagement;
+import org.eclipse.hawkbit.repository.RolloutProperties;
+import org.eclipse.hawkbit.repository.TargetFields;
 import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.exception.RolloutIllegalStateException;
 import org.eclipse.hawkbit.repository.jpa.cache.CacheWriteNotify;
+import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRolloutGroup;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRollout_;
-import org.eclipse.hawkbit.repository.jpa.model.RolloutTargetGroup;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget_;
 import org.eclipse.hawkbit.repository.jpa.rollout.condition.RolloutGroupActionEvaluator;
 import org.eclipse.hawkbit.repository.jpa.rollout.condition.RolloutGroupConditionEvaluator;
 import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
@@ -56,8 +64,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -70,6 +76,8 @@ import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 import org.springframework.validation.annotation.Validated;
 
+import com.google.common.collect.Lists;
+
 /**
  * JPA implementation of {@link RolloutManagement}.
  */
@@ -97,7 +105,7 @@ public class JpaRolloutManagement implements RolloutManagement {
     private DeploymentManagement deploymentManagement;
 
     @Autowired
-    private RolloutTargetGroupRepository rolloutTargetGroupRepository;
+    private RolloutTargetGroupBulkWriter rolloutTargetGroupBulkWriter;
 
     @Autowired
     private ActionRepository actionRepository;
@@ -114,6 +122,9 @@ public class JpaRolloutManagement implements RolloutManagement {
     @Autowired
     private CacheWriteNotify cacheWriteNotify;
 
+    @Autowired
+    private RolloutProperties rolloutProperties;
+
     @Autowired
     @Qualifier("asyncExecutor")
     private Executor executor;
@@ -168,7 +179,7 @@ public class JpaRolloutManagement implements RolloutManagement {
     public Rollout createRollout(final Rollout rollout, final int amountGroup,
             final RolloutGroupConditions conditions) {
         final JpaRollout savedRollout = createRollout((JpaRollout) rollout, amountGroup);
-        return createRolloutGroups(amountGroup, conditions, savedRollout);
+        return createRolloutGroups(amountGroup, conditions, savedRollout, null);
     }
 
     @Override
@@ -216,8 +227,9 @@ public class JpaRolloutManagement implements RolloutManagement {
         final DefaultTransactionDefinition def = new DefaultTransactionDefinition();
         def.setName("creatingRollout");
         def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
-        return new TransactionTemplate(txManager, def)
-                .execute(status -> createRolloutGroups(amountOfGroups, conditions, savedRollout));
+        // commit every group on its own, so a huge rollout neither holds one
+        // long running transaction nor a huge persistence context
+        return createRolloutGroups(amountOfGroups, conditions, savedRollout, new TransactionTemplate(txManager, def));
     }
 
     /**
@@ -226,17 +238,24 @@ public class JpaRolloutManagement implements RolloutManagement {
      * amount of given groups. In same cases this will lead to less rollout
      * groups than given by client.
      *
+     * The targets are read by their IDs in ascending order continuing after
+     * the last target of the previous group, so every group is read with an
+     * index range scan independent of its position in the rollout.
+     *
      * @param amountOfGroups
      *            the amount of groups
      * @param conditions
      *            the rollout group conditions
      * @param savedRollout
      *            the rollout
+     * @param groupTransaction
+     *            the transaction to create every single group in or
+     *            <code>null</code> to create all groups in the current
+     *            transaction
      * @return the rollout with created groups
      */
     private Rollout createRolloutGroups(final int amountOfGroups, final RolloutGroupConditions conditions,
-            final JpaRollout savedRollout) {
-        int pageIndex = 0;
+            final JpaRollout savedRollout, final TransactionTemplate groupTransaction) {
         int groupIndex = 0;
         final Long totalCount = savedRollout.getTotalTargets();
         final int groupSize = (int) Math.ceil((double) totalCount / (double) amountOfGroups);
@@ -247,39 +266,76 @@ public class JpaRolloutManagement implements RolloutManagement {
         if (amountGroupCreation == (amountOfGroups - 1)) {
             amountGroupValidated--;
         }
-        RolloutGroup lastSavedGroup = null;
-        while (pageIndex < totalCount) {
+        final Specification<JpaTarget> targetFilter = RSQLUtility.parse(savedRollout.getTargetFilterQuery(),
+                TargetFields.class);
+        JpaRolloutGroup lastSavedGroup = null;
+        long lastTargetId = 0;
+        long assignedTargets = 0;
+        while (assignedTargets < totalCount) {
             groupIndex++;
             final String nameAndDesc = "group-" + groupIndex;
-            final JpaRolloutGroup group = new JpaRolloutGroup();
-            group.setName(nameAndDesc);
-            group.setDescription(nameAndDesc);
-            group.setRollout(savedRollout);
-            group.setParent(lastSavedGroup);
-            group.setSuccessCondition(conditions.getSuccessCondition());
-            group.setSuccessConditionExp(conditions.getSuccessConditionExp());
-            group.setErrorCondition(conditions.getErrorCondition());
-            group.setErrorConditionExp(conditions.getErrorConditionExp());
-            group.setErrorAction(conditions.getErrorAction());
-            group.setErrorActionExp(conditions.getErrorActionExp());
-
-            final JpaRolloutGroup savedGroup = rolloutGroupRepository.save(group);
-
-            final Slice<Target> targetGroup = targetManagement.findTargetsAll(savedRollout.getTargetFilterQuery(),
-                    new OffsetBasedPageRequest(pageIndex, groupSize, new Sort(Direction.ASC, "id")));
-            savedGroup.setTotalTargets(targetGroup.getContent().size());
+            final JpaRolloutGroup parent = lastSavedGroup;
+            final long afterTargetId = lastTargetId;
+            final List<Long> targetIds = new ArrayList<>(groupSize);
+
+            final JpaRolloutGroup savedGroup = executeInTransaction(groupTransaction, () -> {
+                targetIds.addAll(findTargetIdsAfter(targetFilter, afterTargetId, groupSize));
+
+                final JpaRolloutGroup group = new JpaRolloutGroup();
+                group.setName(nameAndDesc);
+                group.setDescription(nameAndDesc);
+                group.setRollout(savedRollout);
+                group.setParent(parent);
+                group.setSuccessCondition(conditions.getSuccessCondition());
+                group.setSuccessConditionExp(conditions.getSuccessConditionExp());
+                group.setErrorCondition(conditions.getErrorCondition());
+                group.setErrorConditionExp(conditions.getErrorConditionExp());
+                group.setErrorAction(conditions.getErrorAction());
+                group.setErrorActionExp(conditions.getErrorActionExp());
+                group.setTotalTargets(targetIds.size());
+
+                final JpaRolloutGroup created = rolloutGroupRepository.save(group);
+                // flush to get the ID of the group for the statement
+                entityManager.flush();
+                if (!targetIds.isEmpty()) {
+                    rolloutTargetGroupBulkWriter.insertTargets(created.getId(), targetIds);
+                }
+                return created;
+            });
 
             lastSavedGroup = savedGroup;
-
-            targetGroup
-                    .forEach(target -> rolloutTargetGroupRepository.save(new RolloutTargetGroup(savedGroup, target)));
             cacheWriteNotify.rolloutGroupCreated(groupIndex, savedRollout.getId(), savedGroup.getId(),
                     amountGroupValidated, groupIndex);
-            pageIndex += groupSize;
+
+            if (targetIds.isEmpty()) {
+                // less targets than counted on rollout creation
+                break;
+            }
+            lastTargetId = targetIds.get(targetIds.size() - 1);
+            assignedTargets += groupSize;
         }
 
         savedRollout.setStatus(RolloutStatus.READY);
-        return rolloutRepository.save(savedRollout);
+        return executeInTransaction(groupTransaction, () -> rolloutRepository.save(savedRollout));
+    }
+
+    private static <T> T executeInTransaction(final TransactionTemplate transaction, final Supplier<T> callback) {
+        if (transaction == null) {
+            return callback.get();
+        }
+        return transaction.execute(status -> callback.get());
+    }
+
+    private List<Long> findTargetIdsAfter(final Specification<JpaTarget> targetFilter, final long lastTargetId,
+            final int maxResults) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        final Root<JpaTarget> targetRoot = query.from(JpaTarget.class);
+        query.select(targetRoot.get(JpaTarget_.id))
+                .where(cb.and(targetFilter.toPredicate(targetRoot, query, cb),
+                        cb.greaterThan(targetRoot.get(JpaTarget_.id), lastTargetId)))
+                .orderBy(cb.asc(targetRoot.get(JpaTarget_.id)));
+        return entityManager.createQuery(query).setMaxResults(maxResults).getResultList();
     }
 
     @Override
@@ -332,14 +388,15 @@ public class JpaRolloutManagement implements RolloutManagement {
                         .collect(Collectors.toList());
                 deploymentManagement.assignDistributionSet(distributionSet.getId(), targetsWithActionType, rollout,
                         rolloutGroup);
-                rolloutGroup.setStatus(RolloutGroupStatus.RUNNING);
             } else {
                 // create only not active actions with status scheduled so they
                 // can be activated later
                 deploymentManagement.createScheduledAction(targetGroup, distributionSet, actionType, forceTime, rollout,
                         rolloutGroup);
-                rolloutGroup.setStatus(RolloutGroupStatus.SCHEDULED);
             }
+            // the recount refreshes the group, so it is changed afterwards
+            reconcileActionCounters(rollout, rolloutGroup);
+            rolloutGroup.setStatus(iGroup == 0 ? RolloutGroupStatus.RUNNING : RolloutGroupStatus.SCHEDULED);
             rolloutGroupRepository.save(rolloutGroup);
         }
         rollout.setStatus(RolloutStatus.RUNNING);
@@ -378,14 +435,31 @@ public class JpaRolloutManagement implements RolloutManagement {
     }
 
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.READ_UNCOMMITTED)
-    @Modifying
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void checkRunningRollouts(final long delayBetweenChecks) {
-        verifyStuckedRollouts();
+        final DefaultTransactionDefinition def = new DefaultTransactionDefinition();
+        def.setName("checkRunningRollouts");
+        def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        def.setIsolationLevel(TransactionDefinition.ISOLATION_READ_UNCOMMITTED);
+        final TransactionTemplate transaction = new TransactionTemplate(txManager, def);
+
+        executeInTransaction(transaction, () -> {
+            verifyStuckedRollouts();
+            return null;
+        });
+
+        // claim the rollouts in an own transaction, so other instances skip
+        // them instead of waiting for the end of this check
         final long lastCheck = System.currentTimeMillis();
-        final int updated = rolloutRepository.updateLastCheck(lastCheck, delayBetweenChecks, RolloutStatus.RUNNING);
+        final List<Long> rolloutsToCheck = executeInTransaction(transaction, () -> {
+            if (rolloutRepository.updateLastCheck(lastCheck, delayBetweenChecks, RolloutStatus.RUNNING) == 0) {
+                return Collections.<Long> emptyList();
+            }
+            return rolloutRepository.findByLastCheckAndStatus(lastCheck, RolloutStatus.RUNNING).stream()
+                    .map(JpaRollout::getId).collect(Collectors.toList());
+        });
 
-        if (updated == 0) {
+        if (rolloutsToCheck.isEmpty()) {
             // nothing to check, maybe another instance already checked in
             // between
             LOGGER.debug("No rolloutcheck necessary for current scheduled check {}, next check at {}", lastCheck,
@@ -393,34 +467,73 @@ public class JpaRolloutManagement implements RolloutManagement {
             return;
         }
 
-        final List<JpaRollout> rolloutsToCheck = rolloutRepository.findByLastCheckAndStatus(lastCheck,
-                RolloutStatus.RUNNING);
         LOGGER.info("Found {} running rollouts to check", rolloutsToCheck.size());
+        final long reconcileBefore = lastCheck - rolloutProperties.getScheduler().getReconcileInterval();
+        final long deadline = lastCheck + rolloutProperties.getScheduler().getTenantTimeBudget();
 
-        for (final JpaRollout rollout : rolloutsToCheck) {
-            LOGGER.debug("Checking rollout {}", rollout);
-            final List<JpaRolloutGroup> rolloutGroups = rolloutGroupRepository.findByRolloutAndStatus(rollout,
-                    RolloutGroupStatus.RUNNING);
-
-            if (rolloutGroups.isEmpty()) {
-                // no running rollouts, probably there was an error
-                // somewhere at the latest group. And the latest group has
-                // been switched from running into error state. So we need
-                // to find the latest group which
-                executeLatestRolloutGroup(rollout);
-            } else {
-                LOGGER.debug("Rollout {} has {} running groups", rollout.getId(), rolloutGroups.size());
-                executeRolloutGroups(rollout, rolloutGroups);
+        for (int i = 0; i < rolloutsToCheck.size(); i++) {
+            if (System.currentTimeMillis() >= deadline) {
+                releaseRollouts(transaction, rolloutsToCheck.subList(i, rolloutsToCheck.size()));
+                return;
             }
-
-            if (isRolloutComplete(rollout)) {
-                LOGGER.info("Rollout {} is finished, setting finished status", rollout);
-                rollout.setStatus(RolloutStatus.FINISHED);
-                rolloutRepository.save(rollout);
+            final Long rolloutId = rolloutsToCheck.get(i);
+            try {
+                executeInTransaction(transaction, () -> {
+                    checkRunningRollout(rolloutRepository.findOne(rolloutId), reconcileBefore);
+                    return null;
+                });
+            } catch (final RuntimeException e) {
+                LOGGER.error("Check of rollout {} failed", rolloutId, e);
             }
         }
     }
 
+    private void releaseRollouts(final TransactionTemplate transaction, final List<Long> rolloutIds) {
+        LOGGER.warn("Time budget of {} ms exceeded, releasing {} rollouts for the next check",
+                rolloutProperties.getScheduler().getTenantTimeBudget(), rolloutIds.size());
+        executeInTransaction(transaction, () -> {
+            Lists.partition(rolloutIds, Constants.MAX_ENTRIES_IN_STATEMENT)
+                    .forEach(rolloutRepository::resetLastCheck);
+            return null;
+        });
+    }
+
+    private void checkRunningRollout(final JpaRollout rollout, final long reconcileBefore) {
+        if (rollout == null || rollout.getStatus() != RolloutStatus.RUNNING) {
+            // deleted or paused since it has been claimed
+            return;
+        }
+
+        LOGGER.debug("Checking rollout {}", rollout);
+        // only groups whose action counters changed since the last check can
+        // reach their error or success condition
+        final List<JpaRolloutGroup> rolloutGroups = rolloutGroupRepository.findChangedByRolloutAndStatus(rollout,
+                RolloutGroupStatus.RUNNING, reconcileBefore);
+
+        if (rolloutGroups.isEmpty() && rolloutGroupRepository.countByRolloutAndStatus(rollout,
+                RolloutGroupStatus.RUNNING) == 0) {
+            // no running rollouts, probably there was an error
+            // somewhere at the latest group. And the latest group has
+            // been switched from running into error state. So we need
+            // to find the latest group which
+            executeLatestRolloutGroup(rollout);
+        } else {
+            LOGGER.debug("Rollout {} has {} changed running groups", rollout.getId(), rolloutGroups.size());
+            rolloutGroups.stream().filter(group -> group.getCountersReconciledAt() <= reconcileBefore)
+                    .forEach(group -> {
+                        reconcileActionCounters(rollout, group);
+                        rolloutGroupRepository.save(group);
+                    });
+            executeRolloutGroups(rollout, rolloutGroups);
+        }
+
+        if (isRolloutComplete(rollout)) {
+            LOGGER.info("Rollout {} is finished, setting finished status", rollout);
+            rollout.setStatus(RolloutStatus.FINISHED);
+            rolloutRepository.save(rollout);
+        }
+    }
+
     /**
      * Verifies and handles stucked rollouts in asynchronous creation or
      * starting state. If rollouts are created or started asynchronously it
@@ -453,6 +566,7 @@ public class JpaRolloutManagement implements RolloutManagement {
 
     private void executeRolloutGroups(final JpaRollout rollout, final List<JpaRolloutGroup> rolloutGroups) {
         for (final JpaRolloutGroup rolloutGroup : rolloutGroups) {
+            rolloutGroup.markCountersChecked();
             // error state check, do we need to stop the whole
             // rollout because of error?
             final RolloutGroupErrorCondition errorCondition = rolloutGroup.getErrorCondition();
@@ -465,11 +579,11 @@ public class JpaRolloutManagement implements RolloutManagement {
                 // start the next group?
                 final RolloutGroupSuccessCondition finishedCondition = rolloutGroup.getSuccessCondition();
                 checkFinishCondition(rollout, rolloutGroup, finishedCondition);
-                if (isRolloutGroupComplete(rollout, rolloutGroup)) {
+                if (isRolloutGroupComplete(rolloutGroup)) {
                     rolloutGroup.setStatus(RolloutGroupStatus.FINISHED);
-                    rolloutGroupRepository.save(rolloutGroup);
                 }
             }
+            rolloutGroupRepository.save(rolloutGroup);
         }
     }
 
@@ -498,11 +612,31 @@ public class JpaRolloutManagement implements RolloutManagement {
         return groupsActiveLeft == 0;
     }
 
-    private boolean isRolloutGroupComplete(final JpaRollout rollout, final JpaRolloutGroup rolloutGroup) {
-        final Long actionsLeftForRollout = actionRepository
-                .countByRolloutAndRolloutGroupAndStatusNotAndStatusNotAndStatusNot(rollout, rolloutGroup,
-                        Action.Status.ERROR, Action.Status.FINISHED, Action.Status.CANCELED);
-        return actionsLeftForRollout == 0;
+    private static boolean isRolloutGroupComplete(final JpaRolloutGroup rolloutGroup) {
+        return rolloutGroup.getOpenActions() <= 0;
+    }
+
+    /**
+     * Recounts the action counters of the rollout group from its actions and
+     * refreshes the group. The counters are written with a single statement
+     * which only applies if they have not been changed since the group has
+     * been loaded, so concurrent increments are not overwritten. Otherwise the
+     * group is recounted by the next check.
+     */
+    private void reconcileActionCounters(final JpaRollout rollout, final JpaRolloutGroup rolloutGroup) {
+        LOGGER.debug("Recounting actions of rollout group {}", rolloutGroup.getId());
+        final long totalActions = actionRepository.countByRolloutAndRolloutGroup(rollout, rolloutGroup);
+        final long finishedActions = actionRepository.countByRolloutIdAndRolloutGroupIdAndStatus(rollout.getId(),
+                rolloutGroup.getId(), Action.Status.FINISHED);
+        final long errorActions = actionRepository.countByRolloutIdAndRolloutGroupIdAndStatus(rollout.getId(),
+                rolloutGroup.getId(), Action.Status.ERROR);
+        final long canceledActions = actionRepository.countByRolloutIdAndRolloutGroupIdAndStatus(rollout.getId(),
+                rolloutGroup.getId(), Action.Status.CANCELED);
+        if (rolloutGroupRepository.reconcileActionCounters(rolloutGroup.getId(), rolloutGroup.getCountersVersion(),
+                totalActions, finishedActions, errorActions, canceledActions, System.currentTimeMillis()) == 0) {
+            LOGGER.debug("Actions of rollout group {} changed while recounting", rolloutGroup.getId());
+        }
+        entityManager.refresh(rolloutGroup);
     }
 
     private boolean checkErrorState(final Rollout rollout, final RolloutGroup rolloutGroup,
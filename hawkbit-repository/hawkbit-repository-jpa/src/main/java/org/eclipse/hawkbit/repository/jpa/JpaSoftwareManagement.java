@@ -102,6 +102,9 @@ public class JpaSoftwareManagement implements SoftwareManagement {
     @Autowired
     private ArtifactManagement artifactManagement;
 
+    @Autowired
+    private TenantUsageCounters tenantUsageCounters;
+
     @Override
     @Modifying
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
@@ -272,6 +275,8 @@ public class JpaSoftwareManagement implements SoftwareManagement {
             softwareModuleRepository.deleteSoftwareModule(System.currentTimeMillis(), currentUser,
                     assignedModuleIds.toArray(new Long[0]));
         }
+        // cascaded and soft deleted artifacts bypass the listeners
+        tenantUsageCounters.markDirty();
     }
 
     @Override
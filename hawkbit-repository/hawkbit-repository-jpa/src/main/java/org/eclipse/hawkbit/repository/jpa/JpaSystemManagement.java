@@ -8,26 +8,25 @@
  */
 package org.eclipse.hawkbit.repository.jpa;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import javax.persistence.EntityManager;
-
 import org.eclipse.hawkbit.cache.TenancyCacheManager;
 import org.eclipse.hawkbit.repository.Constants;
 import org.eclipse.hawkbit.repository.SystemManagement;
-import org.eclipse.hawkbit.repository.TenantStatsManagement;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
+import org.eclipse.hawkbit.repository.exception.TenantNotExistException;
+import org.eclipse.hawkbit.repository.jpa.executor.AfterTransactionCommitExecutor;
 import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSetType;
 import org.eclipse.hawkbit.repository.jpa.model.JpaSoftwareModuleType;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTenantDeletion;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTenantMetaData;
 import org.eclipse.hawkbit.repository.model.DistributionSetType;
 import org.eclipse.hawkbit.repository.model.SoftwareModuleType;
 import org.eclipse.hawkbit.repository.model.TenantMetaData;
 import org.eclipse.hawkbit.repository.report.model.SystemUsageReport;
+import org.eclipse.hawkbit.repository.report.model.TenantUsage;
 import org.eclipse.hawkbit.tenancy.TenantAware;
-import org.eclipse.persistence.config.PersistenceUnitProperties;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
@@ -47,21 +46,6 @@ import org.springframework.validation.annotation.Validated;
 @Transactional(readOnly = true, isolation = Isolation.READ_UNCOMMITTED)
 @Validated
 public class JpaSystemManagement implements CurrentTenantCacheKeyGenerator, SystemManagement {
-    @Autowired
-    private EntityManager entityManager;
-
-    @Autowired
-    private TargetRepository targetRepository;
-
-    @Autowired
-    private ActionRepository actionRepository;
-
-    @Autowired
-    private DistributionSetRepository distributionSetRepository;
-
-    @Autowired
-    private SoftwareModuleRepository softwareModuleRepository;
-
     @Autowired
     private TenantMetaDataRepository tenantMetaDataRepository;
 
@@ -72,86 +56,61 @@ public class JpaSystemManagement implements CurrentTenantCacheKeyGenerator, Syst
     private SoftwareModuleTypeRepository softwareModuleTypeRepository;
 
     @Autowired
-    private TargetTagRepository targetTagRepository;
+    private TenantAware tenantAware;
 
     @Autowired
-    private DistributionSetTagRepository distributionSetTagRepository;
+    private TenancyCacheManager cacheManager;
 
     @Autowired
-    private ExternalArtifactRepository externalArtifactRepository;
+    private SystemManagementCacheKeyGenerator currentTenantCacheKeyGenerator;
 
     @Autowired
-    private LocalArtifactRepository artifactRepository;
+    private ApplicationContext applicationContext;
 
     @Autowired
-    private ExternalArtifactProviderRepository externalArtifactProviderRepository;
+    private TargetSecurityTokenCache targetSecurityTokenCache;
 
     @Autowired
-    private TenantConfigurationRepository tenantConfigurationRepository;
+    private ArtifactDownloadIndex artifactDownloadIndex;
 
     @Autowired
-    private RolloutRepository rolloutRepository;
+    private TargetCountCache targetCountCache;
 
     @Autowired
-    private RolloutGroupRepository rolloutGroupRepository;
+    private TenantDeletionRepository tenantDeletionRepository;
 
     @Autowired
-    private TenantAware tenantAware;
+    private TenantDeletionJob tenantDeletionJob;
 
-    @Autowired
-    private TenantStatsManagement systemStatsManagement;
+    @Autowired(required = false)
+    private TenantDeletionScheduler tenantDeletionScheduler;
 
     @Autowired
-    private TenancyCacheManager cacheManager;
+    private AfterTransactionCommitExecutor afterCommit;
 
     @Autowired
-    private SystemManagementCacheKeyGenerator currentTenantCacheKeyGenerator;
+    private TenantUsageCounters tenantUsageCounters;
 
     @Autowired
-    private ApplicationContext applicationContext;
+    private ReportRollups reportRollups;
 
     @Override
     public SystemUsageReport getSystemUsageStatistics() {
+        // the usage counters are maintained per tenant, i.e. the overall
+        // usage is the sum of the tenants instead of counting all tables
+        final List<TenantUsage> usages = tenantUsageCounters.getUsage(findTenants());
 
-        BigDecimal sumOfArtifacts = (BigDecimal) entityManager
-                .createNativeQuery(
-                        "select SUM(file_size) from sp_artifact a INNER JOIN sp_base_software_module sm ON a.software_module = sm.id WHERE sm.deleted = 0")
-                .getSingleResult();
-
-        if (sumOfArtifacts == null) {
-            sumOfArtifacts = new BigDecimal(0);
-        }
-
-        // we use native queries to punch through the tenant boundaries. This
-        // has to be used with care!
-        final Long targets = (Long) entityManager.createNativeQuery("SELECT COUNT(id) FROM sp_target")
-                .getSingleResult();
-
-        final Long artifacts = (Long) entityManager
-                .createNativeQuery(
-                        "SELECT COUNT(a.id) FROM sp_artifact a INNER JOIN sp_base_software_module sm ON a.software_module = sm.id WHERE sm.deleted = 0")
-                .getSingleResult();
+        final SystemUsageReport result = new SystemUsageReport(
+                usages.stream().mapToLong(TenantUsage::getTargets).sum(),
+                usages.stream().mapToLong(TenantUsage::getArtifacts).sum(),
+                usages.stream().mapToLong(TenantUsage::getActions).sum(),
+                usages.stream().mapToLong(TenantUsage::getOverallArtifactVolumeInBytes).sum());
 
-        final Long actions = (Long) entityManager.createNativeQuery("SELECT COUNT(id) FROM sp_action")
-                .getSingleResult();
-
-        final SystemUsageReport result = new SystemUsageReport(targets, artifacts, actions,
-                sumOfArtifacts.setScale(0, BigDecimal.ROUND_HALF_UP).longValue());
-
-        usageStatsPerTenant(result);
+        usages.forEach(result::addTenantData);
 
         return result;
     }
 
-    private void usageStatsPerTenant(final SystemUsageReport report) {
-        final List<String> tenants = findTenants();
-
-        tenants.forEach(tenant -> tenantAware.runAsTenant(tenant, () -> {
-            report.addTenantData(systemStatsManagement.getStatsOfTenant(tenant));
-            return null;
-        }));
-    }
-
     @Override
     @Transactional(propagation = Propagation.SUPPORTS)
     public KeyGenerator currentTenantKeyGenerator() {
@@ -167,6 +126,9 @@ public class JpaSystemManagement implements CurrentTenantCacheKeyGenerator, Syst
 
         // Create if it does not exist
         if (result == null) {
+            if (tenantDeletionJob.isDeletionPending(tenant)) {
+                throw new TenantNotExistException("Tenant " + tenant + " is being deleted");
+            }
             try {
                 currentTenantCacheKeyGenerator.getCreateInitialTenant().set(tenant);
                 cacheManager.getCache("currentTenant").evict(currentTenantKeyGenerator().generate(null, null));
@@ -192,25 +154,24 @@ public class JpaSystemManagement implements CurrentTenantCacheKeyGenerator, Syst
     public void deleteTenant(final String tenant) {
         cacheManager.evictCaches(tenant);
         cacheManager.getCache("currentTenant").evict(currentTenantKeyGenerator().generate(null, null));
-        tenantAware.runAsTenant(tenant, () -> {
-            entityManager.setProperty(PersistenceUnitProperties.MULTITENANT_PROPERTY_DEFAULT, tenant.toUpperCase());
-            tenantMetaDataRepository.deleteByTenantIgnoreCase(tenant);
-            tenantConfigurationRepository.deleteByTenantIgnoreCase(tenant);
-            targetRepository.deleteByTenantIgnoreCase(tenant);
-            actionRepository.deleteByTenantIgnoreCase(tenant);
-            rolloutGroupRepository.deleteByTenantIgnoreCase(tenant);
-            rolloutRepository.deleteByTenantIgnoreCase(tenant);
-            artifactRepository.deleteByTenantIgnoreCase(tenant);
-            externalArtifactRepository.deleteByTenantIgnoreCase(tenant);
-            externalArtifactProviderRepository.deleteByTenantIgnoreCase(tenant);
-            targetTagRepository.deleteByTenantIgnoreCase(tenant);
-            distributionSetTagRepository.deleteByTenantIgnoreCase(tenant);
-            distributionSetRepository.deleteByTenantIgnoreCase(tenant);
-            distributionSetTypeRepository.deleteByTenantIgnoreCase(tenant);
-            softwareModuleRepository.deleteByTenantIgnoreCase(tenant);
-            softwareModuleTypeRepository.deleteByTenantIgnoreCase(tenant);
-            return null;
+        // the tenant is removed right away, its data is deleted in chunks by
+        // the deletion job after the commit
+        tenantMetaDataRepository.deleteByTenantIgnoreCase(tenant);
+        tenantUsageCounters.remove(tenant);
+        reportRollups.remove(tenant);
+        if (!tenantDeletionJob.isDeletionPending(tenant)) {
+            tenantDeletionRepository.save(new JpaTenantDeletion(tenant));
+        }
+        afterCommit.afterCommit(() -> {
+            if (tenantDeletionScheduler != null) {
+                tenantDeletionScheduler.submit(tenant);
+            } else {
+                tenantDeletionJob.run(tenant);
+            }
         });
+        targetSecurityTokenCache.evictTenant(tenant);
+        artifactDownloadIndex.evictTenant(tenant);
+        afterCommit.afterCommit(() -> targetCountCache.evictTenant(tenant));
     }
 
     @Override
@@ -9,16 +9,28 @@
 package org.eclipse.hawkbit.repository.jpa;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.repository.TargetFields;
 import org.eclipse.hawkbit.repository.TargetFilterQueryManagement;
 import org.eclipse.hawkbit.repository.exception.EntityAlreadyExistsException;
+import org.eclipse.hawkbit.repository.exception.RSQLParameterSyntaxException;
+import org.eclipse.hawkbit.repository.exception.RSQLParameterUnsupportedFieldException;
+import org.eclipse.hawkbit.repository.jpa.executor.AfterTransactionCommitExecutor;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTargetFilterQuery;
+import org.eclipse.hawkbit.repository.jpa.rsql.RSQLTargetMatcher;
 import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
 import org.eclipse.hawkbit.repository.jpa.specifications.SpecificationsBuilder;
 import org.eclipse.hawkbit.repository.jpa.specifications.TargetFilterQuerySpecification;
+import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetFilterQuery;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -33,6 +45,8 @@ import org.springframework.util.Assert;
 import org.springframework.validation.annotation.Validated;
 
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 /**
  * JPA implementation of {@link TargetFilterQueryManagement}.
@@ -42,9 +56,26 @@ import com.google.common.base.Strings;
 @Validated
 public class JpaTargetFilterQueryManagement implements TargetFilterQueryManagement {
 
+    private static final Logger LOG = LoggerFactory.getLogger(JpaTargetFilterQueryManagement.class);
+
+    /**
+     * Time after which the compiled queries are reloaded, e.g. to pick up
+     * changes of other nodes. Changes on this node evict them immediately.
+     */
+    private static final long MATCHERS_TTL_SECONDS = 30;
+
+    private final Cache<String, List<TargetFilterQueryMatcher>> matchersByTenant = CacheBuilder.newBuilder()
+            .expireAfterWrite(MATCHERS_TTL_SECONDS, TimeUnit.SECONDS).build();
+
     @Autowired
     private TargetFilterQueryRepository targetFilterQueryRepository;
 
+    @Autowired
+    private AfterTransactionCommitExecutor afterCommit;
+
+    @Autowired
+    private TenantAware tenantAware;
+
     @Override
     @Modifying
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
@@ -53,6 +84,7 @@ public class JpaTargetFilterQueryManagement implements TargetFilterQueryManageme
         if (targetFilterQueryRepository.findByName(customTargetFilter.getName()) != null) {
             throw new EntityAlreadyExistsException(customTargetFilter.getName());
         }
+        evictMatchers();
         return targetFilterQueryRepository.save((JpaTargetFilterQuery) customTargetFilter);
     }
 
@@ -60,6 +92,7 @@ public class JpaTargetFilterQueryManagement implements TargetFilterQueryManageme
     @Modifying
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
     public void deleteTargetFilterQuery(final Long targetFilterQueryId) {
+        evictMatchers();
         targetFilterQueryRepository.delete(targetFilterQueryId);
     }
 
@@ -107,6 +140,7 @@ public class JpaTargetFilterQueryManagement implements TargetFilterQueryManageme
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
     public TargetFilterQuery updateTargetFilterQuery(final TargetFilterQuery targetFilterQuery) {
         Assert.notNull(targetFilterQuery.getId());
+        evictMatchers();
         return targetFilterQueryRepository.save((JpaTargetFilterQuery) targetFilterQuery);
     }
 
@@ -116,4 +150,55 @@ public class JpaTargetFilterQueryManagement implements TargetFilterQueryManageme
         return true;
     }
 
+    @Override
+    public List<TargetFilterQuery> findTargetFilterQueryMatchingTarget(final Target target) {
+        final List<Long> matchingIds = getMatchers().stream().filter(matcher -> matcher.matcher.test(target))
+                .map(matcher -> matcher.id).collect(Collectors.toList());
+        if (matchingIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(targetFilterQueryRepository.findByIdIn(matchingIds));
+    }
+
+    private List<TargetFilterQueryMatcher> getMatchers() {
+        final String tenant = tenantAware.getCurrentTenant().toUpperCase();
+        List<TargetFilterQueryMatcher> matchers = matchersByTenant.getIfPresent(tenant);
+        if (matchers == null) {
+            matchers = targetFilterQueryRepository.findAllIdNameAndQuery().stream()
+                    .map(JpaTargetFilterQueryManagement::compile).filter(matcher -> matcher != null)
+                    .collect(Collectors.toList());
+            matchersByTenant.put(tenant, matchers);
+        }
+        return matchers;
+    }
+
+    private static TargetFilterQueryMatcher compile(final Object[] idNameAndQuery) {
+        try {
+            return new TargetFilterQueryMatcher((Long) idNameAndQuery[0],
+                    RSQLTargetMatcher.compile((String) idNameAndQuery[2]));
+        } catch (RSQLParameterSyntaxException | RSQLParameterUnsupportedFieldException e) {
+            LOG.warn("Target filter query {} is invalid", idNameAndQuery[1], e);
+            return null;
+        }
+    }
+
+    /**
+     * Evicts the compiled queries of the current tenant now and after commit,
+     * so a lookup in between cannot cache the old state again.
+     */
+    private void evictMatchers() {
+        final String tenant = tenantAware.getCurrentTenant().toUpperCase();
+        matchersByTenant.invalidate(tenant);
+        afterCommit.afterCommit(() -> matchersByTenant.invalidate(tenant));
+    }
+
+    private static final class TargetFilterQueryMatcher {
+        private final Long id;
+        private final Predicate<Target> matcher;
+
+        private TargetFilterQueryMatcher(final Long id, final Predicate<Target> matcher) {
+            this.id = id;
+            this.matcher = matcher;
+        }
+    }
 }
@@ -24,11 +24,13 @@ import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
 import org.eclipse.hawkbit.repository.TargetFields;
 import org.eclipse.hawkbit.repository.TargetManagement;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetSecurityTokenChangedEvent;
 import org.eclipse.hawkbit.repository.eventbus.event.TargetTagAssigmentResultEvent;
 import org.eclipse.hawkbit.repository.exception.EntityAlreadyExistsException;
 import org.eclipse.hawkbit.repository.jpa.configuration.Constants;
@@ -42,16 +44,19 @@ import org.eclipse.hawkbit.repository.jpa.model.JpaTarget_;
 import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
 import org.eclipse.hawkbit.repository.jpa.specifications.SpecificationsBuilder;
 import org.eclipse.hawkbit.repository.jpa.specifications.TargetSpecifications;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetFilterQuery;
 import org.eclipse.hawkbit.repository.model.TargetIdName;
 import org.eclipse.hawkbit.repository.model.TargetTag;
 import org.eclipse.hawkbit.repository.model.TargetTagAssignmentResult;
 import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.SliceImpl;
@@ -76,6 +81,10 @@ import com.google.common.eventbus.EventBus;
 @Validated
 public class JpaTargetManagement implements TargetManagement {
 
+    private static final int LINKED_DS_INSTALLED = 1;
+    private static final int LINKED_DS_ASSIGNED = 2;
+    private static final int LINKED_DS_NONE = 100;
+
     @Autowired
     private EntityManager entityManager;
 
@@ -97,11 +106,46 @@ public class JpaTargetManagement implements TargetManagement {
     @Autowired
     private AfterTransactionCommitExecutor afterCommit;
 
+    @Autowired
+    private TargetCountCache targetCountCache;
+
+    @Autowired
+    private TargetSecurityTokenCache targetSecurityTokenCache;
+
+    @Autowired
+    private TenantUsageCounters tenantUsageCounters;
+
+    @Autowired
+    private ReportRollups reportRollups;
+
     @Override
     public Target findTargetByControllerID(final String controllerId) {
         return targetRepository.findByControllerId(controllerId);
     }
 
+    /**
+     * Evicts the cached security tokens now and after commit, so a
+     * verification in between cannot cache the old state again.
+     */
+    private void evictSecurityTokens(final List<String> controllerIds) {
+        targetSecurityTokenCache.evict(controllerIds);
+        afterCommit.afterCommit(() -> targetSecurityTokenCache.evict(controllerIds));
+    }
+
+    /**
+     * Publishes the changed security tokens of the given targets after commit,
+     * so the other nodes evict their cached tokens as well.
+     */
+    private void publishSecurityTokenChanges(final Collection<JpaTarget> targets) {
+        final List<TargetSecurityTokenChangedEvent> events = targets.stream()
+                .filter(JpaTarget::isSecurityTokenChanged)
+                .map(target -> new TargetSecurityTokenChangedEvent(target.getTenant(), target.getControllerId()))
+                .collect(Collectors.toList());
+        if (!events.isEmpty()) {
+            afterCommit.afterCommit(() -> events.forEach(eventBus::post));
+        }
+    }
+
     @Override
     public Target findTargetByControllerIDWithDetails(final String controllerId) {
         final Target result = targetRepository.findByControllerId(controllerId);
@@ -150,6 +194,13 @@ public class JpaTargetManagement implements TargetManagement {
         return findTargetsBySpec(RSQLUtility.parse(targetFilterQuery.getQuery(), TargetFields.class), pageable);
     }
 
+    @Override
+    public Slice<Target> findTargetsAllAfter(final TargetFilterQuery targetFilterQuery, final Sort sort,
+            final Target lastTarget, final int pageSize) {
+        return findByKeyset(sort, lastTarget, pageSize,
+                Collections.singletonList(RSQLUtility.parse(targetFilterQuery.getQuery(), TargetFields.class)));
+    }
+
     @Override
     public Page<Target> findTargetsAll(final String targetFilterQuery, final Pageable pageable) {
         return findTargetsBySpec(RSQLUtility.parse(targetFilterQuery, TargetFields.class), pageable);
@@ -175,6 +226,9 @@ public class JpaTargetManagement implements TargetManagement {
 
         final JpaTarget toUpdate = (JpaTarget) target;
         toUpdate.setNew(false);
+        evictSecurityTokens(Collections.singletonList(toUpdate.getControllerId()));
+        publishSecurityTokenChanges(Collections.singletonList(toUpdate));
+        afterCommit.afterCommit(targetCountCache::evictTenant);
         return targetRepository.save(toUpdate);
     }
 
@@ -187,6 +241,9 @@ public class JpaTargetManagement implements TargetManagement {
         final Collection<JpaTarget> toUpdate = (Collection) targets;
 
         toUpdate.forEach(target -> target.setNew(false));
+        evictSecurityTokens(toUpdate.stream().map(JpaTarget::getControllerId).collect(Collectors.toList()));
+        publishSecurityTokenChanges(toUpdate);
+        afterCommit.afterCommit(targetCountCache::evictTenant);
 
         return new ArrayList<>(targetRepository.save(toUpdate));
     }
@@ -200,11 +257,18 @@ public class JpaTargetManagement implements TargetManagement {
         // tenant! Delete statement are not automatically enhanced with the
         // @FilterDef of the
         // hibernate session.
-        final List<Long> targetsForCurrentTenant = targetRepository.findAll(Lists.newArrayList(targetIDs)).stream()
-                .map(Target::getId).collect(Collectors.toList());
+        final List<JpaTarget> targetsForCurrentTenant = targetRepository.findAll(Lists.newArrayList(targetIDs));
         if (!targetsForCurrentTenant.isEmpty()) {
-            targetInfoRepository.deleteByTargetIdIn(targetsForCurrentTenant);
-            targetRepository.deleteByIdIn(targetsForCurrentTenant);
+            final List<Long> targetIdsForCurrentTenant = targetsForCurrentTenant.stream().map(Target::getId)
+                    .collect(Collectors.toList());
+            // the bulk delete and its cascaded actions bypass the listeners
+            reportRollups.removeTargets(targetsForCurrentTenant);
+            targetInfoRepository.deleteByTargetIdIn(targetIdsForCurrentTenant);
+            targetRepository.deleteByIdIn(targetIdsForCurrentTenant);
+            tenantUsageCounters.markDirty();
+            afterCommit.afterCommit(targetCountCache::evictTenant);
+            evictSecurityTokens(
+                    targetsForCurrentTenant.stream().map(Target::getControllerId).collect(Collectors.toList()));
         }
     }
 
@@ -279,6 +343,28 @@ public class JpaTargetManagement implements TargetManagement {
         return countByCriteriaAPI(specList);
     }
 
+    @Override
+    public Long countTargetByFiltersCached(final Collection<TargetUpdateStatus> status, final String searchText,
+            final Long installedOrAssignedDistributionSetId, final Boolean selectTargetWithNoTag,
+            final String... tagNames) {
+        final List<Specification<JpaTarget>> specList = buildSpecificationList(status, searchText,
+                installedOrAssignedDistributionSetId, selectTargetWithNoTag, false, tagNames);
+        final String filter = String.join("|", "filters", String.valueOf(status), searchText,
+                String.valueOf(installedOrAssignedDistributionSetId), String.valueOf(selectTargetWithNoTag),
+                tagNames == null ? null : Arrays.stream(tagNames).sorted().collect(Collectors.joining(",")));
+        return targetCountCache.getCount(filter, () -> countByCriteriaAPI(specList));
+    }
+
+    @Override
+    public Slice<Target> findTargetByFiltersAfter(final Sort sort, final Target lastTarget, final int pageSize,
+            final Collection<TargetUpdateStatus> status, final String searchText,
+            final Long installedOrAssignedDistributionSetId, final Boolean selectTargetWithNoTag,
+            final String... tagNames) {
+        final List<Specification<JpaTarget>> specList = buildSpecificationList(status, searchText,
+                installedOrAssignedDistributionSetId, selectTargetWithNoTag, true, tagNames);
+        return findByKeyset(sort, lastTarget, pageSize, specList);
+    }
+
     private static List<Specification<JpaTarget>> buildSpecificationList(final Collection<TargetUpdateStatus> status,
             final String searchText, final Long installedOrAssignedDistributionSetId,
             final Boolean selectTargetWithNoTag, final boolean fetch, final String... tagNames) {
@@ -308,6 +394,79 @@ public class JpaTargetManagement implements TargetManagement {
                 pageable);
     }
 
+    private Slice<Target> findByKeyset(final Sort sort, final Target lastTarget, final int pageSize,
+            final List<Specification<JpaTarget>> specList) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<JpaTarget> query = cb.createQuery(JpaTarget.class);
+        final Root<JpaTarget> targetRoot = query.from(JpaTarget.class);
+        if (specList.isEmpty()) {
+            targetRoot.fetch(JpaTarget_.targetInfo);
+        }
+
+        final List<Sort.Order> keyset = keysetOrders(sort);
+        final List<Predicate> predicates = new ArrayList<>(
+                Arrays.asList(specificationsToPredicate(specList, targetRoot, query, cb)));
+        if (lastTarget != null) {
+            predicates.add(afterKeyset(keyset, lastTarget, targetRoot, cb));
+        }
+        query.where(predicates.toArray(new Predicate[predicates.size()]));
+        query.orderBy(keyset.stream().map(order -> order.isAscending() ? cb.asc(targetRoot.get(order.getProperty()))
+                : cb.desc(targetRoot.get(order.getProperty()))).collect(Collectors.toList()));
+
+        final List<JpaTarget> resultList = entityManager.createQuery(query).setMaxResults(pageSize + 1)
+                .getResultList();
+        return toKeysetSlice(resultList, pageSize, sort);
+    }
+
+    /**
+     * @return the orders of the given {@link Sort} completed by the
+     *         {@link Target#getId()} in the direction of the last order, which
+     *         makes the key of every target unique
+     */
+    private static List<Sort.Order> keysetOrders(final Sort sort) {
+        final List<Sort.Order> orders = new ArrayList<>();
+        if (sort != null) {
+            sort.forEach(orders::add);
+        }
+        if (orders.stream().noneMatch(order -> "id".equals(order.getProperty()))) {
+            final Direction direction = orders.isEmpty() ? Direction.ASC
+                    : orders.get(orders.size() - 1).getDirection();
+            orders.add(new Sort.Order(direction, "id"));
+        }
+        return orders;
+    }
+
+    /**
+     * Builds the predicate which selects the targets after the given last
+     * target, i.e. <code>(a &gt; :a) OR (a = :a AND b &gt; :b) OR ...</code>
+     * for the orders <code>a, b, ...</code>.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Predicate afterKeyset(final List<Sort.Order> keyset, final Target lastTarget,
+            final Root<JpaTarget> targetRoot, final CriteriaBuilder cb) {
+        final BeanWrapper lastValues = new BeanWrapperImpl(lastTarget);
+        final List<Predicate> alternatives = new ArrayList<>();
+        final List<Predicate> equalPrefix = new ArrayList<>();
+        for (final Sort.Order order : keyset) {
+            final Path<Comparable> path = targetRoot.get(order.getProperty());
+            final Comparable value = (Comparable) lastValues.getPropertyValue(order.getProperty());
+            Assert.notNull(value, "Keyset paging requires a non-null value for sort property " + order.getProperty());
+
+            final List<Predicate> alternative = new ArrayList<>(equalPrefix);
+            alternative.add(order.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value));
+            alternatives.add(cb.and(alternative.toArray(new Predicate[alternative.size()])));
+            equalPrefix.add(cb.equal(path, value));
+        }
+        return cb.or(alternatives.toArray(new Predicate[alternatives.size()]));
+    }
+
+    private static Slice<Target> toKeysetSlice(final List<JpaTarget> resultList, final int pageSize,
+            final Sort sort) {
+        final boolean hasNext = resultList.size() > pageSize;
+        final List<Target> content = new ArrayList<>(hasNext ? resultList.subList(0, pageSize) : resultList);
+        return new SliceImpl<>(content, new PageRequest(0, Math.max(pageSize, 1), sort), hasNext);
+    }
+
     private Long countByCriteriaAPI(final List<Specification<JpaTarget>> specList) {
         if (specList == null || specList.isEmpty()) {
             return targetRepository.count();
@@ -411,6 +570,29 @@ public class JpaTargetManagement implements TargetManagement {
             final Long orderByDistributionId, final Long filterByDistributionId,
             final Collection<TargetUpdateStatus> filterByStatus, final String filterBySearchText,
             final Boolean selectTargetWithNoTag, final String... filterByTagNames) {
+        final int pageSize = pageable.getPageSize();
+        final List<JpaTarget> resultList = findTargetsOrderByLinkedDistributionSet(pageable.getOffset(), null,
+                pageSize + 1, orderByDistributionId, filterByDistributionId, filterByStatus, filterBySearchText,
+                selectTargetWithNoTag, filterByTagNames);
+        final boolean hasNext = resultList.size() > pageSize;
+        return new SliceImpl<>(new ArrayList<>(resultList), pageable, hasNext);
+    }
+
+    @Override
+    public Slice<Target> findTargetsAllOrderByLinkedDistributionSetAfter(final Target lastTarget, final int pageSize,
+            final Long orderByDistributionId, final Long filterByDistributionId,
+            final Collection<TargetUpdateStatus> filterByStatus, final String filterBySearchText,
+            final Boolean selectTargetWithNoTag, final String... filterByTagNames) {
+        final List<JpaTarget> resultList = findTargetsOrderByLinkedDistributionSet(0, lastTarget, pageSize + 1,
+                orderByDistributionId, filterByDistributionId, filterByStatus, filterBySearchText,
+                selectTargetWithNoTag, filterByTagNames);
+        return toKeysetSlice(resultList, pageSize, null);
+    }
+
+    private List<JpaTarget> findTargetsOrderByLinkedDistributionSet(final int offset, final Target lastTarget,
+            final int maxResults, final Long orderByDistributionId, final Long filterByDistributionId,
+            final Collection<TargetUpdateStatus> filterByStatus, final String filterBySearchText,
+            final Boolean selectTargetWithNoTag, final String... filterByTagNames) {
         final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         final CriteriaQuery<JpaTarget> query = cb.createQuery(JpaTarget.class);
         final Root<JpaTarget> targetRoot = query.from(JpaTarget.class);
@@ -422,25 +604,32 @@ public class JpaTargetManagement implements TargetManagement {
         // select case expression to retrieve the case value as a column to be
         // able to order based on
         // this column, installed first,...
-        final Expression<Object> selectCase = cb.selectCase()
+        final Expression<Integer> selectCase = cb.<Integer> selectCase()
                 .when(cb.equal(targetInfo.get(JpaTargetInfo_.installedDistributionSet).get(JpaDistributionSet_.id),
-                        orderByDistributionId), 1)
+                        orderByDistributionId), LINKED_DS_INSTALLED)
                 .when(cb.equal(targetRoot.get(JpaTarget_.assignedDistributionSet).get(JpaDistributionSet_.id),
-                        orderByDistributionId), 2)
-                .otherwise(100);
+                        orderByDistributionId), LINKED_DS_ASSIGNED)
+                .otherwise(LINKED_DS_NONE);
         // multiselect statement order by the select case and controllerId
         query.distinct(true);
         // build the specifications and then to predicates necessary by the
         // given filters
-        final Predicate[] specificationsForMultiSelect = specificationsToPredicate(
+        final List<Predicate> predicates = new ArrayList<>(Arrays.asList(specificationsToPredicate(
                 buildSpecificationList(filterByStatus, filterBySearchText, filterByDistributionId,
                         selectTargetWithNoTag, true, filterByTagNames),
-                targetRoot, query, cb);
+                targetRoot, query, cb)));
+
+        // seek behind the last target of the previous page
+        if (lastTarget != null) {
+            final int lastCase = linkedDistributionSetCase(lastTarget, orderByDistributionId);
+            predicates.add(cb.or(cb.greaterThan(selectCase, lastCase), cb.and(cb.equal(selectCase, lastCase),
+                    cb.lessThan(targetRoot.get(JpaTarget_.id), lastTarget.getId()))));
+        }
 
         // if we have some predicates then add it to the where clause of the
         // multiselect
-        if (specificationsForMultiSelect.length > 0) {
-            query.where(specificationsForMultiSelect);
+        if (!predicates.isEmpty()) {
+            query.where(predicates.toArray(new Predicate[predicates.size()]));
         }
         // add the order to the multi select first based on the selectCase
         query.orderBy(cb.asc(selectCase), cb.desc(targetRoot.get(JpaTarget_.id)));
@@ -452,11 +641,20 @@ public class JpaTargetManagement implements TargetManagement {
         // index (case of the
         // multiselect order) of the array and
         // the 2nd contains the selectCase int value.
-        final int pageSize = pageable.getPageSize();
-        final List<JpaTarget> resultList = entityManager.createQuery(query).setFirstResult(pageable.getOffset())
-                .setMaxResults(pageSize + 1).getResultList();
-        final boolean hasNext = resultList.size() > pageSize;
-        return new SliceImpl<>(new ArrayList<>(resultList), pageable, hasNext);
+        return entityManager.createQuery(query).setFirstResult(offset).setMaxResults(maxResults).getResultList();
+    }
+
+    private static int linkedDistributionSetCase(final Target target, final Long distributionSetId) {
+        final DistributionSet installed = target.getTargetInfo() == null ? null
+                : target.getTargetInfo().getInstalledDistributionSet();
+        if (installed != null && distributionSetId.equals(installed.getId())) {
+            return LINKED_DS_INSTALLED;
+        }
+        final DistributionSet assigned = target.getAssignedDistributionSet();
+        if (assigned != null && distributionSetId.equals(assigned.getId())) {
+            return LINKED_DS_ASSIGNED;
+        }
+        return LINKED_DS_NONE;
     }
 
     private static Predicate[] specificationsToPredicate(final List<Specification<JpaTarget>> specifications,
@@ -562,7 +760,6 @@ public class JpaTargetManagement implements TargetManagement {
     @Override
     @Modifying
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
-    @CacheEvict(value = { "targetsCreatedOverPeriod" }, allEntries = true)
     public Target createTarget(final Target t, final TargetUpdateStatus status, final Long lastTargetQuery,
             final URI address) {
         final JpaTarget target = (JpaTarget) t;
@@ -572,6 +769,9 @@ public class JpaTargetManagement implements TargetManagement {
         }
 
         target.setNew(true);
+        // the controller ID might be cached as unknown
+        evictSecurityTokens(Collections.singletonList(target.getControllerId()));
+        afterCommit.afterCommit(targetCountCache::evictTenant);
         final JpaTarget savedTarget = targetRepository.save(target);
         final JpaTargetInfo targetInfo = (JpaTargetInfo) savedTarget.getTargetInfo();
         targetInfo.setUpdateStatus(status);
@@ -591,7 +791,6 @@ public class JpaTargetManagement implements TargetManagement {
     @Override
     @Modifying
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
-    @CacheEvict(value = { "targetsCreatedOverPeriod" }, allEntries = true)
     public Target createTarget(final Target target) {
         return createTarget(target, TargetUpdateStatus.UNKNOWN, null, null);
     }
@@ -624,6 +823,12 @@ public class JpaTargetManagement implements TargetManagement {
         return targetRepository.count(specs);
     }
 
+    @Override
+    public Long countTargetByTargetFilterQueryCached(final TargetFilterQuery targetFilterQuery) {
+        return targetCountCache.getCount("query|" + targetFilterQuery.getQuery(),
+                () -> countTargetByTargetFilterQuery(targetFilterQuery));
+    }
+
     @Override
     public Long countTargetByTargetFilterQuery(final String targetFilterQuery) {
         final Specification<JpaTarget> specs = RSQLUtility.parse(targetFilterQuery, TargetFields.class);
@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.repository.jpa;
 
+import org.eclipse.hawkbit.cache.CacheConstants;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTenantConfiguration;
 import org.eclipse.hawkbit.repository.model.TenantConfiguration;
@@ -17,6 +18,7 @@ import org.eclipse.hawkbit.tenancy.configuration.validator.TenantConfigurationVa
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.EnvironmentAware;
 import org.springframework.core.convert.support.ConfigurableConversionService;
@@ -119,7 +121,8 @@ public class JpaTenantConfigurationManagement implements EnvironmentAware, Tenan
     }
 
     @Override
-    @CacheEvict(value = "tenantConfiguration", key = "#configurationKey.getKeyName()")
+    @Caching(evict = { @CacheEvict(value = "tenantConfiguration", key = "#configurationKey.getKeyName()"),
+            @CacheEvict(value = CacheConstants.CONTROLLER_POLL_CACHE, allEntries = true) })
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
     @Modifying
     public <T> TenantConfigurationValue<T> addOrUpdateConfiguration(final TenantConfigurationKey configurationKey,
@@ -156,7 +159,8 @@ public class JpaTenantConfigurationManagement implements EnvironmentAware, Tenan
     }
 
     @Override
-    @CacheEvict(value = "tenantConfiguration", key = "#configurationKey.getKeyName()")
+    @Caching(evict = { @CacheEvict(value = "tenantConfiguration", key = "#configurationKey.getKeyName()"),
+            @CacheEvict(value = CacheConstants.CONTROLLER_POLL_CACHE, allEntries = true) })
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
     @Modifying
     public void deleteConfiguration(final TenantConfigurationKey configurationKey) {
@@ -8,15 +8,10 @@
  */
 package org.eclipse.hawkbit.repository.jpa;
 
-import java.util.Optional;
-
 import org.eclipse.hawkbit.repository.TenantStatsManagement;
 import org.eclipse.hawkbit.repository.report.model.TenantUsage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 /**
@@ -27,33 +22,11 @@ import org.springframework.validation.annotation.Validated;
 public class JpaTenantStatsManagement implements TenantStatsManagement {
 
     @Autowired
-    private TargetRepository targetRepository;
-
-    @Autowired
-    private LocalArtifactRepository artifactRepository;
-
-    @Autowired
-    private ActionRepository actionRepository;
+    private TenantUsageCounters tenantUsageCounters;
 
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.READ_UNCOMMITTED)
     public TenantUsage getStatsOfTenant(final String tenant) {
-        final TenantUsage result = new TenantUsage(tenant);
-
-        result.setTargets(targetRepository.count());
-
-        final Long artifacts = artifactRepository.countBySoftwareModuleDeleted(false);
-        result.setArtifacts(artifacts);
-
-        final Optional<Long> artifactsSize = artifactRepository.getSumOfUndeletedArtifactSize();
-        if (artifactsSize.isPresent()) {
-            result.setOverallArtifactVolumeInBytes(artifactsSize.get());
-        }
-
-        result.setActions(actionRepository.count());
-
-        return result;
-
+        return tenantUsageCounters.getUsage(tenant);
     }
 
 }
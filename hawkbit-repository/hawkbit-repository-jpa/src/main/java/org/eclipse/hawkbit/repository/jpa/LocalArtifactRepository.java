@@ -73,6 +73,16 @@ public interface LocalArtifactRepository extends BaseEntityRepository<JpaLocalAr
      */
     List<LocalArtifact> findByFilename(String filename);
 
+    /**
+     * Searches for the {@link LocalArtifact}s with the given IDs.
+     *
+     * @param ids
+     *            of the artifacts
+     * @return list of found {@link LocalArtifact}s.
+     */
+    @Query("SELECT la FROM JpaLocalArtifact la WHERE la.id IN ?1")
+    List<JpaLocalArtifact> findByIdIn(List<Long> ids);
+
     /**
      * Searches for local artifact for a base software module.
      *
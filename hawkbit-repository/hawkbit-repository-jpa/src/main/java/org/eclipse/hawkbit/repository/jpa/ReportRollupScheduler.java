@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.SystemManagement;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler which backfills the {@link ReportRollups} of all tenants from the
+ * existing data if necessary, e.g. after an update of the server, so the
+ * first report of a tenant does not have to wait for the backfill. The delay
+ * between the runs can be configured using the property
+ * {@link RepositoryProperties.ReportRollup#PROP_BACKFILL_DELAY_PLACEHOLDER}.
+ */
+@Component
+// don't active the scheduler in test, the buckets are backfilled on read
+@Profile("!test")
+public class ReportRollupScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReportRollupScheduler.class);
+
+    @Autowired
+    private SystemManagement systemManagement;
+
+    @Autowired
+    private ReportRollups reportRollups;
+
+    @Autowired
+    private SystemSecurityContext systemSecurityContext;
+
+    /**
+     * Scheduler method called by the spring-async mechanism. Backfills the
+     * buckets of the tenants one after another and deletes the outdated hourly
+     * buckets.
+     */
+    @Scheduled(initialDelayString = RepositoryProperties.ReportRollup.PROP_BACKFILL_DELAY_PLACEHOLDER, fixedDelayString = RepositoryProperties.ReportRollup.PROP_BACKFILL_DELAY_PLACEHOLDER)
+    public void runBackfill() {
+        LOGGER.debug("report rollup backfill has been triggered.");
+        final List<String> tenants = systemSecurityContext.runAsSystem(systemManagement::findTenants);
+        int backfilled = 0;
+        for (final String tenant : tenants) {
+            try {
+                if (reportRollups.backfillIfRequired(tenant)) {
+                    backfilled++;
+                }
+            } catch (final RuntimeException e) {
+                LOGGER.error("Report rollup backfill of tenant {} failed", tenant, e);
+            }
+        }
+        final int deleted = reportRollups.deleteOutdatedHourlyBuckets();
+        LOGGER.debug("Backfilled the report buckets of {} tenants and deleted {} outdated hourly buckets", backfilled,
+                deleted);
+    }
+}
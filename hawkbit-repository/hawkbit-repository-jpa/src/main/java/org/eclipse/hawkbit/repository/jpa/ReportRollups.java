@@ -0,0 +1,430 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.jpa.model.AbstractJpaTenantAwareBaseEntity;
+import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Hourly and daily buckets of created targets and actions per tenant which
+ * back the time series reports, so a report reads a few buckets instead of
+ * grouping the whole target or action table.
+ *
+ * The buckets are maintained incrementally as {@link WriteBehindCounters}:
+ * created and deleted entities are collected per bucket in memory after the
+ * commit and added to the stored buckets every
+ * {@link RepositoryProperties.ReportRollup#getFlushInterval()}.
+ * Bulk deletes of targets which bypass the entity listeners subtract the
+ * targets and their actions from the affected buckets with
+ * {@link #removeTargets(List)}. The buckets of a tenant are backfilled from the
+ * existing data if they do not exist yet, e.g. after an update of the server,
+ * if they have been marked dirty or if they are older than
+ * {@link RepositoryProperties.ReportRollup#getRebuildInterval()}.
+ *
+ * Hourly buckets start at the full hour, daily buckets at midnight of the time
+ * zone of the server.
+ */
+@Service
+public class ReportRollups extends WriteBehindCounters<ReportRollups.BucketKey, Long> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReportRollups.class);
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private static final String ADD_AMOUNT = "UPDATE sp_report_rollup SET amount = amount + ? WHERE tenant = ? AND series = ? AND granularity = ? AND bucket_start = ?";
+
+    private static final String INSERT_BUCKET = "INSERT INTO sp_report_rollup (amount, tenant, series, granularity, bucket_start) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SELECT_BUCKETS = "SELECT bucket_start, amount FROM sp_report_rollup WHERE tenant = ? AND series = ? AND granularity = ? AND bucket_start >= ? AND bucket_start < ? ORDER BY bucket_start";
+
+    private static final String DELETE_BUCKETS = "DELETE FROM sp_report_rollup WHERE tenant = ?";
+
+    private static final String DELETE_OUTDATED_HOURS = "DELETE FROM sp_report_rollup WHERE granularity = ? AND bucket_start < ?";
+
+    private static final String SELECT_STATE = "SELECT dirty, backfilled_at FROM sp_report_rollup_state WHERE tenant = ?";
+
+    private static final String CLEAR_DIRTY = "UPDATE sp_report_rollup_state SET dirty = ? WHERE tenant = ?";
+
+    private static final String UPDATE_STATE = "UPDATE sp_report_rollup_state SET backfilled_at = ? WHERE tenant = ?";
+
+    private static final String INSERT_STATE = "INSERT INTO sp_report_rollup_state (backfilled_at, tenant, dirty) VALUES (?, ?, ?)";
+
+    private static final String COUNT_ACTIONS_OF_TARGETS_PER_HOUR = "SELECT a.createdAt - MOD(a.createdAt, %d), COUNT(a.id) FROM JpaAction a WHERE a.target.id IN :targetIds AND a.createdAt IS NOT NULL GROUP BY a.createdAt - MOD(a.createdAt, %d)";
+
+    private static final String COUNT_PER_HOUR = "SELECT created_at - MOD(created_at, %d), COUNT(id) FROM %s WHERE tenant = ? AND created_at IS NOT NULL GROUP BY created_at - MOD(created_at, %d)";
+
+    /**
+     * The series of events which are aggregated.
+     */
+    public enum Series {
+        /**
+         * Targets by their creation time.
+         */
+        TARGET_CREATED("sp_target"),
+
+        /**
+         * Actions by their creation time, i.e. the deployments reported back
+         * by the controllers.
+         */
+        ACTION_CREATED("sp_action");
+
+        private final String table;
+
+        Series(final String table) {
+            this.table = table;
+        }
+    }
+
+    /**
+     * The size of the buckets.
+     */
+    public enum Granularity {
+        HOUR, DAY
+    }
+
+    private final AtomicLong flushedBuckets = new AtomicLong();
+
+    private final AtomicLong backfills = new AtomicLong();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    public ReportRollups() {
+        super("reportRollup", "sp_report_rollup_state", "sp_report_rollup", "sp_report_rollup_state");
+    }
+
+    @Override
+    public void count(final Object entity, final long sign) {
+        final Class<?> entityClass = entity.getClass();
+        if (entityClass.equals(JpaTarget.class)) {
+            add((JpaTarget) entity, Series.TARGET_CREATED, sign);
+        } else if (entityClass.equals(JpaAction.class)) {
+            add((JpaAction) entity, Series.ACTION_CREATED, sign);
+        }
+    }
+
+    private void add(final AbstractJpaTenantAwareBaseEntity entity, final Series series, final long amount) {
+        if (entity.getCreatedAt() != null) {
+            add(entity.getTenant(), series, entity.getCreatedAt(), amount);
+        }
+    }
+
+    /**
+     * Adds the given amount to the hourly and daily bucket of the given time
+     * after the commit of the current transaction.
+     *
+     * @param tenant
+     *            the tenant of the event
+     * @param series
+     *            the series of the event
+     * @param occurredAt
+     *            the time of the event in milliseconds
+     * @param amount
+     *            the number of created (positive) or deleted (negative)
+     *            entities
+     */
+    public void add(final String tenant, final Series series, final long occurredAt, final long amount) {
+        final BucketKey key = new BucketKey(normalize(tenant), series, occurredAt - Math.floorMod(occurredAt, HOUR));
+        addAfterCommit(key, amount, Long::sum);
+    }
+
+    /**
+     * Subtracts the given targets and their actions from the buckets after the
+     * commit of the current transaction. Has to be called before a bulk delete
+     * of the targets which bypasses the entity listeners, so only the affected
+     * buckets are corrected instead of backfilling all buckets of the tenant.
+     *
+     * @param targets
+     *            the targets of the current tenant which are deleted
+     */
+    public void removeTargets(final List<JpaTarget> targets) {
+        if (targets.isEmpty()) {
+            return;
+        }
+        targets.forEach(target -> count(target, -1));
+
+        final String tenant = targets.get(0).getTenant();
+        final List<Long> targetIds = targets.stream().map(JpaTarget::getId).collect(Collectors.toList());
+        entityManager
+                .createQuery(String.format(COUNT_ACTIONS_OF_TARGETS_PER_HOUR, HOUR, HOUR), Object[].class)
+                .setParameter("targetIds", targetIds).getResultList()
+                .forEach(row -> add(tenant, Series.ACTION_CREATED, ((Number) row[0]).longValue(),
+                        -((Number) row[1]).longValue()));
+    }
+
+    /**
+     * Reads the buckets of the given time range. The buckets of the tenant are
+     * backfilled first if necessary.
+     *
+     * @param tenant
+     *            the tenant
+     * @param series
+     *            the series to read
+     * @param granularity
+     *            the size of the buckets
+     * @param from
+     *            start of the range in milliseconds, inclusive
+     * @param to
+     *            end of the range in milliseconds, exclusive
+     * @return the amount by the start of the bucket in ascending order, the
+     *         buckets without events are missing
+     */
+    public Map<Long, Long> getBuckets(final String tenant, final Series series, final Granularity granularity,
+            final long from, final long to) {
+        final String normalizedTenant = normalize(tenant);
+        return flushAndRead(() -> {
+            final State state = findState(normalizedTenant);
+            if (state == null || state.dirty) {
+                backfill(normalizedTenant);
+            }
+
+            final Map<Long, Long> buckets = new LinkedHashMap<>();
+            jdbcTemplate.query(SELECT_BUCKETS, (RowCallbackHandler) rs -> buckets.put(rs.getLong(1), rs.getLong(2)),
+                    normalizedTenant, series.name(), granularity.name(), from, to);
+            return buckets;
+        });
+    }
+
+    /**
+     * Backfills the buckets of the given tenant from the existing data if they
+     * do not exist yet, are dirty or outdated.
+     *
+     * @param tenant
+     *            the tenant
+     * @return <code>true</code> if the buckets have been backfilled
+     */
+    public boolean backfillIfRequired(final String tenant) {
+        final String normalizedTenant = normalize(tenant);
+        return flushAndRead(() -> {
+            final State state = findState(normalizedTenant);
+            if (state != null && !state.dirty && System.currentTimeMillis()
+                    - state.backfilledAt < repositoryProperties.getReportRollup().getRebuildInterval()) {
+                return false;
+            }
+            backfill(normalizedTenant);
+            return true;
+        });
+    }
+
+    /**
+     * Deletes the hourly buckets of all tenants which are older than
+     * {@link RepositoryProperties.ReportRollup#getHourlyRetentionDays()}.
+     *
+     * @return the number of deleted buckets
+     */
+    public int deleteOutdatedHourlyBuckets() {
+        return newTransaction().execute(status -> jdbcTemplate.update(DELETE_OUTDATED_HOURS, Granularity.HOUR.name(),
+                getHourlyRetentionStart()));
+    }
+
+    @Override
+    protected void write(final Map<BucketKey, Long> amounts) {
+        final Map<BucketKey, Long> buckets = new HashMap<>();
+        amounts.forEach((key, amount) -> {
+            if (amount != 0) {
+                buckets.merge(key, amount, Long::sum);
+                buckets.merge(key.toDay(), amount, Long::sum);
+            }
+        });
+        if (buckets.isEmpty()) {
+            return;
+        }
+
+        try {
+            newTransaction().execute(status -> {
+                addAmounts(buckets);
+                return null;
+            });
+            flushedBuckets.addAndGet(buckets.size());
+        } catch (final RuntimeException e) {
+            // the buckets are backfilled with the next rebuild anyway
+            LOG.error("Failed to flush {} report buckets", buckets.size(), e);
+        }
+    }
+
+    private void addAmounts(final Map<BucketKey, Long> buckets) {
+        final List<BucketKey> keys = new ArrayList<>(buckets.keySet());
+        final List<Object[]> batch = new ArrayList<>(keys.size());
+        keys.forEach(key -> batch.add(key.toParameters(buckets.get(key))));
+        final int[] updated = jdbcTemplate.batchUpdate(ADD_AMOUNT, batch);
+
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] != 0) {
+                continue;
+            }
+            final Object[] parameters = batch.get(i);
+            try {
+                jdbcTemplate.update(INSERT_BUCKET, parameters);
+            } catch (final DuplicateKeyException e) {
+                LOG.debug("Report bucket {} has been created concurrently", keys.get(i), e);
+                jdbcTemplate.update(ADD_AMOUNT, parameters);
+            }
+        }
+    }
+
+    private void backfill(final String tenant) {
+        // the pending events are already committed, i.e. part of the backfill
+        discardPending(tenant);
+
+        // cleared upfront so a bulk delete committed during the backfill marks
+        // the buckets dirty again
+        newTransaction().execute(status -> jdbcTemplate.update(CLEAR_DIRTY, false, tenant));
+
+        newTransaction().execute(status -> {
+            jdbcTemplate.update(DELETE_BUCKETS, tenant);
+
+            final long hourlyRetentionStart = getHourlyRetentionStart();
+            final Map<BucketKey, Long> buckets = new HashMap<>();
+            for (final Series series : Series.values()) {
+                jdbcTemplate.query(String.format(COUNT_PER_HOUR, HOUR, series.table, HOUR),
+                        (RowCallbackHandler) rs -> {
+                            final BucketKey hour = new BucketKey(tenant, series, rs.getLong(1));
+                            if (hour.bucketStart >= hourlyRetentionStart) {
+                                buckets.merge(hour, rs.getLong(2), Long::sum);
+                            }
+                            buckets.merge(hour.toDay(), rs.getLong(2), Long::sum);
+                        }, tenant);
+            }
+            final List<Object[]> batch = new ArrayList<>(buckets.size());
+            buckets.forEach((key, amount) -> batch.add(key.toParameters(amount)));
+            jdbcTemplate.batchUpdate(INSERT_BUCKET, batch);
+
+            final long now = System.currentTimeMillis();
+            if (jdbcTemplate.update(UPDATE_STATE, now, tenant) == 0) {
+                jdbcTemplate.update(INSERT_STATE, now, tenant, false);
+            }
+            return null;
+        });
+        backfills.incrementAndGet();
+        LOG.debug("Backfilled the report buckets of tenant {}", tenant);
+    }
+
+    private State findState(final String tenant) {
+        final List<State> states = jdbcTemplate.query(SELECT_STATE,
+                (rs, rowNum) -> new State(rs.getBoolean(1), rs.getLong(2)), tenant);
+        return states.isEmpty() ? null : states.get(0);
+    }
+
+    private long getHourlyRetentionStart() {
+        return System.currentTimeMillis()
+                - TimeUnit.DAYS.toMillis(repositoryProperties.getReportRollup().getHourlyRetentionDays());
+    }
+
+    @Override
+    protected String getTenant(final BucketKey key) {
+        return key.tenant;
+    }
+
+    /**
+     * @return the number of buckets updated with collected events since
+     *         startup
+     */
+    public long getFlushedBuckets() {
+        return flushedBuckets.get();
+    }
+
+    /**
+     * @return the number of backfills of the buckets of a tenant since startup
+     */
+    public long getBackfills() {
+        return backfills.get();
+    }
+
+    private static final class State {
+        private final boolean dirty;
+        private final long backfilledAt;
+
+        private State(final boolean dirty, final long backfilledAt) {
+            this.dirty = dirty;
+            this.backfilledAt = backfilledAt;
+        }
+    }
+
+    static final class BucketKey {
+        private final String tenant;
+        private final Series series;
+        private final Granularity granularity;
+        private final long bucketStart;
+
+        private BucketKey(final String tenant, final Series series, final long hourStart) {
+            this(tenant, series, Granularity.HOUR, hourStart);
+        }
+
+        private BucketKey(final String tenant, final Series series, final Granularity granularity,
+                final long bucketStart) {
+            this.tenant = tenant;
+            this.series = series;
+            this.granularity = granularity;
+            this.bucketStart = bucketStart;
+        }
+
+        private BucketKey toDay() {
+            final ZoneId zone = ZoneId.systemDefault();
+            final long dayStart = Instant.ofEpochMilli(bucketStart).atZone(zone).toLocalDate().atStartOfDay(zone)
+                    .toInstant().toEpochMilli();
+            return new BucketKey(tenant, series, Granularity.DAY, dayStart);
+        }
+
+        private Object[] toParameters(final long amount) {
+            return new Object[] { amount, tenant, series.name(), granularity.name(), bucketStart };
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, series, granularity, bucketStart);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof BucketKey)) {
+                return false;
+            }
+            final BucketKey other = (BucketKey) obj;
+            return bucketStart == other.bucketStart && Objects.equals(tenant, other.tenant)
+                    && series == other.series && granularity == other.granularity;
+        }
+
+        @Override
+        public String toString() {
+            return tenant + "/" + series + "/" + granularity + "/" + bucketStart;
+        }
+    }
+}
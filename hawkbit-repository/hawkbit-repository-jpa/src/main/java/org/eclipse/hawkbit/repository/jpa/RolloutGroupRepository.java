@@ -18,6 +18,7 @@ import org.eclipse.hawkbit.repository.model.RolloutGroup.RolloutGroupStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Isolation;
@@ -52,6 +53,24 @@ public interface RolloutGroupRepository
      */
     List<JpaRolloutGroup> findByRolloutAndStatus(final Rollout rollout, final RolloutGroupStatus status);
 
+    /**
+     * Retrieves the {@link RolloutGroup}s of a rollout in a specific
+     * {@link RolloutGroupStatus} whose action counters have changed since the
+     * last check or have not been recounted since the given time.
+     * 
+     * @param rollout
+     *            the rollout the rolloutgroup belong to
+     * @param status
+     *            the status of the rollout groups
+     * @param reconcileBefore
+     *            groups whose counters have been recounted before this time
+     *            are retrieved in any case
+     * @return the changed rollout groups
+     */
+    @Query("SELECT r FROM JpaRolloutGroup r WHERE r.rollout = :rollout AND r.status = :status AND (r.countersVersion <> r.checkedCountersVersion OR r.countersReconciledAt <= :reconcileBefore)")
+    List<JpaRolloutGroup> findChangedByRolloutAndStatus(@Param("rollout") JpaRollout rollout,
+            @Param("status") RolloutGroupStatus status, @Param("reconcileBefore") long reconcileBefore);
+
     /**
      * Counts all {@link RolloutGroup} referring a specific rollout.
      * 
@@ -120,6 +139,57 @@ public interface RolloutGroupRepository
      */
     List<JpaRolloutGroup> findByRolloutAndStatusNotOrderByIdDesc(JpaRollout rollout, RolloutGroupStatus notStatus);
 
+    /**
+     * Adds the given numbers to the action counters of a rollout group with a
+     * single statement, so concurrent changes of actions of the same group do
+     * not overwrite each other. The group is evaluated by the next check of
+     * the rollout.
+     *
+     * @param rolloutGroupId
+     *            the ID of the rollout group
+     * @param finished
+     *            number of actions which have been finished
+     * @param error
+     *            number of actions which have been failed
+     * @param canceled
+     *            number of actions which have been canceled
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    @Query("UPDATE JpaRolloutGroup r SET r.finishedActions = r.finishedActions + :finished, r.errorActions = r.errorActions + :error, r.canceledActions = r.canceledActions + :canceled, r.countersVersion = r.countersVersion + 1 WHERE r.id = :id")
+    void incrementActionCounters(@Param("id") Long rolloutGroupId, @Param("finished") long finished,
+            @Param("error") long error, @Param("canceled") long canceled);
+
+    /**
+     * Sets the recounted action counters of a rollout group if the counters
+     * have not been changed since the given version, so concurrent increments
+     * by {@link #incrementActionCounters(Long, long, long, long)} are not
+     * overwritten.
+     *
+     * @param rolloutGroupId
+     *            the ID of the rollout group
+     * @param countersVersion
+     *            the version of the counters before recounting
+     * @param total
+     *            number of actions of the group
+     * @param finished
+     *            number of finished actions
+     * @param error
+     *            number of failed actions
+     * @param canceled
+     *            number of canceled actions
+     * @param reconciledAt
+     *            time of the recount
+     * @return {@code 1} if the counters have been set, {@code 0} if they have
+     *         been changed concurrently
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    @Query("UPDATE JpaRolloutGroup r SET r.totalActions = :total, r.finishedActions = :finished, r.errorActions = :error, r.canceledActions = :canceled, r.countersReconciledAt = :reconciledAt, r.countersVersion = r.countersVersion + 1 WHERE r.id = :id AND r.countersVersion = :countersVersion")
+    int reconcileActionCounters(@Param("id") Long rolloutGroupId, @Param("countersVersion") long countersVersion,
+            @Param("total") long total, @Param("finished") long finished, @Param("error") long error,
+            @Param("canceled") long canceled, @Param("reconciledAt") long reconciledAt);
+
     /**
      * Retrieves all {@link RolloutGroup} for a specific rollout.
      * 
@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.repository.jpa;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
@@ -48,6 +49,19 @@ public interface RolloutRepository
     int updateLastCheck(@Param("lastCheck") final long lastCheck, @Param("delay") final long delay,
             @Param("status") final RolloutStatus status);
 
+    /**
+     * Resets the {@code lastCheck} field of the given {@link Rollout}s, so the
+     * rollouts are claimed again by the next check.
+     * 
+     * @param rolloutIds
+     *            the IDs of the rollouts to release
+     * @return the count of the updated rows
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    @Query("UPDATE JpaRollout r SET r.lastCheck = 0 WHERE r.id IN :rolloutIds")
+    int resetLastCheck(@Param("rolloutIds") final Collection<Long> rolloutIds);
+
     /**
      * Retrieves all {@link Rollout} for a specific {@code lastCheck} time and
      * for a specific status.
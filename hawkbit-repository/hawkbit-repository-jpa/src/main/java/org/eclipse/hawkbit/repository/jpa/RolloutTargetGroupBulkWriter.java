@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.jpa.model.RolloutTargetGroup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Writes the {@link RolloutTargetGroup} membership of a rollout group with one
+ * JDBC batch statement instead of persisting every membership as entity. Has
+ * to be called within a transaction as the statements run on the connection
+ * of the JPA transaction.
+ */
+@Service
+public class RolloutTargetGroupBulkWriter {
+
+    private static final String INSERT_ROLLOUT_TARGET_GROUP = "INSERT INTO sp_rollouttargetgroup (rolloutGroup_Id, target_Id) VALUES (?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds the given targets to the rollout group.
+     *
+     * @param rolloutGroupId
+     *            the ID of the rollout group
+     * @param targetIds
+     *            the IDs of the targets
+     */
+    public void insertTargets(final Long rolloutGroupId, final List<Long> targetIds) {
+        jdbcTemplate.batchUpdate(INSERT_ROLLOUT_TARGET_GROUP, targetIds, targetIds.size(), (ps, targetId) -> {
+            ps.setLong(1, rolloutGroupId);
+            ps.setLong(2, targetId);
+        });
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Cache for target counts which are expensive on tenants with many targets
+ * but only displayed, e.g. in the footer of the target table. The counts are
+ * cached per tenant and filter. A count older than
+ * {@link RepositoryProperties.TargetCount#getRefreshInterval()} is returned
+ * once more while it is refreshed by a background thread in the security
+ * context of the caller.
+ */
+@Service
+public class TargetCountCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TargetCountCache.class);
+
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("target-count-refresh-%d").setDaemon(true).build());
+
+    private final AtomicLong cachedCounts = new AtomicLong();
+
+    private final AtomicLong executedCounts = new AtomicLong();
+
+    private Cache<CountKey, CachedCount> counts;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
+    @PostConstruct
+    void init() {
+        counts = CacheBuilder.newBuilder().maximumSize(repositoryProperties.getTargetCount().getMaxEntries())
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Returns the cached count of the given filter of the current tenant.
+     *
+     * @param filter
+     *            the key of the filter of the count, has to contain all
+     *            parameters of the count
+     * @param counter
+     *            executes the count
+     * @return the cached count or the result of the counter if the count is
+     *         not cached yet
+     */
+    public long getCount(final String filter, final Supplier<Long> counter) {
+        final CountKey key = new CountKey(tenantAware.getCurrentTenant(), filter);
+        final CachedCount cached = counts.getIfPresent(key);
+        if (cached == null) {
+            final long count = count(counter);
+            counts.put(key, new CachedCount(count));
+            return count;
+        }
+
+        cachedCounts.incrementAndGet();
+        if (cached.isOutdated(repositoryProperties.getTargetCount().getRefreshInterval())
+                && cached.refreshing.compareAndSet(false, true)) {
+            refresh(key, cached, counter);
+        }
+        return cached.count;
+    }
+
+    /**
+     * Removes the cached counts of the current tenant, e.g. after targets have
+     * been created, updated or deleted.
+     */
+    public void evictTenant() {
+        evictTenant(tenantAware.getCurrentTenant());
+    }
+
+    /**
+     * Removes the cached counts of the given tenant, e.g. after the tenant has
+     * been deleted.
+     *
+     * @param tenant
+     *            the tenant, case insensitive
+     */
+    public void evictTenant(final String tenant) {
+        counts.asMap().keySet().removeIf(key -> tenant != null && tenant.equalsIgnoreCase(key.tenant));
+    }
+
+    private void refresh(final CountKey key, final CachedCount cached, final Supplier<Long> counter) {
+        try {
+            refreshExecutor.execute(new DelegatingSecurityContextRunnable(() -> {
+                try {
+                    counts.put(key, new CachedCount(count(counter)));
+                } catch (final RuntimeException e) {
+                    LOG.warn("Failed to refresh target count {}", key.filter, e);
+                    cached.refreshing.set(false);
+                }
+            }));
+        } catch (final RejectedExecutionException e) {
+            LOG.debug("Refresh of target count {} rejected", key.filter, e);
+            cached.refreshing.set(false);
+        }
+    }
+
+    private long count(final Supplier<Long> counter) {
+        executedCounts.incrementAndGet();
+        return counter.get();
+    }
+
+    /**
+     * @return the number of counts answered from the cache since startup
+     */
+    public long getCachedCounts() {
+        return cachedCounts.get();
+    }
+
+    /**
+     * @return the number of counts executed against the database since
+     *         startup
+     */
+    public long getExecutedCounts() {
+        return executedCounts.get();
+    }
+
+    private static final class CachedCount {
+        private final long count;
+        private final long countedAt = System.currentTimeMillis();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private CachedCount(final long count) {
+            this.count = count;
+        }
+
+        private boolean isOutdated(final long refreshInterval) {
+            return System.currentTimeMillis() - countedAt >= refreshInterval;
+        }
+    }
+
+    private static final class CountKey {
+        private final String tenant;
+        private final String filter;
+
+        private CountKey(final String tenant, final String filter) {
+            this.tenant = tenant;
+            this.filter = filter;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, filter);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CountKey)) {
+                return false;
+            }
+            final CountKey other = (CountKey) obj;
+            return Objects.equals(tenant, other.tenant) && Objects.equals(filter, other.filter);
+        }
+    }
+}
@@ -8,11 +8,14 @@
  */
 package org.eclipse.hawkbit.repository.jpa;
 
+import java.util.List;
+
 import org.eclipse.hawkbit.repository.jpa.model.JpaTargetFilterQuery;
 import org.eclipse.hawkbit.repository.model.TargetFilterQuery;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -38,6 +41,25 @@ public interface TargetFilterQueryRepository
     @Override
     Page<JpaTargetFilterQuery> findAll();
 
+    /**
+     * Find the ID, name and query of all custom target filters without
+     * paging, e.g. to match them in memory.
+     *
+     * @return the ID, name and query of all custom target filters
+     */
+    @Query("SELECT q.id, q.name, q.query FROM JpaTargetFilterQuery q")
+    List<Object[]> findAllIdNameAndQuery();
+
+    /**
+     * Find the custom target filters with the given IDs.
+     *
+     * @param ids
+     *            of the custom target filters
+     * @return the found custom target filters
+     */
+    @Query("SELECT q FROM JpaTargetFilterQuery q WHERE q.id IN ?1")
+    List<JpaTargetFilterQuery> findByIdIn(List<Long> ids);
+
     @Override
     @Modifying
     @Transactional
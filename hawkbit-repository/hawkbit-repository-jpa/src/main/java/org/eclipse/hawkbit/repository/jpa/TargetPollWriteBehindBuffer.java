@@ -0,0 +1,281 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PreDestroy;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Write-behind buffer for the poll time and address of the targets. Instead of
+ * updating the target info on every controller request the latest poll per
+ * target is collected in memory, separated by tenant, and written as batched
+ * JDBC updates of at most {@value #BATCH_SIZE} targets in the configured
+ * {@link RepositoryProperties.TargetPoll#getFlushInterval()} or as soon as the
+ * {@link RepositoryProperties.TargetPoll#getMaxBufferSize()} is reached. The
+ * flush always runs asynchronously and writes every batch in its own
+ * transaction, so neither the transaction nor the latency of the polling
+ * request is affected by it. Polls of a failed batch and of the remaining
+ * batches of the tenant are put back into the buffer.
+ *
+ * The buffer only handles pure poll updates. Changes which have to be visible
+ * immediately, e.g. a changed address or a status change, are written directly
+ * and discard the buffered poll of the target.
+ */
+@Service
+public class TargetPollWriteBehindBuffer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TargetPollWriteBehindBuffer.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * Only overwrites older poll times so a delayed flush never resets a more
+     * recent poll written by another node or by a direct update.
+     */
+    private static final String UPDATE_LAST_TARGET_QUERY = "UPDATE sp_target_info SET last_target_query = ?, address = COALESCE(?, address) WHERE target_id = ? AND (last_target_query IS NULL OR last_target_query < ?)";
+
+    private final Map<String, Map<Long, PendingPoll>> pendingPolls = new ConcurrentHashMap<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicLong bufferedPolls = new AtomicLong();
+
+    private final AtomicLong writtenPolls = new AtomicLong();
+
+    private final Lock flushLock = new ReentrantLock();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    @Qualifier("asyncExecutor")
+    private Executor executor;
+
+    /**
+     * @return <code>true</code> if poll updates should be collected by this
+     *         buffer, <code>false</code> if they are written directly
+     */
+    public boolean isEnabled() {
+        return repositoryProperties.getTargetPoll().isWriteBehind();
+    }
+
+    /**
+     * Collects the poll of a target. Only the latest poll per target is kept.
+     * If the buffer is full an asynchronous flush is triggered.
+     *
+     * @param tenant
+     *            the tenant of the target
+     * @param targetId
+     *            the ID of the target
+     * @param lastTargetQuery
+     *            the time of the poll
+     * @param address
+     *            the address of the target or <code>null</code> to keep the
+     *            current one
+     */
+    public void add(final String tenant, final Long targetId, final long lastTargetQuery, final String address) {
+        final Map<Long, PendingPoll> tenantPolls = pendingPolls.computeIfAbsent(tenant.toUpperCase(),
+                key -> new ConcurrentHashMap<>());
+        if (tenantPolls.put(targetId, new PendingPoll(lastTargetQuery, address)) == null) {
+            size.incrementAndGet();
+        }
+        bufferedPolls.incrementAndGet();
+
+        if (size.get() >= repositoryProperties.getTargetPoll().getMaxBufferSize()
+                && flushRequested.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    flush();
+                } finally {
+                    flushRequested.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Discards a collected poll of the given target, e.g. because the target
+     * info has been written directly.
+     *
+     * @param tenant
+     *            the tenant of the target
+     * @param targetId
+     *            the ID of the target
+     */
+    public void discard(final String tenant, final Long targetId) {
+        final Map<Long, PendingPoll> tenantPolls = pendingPolls.get(tenant.toUpperCase());
+        if (tenantPolls != null && tenantPolls.remove(targetId) != null) {
+            size.decrementAndGet();
+        }
+    }
+
+    /**
+     * Writes all collected polls to the database. Called by the scheduler in
+     * the configured interval. In case another flush is already running the
+     * call returns immediately as the running flush picks up the new entries
+     * anyway or they are written with the next one.
+     */
+    @Scheduled(initialDelayString = RepositoryProperties.TargetPoll.PROP_FLUSH_INTERVAL_PLACEHOLDER, fixedDelayString = RepositoryProperties.TargetPoll.PROP_FLUSH_INTERVAL_PLACEHOLDER)
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            pendingPolls.forEach(this::flushTenant);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void flushTenant(final String tenant, final Map<Long, PendingPoll> tenantPolls) {
+        final Map<Long, PendingPoll> taken = new HashMap<>(tenantPolls.size());
+        final List<Object[]> batch = new ArrayList<>(tenantPolls.size());
+        for (final Long targetId : tenantPolls.keySet()) {
+            final PendingPoll poll = tenantPolls.remove(targetId);
+            if (poll != null) {
+                size.decrementAndGet();
+                taken.put(targetId, poll);
+                batch.add(new Object[] { poll.lastTargetQuery, poll.address, targetId, poll.lastTargetQuery });
+            }
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        int written = 0;
+        for (final List<Object[]> chunk : Lists.partition(batch, BATCH_SIZE)) {
+            try {
+                newTransaction().execute(status -> jdbcTemplate.batchUpdate(UPDATE_LAST_TARGET_QUERY, chunk,
+                        new int[] { Types.BIGINT, Types.VARCHAR, Types.BIGINT, Types.BIGINT }));
+            } catch (final RuntimeException e) {
+                LOG.error("Failed to flush {} target polls of tenant {}, retrying with next flush",
+                        batch.size() - written, tenant, e);
+                requeue(tenantPolls, taken);
+                break;
+            }
+            chunk.forEach(row -> taken.remove(row[2]));
+            written += chunk.size();
+        }
+
+        if (written == 0) {
+            return;
+        }
+        writtenPolls.addAndGet(written);
+        LOG.debug("Flushed {} target polls of tenant {}", written, tenant);
+
+        tenantAware.runAsTenant(tenant, () -> {
+            final Cache cache = cacheManager.getCache("targetsLastPoll");
+            if (cache != null) {
+                cache.clear();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Puts the polls of a failed flush back into the buffer unless a more
+     * recent poll of the target has been collected in the meantime.
+     */
+    private void requeue(final Map<Long, PendingPoll> tenantPolls, final Map<Long, PendingPoll> taken) {
+        taken.forEach((targetId, poll) -> {
+            if (tenantPolls.putIfAbsent(targetId, poll) == null) {
+                size.incrementAndGet();
+            }
+        });
+    }
+
+    private TransactionTemplate newTransaction() {
+        final DefaultTransactionDefinition def = new DefaultTransactionDefinition();
+        def.setName("targetPollFlush");
+        def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return new TransactionTemplate(txManager, def);
+    }
+
+    /**
+     * @return the number of polls currently waiting to be written
+     */
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * @return the number of polls collected since startup
+     */
+    public long getBufferedPolls() {
+        return bufferedPolls.get();
+    }
+
+    /**
+     * @return the number of target info rows written since startup, the
+     *         difference to {@link #getBufferedPolls()} are the coalesced polls
+     */
+    public long getWrittenPolls() {
+        return writtenPolls.get();
+    }
+
+    private static final class PendingPoll {
+        private final long lastTargetQuery;
+        private final String address;
+
+        private PendingPoll(final long lastTargetQuery, final String address) {
+            this.lastTargetQuery = lastTargetQuery;
+            this.address = address;
+        }
+    }
+}
@@ -49,6 +49,17 @@ public interface TargetRepository extends BaseEntityRepository<JpaTarget, Long>,
     @EntityGraph(value = "Target.detail", type = EntityGraphType.LOAD)
     JpaTarget findByControllerId(String controllerID);
 
+    /**
+     * Loads only the security token of the {@link Target} with the given
+     * controller ID.
+     *
+     * @param controllerId
+     *            to search for
+     * @return the security token or <code>null</code> if not found.
+     */
+    @Query("SELECT t.securityToken FROM JpaTarget t WHERE t.controllerId = :controllerId")
+    String findSecurityTokenByControllerId(@Param("controllerId") String controllerId);
+
     /**
      * Finds targets by given list of {@link Target#getControllerId()}s.
      *
@@ -0,0 +1,273 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.eclipse.hawkbit.eventbus.EventSubscriber;
+import org.eclipse.hawkbit.eventbus.event.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetCreatedEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetSecurityTokenChangedEvent;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Cache for the security tokens of the targets which are verified on every
+ * request of a controller authenticated by its target security token. Only a
+ * SHA-256 digest of the token is kept in memory. Controller IDs without target
+ * are cached as well, so repeated requests of unknown controllers do not hit
+ * the database either.
+ *
+ * The cached entries are evicted by the repository when targets are created,
+ * updated or deleted on this node, on the events of created and deleted
+ * targets and of changed security tokens of all nodes and expire after
+ * {@link RepositoryProperties.SecurityTokenCache#getTtl()}. A token which has
+ * been loaded while an eviction happened is not cached, so a controller ID
+ * cached as unknown cannot outlive the creation of its target.
+ */
+@EventSubscriber
+public class TargetSecurityTokenCache {
+
+    private static final byte[] NO_TARGET = new byte[0];
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong verifications = new AtomicLong();
+
+    private final AtomicLong verificationNanos = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private Cache<TokenKey, byte[]> tokenDigests;
+
+    @Autowired
+    private TargetRepository targetRepository;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
+    @PostConstruct
+    void init() {
+        final RepositoryProperties.SecurityTokenCache properties = repositoryProperties.getSecurityTokenCache();
+        tokenDigests = CacheBuilder.newBuilder().maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getTtl(), TimeUnit.MILLISECONDS).build();
+    }
+
+    /**
+     * Verifies the given security token against the token of the target with
+     * the given controller ID of the current tenant.
+     *
+     * @param controllerId
+     *            of the target
+     * @param securityToken
+     *            provided by the controller
+     * @return <code>true</code> if the target exists and has the given token
+     */
+    public boolean verify(final String controllerId, final String securityToken) {
+        final long start = System.nanoTime();
+        try {
+            final TokenKey key = new TokenKey(tenantAware.getCurrentTenant(), controllerId);
+            byte[] tokenDigest = tokenDigests.getIfPresent(key);
+            if (tokenDigest == null) {
+                misses.incrementAndGet();
+                final long evictionsBeforeLoad = evictions.get();
+                final String targetToken = targetRepository.findSecurityTokenByControllerId(controllerId);
+                tokenDigest = targetToken == null ? NO_TARGET : digest(targetToken);
+                cacheIfNotEvicted(key, tokenDigest, evictionsBeforeLoad);
+            } else {
+                hits.incrementAndGet();
+            }
+            return tokenDigest != NO_TARGET && MessageDigest.isEqual(tokenDigest, digest(securityToken));
+        } finally {
+            verifications.incrementAndGet();
+            verificationNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Caches the loaded token unless an eviction happened during the load, as
+     * the token might have been loaded before the change which caused the
+     * eviction has been committed.
+     */
+    private void cacheIfNotEvicted(final TokenKey key, final byte[] tokenDigest, final long evictionsBeforeLoad) {
+        synchronized (evictions) {
+            if (evictions.get() == evictionsBeforeLoad) {
+                tokenDigests.put(key, tokenDigest);
+            }
+        }
+    }
+
+    /**
+     * Evicts the cached tokens of the given controllers of the current tenant.
+     *
+     * @param controllerIds
+     *            of the targets which have been changed
+     */
+    public void evict(final Collection<String> controllerIds) {
+        final String tenant = tenantAware.getCurrentTenant();
+        controllerIds.forEach(controllerId -> evict(new TokenKey(tenant, controllerId)));
+    }
+
+    private void evict(final TokenKey key) {
+        synchronized (evictions) {
+            evictions.incrementAndGet();
+            tokenDigests.invalidate(key);
+        }
+    }
+
+    /**
+     * Evicts the cached token of a created target, as its controller ID might
+     * be cached as unknown, e.g. by a controller which authenticated before
+     * the target has been created via the management API on another node.
+     *
+     * @param event
+     *            the create event
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onTargetCreated(final TargetCreatedEvent event) {
+        evict(new TokenKey(event.getTenant(), event.getEntity().getControllerId()));
+    }
+
+    /**
+     * Evicts the cached token of a target whose security token has been
+     * changed, e.g. on another node.
+     *
+     * @param event
+     *            the change event
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onSecurityTokenChanged(final TargetSecurityTokenChangedEvent event) {
+        evict(new TokenKey(event.getTenant(), event.getControllerId()));
+    }
+
+    /**
+     * Evicts the cached token of a deleted target. All tokens of the tenant
+     * are evicted if the controller ID of the target is unknown.
+     *
+     * @param event
+     *            the delete event
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onTargetDeleted(final TargetDeletedEvent event) {
+        if (event.getControllerId() == null) {
+            evictTenant(event.getTenant());
+            return;
+        }
+        evict(new TokenKey(event.getTenant(), event.getControllerId()));
+    }
+
+    /**
+     * Evicts all cached tokens of the given tenant.
+     *
+     * @param tenant
+     *            which has been deleted
+     */
+    public void evictTenant(final String tenant) {
+        final String normalizedTenant = normalize(tenant);
+        synchronized (evictions) {
+            evictions.incrementAndGet();
+            tokenDigests.asMap().keySet().removeIf(key -> Objects.equals(key.tenant, normalizedTenant));
+        }
+    }
+
+    private static byte[] digest(final String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by the JVM", e);
+        }
+    }
+
+    private static String normalize(final String tenant) {
+        return tenant == null ? null : tenant.toUpperCase();
+    }
+
+    /**
+     * @return the number of verifications answered from the cache since
+     *         startup
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of verifications which had to load the token since
+     *         startup
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the ratio of verifications answered from the cache since
+     *         startup, <code>0</code> if nothing has been verified yet
+     */
+    public double getHitRate() {
+        final long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    /**
+     * @return the average time of a verification in microseconds since
+     *         startup, including the loads of the tokens
+     */
+    public long getAverageVerificationMicros() {
+        final long count = verifications.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(verificationNanos.get() / count);
+    }
+
+    private static final class TokenKey {
+        private final String tenant;
+        private final String controllerId;
+
+        private TokenKey(final String tenant, final String controllerId) {
+            this.tenant = normalize(tenant);
+            this.controllerId = controllerId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, controllerId);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof TokenKey)) {
+                return false;
+            }
+            final TokenKey other = (TokenKey) obj;
+            return Objects.equals(tenant, other.tenant) && Objects.equals(controllerId, other.controllerId);
+        }
+    }
+}
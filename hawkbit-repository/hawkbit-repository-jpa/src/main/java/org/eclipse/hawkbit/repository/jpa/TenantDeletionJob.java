@@ -0,0 +1,282 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+
+import org.eclipse.hawkbit.artifact.repository.ArtifactRepository;
+import org.eclipse.hawkbit.artifact.repository.ArtifactStoreException;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTenantDeletion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Deletes the data of a tenant which has been marked as deleted by
+ * {@link JpaSystemManagement#deleteTenant(String)}. The tables are deleted in
+ * the order of their dependencies, each in chunks of
+ * {@link RepositoryProperties.TenantDeletion#getChunkSize()} rows of a
+ * bounded id range in an own transaction, so the deletion of a large tenant
+ * neither holds long locks nor blocks other tenants.
+ *
+ * The progress is checkpointed in a {@link JpaTenantDeletion} with every
+ * chunk, so an interrupted deletion is resumed where it stopped. The blobs of
+ * the artifacts are deleted from the {@link ArtifactRepository} after their
+ * rows have been deleted and only if no other tenant references them.
+ */
+@Service
+public class TenantDeletionJob {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TenantDeletionJob.class);
+
+    private static final String ARTIFACT_TABLE = "sp_artifact";
+
+    private static final String IN_CHUNK = " IN (SELECT id FROM %s WHERE tenant = ?1 AND id BETWEEN ?2 AND ?3)";
+
+    /**
+     * Tables of a tenant in the order of their dependencies. Rows of tables
+     * without tenant column are deleted by the foreign keys with cascade or by
+     * the given statements before the chunk of their parent table.
+     */
+    private static final List<DeletionStep> STEPS = Collections.unmodifiableList(Arrays.asList(
+            new DeletionStep("sp_tenant_configuration"), new DeletionStep("sp_target_filter_query"),
+            new DeletionStep("sp_action_status"), new DeletionStep("sp_action"), new DeletionStep("sp_target"),
+            new DeletionStep("sp_rollout"), new DeletionStep("sp_target_tag"),
+            new DeletionStep("sp_distributionset_tag"),
+            new DeletionStep("sp_distribution_set", "DELETE FROM sp_ds_module WHERE ds_id" + IN_CHUNK),
+            new DeletionStep("sp_external_artifact"), new DeletionStep("sp_external_provider"),
+            new DeletionStep(ARTIFACT_TABLE), new DeletionStep("sp_base_software_module"),
+            new DeletionStep("sp_distribution_set_type",
+                    "DELETE FROM sp_ds_type_element WHERE distribution_set_type" + IN_CHUNK),
+            new DeletionStep("sp_software_module_type")));
+
+    private final Set<String> runningDeletions = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong deletedRows = new AtomicLong();
+
+    private final AtomicLong deletedBlobs = new AtomicLong();
+
+    private final AtomicLong completedDeletions = new AtomicLong();
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TenantDeletionRepository tenantDeletionRepository;
+
+    @Autowired
+    private ArtifactRepository artifactRepository;
+
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    /**
+     * @return the tenants which are marked as deleted but whose data has not
+     *         been deleted completely yet
+     */
+    public List<String> findPendingDeletions() {
+        return tenantDeletionRepository.findAll().stream().map(JpaTenantDeletion::getTenant)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param tenant
+     *            the name of the tenant
+     * @return <code>true</code> if the data of the tenant is being deleted
+     */
+    public boolean isDeletionPending(final String tenant) {
+        return tenantDeletionRepository.countByTenantIgnoreCase(tenant) > 0;
+    }
+
+    /**
+     * @param tenant
+     *            the name of the tenant
+     * @return <code>true</code> if the deletion of the tenant is currently
+     *         executed by this node
+     */
+    public boolean isRunning(final String tenant) {
+        return runningDeletions.contains(tenant.toUpperCase());
+    }
+
+    /**
+     * Deletes the data of the given tenant, starting at the last checkpoint of
+     * its deletion. Does nothing if the deletion of the tenant is already
+     * executed by this node.
+     *
+     * @param tenant
+     *            which has been marked as deleted
+     */
+    public void run(final String tenant) {
+        final String normalizedTenant = tenant.toUpperCase();
+        if (!runningDeletions.add(normalizedTenant)) {
+            LOG.debug("Deletion of tenant {} is already running", tenant);
+            return;
+        }
+        try {
+            final long start = System.currentTimeMillis();
+            JpaTenantDeletion deletion;
+            do {
+                deletion = deleteChunk(normalizedTenant);
+            } while (deletion != null && deletion.getStep() < STEPS.size());
+
+            if (deletion != null) {
+                final Long checkpointId = deletion.getId();
+                newTransaction().execute(status -> {
+                    tenantDeletionRepository.delete(checkpointId);
+                    return null;
+                });
+                completedDeletions.incrementAndGet();
+                LOG.info("Deleted {} rows of tenant {} in {} ms", deletion.getDeletedRows(), tenant,
+                        System.currentTimeMillis() - start);
+            }
+        } finally {
+            runningDeletions.remove(normalizedTenant);
+        }
+    }
+
+    /**
+     * Deletes the next chunk of the current step of the deletion of the given
+     * tenant.
+     *
+     * @return the updated checkpoint or <code>null</code> if the tenant is not
+     *         marked as deleted
+     */
+    private JpaTenantDeletion deleteChunk(final String tenant) {
+        final Set<String> blobs = new HashSet<>();
+        final JpaTenantDeletion deletion = newTransaction().execute(status -> {
+            final JpaTenantDeletion checkpoint = tenantDeletionRepository.findByTenantIgnoreCase(tenant);
+            if (checkpoint == null || checkpoint.getStep() >= STEPS.size()) {
+                return checkpoint;
+            }
+
+            final DeletionStep step = STEPS.get(checkpoint.getStep());
+            final int chunkSize = repositoryProperties.getTenantDeletion().getChunkSize();
+            final int deleted = step.deleteChunk(entityManager, tenant, chunkSize, blobs);
+            checkpoint.chunkDeleted(deleted, deleted < chunkSize);
+            deletedRows.addAndGet(deleted);
+            return tenantDeletionRepository.save(checkpoint);
+        });
+
+        blobs.forEach(this::deleteBlobIfUnreferenced);
+        return deletion;
+    }
+
+    private void deleteBlobIfUnreferenced(final String sha1Hash) {
+        // native query to count the references of all tenants
+        final Number references = newTransaction().execute(status -> (Number) entityManager
+                .createNativeQuery("SELECT COUNT(id) FROM " + ARTIFACT_TABLE + " WHERE gridfs_file_name = ?1")
+                .setParameter(1, sha1Hash).getSingleResult());
+        if (references.longValue() > 0) {
+            return;
+        }
+        try {
+            artifactRepository.deleteBySha1(sha1Hash);
+            deletedBlobs.incrementAndGet();
+        } catch (final ArtifactStoreException e) {
+            LOG.warn("Failed to delete artifact {} of a deleted tenant", sha1Hash, e);
+        }
+    }
+
+    private TransactionTemplate newTransaction() {
+        final DefaultTransactionDefinition def = new DefaultTransactionDefinition();
+        def.setName("tenantDeletion");
+        def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return new TransactionTemplate(txManager, def);
+    }
+
+    /**
+     * @return the number of rows deleted since startup
+     */
+    public long getDeletedRows() {
+        return deletedRows.get();
+    }
+
+    /**
+     * @return the number of artifact blobs deleted since startup
+     */
+    public long getDeletedBlobs() {
+        return deletedBlobs.get();
+    }
+
+    /**
+     * @return the number of tenants deleted completely since startup
+     */
+    public long getCompletedDeletions() {
+        return completedDeletions.get();
+    }
+
+    /**
+     * Deletion of the rows of one table with tenant column.
+     */
+    private static final class DeletionStep {
+        private final String table;
+        private final List<String> dependentDeletes;
+
+        private DeletionStep(final String table, final String... dependentDeletes) {
+            this.table = table;
+            this.dependentDeletes = Arrays.stream(dependentDeletes).map(delete -> String.format(delete, table))
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * Deletes the rows of the tenant with the lowest IDs. The statements
+         * are bounded by the ID range of the chunk, so the database locks
+         * only the rows of the chunk.
+         *
+         * @return the number of deleted rows of the table
+         */
+        private int deleteChunk(final EntityManager entityManager, final String tenant, final int chunkSize,
+                final Set<String> blobs) {
+            // native queries to punch through the tenant boundaries as the
+            // tenant does not exist anymore
+            final List<?> ids = entityManager
+                    .createNativeQuery("SELECT id FROM " + table + " WHERE tenant = ?1 ORDER BY id")
+                    .setParameter(1, tenant).setMaxResults(chunkSize).getResultList();
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            final long from = ((Number) ids.get(0)).longValue();
+            final long to = ((Number) ids.get(ids.size() - 1)).longValue();
+
+            if (ARTIFACT_TABLE.equals(table)) {
+                final List<?> hashes = entityManager
+                        .createNativeQuery("SELECT DISTINCT gridfs_file_name FROM " + table
+                                + " WHERE tenant = ?1 AND id BETWEEN ?2 AND ?3")
+                        .setParameter(1, tenant).setParameter(2, from).setParameter(3, to).getResultList();
+                hashes.stream().filter(hash -> hash != null).forEach(hash -> blobs.add(hash.toString()));
+            }
+
+            for (final String dependentDelete : dependentDeletes) {
+                entityManager.createNativeQuery(dependentDelete).setParameter(1, tenant).setParameter(2, from)
+                        .setParameter(3, to).executeUpdate();
+            }
+            entityManager.createNativeQuery("DELETE FROM " + table + " WHERE tenant = ?1 AND id BETWEEN ?2 AND ?3")
+                    .setParameter(1, tenant).setParameter(2, from).setParameter(3, to).executeUpdate();
+            return ids.size();
+        }
+    }
+}
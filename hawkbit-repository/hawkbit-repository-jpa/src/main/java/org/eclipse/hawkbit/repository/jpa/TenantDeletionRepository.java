@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.jpa.model.JpaTenantDeletion;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository for the checkpoints of the {@link TenantDeletionJob}.
+ *
+ */
+@Transactional(readOnly = true, isolation = Isolation.READ_UNCOMMITTED)
+public interface TenantDeletionRepository extends CrudRepository<JpaTenantDeletion, Long> {
+
+    /**
+     * Searches the deletion of the given tenant.
+     *
+     * @param tenant
+     *            to search for
+     * @return the deletion or <code>null</code> if the tenant is not being
+     *         deleted
+     */
+    JpaTenantDeletion findByTenantIgnoreCase(String tenant);
+
+    /**
+     * Counts the deletions of the given tenant, i.e. one if the tenant is
+     * being deleted.
+     *
+     * @param tenant
+     *            the name of the tenant
+     * @return the count of deletions of the tenant which is either one or zero
+     */
+    Long countByTenantIgnoreCase(String tenant);
+
+    @Override
+    List<JpaTenantDeletion> findAll();
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Executes the {@link TenantDeletionJob}s in the background, one tenant after
+ * another. Deletions which have been interrupted, e.g. by a restart, are
+ * resumed with a delay of
+ * {@link RepositoryProperties.TenantDeletion#PROP_SCHEDULER_DELAY_PLACEHOLDER}.
+ * Without the scheduler the tenants are deleted synchronously.
+ */
+@Component
+// don't active the scheduler in test, the tests expect the tenant to be
+// deleted when the deletion returns.
+@Profile("!test")
+public class TenantDeletionScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TenantDeletionScheduler.class);
+
+    @Autowired
+    private TenantDeletionJob tenantDeletionJob;
+
+    @Autowired
+    private SystemSecurityContext systemSecurityContext;
+
+    private ExecutorService deletionExecutor;
+
+    @PostConstruct
+    void startExecutor() {
+        deletionExecutor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("tenant-deletion-%d").build());
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        deletionExecutor.shutdownNow();
+    }
+
+    /**
+     * Submits the deletion of the given tenant.
+     *
+     * @param tenant
+     *            which has been marked as deleted
+     */
+    public void submit(final String tenant) {
+        deletionExecutor.execute(() -> runDeletion(tenant));
+    }
+
+    /**
+     * Scheduler method called by the spring-async mechanism. Submits the
+     * pending deletions which are not executed currently.
+     */
+    @Scheduled(initialDelayString = RepositoryProperties.TenantDeletion.PROP_SCHEDULER_DELAY_PLACEHOLDER, fixedDelayString = RepositoryProperties.TenantDeletion.PROP_SCHEDULER_DELAY_PLACEHOLDER)
+    public void resumeDeletions() {
+        final List<String> tenants = systemSecurityContext.runAsSystem(tenantDeletionJob::findPendingDeletions);
+        tenants.stream().filter(tenant -> !tenantDeletionJob.isRunning(tenant)).forEach(tenant -> {
+            LOGGER.info("Resuming deletion of tenant {}", tenant);
+            submit(tenant);
+        });
+    }
+
+    private void runDeletion(final String tenant) {
+        try {
+            systemSecurityContext.runAsSystem(() -> {
+                tenantDeletionJob.run(tenant);
+                return null;
+            });
+        } catch (final RuntimeException e) {
+            LOGGER.error("Deletion of tenant {} failed, resuming with the next run", tenant, e);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
+import org.eclipse.hawkbit.repository.jpa.model.JpaLocalArtifact;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.report.model.TenantUsage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Usage counters of the tenants, i.e. the number of targets, actions and
+ * artifacts and the artifact volume, which back the system and tenant
+ * statistics. Reading the statistics costs one row per tenant instead of
+ * counting all tables of all tenants.
+ *
+ * The counters are maintained incrementally as {@link WriteBehindCounters}:
+ * created and deleted entities are collected per tenant in memory after the
+ * commit and added to the stored counters with an atomic update every
+ * {@link RepositoryProperties.TenantUsage#getFlushInterval()}. Dirty counters
+ * are recounted on the next read. In addition all counters are
+ * recounted every {@link RepositoryProperties.TenantUsage#getReconcileInterval()}
+ * to correct a drift, e.g. by a node which stopped before its changes were
+ * flushed or by a change flushed by another node while the counters were
+ * recounted.
+ */
+@Service
+public class TenantUsageCounters extends WriteBehindCounters<String, TenantUsageCounters.Delta> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TenantUsageCounters.class);
+
+    private static final String ADD_DELTA = "UPDATE sp_tenant_usage SET targets = targets + ?, actions = actions + ?, artifacts = artifacts + ?, artifact_bytes = artifact_bytes + ? WHERE tenant = ?";
+
+    private static final String SELECT_USAGES = "SELECT tenant, targets, actions, artifacts, artifact_bytes, dirty FROM sp_tenant_usage";
+
+    private static final String CLEAR_DIRTY = "UPDATE sp_tenant_usage SET dirty = ? WHERE tenant = ?";
+
+    private static final String UPDATE_USAGE = "UPDATE sp_tenant_usage SET targets = ?, actions = ?, artifacts = ?, artifact_bytes = ?, reconciled_at = ? WHERE tenant = ?";
+
+    private static final String INSERT_USAGE = "INSERT INTO sp_tenant_usage (targets, actions, artifacts, artifact_bytes, reconciled_at, tenant, dirty) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String COUNT_TARGETS = "SELECT COUNT(id) FROM sp_target WHERE tenant = ?";
+
+    private static final String COUNT_ACTIONS = "SELECT COUNT(id) FROM sp_action WHERE tenant = ?";
+
+    private static final String COUNT_ARTIFACTS = "SELECT COUNT(a.id), SUM(a.file_size) FROM sp_artifact a INNER JOIN sp_base_software_module sm ON a.software_module = sm.id WHERE a.tenant = ? AND sm.deleted = ?";
+
+    private static final int[] USAGE_TYPES = new int[] { Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT,
+            Types.BIGINT, Types.VARCHAR };
+
+    private final AtomicLong flushedDeltas = new AtomicLong();
+
+    private final AtomicLong reconciliations = new AtomicLong();
+
+    private final AtomicLong correctedDrift = new AtomicLong();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public TenantUsageCounters() {
+        super("tenantUsage", "sp_tenant_usage", "sp_tenant_usage");
+    }
+
+    @Override
+    public void count(final Object entity, final long sign) {
+        final Class<?> entityClass = entity.getClass();
+        if (entityClass.equals(JpaTarget.class)) {
+            add(((JpaTarget) entity).getTenant(), sign, 0, 0, 0);
+        } else if (entityClass.equals(JpaAction.class)) {
+            add(((JpaAction) entity).getTenant(), 0, sign, 0, 0);
+        } else if (entityClass.equals(JpaLocalArtifact.class)) {
+            final JpaLocalArtifact artifact = (JpaLocalArtifact) entity;
+            // artifacts of deleted software modules are not counted
+            if (artifact.getSoftwareModule() != null && !artifact.getSoftwareModule().isDeleted()) {
+                final long size = artifact.getSize() != null ? artifact.getSize() : 0;
+                add(artifact.getTenant(), 0, 0, sign, sign * size);
+            }
+        }
+    }
+
+    /**
+     * Adds the given changes to the counters of the tenant after the commit of
+     * the current transaction.
+     *
+     * @param tenant
+     *            the tenant of the changed entities
+     * @param targets
+     *            number of created (positive) or deleted (negative) targets
+     * @param actions
+     *            number of created or deleted actions
+     * @param artifacts
+     *            number of created or deleted artifacts
+     * @param artifactBytes
+     *            size of the created or deleted artifacts
+     */
+    public void add(final String tenant, final long targets, final long actions, final long artifacts,
+            final long artifactBytes) {
+        addAfterCommit(normalize(tenant), new Delta(targets, actions, artifacts, artifactBytes), Delta::plus);
+    }
+
+    /**
+     * @param tenant
+     *            the tenant
+     * @return the current usage of the tenant, recounted if there are no
+     *         valid counters yet
+     */
+    public TenantUsage getUsage(final String tenant) {
+        return getUsage(Collections.singletonList(tenant)).get(0);
+    }
+
+    /**
+     * @param tenants
+     *            the tenants
+     * @return the current usage of the given tenants in the same order, the
+     *         tenants without valid counters yet are recounted
+     */
+    public List<TenantUsage> getUsage(final Collection<String> tenants) {
+        return flushAndRead(() -> {
+            final Map<String, UsageRow> rows = findUsageRows();
+            final List<TenantUsage> result = new ArrayList<>(tenants.size());
+            for (final String tenant : tenants) {
+                final UsageRow row = rows.get(normalize(tenant));
+                final Delta usage = row == null || row.dirty ? reconcileTenant(normalize(tenant), row) : row.usage;
+                result.add(new TenantUsage(tenant).setTargets(usage.targets).setActions(usage.actions)
+                        .setArtifacts(usage.artifacts).setOverallArtifactVolumeInBytes(usage.artifactBytes));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Recounts the stored counters of all tenants. Called by the
+     * {@link WriteBehindCountersScheduler} in the configured interval.
+     */
+    public void reconcile() {
+        flushAndRead(() -> {
+            findUsageRows().forEach((tenant, row) -> {
+                try {
+                    reconcileTenant(tenant, row);
+                } catch (final RuntimeException e) {
+                    LOG.error("Failed to reconcile the usage counters of tenant {}", tenant, e);
+                }
+            });
+            return null;
+        });
+    }
+
+    private Map<String, UsageRow> findUsageRows() {
+        final Map<String, UsageRow> rows = new HashMap<>();
+        jdbcTemplate.query(SELECT_USAGES, (RowCallbackHandler) rs -> rows.put(rs.getString(1),
+                new UsageRow(new Delta(rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5)),
+                        rs.getBoolean(6))));
+        return rows;
+    }
+
+    @Override
+    protected void write(final Map<String, Delta> deltas) {
+        deltas.forEach((tenant, delta) -> {
+            if (delta.isEmpty()) {
+                return;
+            }
+            try {
+                // a tenant without counters yet is recounted on the first read
+                newTransaction().execute(status -> jdbcTemplate.update(ADD_DELTA, delta.targets, delta.actions,
+                        delta.artifacts, delta.artifactBytes, tenant));
+                flushedDeltas.incrementAndGet();
+            } catch (final RuntimeException e) {
+                // the counters are recounted with the next reconciliation
+                // anyway
+                LOG.error("Failed to flush the usage counters of tenant {}", tenant, e);
+            }
+        });
+    }
+
+    @Override
+    protected String getTenant(final String key) {
+        return key;
+    }
+
+    private Delta reconcileTenant(final String tenant, final UsageRow storedRow) {
+        // the pending changes are already committed, i.e. part of the count
+        discardPending(tenant);
+
+        // cleared upfront so a bulk delete committed during the count marks
+        // the counters dirty again
+        newTransaction().execute(status -> jdbcTemplate.update(CLEAR_DIRTY, false, tenant));
+
+        final Delta usage = newTransaction().execute(status -> {
+            final long targets = jdbcTemplate.queryForObject(COUNT_TARGETS, Long.class, tenant);
+            final long actions = jdbcTemplate.queryForObject(COUNT_ACTIONS, Long.class, tenant);
+            final Delta counted = jdbcTemplate.queryForObject(COUNT_ARTIFACTS,
+                    (rs, rowNum) -> new Delta(targets, actions, rs.getLong(1), rs.getLong(2)), tenant, false);
+
+            final Object[] values = new Object[] { counted.targets, counted.actions, counted.artifacts,
+                    counted.artifactBytes, System.currentTimeMillis(), tenant };
+            if (jdbcTemplate.update(UPDATE_USAGE, values, USAGE_TYPES) == 0) {
+                try {
+                    jdbcTemplate.update(INSERT_USAGE, counted.targets, counted.actions, counted.artifacts,
+                            counted.artifactBytes, System.currentTimeMillis(), tenant, false);
+                } catch (final DuplicateKeyException e) {
+                    LOG.debug("Usage counters of tenant {} have been created concurrently", tenant, e);
+                }
+            }
+            return counted;
+        });
+
+        reconciliations.incrementAndGet();
+        if (storedRow != null && !storedRow.dirty) {
+            correctedDrift.addAndGet(usage.distance(storedRow.usage));
+        }
+        return usage;
+    }
+
+    /**
+     * @return the number of collected changes which have been added to the
+     *         stored counters since startup
+     */
+    public long getFlushedDeltas() {
+        return flushedDeltas.get();
+    }
+
+    /**
+     * @return the number of recounts of the counters of a tenant since startup
+     */
+    public long getReconciliations() {
+        return reconciliations.get();
+    }
+
+    /**
+     * @return the sum of the differences between the stored counters and the
+     *         recount of all tenants since startup, an indicator of the
+     *         accuracy of the incremental maintenance
+     */
+    public long getCorrectedDrift() {
+        return correctedDrift.get();
+    }
+
+    private static final class UsageRow {
+        private final Delta usage;
+        private final boolean dirty;
+
+        private UsageRow(final Delta usage, final boolean dirty) {
+            this.usage = usage;
+            this.dirty = dirty;
+        }
+    }
+
+    static final class Delta {
+        private final long targets;
+        private final long actions;
+        private final long artifacts;
+        private final long artifactBytes;
+
+        private Delta(final long targets, final long actions, final long artifacts, final long artifactBytes) {
+            this.targets = targets;
+            this.actions = actions;
+            this.artifacts = artifacts;
+            this.artifactBytes = artifactBytes;
+        }
+
+        private Delta plus(final Delta other) {
+            return new Delta(targets + other.targets, actions + other.actions, artifacts + other.artifacts,
+                    artifactBytes + other.artifactBytes);
+        }
+
+        private boolean isEmpty() {
+            return targets == 0 && actions == 0 && artifacts == 0 && artifactBytes == 0;
+        }
+
+        private long distance(final Delta other) {
+            return Math.abs(targets - other.targets) + Math.abs(actions - other.actions)
+                    + Math.abs(artifacts - other.artifacts);
+        }
+    }
+}
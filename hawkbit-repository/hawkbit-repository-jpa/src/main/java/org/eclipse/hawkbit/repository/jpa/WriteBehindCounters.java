@@ -0,0 +1,234 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+
+import org.eclipse.hawkbit.repository.jpa.executor.AfterTransactionCommitExecutor;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Base of the counters which are maintained incrementally per tenant, e.g.
+ * {@link TenantUsageCounters} and {@link ReportRollups}.
+ *
+ * Created and deleted entities are reported by the entity listener via
+ * {@link #count(Object, long)} and collected in memory after the commit of
+ * their transaction. The collected changes are written by
+ * {@link #flush()}, which is called by the
+ * {@link WriteBehindCountersScheduler} and before every read. Bulk deletes
+ * which bypass the entity listeners mark the counters of the tenant as dirty
+ * instead, so they are recounted.
+ *
+ * @param <K>
+ *            the key of the collected changes, contains the tenant
+ * @param <V>
+ *            the collected change
+ */
+public abstract class WriteBehindCounters<K, V> {
+
+    private static final String MARK_DIRTY = "UPDATE %s SET dirty = ?1 WHERE tenant = ?2";
+
+    private static final String DELETE_TENANT = "DELETE FROM %s WHERE tenant = ?1";
+
+    private final Map<K, V> pending = new ConcurrentHashMap<>();
+
+    private final Lock flushLock = new ReentrantLock();
+
+    private final String name;
+
+    private final String stateTable;
+
+    private final String[] tenantTables;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private AfterTransactionCommitExecutor afterCommit;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    /**
+     * @param name
+     *            of the transactions of the counters
+     * @param stateTable
+     *            the table with the dirty flag of a tenant
+     * @param tenantTables
+     *            the tables with rows of a tenant, including the state table
+     */
+    protected WriteBehindCounters(final String name, final String stateTable, final String... tenantTables) {
+        this.name = name;
+        this.stateTable = stateTable;
+        this.tenantTables = tenantTables;
+    }
+
+    /**
+     * Counts a created or deleted entity, called by the entity listener.
+     *
+     * @param entity
+     *            the created or deleted entity
+     * @param sign
+     *            <code>1</code> if the entity has been created,
+     *            <code>-1</code> if it has been deleted
+     */
+    public abstract void count(Object entity, long sign);
+
+    /**
+     * Writes the given changes, called with the flush lock held.
+     *
+     * @param changes
+     *            the collected changes which are removed from the pending
+     *            changes
+     */
+    protected abstract void write(Map<K, V> changes);
+
+    /**
+     * @param key
+     *            of a change
+     * @return the normalized tenant of the change
+     */
+    protected abstract String getTenant(K key);
+
+    /**
+     * Collects the given change after the commit of the current transaction.
+     *
+     * @param key
+     *            of the change
+     * @param change
+     *            to collect
+     * @param merge
+     *            merges the change with a change of the same key which has not
+     *            been written yet
+     */
+    protected void addAfterCommit(final K key, final V change, final BinaryOperator<V> merge) {
+        afterCommit.afterCommit(() -> pending.merge(key, change, merge));
+    }
+
+    /**
+     * Discards the collected changes of the given tenant, e.g. because they
+     * are already committed and part of a recount.
+     *
+     * @param tenant
+     *            the normalized tenant
+     */
+    protected void discardPending(final String tenant) {
+        pending.keySet().removeIf(key -> getTenant(key).equals(tenant));
+    }
+
+    /**
+     * Marks the counters of the current tenant as dirty within the current
+     * transaction, e.g. after a bulk delete which bypasses the entity
+     * listeners.
+     */
+    public void markDirty() {
+        entityManager.createNativeQuery(String.format(MARK_DIRTY, stateTable)).setParameter(1, true)
+                .setParameter(2, normalize(tenantAware.getCurrentTenant())).executeUpdate();
+    }
+
+    /**
+     * Removes the counters of the given tenant within the current
+     * transaction, e.g. because the tenant is deleted.
+     *
+     * @param tenant
+     *            to remove
+     */
+    public void remove(final String tenant) {
+        final String normalizedTenant = normalize(tenant);
+        discardPending(normalizedTenant);
+        for (final String table : tenantTables) {
+            entityManager.createNativeQuery(String.format(DELETE_TENANT, table)).setParameter(1, normalizedTenant)
+                    .executeUpdate();
+        }
+    }
+
+    /**
+     * Writes the changes collected on this node. In case a flush or read is
+     * already running the call returns immediately as the changes are picked
+     * up by the running one or with the next flush.
+     */
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Writes the collected changes and runs the given read with the flush
+     * lock held, so the read includes all changes of this node.
+     *
+     * @param read
+     *            of the counters
+     * @return the result of the read
+     */
+    protected <T> T flushAndRead(final Supplier<T> read) {
+        flushLock.lock();
+        try {
+            flushPending();
+            return read.get();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        final Map<K, V> changes = new HashMap<>();
+        for (final K key : pending.keySet()) {
+            final V change = pending.remove(key);
+            if (change != null) {
+                changes.put(key, change);
+            }
+        }
+        if (!changes.isEmpty()) {
+            write(changes);
+        }
+    }
+
+    /**
+     * @return a template of a new transaction, independent of the
+     *         transaction of the caller
+     */
+    protected TransactionTemplate newTransaction() {
+        final DefaultTransactionDefinition def = new DefaultTransactionDefinition();
+        def.setName(name);
+        def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return new TransactionTemplate(txManager, def);
+    }
+
+    protected static String normalize(final String tenant) {
+        return tenant.toUpperCase();
+    }
+}
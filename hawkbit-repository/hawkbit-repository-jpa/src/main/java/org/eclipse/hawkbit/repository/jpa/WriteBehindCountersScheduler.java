@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler which writes the changes of the {@link WriteBehindCounters}
+ * collected on this node in the configured intervals and recounts the
+ * {@link TenantUsageCounters} to correct a drift.
+ */
+@Component
+// don't active the scheduler in test, the counters are flushed on read
+@Profile("!test")
+public class WriteBehindCountersScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindCountersScheduler.class);
+
+    @Autowired
+    private TenantUsageCounters tenantUsageCounters;
+
+    @Autowired
+    private ReportRollups reportRollups;
+
+    /**
+     * Scheduler method called by the spring-async mechanism. Writes the
+     * collected changes of the tenant usage counters.
+     */
+    @Scheduled(initialDelayString = RepositoryProperties.TenantUsage.PROP_FLUSH_INTERVAL_PLACEHOLDER, fixedDelayString = RepositoryProperties.TenantUsage.PROP_FLUSH_INTERVAL_PLACEHOLDER)
+    public void flushTenantUsage() {
+        tenantUsageCounters.flush();
+    }
+
+    /**
+     * Scheduler method called by the spring-async mechanism. Recounts the
+     * tenant usage counters of all tenants.
+     */
+    @Scheduled(initialDelayString = RepositoryProperties.TenantUsage.PROP_RECONCILE_INTERVAL_PLACEHOLDER, fixedDelayString = RepositoryProperties.TenantUsage.PROP_RECONCILE_INTERVAL_PLACEHOLDER)
+    public void reconcileTenantUsage() {
+        LOGGER.debug("tenant usage reconciliation has been triggered.");
+        tenantUsageCounters.reconcile();
+    }
+
+    /**
+     * Scheduler method called by the spring-async mechanism. Writes the
+     * collected events of the report buckets.
+     */
+    @Scheduled(initialDelayString = RepositoryProperties.ReportRollup.PROP_FLUSH_INTERVAL_PLACEHOLDER, fixedDelayString = RepositoryProperties.ReportRollup.PROP_FLUSH_INTERVAL_PLACEHOLDER)
+    public void flushReportRollups() {
+        reportRollups.flush();
+    }
+}
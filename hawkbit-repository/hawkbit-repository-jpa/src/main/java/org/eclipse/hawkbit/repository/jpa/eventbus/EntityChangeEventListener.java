@@ -9,6 +9,8 @@
 package org.eclipse.hawkbit.repository.jpa.eventbus;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.persistence.EntityManager;
 
@@ -20,6 +22,7 @@ import org.eclipse.hawkbit.repository.eventbus.event.TargetCreatedEvent;
 import org.eclipse.hawkbit.repository.eventbus.event.TargetInfoUpdateEvent;
 import org.eclipse.hawkbit.repository.jpa.TargetRepository;
 import org.eclipse.hawkbit.repository.jpa.executor.AfterTransactionCommitExecutor;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTargetInfo;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetInfo;
@@ -99,9 +102,11 @@ public class EntityChangeEventListener {
     @SuppressWarnings({ "squid:S00112" })
     public Object targetDeletedById(final ProceedingJoinPoint joinpoint) throws Throwable {
         final String currentTenant = tenantAware.getCurrentTenant();
-        final Object result = joinpoint.proceed();
         final Collection<Long> targetIds = (Collection<Long>) joinpoint.getArgs()[0];
-        targetIds.forEach(targetId -> notifyTargetDeleted(currentTenant, targetId));
+        final Map<Long, String> controllerIds = new HashMap<>(targetIds.size());
+        targetIds.forEach(targetId -> controllerIds.put(targetId, findControllerId(targetId)));
+        final Object result = joinpoint.proceed();
+        controllerIds.forEach((targetId, controllerId) -> notifyTargetDeleted(currentTenant, targetId, controllerId));
         return result;
     }
 
@@ -121,15 +126,17 @@ public class EntityChangeEventListener {
     @SuppressWarnings({ "squid:S00112", "unchecked" })
     public Object targetDeleted(final ProceedingJoinPoint joinpoint) throws Throwable {
         final String currentTenant = tenantAware.getCurrentTenant();
-        final Object result = joinpoint.proceed();
         final Object param = joinpoint.getArgs()[0];
         // delete by id
+        final String controllerId = param instanceof Long ? findControllerId((Long) param) : null;
+        final Object result = joinpoint.proceed();
         if (param instanceof Long) {
-            notifyTargetDeleted(currentTenant, (Long) param);
+            notifyTargetDeleted(currentTenant, (Long) param, controllerId);
         } else if (param instanceof Target) {
-            notifyTargetDeleted(currentTenant, ((Target) param).getId());
+            notifyTargetDeleted(currentTenant, ((Target) param).getId(), ((Target) param).getControllerId());
         } else if (param instanceof Iterable) {
-            ((Iterable<Target>) param).forEach(target -> notifyTargetDeleted(currentTenant, target.getId()));
+            ((Iterable<Target>) param).forEach(
+                    target -> notifyTargetDeleted(currentTenant, target.getId(), target.getControllerId()));
         }
         return result;
     }
@@ -143,8 +150,18 @@ public class EntityChangeEventListener {
         afterCommit.afterCommit(() -> eventBus.post(new TargetInfoUpdateEvent(targetInfo)));
     }
 
-    private void notifyTargetDeleted(final String tenant, final Long targetId) {
-        afterCommit.afterCommit(() -> eventBus.post(new TargetDeletedEvent(tenant, targetId)));
+    private void notifyTargetDeleted(final String tenant, final Long targetId, final String controllerId) {
+        afterCommit.afterCommit(() -> eventBus.post(new TargetDeletedEvent(tenant, targetId, controllerId)));
+    }
+
+    /**
+     * Resolves the controller ID of a target which is about to be deleted. The
+     * targets are usually loaded by the caller before, so they are taken from
+     * the persistence context.
+     */
+    private String findControllerId(final Long targetId) {
+        final JpaTarget target = entityManager.find(JpaTarget.class, targetId);
+        return target != null ? target.getControllerId() : null;
     }
 
     private static boolean isTargetInfoNew(final Object targetInfo) {
@@ -0,0 +1,680 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.eventbus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.eclipse.hawkbit.eventbus.EventSchema;
+import org.eclipse.hawkbit.repository.eventbus.event.AbstractBaseEntityEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.AbstractPropertyChangeEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.ActionCreatedEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.ActionPropertyChangeEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.DistributionSetTagDeletedEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.DistributionSetTagUpdateEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.RolloutGroupCreatedEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.RolloutGroupPropertyChangeEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.RolloutPropertyChangeEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetCreatedEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetSecurityTokenChangedEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetTagDeletedEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetTagUpdateEvent;
+import org.eclipse.hawkbit.repository.jpa.model.AbstractJpaNamedEntity;
+import org.eclipse.hawkbit.repository.jpa.model.AbstractJpaTag;
+import org.eclipse.hawkbit.repository.jpa.model.AbstractJpaTenantAwareBaseEntity;
+import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
+import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSet;
+import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSetTag;
+import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
+import org.eclipse.hawkbit.repository.jpa.model.JpaRolloutGroup;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTargetTag;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Action.ActionType;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.DistributionSetTag;
+import org.eclipse.hawkbit.repository.model.NamedEntity;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.Rollout.RolloutStatus;
+import org.eclipse.hawkbit.repository.model.RolloutGroup;
+import org.eclipse.hawkbit.repository.model.RolloutGroup.RolloutGroupStatus;
+import org.eclipse.hawkbit.repository.model.Tag;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetTag;
+import org.eclipse.hawkbit.repository.model.TenantAwareBaseEntity;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The {@link EventSchema}s of the distributed repository events, so they are
+ * distributed in binary form instead of Java serialization.
+ *
+ * The entity of an event is written with the fields its subscribers read and
+ * is read as a detached entity which contains only these fields, i.e. the
+ * IDs, the audit fields, the names and the status. In contrast to Java
+ * serialization the change set of an {@link AbstractPropertyChangeEvent} is
+ * part of the distributed event.
+ *
+ * The {@code TargetInfoUpdateEvent} and the bulk events are not distributed
+ * and have no schema therefore.
+ */
+@Configuration
+public class EntityEventSchemas {
+
+    private static final int TARGET_CREATED = 16;
+    private static final int ACTION_CREATED = 17;
+    private static final int ACTION_PROPERTY_CHANGE = 18;
+    private static final int ROLLOUT_PROPERTY_CHANGE = 19;
+    private static final int ROLLOUT_GROUP_PROPERTY_CHANGE = 20;
+    private static final int ROLLOUT_GROUP_CREATED = 21;
+    private static final int TARGET_TAG_UPDATE = 22;
+    private static final int TARGET_TAG_DELETED = 23;
+    private static final int DISTRIBUTION_SET_TAG_UPDATE = 24;
+    private static final int DISTRIBUTION_SET_TAG_DELETED = 25;
+    private static final int TARGET_SECURITY_TOKEN_CHANGED = 26;
+
+    /**
+     * @return the schema of the {@link TargetCreatedEvent}
+     */
+    @Bean
+    public EventSchema<TargetCreatedEvent> targetCreatedEventSchema() {
+        return new TargetCreatedEventSchema();
+    }
+
+    /**
+     * @return the schema of the {@link ActionCreatedEvent}
+     */
+    @Bean
+    public EventSchema<ActionCreatedEvent> actionCreatedEventSchema() {
+        return new ActionCreatedEventSchema();
+    }
+
+    /**
+     * @return the schema of the {@link ActionPropertyChangeEvent}
+     */
+    @Bean
+    public EventSchema<ActionPropertyChangeEvent> actionPropertyChangeEventSchema() {
+        return new ActionPropertyChangeEventSchema();
+    }
+
+    /**
+     * @return the schema of the {@link RolloutPropertyChangeEvent}
+     */
+    @Bean
+    public EventSchema<RolloutPropertyChangeEvent> rolloutPropertyChangeEventSchema() {
+        return new RolloutPropertyChangeEventSchema();
+    }
+
+    /**
+     * @return the schema of the {@link RolloutGroupPropertyChangeEvent}
+     */
+    @Bean
+    public EventSchema<RolloutGroupPropertyChangeEvent> rolloutGroupPropertyChangeEventSchema() {
+        return new RolloutGroupPropertyChangeEventSchema();
+    }
+
+    /**
+     * @return the schema of the {@link RolloutGroupCreatedEvent}
+     */
+    @Bean
+    public EventSchema<RolloutGroupCreatedEvent> rolloutGroupCreatedEventSchema() {
+        return new RolloutGroupCreatedEventSchema();
+    }
+
+    /**
+     * @return the schema of the {@link TargetTagUpdateEvent}
+     */
+    @Bean
+    public EventSchema<TargetTagUpdateEvent> targetTagUpdateEventSchema() {
+        return new TagEventSchema<TargetTag, TargetTagUpdateEvent>(TARGET_TAG_UPDATE, TargetTagUpdateEvent.class,
+                JpaTargetTag::new, TargetTagUpdateEvent::new);
+    }
+
+    /**
+     * @return the schema of the {@link TargetTagDeletedEvent}
+     */
+    @Bean
+    public EventSchema<TargetTagDeletedEvent> targetTagDeletedEventSchema() {
+        return new TagEventSchema<TargetTag, TargetTagDeletedEvent>(TARGET_TAG_DELETED, TargetTagDeletedEvent.class,
+                JpaTargetTag::new, TargetTagDeletedEvent::new);
+    }
+
+    /**
+     * @return the schema of the {@link DistributionSetTagUpdateEvent}
+     */
+    @Bean
+    public EventSchema<DistributionSetTagUpdateEvent> distributionSetTagUpdateEventSchema() {
+        return new TagEventSchema<DistributionSetTag, DistributionSetTagUpdateEvent>(DISTRIBUTION_SET_TAG_UPDATE,
+                DistributionSetTagUpdateEvent.class, JpaDistributionSetTag::new, DistributionSetTagUpdateEvent::new);
+    }
+
+    /**
+     * @return the schema of the {@link DistributionSetTagDeletedEvent}
+     */
+    @Bean
+    public EventSchema<DistributionSetTagDeletedEvent> distributionSetTagDeletedEventSchema() {
+        return new TagEventSchema<DistributionSetTag, DistributionSetTagDeletedEvent>(DISTRIBUTION_SET_TAG_DELETED,
+                DistributionSetTagDeletedEvent.class, JpaDistributionSetTag::new,
+                DistributionSetTagDeletedEvent::new);
+    }
+
+    /**
+     * @return the schema of the {@link TargetSecurityTokenChangedEvent}
+     */
+    @Bean
+    public EventSchema<TargetSecurityTokenChangedEvent> targetSecurityTokenChangedEventSchema() {
+        return new TargetSecurityTokenChangedEventSchema();
+    }
+
+    private static final class TargetCreatedEventSchema implements EventSchema<TargetCreatedEvent> {
+
+        @Override
+        public int getTypeId() {
+            return TARGET_CREATED;
+        }
+
+        @Override
+        public Class<TargetCreatedEvent> getEventType() {
+            return TargetCreatedEvent.class;
+        }
+
+        @Override
+        public void write(final TargetCreatedEvent event, final DataOutput out) throws IOException {
+            final Target target = event.getEntity();
+            writeNullableUTF(target.getControllerId(), out);
+            writeNamedEntity(target, out);
+        }
+
+        @Override
+        public TargetCreatedEvent read(final String tenant, final DataInput in) throws IOException {
+            final JpaTarget target = new JpaTarget(readNullableUTF(in), null);
+            readNamedEntity(target, tenant, in);
+            return new TargetCreatedEvent(target);
+        }
+    }
+
+    private static final class ActionCreatedEventSchema implements EventSchema<ActionCreatedEvent> {
+
+        @Override
+        public int getTypeId() {
+            return ACTION_CREATED;
+        }
+
+        @Override
+        public Class<ActionCreatedEvent> getEventType() {
+            return ActionCreatedEvent.class;
+        }
+
+        @Override
+        public void write(final ActionCreatedEvent event, final DataOutput out) throws IOException {
+            final Action action = event.getEntity();
+            writeAction(action, action.getTarget().getId(), action.getTarget().getControllerId(), out);
+        }
+
+        @Override
+        public ActionCreatedEvent read(final String tenant, final DataInput in) throws IOException {
+            return new ActionCreatedEvent(readAction(tenant, in));
+        }
+    }
+
+    private static final class ActionPropertyChangeEventSchema
+            extends AbstractPropertyChangeEventSchema<Action, ActionPropertyChangeEvent> {
+
+        private ActionPropertyChangeEventSchema() {
+            super(ACTION_PROPERTY_CHANGE, ActionPropertyChangeEvent.class);
+        }
+
+        @Override
+        protected void writeEntity(final ActionPropertyChangeEvent event, final DataOutput out) throws IOException {
+            // the target is resolved by the event within the transaction
+            writeAction(event.getEntity(), event.getTargetId(), event.getControllerId(), out);
+        }
+
+        @Override
+        protected ActionPropertyChangeEvent readEntity(final String tenant, final DataInput in,
+                final Map<String, AbstractPropertyChangeEvent<Action>.Values> changeSet) throws IOException {
+            return new ActionPropertyChangeEvent(readAction(tenant, in), changeSet);
+        }
+    }
+
+    private static final class RolloutPropertyChangeEventSchema
+            extends AbstractPropertyChangeEventSchema<Rollout, RolloutPropertyChangeEvent> {
+
+        private RolloutPropertyChangeEventSchema() {
+            super(ROLLOUT_PROPERTY_CHANGE, RolloutPropertyChangeEvent.class);
+        }
+
+        @Override
+        protected void writeEntity(final RolloutPropertyChangeEvent event, final DataOutput out)
+                throws IOException {
+            final Rollout rollout = event.getEntity();
+            writeNamedEntity(rollout, out);
+            writeEnum(rollout.getStatus(), out);
+        }
+
+        @Override
+        protected RolloutPropertyChangeEvent readEntity(final String tenant, final DataInput in,
+                final Map<String, AbstractPropertyChangeEvent<Rollout>.Values> changeSet) throws IOException {
+            final JpaRollout rollout = readNamedEntity(new JpaRollout(), tenant, in);
+            rollout.setStatus(readEnum(RolloutStatus.class, in));
+            return new RolloutPropertyChangeEvent(rollout, changeSet);
+        }
+    }
+
+    private static final class RolloutGroupPropertyChangeEventSchema
+            extends AbstractPropertyChangeEventSchema<RolloutGroup, RolloutGroupPropertyChangeEvent> {
+
+        private RolloutGroupPropertyChangeEventSchema() {
+            super(ROLLOUT_GROUP_PROPERTY_CHANGE, RolloutGroupPropertyChangeEvent.class);
+        }
+
+        @Override
+        protected void writeEntity(final RolloutGroupPropertyChangeEvent event, final DataOutput out)
+                throws IOException {
+            final RolloutGroup rolloutGroup = event.getEntity();
+            writeNamedEntity(rolloutGroup, out);
+            writeEnum(rolloutGroup.getStatus(), out);
+            writeNullableLong(rolloutGroup.getRollout() != null ? rolloutGroup.getRollout().getId() : null, out);
+        }
+
+        @Override
+        protected RolloutGroupPropertyChangeEvent readEntity(final String tenant, final DataInput in,
+                final Map<String, AbstractPropertyChangeEvent<RolloutGroup>.Values> changeSet) throws IOException {
+            final JpaRolloutGroup rolloutGroup = readNamedEntity(new JpaRolloutGroup(), tenant, in);
+            rolloutGroup.setStatus(readEnum(RolloutGroupStatus.class, in));
+            rolloutGroup.setRollout(readReference(JpaRollout::new, tenant, in));
+            return new RolloutGroupPropertyChangeEvent(rolloutGroup, changeSet);
+        }
+    }
+
+    private static final class RolloutGroupCreatedEventSchema implements EventSchema<RolloutGroupCreatedEvent> {
+
+        @Override
+        public int getTypeId() {
+            return ROLLOUT_GROUP_CREATED;
+        }
+
+        @Override
+        public Class<RolloutGroupCreatedEvent> getEventType() {
+            return RolloutGroupCreatedEvent.class;
+        }
+
+        @Override
+        public void write(final RolloutGroupCreatedEvent event, final DataOutput out) throws IOException {
+            out.writeLong(event.getRevision());
+            writeNullableLong(event.getRolloutId(), out);
+            writeNullableLong(event.getRolloutGroupId(), out);
+            out.writeInt(event.getTotalRolloutGroup());
+            out.writeInt(event.getCreatedRolloutGroup());
+        }
+
+        @Override
+        public RolloutGroupCreatedEvent read(final String tenant, final DataInput in) throws IOException {
+            return new RolloutGroupCreatedEvent(tenant, in.readLong(), readNullableLong(in), readNullableLong(in),
+                    in.readInt(), in.readInt());
+        }
+    }
+
+    private static final class TargetSecurityTokenChangedEventSchema
+            implements EventSchema<TargetSecurityTokenChangedEvent> {
+
+        @Override
+        public int getTypeId() {
+            return TARGET_SECURITY_TOKEN_CHANGED;
+        }
+
+        @Override
+        public Class<TargetSecurityTokenChangedEvent> getEventType() {
+            return TargetSecurityTokenChangedEvent.class;
+        }
+
+        @Override
+        public void write(final TargetSecurityTokenChangedEvent event, final DataOutput out) throws IOException {
+            writeNullableUTF(event.getControllerId(), out);
+        }
+
+        @Override
+        public TargetSecurityTokenChangedEvent read(final String tenant, final DataInput in) throws IOException {
+            return new TargetSecurityTokenChangedEvent(tenant, readNullableUTF(in));
+        }
+    }
+
+    /**
+     * Schema of the events of a {@link Tag} which carry the tag only.
+     */
+    private static final class TagEventSchema<T extends Tag, E extends AbstractBaseEntityEvent<T>>
+            implements EventSchema<E> {
+
+        private final int typeId;
+        private final Class<E> eventType;
+        private final Supplier<? extends AbstractJpaTag> tagFactory;
+        private final Function<T, E> eventFactory;
+
+        private TagEventSchema(final int typeId, final Class<E> eventType,
+                final Supplier<? extends AbstractJpaTag> tagFactory, final Function<T, E> eventFactory) {
+            this.typeId = typeId;
+            this.eventType = eventType;
+            this.tagFactory = tagFactory;
+            this.eventFactory = eventFactory;
+        }
+
+        @Override
+        public int getTypeId() {
+            return typeId;
+        }
+
+        @Override
+        public Class<E> getEventType() {
+            return eventType;
+        }
+
+        @Override
+        public void write(final E event, final DataOutput out) throws IOException {
+            final T tag = event.getEntity();
+            writeNamedEntity(tag, out);
+            writeNullableUTF(tag.getColour(), out);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E read(final String tenant, final DataInput in) throws IOException {
+            final AbstractJpaTag tag = readNamedEntity(tagFactory.get(), tenant, in);
+            tag.setColour(readNullableUTF(in));
+            return eventFactory.apply((T) tag);
+        }
+    }
+
+    /**
+     * Schema of an {@link AbstractPropertyChangeEvent} which writes the change
+     * set after the entity. The values of the change set are written in
+     * binary form for the types of the entity fields, any other value with
+     * Java serialization.
+     */
+    private abstract static class AbstractPropertyChangeEventSchema<T extends TenantAwareBaseEntity, //
+            E extends AbstractPropertyChangeEvent<T>> implements EventSchema<E> {
+
+        private static final byte NULL = 0;
+        private static final byte STRING = 1;
+        private static final byte LONG = 2;
+        private static final byte INTEGER = 3;
+        private static final byte BOOLEAN = 4;
+        private static final byte ENUM = 5;
+        private static final byte SERIALIZED = 6;
+
+        private final int typeId;
+        private final Class<E> eventType;
+
+        protected AbstractPropertyChangeEventSchema(final int typeId, final Class<E> eventType) {
+            this.typeId = typeId;
+            this.eventType = eventType;
+        }
+
+        protected abstract void writeEntity(E event, DataOutput out) throws IOException;
+
+        /**
+         * @param changeSet
+         *            the empty change set which is filled after the event has
+         *            been created, as its values are bound to the event, or
+         *            {@code null} if the event has no change set
+         */
+        protected abstract E readEntity(String tenant, DataInput in,
+                Map<String, AbstractPropertyChangeEvent<T>.Values> changeSet) throws IOException;
+
+        @Override
+        public int getTypeId() {
+            return typeId;
+        }
+
+        @Override
+        public Class<E> getEventType() {
+            return eventType;
+        }
+
+        @Override
+        public void write(final E event, final DataOutput out) throws IOException {
+            final Map<String, AbstractPropertyChangeEvent<T>.Values> changeSet = event.getChangeSet();
+            out.writeBoolean(changeSet != null);
+            writeEntity(event, out);
+            if (changeSet == null) {
+                return;
+            }
+            out.writeInt(changeSet.size());
+            for (final Entry<String, AbstractPropertyChangeEvent<T>.Values> change : changeSet.entrySet()) {
+                out.writeUTF(change.getKey());
+                writeValue(change.getValue().getOldValue(), out);
+                writeValue(change.getValue().getNewValue(), out);
+            }
+        }
+
+        @Override
+        public E read(final String tenant, final DataInput in) throws IOException {
+            final Map<String, AbstractPropertyChangeEvent<T>.Values> changeSet = in.readBoolean() ? new HashMap<>()
+                    : null;
+            final E event = readEntity(tenant, in, changeSet);
+            if (changeSet == null) {
+                return event;
+            }
+            final AbstractPropertyChangeEvent<T> changeEvent = event;
+            final int changes = in.readInt();
+            for (int i = 0; i < changes; i++) {
+                final String attribute = in.readUTF();
+                changeSet.put(attribute, changeEvent.new Values(readValue(in), readValue(in)));
+            }
+            return event;
+        }
+
+        private static void writeValue(final Object value, final DataOutput out) throws IOException {
+            if (value == null) {
+                out.writeByte(NULL);
+            } else if (value instanceof String) {
+                out.writeByte(STRING);
+                out.writeUTF((String) value);
+            } else if (value instanceof Long) {
+                out.writeByte(LONG);
+                out.writeLong((Long) value);
+            } else if (value instanceof Integer) {
+                out.writeByte(INTEGER);
+                out.writeInt((Integer) value);
+            } else if (value instanceof Boolean) {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean((Boolean) value);
+            } else if (value instanceof Enum) {
+                out.writeByte(ENUM);
+                out.writeUTF(((Enum<?>) value).getDeclaringClass().getName());
+                out.writeUTF(((Enum<?>) value).name());
+            } else {
+                out.writeByte(SERIALIZED);
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (final ObjectOutputStream serialized = new ObjectOutputStream(bytes)) {
+                    serialized.writeObject((Serializable) value);
+                }
+                out.writeInt(bytes.size());
+                out.write(bytes.toByteArray());
+            }
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private static Object readValue(final DataInput in) throws IOException {
+            final byte type = in.readByte();
+            switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return in.readUTF();
+            case LONG:
+                return in.readLong();
+            case INTEGER:
+                return in.readInt();
+            case BOOLEAN:
+                return in.readBoolean();
+            case ENUM:
+                final String enumType = in.readUTF();
+                final String name = in.readUTF();
+                try {
+                    return Enum.valueOf((Class) Class.forName(enumType), name);
+                } catch (final ClassNotFoundException e) {
+                    throw new IOException("Unknown enum type " + enumType, e);
+                }
+            case SERIALIZED:
+                final byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                try (final ObjectInputStream serialized = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    return serialized.readObject();
+                } catch (final ClassNotFoundException e) {
+                    throw new IOException("Unknown type of a changed value", e);
+                }
+            default:
+                throw new IOException("Unknown type " + type + " of a changed value");
+            }
+        }
+    }
+
+    private static void writeAction(final Action action, final Long targetId, final String controllerId,
+            final DataOutput out) throws IOException {
+        writeBaseEntity(action, out);
+        writeNullableLong(targetId, out);
+        writeNullableUTF(controllerId, out);
+        final DistributionSet distributionSet = action.getDistributionSet();
+        writeNullableLong(distributionSet != null ? distributionSet.getId() : null, out);
+        if (distributionSet != null) {
+            writeNullableUTF(distributionSet.getName(), out);
+            writeNullableUTF(distributionSet.getVersion(), out);
+        }
+        writeNullableLong(action.getRollout() != null ? action.getRollout().getId() : null, out);
+        writeNullableLong(action.getRolloutGroup() != null ? action.getRolloutGroup().getId() : null, out);
+        out.writeBoolean(action.isActive());
+        writeEnum(action.getStatus(), out);
+        writeEnum(action.getActionType(), out);
+        out.writeLong(action.getForcedTime());
+    }
+
+    private static JpaAction readAction(final String tenant, final DataInput in) throws IOException {
+        final JpaAction action = readBaseEntity(new JpaAction(), tenant, in);
+        final Long targetId = readNullableLong(in);
+        final JpaTarget target = new JpaTarget(readNullableUTF(in), null);
+        target.setId(targetId);
+        target.setTenant(tenant);
+        action.setTarget(target);
+        final Long distributionSetId = readNullableLong(in);
+        if (distributionSetId != null) {
+            final JpaDistributionSet distributionSet = new JpaDistributionSet();
+            distributionSet.setId(distributionSetId);
+            distributionSet.setTenant(tenant);
+            distributionSet.setName(readNullableUTF(in));
+            distributionSet.setVersion(readNullableUTF(in));
+            action.setDistributionSet(distributionSet);
+        }
+        final JpaRollout rollout = readReference(JpaRollout::new, tenant, in);
+        action.setRollout(rollout);
+        final JpaRolloutGroup rolloutGroup = readReference(JpaRolloutGroup::new, tenant, in);
+        if (rolloutGroup != null) {
+            rolloutGroup.setRollout(rollout);
+        }
+        action.setRolloutGroup(rolloutGroup);
+        action.setActive(in.readBoolean());
+        action.setStatus(readEnum(Status.class, in));
+        action.setActionType(readEnum(ActionType.class, in));
+        action.setForcedTime(in.readLong());
+        return action;
+    }
+
+    private static void writeNamedEntity(final NamedEntity entity, final DataOutput out) throws IOException {
+        writeBaseEntity((TenantAwareBaseEntity) entity, out);
+        writeNullableUTF(entity.getName(), out);
+        writeNullableUTF(entity.getDescription(), out);
+    }
+
+    private static <T extends AbstractJpaNamedEntity> T readNamedEntity(final T entity, final String tenant,
+            final DataInput in) throws IOException {
+        readBaseEntity(entity, tenant, in);
+        entity.setName(readNullableUTF(in));
+        entity.setDescription(readNullableUTF(in));
+        return entity;
+    }
+
+    private static void writeBaseEntity(final TenantAwareBaseEntity entity, final DataOutput out)
+            throws IOException {
+        writeNullableLong(entity.getId(), out);
+        out.writeLong(entity.getOptLockRevision());
+        writeNullableLong(entity.getCreatedAt(), out);
+        writeNullableUTF(entity.getCreatedBy(), out);
+        writeNullableLong(entity.getLastModifiedAt(), out);
+        writeNullableUTF(entity.getLastModifiedBy(), out);
+    }
+
+    private static <T extends AbstractJpaTenantAwareBaseEntity> T readBaseEntity(final T entity,
+            final String tenant, final DataInput in) throws IOException {
+        entity.setTenant(tenant);
+        entity.setId(readNullableLong(in));
+        entity.setOptLockRevision(in.readLong());
+        entity.setCreatedAt(readNullableLong(in));
+        entity.setCreatedBy(readNullableUTF(in));
+        entity.setLastModifiedAt(readNullableLong(in));
+        entity.setLastModifiedBy(readNullableUTF(in));
+        return entity;
+    }
+
+    /**
+     * Reads an entity which has been written as ID only.
+     */
+    private static <T extends AbstractJpaTenantAwareBaseEntity> T readReference(final Supplier<T> factory,
+            final String tenant, final DataInput in) throws IOException {
+        final Long id = readNullableLong(in);
+        if (id == null) {
+            return null;
+        }
+        final T entity = factory.get();
+        entity.setId(id);
+        entity.setTenant(tenant);
+        return entity;
+    }
+
+    private static void writeEnum(final Enum<?> value, final DataOutput out) throws IOException {
+        writeNullableUTF(value != null ? value.name() : null, out);
+    }
+
+    private static <T extends Enum<T>> T readEnum(final Class<T> type, final DataInput in) throws IOException {
+        final String name = readNullableUTF(in);
+        return name != null ? Enum.valueOf(type, name) : null;
+    }
+
+    private static void writeNullableLong(final Long value, final DataOutput out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readNullableLong(final DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeNullableUTF(final String value, final DataOutput out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableUTF(final DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
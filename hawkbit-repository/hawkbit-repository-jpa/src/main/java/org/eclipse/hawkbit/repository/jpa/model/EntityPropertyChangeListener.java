@@ -53,8 +53,10 @@ public class EntityPropertyChangeListener extends DescriptorEventAdapter {
     @Override
     public void postUpdate(final DescriptorEvent event) {
         if (event.getObject().getClass().equals(JpaAction.class)) {
-            getAfterTransactionCommmitExecutor().afterCommit(() -> getEventBus().post(
-                    new ActionPropertyChangeEvent((Action) event.getObject(), getChangeSet(Action.class, event))));
+            // created within the transaction as the event resolves the target
+            final ActionPropertyChangeEvent actionEvent = new ActionPropertyChangeEvent((Action) event.getObject(),
+                    getChangeSet(Action.class, event));
+            getAfterTransactionCommmitExecutor().afterCommit(() -> getEventBus().post(actionEvent));
         } else if (event.getObject().getClass().equals(JpaRollout.class)) {
             getAfterTransactionCommmitExecutor().afterCommit(() -> getEventBus().post(
                     new RolloutPropertyChangeEvent((Rollout) event.getObject(), getChangeSet(Rollout.class, event))));
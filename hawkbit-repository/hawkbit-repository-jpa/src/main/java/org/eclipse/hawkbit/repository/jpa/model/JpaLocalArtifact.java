@@ -30,6 +30,7 @@ import com.mongodb.gridfs.GridFSFile;
  *
  */
 @Table(name = "sp_artifact", indexes = { @Index(name = "sp_idx_artifact_01", columnList = "tenant,software_module"),
+        @Index(name = "sp_idx_artifact_02", columnList = "tenant,provided_file_name"),
         @Index(name = "sp_idx_artifact_prim", columnList = "tenant,id") })
 @Entity
 // exception squid:S2160 - BaseEntity equals/hashcode is handling correctly for
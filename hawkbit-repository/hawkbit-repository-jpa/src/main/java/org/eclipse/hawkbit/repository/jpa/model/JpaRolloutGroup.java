@@ -85,6 +85,32 @@ public class JpaRolloutGroup extends AbstractJpaNamedEntity implements RolloutGr
     @Column(name = "total_targets")
     private long totalTargets;
 
+    // action counters are maintained by statements, see
+    // RolloutGroupRepository#incrementActionCounters and
+    // RolloutGroupRepository#reconcileActionCounters
+    @Column(name = "total_actions", nullable = false)
+    private long totalActions;
+
+    @Column(name = "finished_actions", nullable = false)
+    private long finishedActions;
+
+    @Column(name = "error_actions", nullable = false)
+    private long errorActions;
+
+    @Column(name = "canceled_actions", nullable = false)
+    private long canceledActions;
+
+    @Column(name = "counters_reconciled_at", nullable = false)
+    private long countersReconciledAt;
+
+    // incremented with every change of the action counters, the rollout
+    // scheduler only evaluates groups with unchecked changes
+    @Column(name = "counters_version", nullable = false)
+    private long countersVersion;
+
+    @Column(name = "checked_counters_version", nullable = false)
+    private long checkedCountersVersion;
+
     @Transient
     private transient TotalTargetCountStatus totalTargetCountStatus;
 
@@ -200,6 +226,82 @@ public class JpaRolloutGroup extends AbstractJpaNamedEntity implements RolloutGr
         this.totalTargets = totalTargets;
     }
 
+    /**
+     * @return number of actions created for the group
+     */
+    public long getTotalActions() {
+        return totalActions;
+    }
+
+    /**
+     * @return number of actions of the group in status
+     *         {@link org.eclipse.hawkbit.repository.model.Action.Status#FINISHED}
+     */
+    public long getFinishedActions() {
+        return finishedActions;
+    }
+
+    /**
+     * @return number of actions of the group in status
+     *         {@link org.eclipse.hawkbit.repository.model.Action.Status#ERROR}
+     */
+    public long getErrorActions() {
+        return errorActions;
+    }
+
+    /**
+     * @return number of actions of the group in status
+     *         {@link org.eclipse.hawkbit.repository.model.Action.Status#CANCELED}
+     */
+    public long getCanceledActions() {
+        return canceledActions;
+    }
+
+    /**
+     * @return number of actions of the group which are neither finished,
+     *         failed nor canceled
+     */
+    public long getOpenActions() {
+        return totalActions - finishedActions - errorActions - canceledActions;
+    }
+
+    /**
+     * @return time of the last recount of the action counters
+     */
+    public long getCountersReconciledAt() {
+        return countersReconciledAt;
+    }
+
+    /**
+     * @return version of the action counters, incremented with every change
+     */
+    public long getCountersVersion() {
+        return countersVersion;
+    }
+
+    /**
+     * @return version of the action counters which has been evaluated by the
+     *         last check of the rollout
+     */
+    public long getCheckedCountersVersion() {
+        return checkedCountersVersion;
+    }
+
+    /**
+     * Marks the action counters as changed, so the group is evaluated by the
+     * next check of the rollout.
+     */
+    public void markCountersChanged() {
+        countersVersion++;
+    }
+
+    /**
+     * Marks the current action counters as evaluated.
+     */
+    public void markCountersChecked() {
+        checkedCountersVersion = countersVersion;
+    }
+
     public void setSuccessAction(final RolloutGroupSuccessAction successAction) {
         this.successAction = successAction;
     }
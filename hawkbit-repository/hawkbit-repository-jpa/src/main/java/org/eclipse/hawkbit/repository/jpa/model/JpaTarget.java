@@ -11,6 +11,7 @@ package org.eclipse.hawkbit.repository.jpa.model;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 import javax.persistence.CascadeType;
@@ -75,6 +76,9 @@ public class JpaTarget extends AbstractJpaNamedEntity implements Persistable<Lon
     @Transient
     private boolean entityNew;
 
+    @Transient
+    private boolean securityTokenChanged;
+
     @ManyToMany(targetEntity = JpaTargetTag.class)
     @JoinTable(name = "sp_target_target_tag", joinColumns = {
             @JoinColumn(name = "target", foreignKey = @ForeignKey(value = ConstraintMode.CONSTRAINT, name = "fk_targ_targtag_target")) }, inverseJoinColumns = {
@@ -223,9 +227,19 @@ public class JpaTarget extends AbstractJpaNamedEntity implements Persistable<Lon
      *            the securityToken to set
      */
     public void setSecurityToken(final String securityToken) {
+        securityTokenChanged |= !Objects.equals(this.securityToken, securityToken);
         this.securityToken = securityToken;
     }
 
+    /**
+     * @return <code>true</code> if the security token has been changed by
+     *         {@link #setSecurityToken(String)} since this instance has been
+     *         created or loaded
+     */
+    public boolean isSecurityTokenChanged() {
+        return securityTokenChanged;
+    }
+
     @Override
     public String toString() {
         return "Target [controllerId=" + controllerId + ", getId()=" + getId() + "]";
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+/**
+ * Checkpoint of the deletion of a tenant which is deleted step by step in the
+ * background. The entity is not tenant aware as the tenant does not exist
+ * anymore while its data is deleted.
+ */
+@Table(name = "sp_tenant_deletion", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "tenant" }, name = "uk_tenant_deletion_tenant") })
+@Entity
+// exception squid:S2160 - BaseEntity equals/hashcode is handling correctly for
+// sub entities
+@SuppressWarnings("squid:S2160")
+public class JpaTenantDeletion extends AbstractJpaBaseEntity {
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "tenant", nullable = false, length = 40)
+    private String tenant;
+
+    @Column(name = "step", nullable = false)
+    private int step;
+
+    @Column(name = "deleted_rows", nullable = false)
+    private long deletedRows;
+
+    /**
+     * Default constructor needed for JPA entities.
+     */
+    public JpaTenantDeletion() {
+        // Default constructor needed for JPA entities.
+    }
+
+    /**
+     * Standard constructor.
+     *
+     * @param tenant
+     *            which is deleted
+     */
+    public JpaTenantDeletion(final String tenant) {
+        this.tenant = tenant.toUpperCase();
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    /**
+     * @return the index of the next deletion step
+     */
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * @return the number of rows deleted so far
+     */
+    public long getDeletedRows() {
+        return deletedRows;
+    }
+
+    /**
+     * Records a deleted chunk.
+     *
+     * @param rows
+     *            the number of rows deleted by the chunk
+     * @param stepCompleted
+     *            <code>true</code> if the chunk was the last one of the
+     *            current step
+     */
+    public void chunkDeleted(final int rows, final boolean stepCompleted) {
+        deletedRows += rows;
+        if (stepCompleted) {
+            step++;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TenantDeletion [tenant=" + tenant + ", step=" + step + ", deletedRows=" + deletedRows + "]";
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.model;
+
+import org.eclipse.hawkbit.repository.jpa.WriteBehindCounters;
+import org.eclipse.hawkbit.repository.jpa.model.helper.WriteBehindCountersHolder;
+import org.eclipse.persistence.descriptors.DescriptorEvent;
+import org.eclipse.persistence.descriptors.DescriptorEventAdapter;
+
+/**
+ * Maintains the {@link WriteBehindCounters} on created and deleted entities.
+ */
+public class WriteBehindCountersEntityListener extends DescriptorEventAdapter {
+
+    @Override
+    public void postInsert(final DescriptorEvent event) {
+        count(event.getObject(), 1);
+    }
+
+    @Override
+    public void postDelete(final DescriptorEvent event) {
+        count(event.getObject(), -1);
+    }
+
+    private static void count(final Object entity, final long sign) {
+        WriteBehindCountersHolder.getInstance().getCounters().forEach(counters -> counters.count(entity, sign));
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.model.helper;
+
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.jpa.WriteBehindCounters;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * A singleton bean which holds the {@link WriteBehindCounters} and makes them
+ * accessible to beans which are not managed by spring, e.g. entity listeners.
+ */
+public final class WriteBehindCountersHolder {
+
+    private static final WriteBehindCountersHolder INSTANCE = new WriteBehindCountersHolder();
+
+    @Autowired
+    private List<WriteBehindCounters<?, ?>> counters;
+
+    private WriteBehindCountersHolder() {
+    }
+
+    /**
+     * @return the singleton {@link WriteBehindCountersHolder} instance
+     */
+    public static WriteBehindCountersHolder getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return all {@link WriteBehindCounters} services
+     */
+    public List<WriteBehindCounters<?, ?>> getCounters() {
+        return counters;
+    }
+}
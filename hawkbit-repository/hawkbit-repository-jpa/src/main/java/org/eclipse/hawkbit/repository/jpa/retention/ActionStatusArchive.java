@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.retention;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
+
+/**
+ * Archive of the {@link JpaActionStatus} entries deleted by one retention run
+ * of a tenant. The entries are written as tab separated lines into a gzip
+ * compressed file, which is created with the first archived entry.
+ *
+ * Every chunk is appended as a complete gzip member and forced to disk before
+ * its entries are deleted, so the archive is readable after a crash. The
+ * chunk is truncated again if the deletion is rolled back.
+ */
+class ActionStatusArchive implements Closeable {
+
+    private static final String HEADER = "id\taction\tstatus\toccurredAt\tmessages\n";
+
+    private final File file;
+
+    private RandomAccessFile output;
+
+    ActionStatusArchive(final File file) {
+        this.file = file;
+    }
+
+    /**
+     * Appends the given entries to the archive and forces them to disk.
+     *
+     * @param entries
+     *            to archive including their messages
+     * @return the length of the archive before the entries, to truncate them
+     *         with {@link #truncate(long)}
+     * @throws IOException
+     *             if the archive cannot be written
+     */
+    long append(final List<JpaActionStatus> entries) throws IOException {
+        if (output == null) {
+            open();
+        }
+        final FileChannel channel = output.getChannel();
+        final long length = channel.size();
+        if (entries.isEmpty()) {
+            return length;
+        }
+
+        final ByteArrayOutputStream member = new ByteArrayOutputStream();
+        try (final Writer writer = new OutputStreamWriter(new GZIPOutputStream(member), StandardCharsets.UTF_8)) {
+            if (length == 0) {
+                writer.write(HEADER);
+            }
+            for (final JpaActionStatus entry : entries) {
+                writer.write(String.valueOf(entry.getId()));
+                writer.write('\t');
+                writer.write(String.valueOf(entry.getAction().getId()));
+                writer.write('\t');
+                writer.write(String.valueOf(entry.getStatus()));
+                writer.write('\t');
+                writer.write(String.valueOf(entry.getOccurredAt()));
+                writer.write('\t');
+                writer.write(escape(String.join("\n", entry.getMessages())));
+                writer.write('\n');
+            }
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(member.toByteArray());
+        try {
+            long position = length;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+        } catch (final IOException e) {
+            // removes the incomplete member
+            try {
+                truncate(length);
+            } catch (final IOException truncateException) {
+                e.addSuppressed(truncateException);
+            }
+            throw e;
+        }
+        return length;
+    }
+
+    /**
+     * Removes the entries appended after the given length, e.g. because their
+     * deletion has been rolled back.
+     *
+     * @param length
+     *            returned by {@link #append(List)}
+     * @throws IOException
+     *             if the archive cannot be truncated
+     */
+    void truncate(final long length) throws IOException {
+        if (output != null) {
+            output.getChannel().truncate(length);
+            output.getChannel().force(false);
+        }
+    }
+
+    private void open() throws IOException {
+        final File directory = file.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create archive directory " + directory);
+        }
+        output = new RandomAccessFile(file, "rw");
+    }
+
+    private static String escape(final String value) {
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    /**
+     * @return the file of the archive
+     */
+    File getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (output != null) {
+            output.close();
+            output = null;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.retention;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
+import org.eclipse.hawkbit.repository.jpa.ActionStatusRepository;
+import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.ActionStatus;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compacts the {@link ActionStatus} history of closed actions, which is the
+ * largest table of a long running tenant but hardly read once the action is
+ * closed. Of every action which has been closed longer than
+ * {@link TenantConfigurationKey#ACTION_STATUS_RETENTION_DAYS} the first, the
+ * last and all {@link Status#ERROR} entries are kept, all other entries are
+ * deleted.
+ *
+ * The entries are deleted in chunks of
+ * {@link RepositoryProperties.ActionStatusRetention#getChunkSize()} in own
+ * transactions, so the locks are held shortly. The entries of a chunk are
+ * locked before they are archived and deleted, so nodes of a cluster which
+ * run the retention at the same time do not archive the same entries twice. A
+ * run of a tenant stops after
+ * {@link RepositoryProperties.ActionStatusRetention#getTenantTimeBudget()}
+ * and continues with the next run. If an archive directory is configured the
+ * deleted entries are written to a compressed archive within the transaction
+ * of the deletion. A chunk which cannot be archived is not deleted and a chunk
+ * whose deletion is rolled back is removed from the archive again.
+ */
+@Service
+public class ActionStatusRetention {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ActionStatusRetention.class);
+
+    private final AtomicLong reclaimedRows = new AtomicLong();
+
+    private final AtomicLong archivedRows = new AtomicLong();
+
+    private final AtomicLong deletedChunks = new AtomicLong();
+
+    private final Map<String, Progress> progressByTenant = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ActionStatusRepository actionStatusRepository;
+
+    @Autowired
+    private TenantConfigurationManagement tenantConfigurationManagement;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    /**
+     * Compacts the status history of the closed actions of the current tenant
+     * if the retention is enabled for the tenant.
+     *
+     * @return the number of deleted status entries
+     */
+    public long compactActionStatus() {
+        if (!tenantConfigurationManagement
+                .getConfigurationValue(TenantConfigurationKey.ACTION_STATUS_RETENTION_ENABLED, Boolean.class)
+                .getValue()) {
+            return 0;
+        }
+
+        final String tenant = tenantAware.getCurrentTenant();
+        final int days = tenantConfigurationManagement
+                .getConfigurationValue(TenantConfigurationKey.ACTION_STATUS_RETENTION_DAYS, Integer.class)
+                .getValue();
+        final RepositoryProperties.ActionStatusRetention properties = repositoryProperties
+                .getActionStatusRetention();
+        final long closedBefore = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days);
+        final long deadline = System.currentTimeMillis() + properties.getTenantTimeBudget();
+
+        final Progress progress = new Progress();
+        progressByTenant.put(tenant.toUpperCase(), progress);
+
+        try (final ActionStatusArchive archive = createArchive(tenant, properties)) {
+            int deleted;
+            do {
+                deleted = deleteChunk(closedBefore, properties.getChunkSize(), archive);
+                progress.reclaimedRows.addAndGet(deleted);
+            } while (deleted >= properties.getChunkSize() && System.currentTimeMillis() < deadline);
+            progress.finish(deleted < properties.getChunkSize());
+        } catch (final IOException | UncheckedIOException e) {
+            LOG.error("Archiving the action status history of tenant {} failed, retention stopped", tenant, e);
+            progress.finish(false);
+        }
+
+        LOG.debug("Retention deleted {} action status entries of tenant {}", progress.getReclaimedRows(), tenant);
+        return progress.getReclaimedRows();
+    }
+
+    private int deleteChunk(final long closedBefore, final int chunkSize, final ActionStatusArchive archive) {
+        final DefaultTransactionDefinition def = new DefaultTransactionDefinition();
+        def.setName("actionStatusRetention");
+        def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return new TransactionTemplate(txManager, def).execute(status -> {
+            final List<Long> ids = actionStatusRepository.findRemovableIdsOfClosedActions(closedBefore,
+                    Status.ERROR, new PageRequest(0, chunkSize));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            // claims the entries, entries deleted by another node in the
+            // meantime are not returned
+            final List<JpaActionStatus> entries = actionStatusRepository.findAndLockByIdIn(ids);
+            if (entries.isEmpty()) {
+                return 0;
+            }
+            if (archive != null) {
+                archive(archive, entries);
+            }
+            final int deleted = actionStatusRepository
+                    .deleteByIdIn(entries.stream().map(JpaActionStatus::getId).collect(Collectors.toList()));
+            reclaimedRows.addAndGet(deleted);
+            deletedChunks.incrementAndGet();
+            return deleted;
+        });
+    }
+
+    private void archive(final ActionStatusArchive archive, final List<JpaActionStatus> entries) {
+        final long archiveLength;
+        try {
+            archiveLength = archive.append(entries);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(final int status) {
+                if (status == STATUS_COMMITTED) {
+                    archivedRows.addAndGet(entries.size());
+                    return;
+                }
+                try {
+                    archive.truncate(archiveLength);
+                } catch (final IOException e) {
+                    LOG.error("Removing the rolled back entries from archive {} failed", archive.getFile(), e);
+                }
+            }
+        });
+    }
+
+    private static ActionStatusArchive createArchive(final String tenant,
+            final RepositoryProperties.ActionStatusRetention properties) {
+        if (properties.getArchiveDirectory() == null) {
+            return null;
+        }
+        // unique per run, the nodes of a cluster may share the directory
+        return new ActionStatusArchive(new File(new File(properties.getArchiveDirectory(), tenant.toUpperCase()),
+                "action-status-" + System.currentTimeMillis() + "-" + UUID.randomUUID() + ".tsv.gz"));
+    }
+
+    /**
+     * @return the number of status entries deleted since startup
+     */
+    public long getReclaimedRows() {
+        return reclaimedRows.get();
+    }
+
+    /**
+     * @return the number of status entries archived since startup
+     */
+    public long getArchivedRows() {
+        return archivedRows.get();
+    }
+
+    /**
+     * @return the number of chunks deleted since startup
+     */
+    public long getDeletedChunks() {
+        return deletedChunks.get();
+    }
+
+    /**
+     * @return the progress of the current or last retention run by tenant
+     */
+    public Map<String, Progress> getProgress() {
+        return Collections.unmodifiableMap(progressByTenant);
+    }
+
+    /**
+     * Progress of a retention run of a tenant.
+     */
+    public static final class Progress {
+        private final long startedAt = System.currentTimeMillis();
+        private final AtomicLong reclaimedRows = new AtomicLong();
+        private volatile Long finishedAt;
+        private volatile boolean completed;
+
+        private void finish(final boolean completed) {
+            this.completed = completed;
+            finishedAt = System.currentTimeMillis();
+        }
+
+        /**
+         * @return the start time of the run in milliseconds
+         */
+        public long getStartedAt() {
+            return startedAt;
+        }
+
+        /**
+         * @return the end time of the run in milliseconds or
+         *         <code>null</code> if the run is still running
+         */
+        public Long getFinishedAt() {
+            return finishedAt;
+        }
+
+        /**
+         * @return the number of status entries deleted by the run so far
+         */
+        public long getReclaimedRows() {
+            return reclaimedRows.get();
+        }
+
+        /**
+         * @return <code>true</code> if the run has deleted all removable
+         *         entries, <code>false</code> if it is still running or has
+         *         been stopped by its time budget or an error
+         */
+        public boolean isCompleted() {
+            return completed;
+        }
+    }
+}
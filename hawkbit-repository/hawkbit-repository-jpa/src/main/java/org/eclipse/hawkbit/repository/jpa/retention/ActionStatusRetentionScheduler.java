@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.retention;
+
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.SystemManagement;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler to schedule the {@link ActionStatusRetention} of all tenants one
+ * after another. The delay between the runs can be configured using the
+ * property
+ * {@link RepositoryProperties.ActionStatusRetention#PROP_SCHEDULER_DELAY_PLACEHOLDER}.
+ */
+@Component
+// don't active the scheduler in test, the retention is triggered by the tests
+@Profile("!test")
+public class ActionStatusRetentionScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ActionStatusRetentionScheduler.class);
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired
+    private SystemManagement systemManagement;
+
+    @Autowired
+    private ActionStatusRetention actionStatusRetention;
+
+    @Autowired
+    private SystemSecurityContext systemSecurityContext;
+
+    /**
+     * Scheduler method called by the spring-async mechanism. Retrieves all
+     * tenants from the {@link SystemManagement#findTenants()} and runs the
+     * {@link ActionStatusRetention#compactActionStatus()} for each tenant in
+     * the {@link SystemSecurityContext}.
+     */
+    @Scheduled(initialDelayString = RepositoryProperties.ActionStatusRetention.PROP_SCHEDULER_DELAY_PLACEHOLDER, fixedDelayString = RepositoryProperties.ActionStatusRetention.PROP_SCHEDULER_DELAY_PLACEHOLDER)
+    public void runRetention() {
+        LOGGER.debug("action status retention has been triggered.");
+        final List<String> tenants = systemSecurityContext.runAsSystem(systemManagement::findTenants);
+        // the multi tenancy of eclipselink does not allow queries across
+        // the tenants, so the retention runs for each tenant separately.
+        for (final String tenant : tenants) {
+            try {
+                systemSecurityContext.runAsSystem(() -> tenantAware.runAsTenant(tenant,
+                        actionStatusRetention::compactActionStatus));
+            } catch (final RuntimeException e) {
+                LOGGER.error("Action status retention of tenant {} failed", tenant, e);
+            }
+        }
+    }
+}
@@ -8,7 +8,16 @@
  */
 package org.eclipse.hawkbit.repository.jpa.rollout;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.eclipse.hawkbit.repository.RolloutManagement;
 import org.eclipse.hawkbit.repository.RolloutProperties;
@@ -22,11 +31,20 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
  * Scheduler to schedule the
  * {@link RolloutManagement#checkRunningRollouts(long)}. The delay between the
  * checks be be configured using the property
- * {@link #PROP_SCHEDULER_DELAY_PLACEHOLDER}.
+ * {@link RolloutProperties.Scheduler#PROP_SCHEDULER_DELAY_PLACEHOLDER}.
+ *
+ * The tenants are checked in parallel by a pool of
+ * {@link RolloutProperties.Scheduler#getThreads()} threads, so a tenant with
+ * many or large rollouts does not delay the checks of the other tenants. A
+ * tenant whose check is still running is skipped by the next run. In a cluster
+ * the instances split the rollouts by claiming them through the
+ * {@code lastCheck} of the rollout.
  */
 @Component
 // don't active the rollout scheduler in test, otherwise it is hard to test
@@ -51,10 +69,28 @@ public class RolloutScheduler {
     @Autowired
     private RolloutProperties rolloutProperties;
 
+    private final Set<String> runningChecks = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, Long> checkDurations = new ConcurrentHashMap<>();
+
+    private ExecutorService checkExecutor;
+
+    @PostConstruct
+    void startExecutor() {
+        checkExecutor = Executors.newFixedThreadPool(rolloutProperties.getScheduler().getThreads(),
+                new ThreadFactoryBuilder().setNameFormat("rollout-scheduler-pool-%d").build());
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        checkExecutor.shutdownNow();
+    }
+
     /**
      * Scheduler method called by the spring-async mechanism. Retrieves all
-     * tenants from the {@link SystemManagement#findTenants()} and runs for each
-     * tenant the {@link RolloutManagement#checkRunningRollouts(long)} in the
+     * tenants from the {@link SystemManagement#findTenants()} and submits for
+     * each tenant which is not checked currently the
+     * {@link RolloutManagement#checkRunningRollouts(long)} in the
      * {@link SystemSecurityContext}.
      */
     @Scheduled(initialDelayString = RolloutProperties.Scheduler.PROP_SCHEDULER_DELAY_PLACEHOLDER, fixedDelayString = RolloutProperties.Scheduler.PROP_SCHEDULER_DELAY_PLACEHOLDER)
@@ -62,22 +98,45 @@ public class RolloutScheduler {
         LOGGER.debug("rollout schedule checker has been triggered.");
         // run this code in system code privileged to have the necessary
         // permission to query and create entities.
-        systemSecurityContext.runAsSystem(() -> {
-            // workaround eclipselink that is currently not possible to
-            // execute a query without multitenancy if MultiTenant
-            // annotation is used.
-            // https://bugs.eclipse.org/bugs/show_bug.cgi?id=355458. So
-            // iterate through all tenants and execute the rollout check for
-            // each tenant seperately.
-            final List<String> tenants = systemManagement.findTenants();
-            LOGGER.info("Checking rollouts for {} tenants", tenants.size());
-            for (final String tenant : tenants) {
-                tenantAware.runAsTenant(tenant, () -> {
-                    rolloutManagement.checkRunningRollouts(rolloutProperties.getScheduler().getFixedDelay());
-                    return null;
-                });
+        final List<String> tenants = systemSecurityContext.runAsSystem(systemManagement::findTenants);
+        LOGGER.info("Checking rollouts for {} tenants", tenants.size());
+        // workaround eclipselink that is currently not possible to
+        // execute a query without multitenancy if MultiTenant
+        // annotation is used.
+        // https://bugs.eclipse.org/bugs/show_bug.cgi?id=355458. So
+        // iterate through all tenants and execute the rollout check for
+        // each tenant seperately.
+        for (final String tenant : tenants) {
+            if (runningChecks.add(tenant)) {
+                checkExecutor.execute(() -> checkTenant(tenant));
+            } else {
+                LOGGER.debug("Rollout check of tenant {} is still running, skipping tenant", tenant);
             }
-            return null;
-        });
+        }
+    }
+
+    /**
+     * @return the duration in milliseconds of the last rollout check by
+     *         tenant
+     */
+    public Map<String, Long> getCheckDurations() {
+        return Collections.unmodifiableMap(checkDurations);
+    }
+
+    private void checkTenant(final String tenant) {
+        final long start = System.currentTimeMillis();
+        try {
+            systemSecurityContext.runAsSystem(() -> tenantAware.runAsTenant(tenant, () -> {
+                rolloutManagement.checkRunningRollouts(rolloutProperties.getScheduler().getFixedDelay());
+                return null;
+            }));
+        } catch (final RuntimeException e) {
+            LOGGER.error("Rollout check of tenant {} failed", tenant, e);
+        } finally {
+            runningChecks.remove(tenant);
+            final long duration = System.currentTimeMillis() - start;
+            checkDurations.put(tenant, duration);
+            LOGGER.debug("Rollout check of tenant {} took {} ms", tenant, duration);
+        }
     }
 }
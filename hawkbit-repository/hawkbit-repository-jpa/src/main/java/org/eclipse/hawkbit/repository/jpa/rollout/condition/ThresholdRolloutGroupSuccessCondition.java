@@ -8,13 +8,11 @@
  */
 package org.eclipse.hawkbit.repository.jpa.rollout.condition;
 
-import org.eclipse.hawkbit.repository.jpa.ActionRepository;
-import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.jpa.model.JpaRolloutGroup;
 import org.eclipse.hawkbit.repository.model.Rollout;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
@@ -24,14 +22,10 @@ import org.springframework.stereotype.Component;
 public class ThresholdRolloutGroupSuccessCondition implements RolloutGroupConditionEvaluator {
     private static final Logger LOGGER = LoggerFactory.getLogger(ThresholdRolloutGroupSuccessCondition.class);
 
-    @Autowired
-    private ActionRepository actionRepository;
-
     @Override
     public boolean eval(final Rollout rollout, final RolloutGroup rolloutGroup, final String expression) {
         final Long totalGroup = rolloutGroup.getTotalTargets();
-        final Long finished = this.actionRepository.countByRolloutIdAndRolloutGroupIdAndStatus(rollout.getId(),
-                rolloutGroup.getId(), Action.Status.FINISHED);
+        final long finished = ((JpaRolloutGroup) rolloutGroup).getFinishedActions();
         try {
             final Integer threshold = Integer.valueOf(expression);
 
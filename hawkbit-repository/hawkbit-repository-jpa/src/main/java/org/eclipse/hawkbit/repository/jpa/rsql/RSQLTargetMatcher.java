@@ -0,0 +1,278 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rsql;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.repository.TargetFields;
+import org.eclipse.hawkbit.repository.exception.RSQLParameterSyntaxException;
+import org.eclipse.hawkbit.repository.exception.RSQLParameterUnsupportedFieldException;
+import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility.FieldMapping;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetInfo;
+import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import cz.jirutka.rsql.parser.ast.AndNode;
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.NoArgRSQLVisitorAdapter;
+import cz.jirutka.rsql.parser.ast.OrNode;
+
+/**
+ * Compiles RSQL strings on {@link TargetFields} into an in-memory
+ * {@link Predicate} on {@link Target}s, e.g. to check a new or updated target
+ * against many stored target filter queries without a database round trip.
+ *
+ * The predicate evaluates the query like the database does for the
+ * {@link RSQLUtility#parse(String, Class)} specification:
+ * <ul>
+ * <li>string comparisons are case insensitive and support the {@code *}
+ * wildcard</li>
+ * <li>a comparison on a missing value, e.g. a target without assigned
+ * distribution set, does not match regardless of the operator</li>
+ * <li>a comparison on tags or attributes matches if any of them matches</li>
+ * </ul>
+ * The target is expected to be fully loaded, i.e. lazy relations are resolved
+ * on evaluation.
+ */
+public final class RSQLTargetMatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RSQLTargetMatcher.class);
+
+    private static final int MAX_CACHED_MATCHERS = 1000;
+
+    private static final Cache<String, Predicate<Target>> COMPILED_QUERIES = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_MATCHERS).build();
+
+    private RSQLTargetMatcher() {
+
+    }
+
+    /**
+     * Compiles the given RSQL string into a predicate on targets. The
+     * predicates are cached, so compiling a stored query repeatedly is cheap.
+     *
+     * @param rsql
+     *            the rsql query on {@link TargetFields}
+     * @return the predicate which is thread safe and can be reused
+     * @throws RSQLParameterUnsupportedFieldException
+     *             if a field in the RSQL string is used but not provided by
+     *             {@link TargetFields}
+     * @throws RSQLParameterSyntaxException
+     *             if the RSQL syntax is wrong
+     */
+    public static Predicate<Target> compile(final String rsql) {
+        if (rsql == null) {
+            throw new RSQLParameterSyntaxException("rsql filter must not be null", null);
+        }
+        final String query = rsql.toLowerCase();
+        final Predicate<Target> cached = COMPILED_QUERIES.getIfPresent(query);
+        if (cached != null) {
+            return cached;
+        }
+
+        final Predicate<Target> compiled = RSQLUtility.parseRsql(query).accept(new TargetPredicateVisitor());
+        final Predicate<Target> matcher = compiled != null ? compiled : target -> true;
+        COMPILED_QUERIES.put(query, matcher);
+        return matcher;
+    }
+
+    /**
+     * Visitor which compiles the nodes of the AST. A comparison with an
+     * unsupported operator is compiled to <code>null</code> and ignored like
+     * by the JPA specification.
+     */
+    private static final class TargetPredicateVisitor extends NoArgRSQLVisitorAdapter<Predicate<Target>> {
+
+        @Override
+        public Predicate<Target> visit(final AndNode node) {
+            return acceptChildren(node).stream().reduce(Predicate::and).orElse(null);
+        }
+
+        @Override
+        public Predicate<Target> visit(final OrNode node) {
+            return acceptChildren(node).stream().reduce(Predicate::or).orElse(null);
+        }
+
+        private List<Predicate<Target>> acceptChildren(final LogicalNode node) {
+            return node.getChildren().stream().map(child -> child.accept(this)).filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public Predicate<Target> visit(final ComparisonNode node) {
+            final FieldMapping<TargetFields> fieldMapping = RSQLUtility.getFieldMapping(node, TargetFields.class);
+            final Function<Target, Collection<?>> accessor = getAccessor(fieldMapping);
+            final Predicate<Object> valuePredicate = getValuePredicate(node, fieldMapping.getField());
+
+            if (valuePredicate == null) {
+                if (fieldMapping.getMapKey() != null) {
+                    return target -> !accessor.apply(target).isEmpty();
+                }
+                LOGGER.info("operator symbol {} is either not supported or not implemented",
+                        node.getOperator().getSymbol());
+                return null;
+            }
+            return target -> accessor.apply(target).stream().anyMatch(valuePredicate);
+        }
+
+        private static Predicate<Object> getValuePredicate(final ComparisonNode node, final TargetFields field) {
+            final List<Object> arguments = node.getArguments().stream()
+                    .map(argument -> convertArgument(node, field, argument)).collect(Collectors.toList());
+            final Object argument = arguments.get(0);
+
+            switch (node.getOperator().getSymbol()) {
+            case "==":
+                return getEqualToPredicate(argument);
+            case "!=":
+                return getEqualToPredicate(argument).negate();
+            case "=gt=":
+                return value -> value.toString().compareTo(argument.toString()) > 0;
+            case "=ge=":
+                return value -> value.toString().compareTo(argument.toString()) >= 0;
+            case "=lt=":
+                return value -> value.toString().compareTo(argument.toString()) < 0;
+            case "=le=":
+                return value -> value.toString().compareTo(argument.toString()) <= 0;
+            case "=in=":
+                return getInPredicate(arguments);
+            case "=out=":
+                return getInPredicate(arguments).negate();
+            default:
+                return null;
+            }
+        }
+
+        private static Object convertArgument(final ComparisonNode node, final TargetFields field,
+                final String argument) {
+            if (field == TargetFields.UPDATESTATUS) {
+                return RSQLUtility.transformEnumValue(node, argument, TargetUpdateStatus.class);
+            }
+            return argument;
+        }
+
+        private static Predicate<Object> getEqualToPredicate(final Object argument) {
+            if (argument instanceof String) {
+                final Pattern pattern = toPattern((String) argument);
+                return value -> pattern.matcher(value.toString()).matches();
+            }
+            return argument::equals;
+        }
+
+        private static Predicate<Object> getInPredicate(final List<Object> arguments) {
+            final Set<Object> values = arguments.stream()
+                    .map(argument -> argument instanceof String ? ((String) argument).toUpperCase() : argument)
+                    .collect(Collectors.toSet());
+            return value -> values.contains(value instanceof String ? ((String) value).toUpperCase() : value);
+        }
+
+        /**
+         * Translates the like expression of the JPA specification, i.e.
+         * {@code *} and {@code _} are wildcards.
+         */
+        private static Pattern toPattern(final String likeValue) {
+            final StringBuilder regex = new StringBuilder();
+            int literalStart = 0;
+            for (int i = 0; i < likeValue.length(); i++) {
+                final char character = likeValue.charAt(i);
+                if (character == '*' || character == '_') {
+                    if (i > literalStart) {
+                        regex.append(Pattern.quote(likeValue.substring(literalStart, i)));
+                    }
+                    regex.append(character == '*' ? ".*" : ".");
+                    literalStart = i + 1;
+                }
+            }
+            if (literalStart < likeValue.length()) {
+                regex.append(Pattern.quote(likeValue.substring(literalStart)));
+            }
+            return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
+        }
+
+        private static Function<Target, Collection<?>> getAccessor(final FieldMapping<TargetFields> fieldMapping) {
+            switch (fieldMapping.getField()) {
+            case ID:
+            case CONTROLLERID:
+                return target -> single(target.getControllerId());
+            case NAME:
+                return target -> single(target.getName());
+            case DESCRIPTION:
+                return target -> single(target.getDescription());
+            case UPDATESTATUS:
+                return target -> single(
+                        target.getTargetInfo() != null ? target.getTargetInfo().getUpdateStatus() : null);
+            case IPADDRESS:
+                return target -> single(getAddress(target.getTargetInfo()));
+            case ATTRIBUTE:
+                final String key = fieldMapping.getMapKey();
+                return target -> getAttributes(target.getTargetInfo(), key);
+            case ASSIGNEDDS:
+                final Function<DistributionSet, String> assignedAttribute = getDistributionSetAttribute(fieldMapping);
+                return target -> single(target.getAssignedDistributionSet() != null
+                        ? assignedAttribute.apply(target.getAssignedDistributionSet()) : null);
+            case INSTALLEDDS:
+                final Function<DistributionSet, String> installedAttribute = getDistributionSetAttribute(fieldMapping);
+                return target -> {
+                    final TargetInfo targetInfo = target.getTargetInfo();
+                    return single(targetInfo != null && targetInfo.getInstalledDistributionSet() != null
+                            ? installedAttribute.apply(targetInfo.getInstalledDistributionSet()) : null);
+                };
+            case TAG:
+            default:
+                return target -> target.getTags().stream().map(tag -> tag.getName()).collect(Collectors.toList());
+            }
+        }
+
+        private static Function<DistributionSet, String> getDistributionSetAttribute(
+                final FieldMapping<TargetFields> fieldMapping) {
+            final String property = fieldMapping.getProperty();
+            final String attribute = property.substring(property.lastIndexOf('.') + 1);
+            if ("version".equals(attribute)) {
+                return DistributionSet::getVersion;
+            }
+            return DistributionSet::getName;
+        }
+
+        private static String getAddress(final TargetInfo targetInfo) {
+            if (targetInfo == null) {
+                return null;
+            }
+            final URI address = targetInfo.getAddress();
+            return address != null ? address.toString() : null;
+        }
+
+        private static Collection<?> getAttributes(final TargetInfo targetInfo, final String key) {
+            if (targetInfo == null) {
+                return Collections.emptyList();
+            }
+            return targetInfo.getControllerAttributes().entrySet().stream()
+                    .filter(entry -> key.equalsIgnoreCase(entry.getKey())).map(entry -> entry.getValue())
+                    .filter(Objects::nonNull).collect(Collectors.toList());
+        }
+
+        private static Collection<?> single(final Object value) {
+            return value != null ? Collections.singletonList(value) : Collections.emptyList();
+        }
+    }
+}
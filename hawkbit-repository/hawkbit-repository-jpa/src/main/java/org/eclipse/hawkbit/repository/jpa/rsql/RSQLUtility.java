@@ -34,6 +34,9 @@ import org.springframework.beans.SimpleTypeConverter;
 import org.springframework.beans.TypeMismatchException;
 import org.springframework.data.jpa.domain.Specification;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import cz.jirutka.rsql.parser.RSQLParser;
 import cz.jirutka.rsql.parser.RSQLParserException;
 import cz.jirutka.rsql.parser.ast.AndNode;
@@ -73,6 +76,23 @@ public final class RSQLUtility {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RSQLUtility.class);
 
+    private static final int MAX_CACHED_QUERIES = 1000;
+
+    private static final int MAX_CACHED_FIELDS = 1000;
+
+    /**
+     * Parsed queries by the RSQL string. The nodes of the AST are immutable
+     * and can be shared between threads.
+     */
+    private static final Cache<String, Node> PARSED_QUERIES = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_QUERIES).build();
+
+    /**
+     * Validated field mappings by the selector and the field enum.
+     */
+    private static final Cache<FieldKey, FieldMapping<?>> FIELD_MAPPINGS = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_FIELDS).build();
+
     /**
      * private constructor due utility class.
      */
@@ -114,7 +134,31 @@ public final class RSQLUtility {
         parseRsql(rsql);
     }
 
-    private static Node parseRsql(final String rsql) {
+    /**
+     * Parses the given RSQL string. The AST of the query is cached, so a query
+     * which is used repeatedly, e.g. a stored target filter query, is parsed
+     * only once.
+     *
+     * @param rsql
+     *            the rsql string
+     * @return the root node of the AST
+     * @throws RSQLParameterSyntaxException
+     *             if the RSQL syntax is wrong
+     */
+    static Node parseRsql(final String rsql) {
+        if (rsql == null) {
+            throw new RSQLParameterSyntaxException("rsql filter must not be null", null);
+        }
+        final Node cached = PARSED_QUERIES.getIfPresent(rsql);
+        if (cached != null) {
+            return cached;
+        }
+        final Node parsed = parseRsqlUncached(rsql);
+        PARSED_QUERIES.put(rsql, parsed);
+        return parsed;
+    }
+
+    private static Node parseRsqlUncached(final String rsql) {
         try {
             LOGGER.debug("parsing rsql string {}", rsql);
             final Set<ComparisonOperator> operators = RSQLOperators.defaultOperators();
@@ -127,6 +171,163 @@ public final class RSQLUtility {
         }
     }
 
+    /**
+     * Resolves and validates the field of the given comparison. The mappings
+     * are cached per selector and field enum.
+     *
+     * @param node
+     *            the comparison
+     * @param enumType
+     *            the enum class type which implements the
+     *            {@link FieldNameProvider}
+     * @return the mapping of the selector to the entity field
+     * @throws RSQLParameterUnsupportedFieldException
+     *             if the field is not provided by the given {@code enumType}
+     */
+    @SuppressWarnings("unchecked")
+    static <A extends Enum<A> & FieldNameProvider> FieldMapping<A> getFieldMapping(final ComparisonNode node,
+            final Class<A> enumType) {
+        final FieldKey key = new FieldKey(enumType, node.getSelector());
+        final FieldMapping<?> cached = FIELD_MAPPINGS.getIfPresent(key);
+        if (cached != null) {
+            return (FieldMapping<A>) cached;
+        }
+
+        A fieldName = null;
+        try {
+            fieldName = getFieldEnumByName(node, enumType);
+        } catch (final IllegalArgumentException e) {
+            throw new RSQLParameterUnsupportedFieldException("The given search parameter field {" + node.getSelector()
+                    + "} does not exist, must be one of the following fields {" + Arrays.stream(enumType.getEnumConstants())
+                            .map(v -> v.name().toLowerCase()).collect(Collectors.toList())
+                    + "}", e);
+
+        }
+        final String property = getAndValidatePropertyFieldName(fieldName, node, enumType);
+        final String[] graph = node.getSelector().split("\\" + FieldNameProvider.SUB_ATTRIBUTE_SEPERATOR);
+        final FieldMapping<A> mapping = new FieldMapping<>(fieldName, property,
+                fieldName.isMap() ? graph[graph.length - 1] : null);
+        FIELD_MAPPINGS.put(key, mapping);
+        return mapping;
+    }
+
+    private static <A extends Enum<A> & FieldNameProvider> A getFieldEnumByName(final ComparisonNode node,
+            final Class<A> enumType) {
+        String enumName = node.getSelector();
+        final String[] graph = enumName.split("\\" + FieldNameProvider.SUB_ATTRIBUTE_SEPERATOR);
+        if (graph.length != 0) {
+            enumName = graph[0];
+        }
+        LOGGER.debug("get fieldidentifier by name {} of enum type {}", enumName, enumType);
+        return Enum.valueOf(enumType, enumName.toUpperCase());
+    }
+
+    private static <A extends Enum<A> & FieldNameProvider> String getAndValidatePropertyFieldName(
+            final A propertyEnum, final ComparisonNode node, final Class<A> enumType) {
+        String finalProperty = propertyEnum.getFieldName();
+        final String[] graph = node.getSelector().split("\\" + FieldNameProvider.SUB_ATTRIBUTE_SEPERATOR);
+
+        validateMapParamter(propertyEnum, node, graph);
+
+        // sub entity need minium 1 dot
+        if (!propertyEnum.getSubEntityAttributes().isEmpty() && graph.length < 2) {
+            throw createRSQLParameterUnsupportedException(node, enumType);
+        }
+
+        for (int i = 1; i < graph.length; i++) {
+            final String propertyField = graph[i];
+            finalProperty += FieldNameProvider.SUB_ATTRIBUTE_SEPERATOR + propertyField;
+
+            // the key of map is not in the graph
+            if (propertyEnum.isMap() && graph.length == (i + 1)) {
+                continue;
+            }
+
+            if (!propertyEnum.containsSubEntityAttribute(propertyField)) {
+                throw createRSQLParameterUnsupportedException(node, enumType);
+            }
+        }
+
+        return finalProperty;
+    }
+
+    private static <A extends Enum<A> & FieldNameProvider> void validateMapParamter(final A propertyEnum,
+            final ComparisonNode node, final String[] graph) {
+        if (!propertyEnum.isMap()) {
+            return;
+
+        }
+        if (!propertyEnum.getSubEntityAttributes().isEmpty()) {
+            throw new UnsupportedOperationException("Currently subentity attributes for maps are not supported");
+        }
+
+        // enum.key
+        final int minAttributeForMap = 2;
+        if (graph.length != minAttributeForMap) {
+            throw new RSQLParameterUnsupportedFieldException("The syntax of the given map search parameter field {"
+                    + node.getSelector() + "} is wrong. Syntax is: fieldname.keyname", new Exception());
+        }
+    }
+
+    private static <A extends Enum<A> & FieldNameProvider> RSQLParameterUnsupportedFieldException createRSQLParameterUnsupportedException(
+            final ComparisonNode node, final Class<A> enumType) {
+        return new RSQLParameterUnsupportedFieldException("The given search parameter field {" + node.getSelector()
+                + "} does not exist, must be one of the following fields {" + getExpectedFieldList(enumType) + "}",
+                new Exception());
+    }
+
+    // Exception squid:S2095 - see
+    // https://jira.sonarsource.com/browse/SONARJAVA-1478
+    @SuppressWarnings({ "squid:S2095" })
+    private static <A extends Enum<A> & FieldNameProvider> List<String> getExpectedFieldList(
+            final Class<A> enumType) {
+        final List<String> expectedFieldList = Arrays.stream(enumType.getEnumConstants())
+                .filter(enumField -> enumField.getSubEntityAttributes().isEmpty()).map(enumField -> {
+                    final String enumFieldName = enumField.name().toLowerCase();
+
+                    if (enumField.isMap()) {
+                        return enumFieldName + FieldNameProvider.SUB_ATTRIBUTE_SEPERATOR + "keyName";
+                    }
+
+                    return enumFieldName;
+                }).collect(Collectors.toList());
+
+        final List<String> expectedSubFieldList = Arrays.stream(enumType.getEnumConstants())
+                .filter(enumField -> !enumField.getSubEntityAttributes().isEmpty()).flatMap(enumField -> {
+                    final List<String> subEntity = enumField.getSubEntityAttributes().stream()
+                            .map(fieldName -> enumField.name().toLowerCase()
+                                    + FieldNameProvider.SUB_ATTRIBUTE_SEPERATOR + fieldName)
+                            .collect(Collectors.toList());
+
+                    return subEntity.stream();
+                }).collect(Collectors.toList());
+        expectedFieldList.addAll(expectedSubFieldList);
+        return expectedFieldList;
+    }
+
+    // Exception squid:S2095 - see
+    // https://jira.sonarsource.com/browse/SONARJAVA-1478
+    @SuppressWarnings({ "rawtypes", "unchecked", "squid:S2095" })
+    static Object transformEnumValue(final ComparisonNode node, final String value,
+            final Class<? extends Object> javaType) {
+        final Class<? extends Enum> tmpEnumType = (Class<? extends Enum>) javaType;
+        try {
+            return Enum.valueOf(tmpEnumType, value.toUpperCase());
+        } catch (final IllegalArgumentException e) {
+            // we could not transform the given string value into the enum
+            // type, so ignore
+            // it and return null and do not filter
+            LOGGER.info("given value {} cannot be transformed into the correct enum type {}", value.toUpperCase(),
+                    javaType);
+            LOGGER.debug("value cannot be transformed to an enum", e);
+
+            throw new RSQLParameterUnsupportedFieldException("field {" + node.getSelector()
+                    + "} must be one of the following values {" + Arrays.stream(tmpEnumType.getEnumConstants())
+                            .map(v -> v.name().toLowerCase()).collect(Collectors.toList())
+                    + "}", e);
+        }
+    }
+
     private static final class RSQLSpecification<A extends Enum<A> & FieldNameProvider, T> implements Specification<T> {
 
         private final String rsql;
@@ -204,59 +405,6 @@ public final class RSQLUtility {
             return Collections.singletonList(predicate);
         }
 
-        private String getAndValidatePropertyFieldName(final A propertyEnum, final ComparisonNode node) {
-            String finalProperty = propertyEnum.getFieldName();
-            final String[] graph = node.getSelector().split("\\" + FieldNameProvider.SUB_ATTRIBUTE_SEPERATOR);
-
-            validateMapParamter(propertyEnum, node, graph);
-
-            // sub entity need minium 1 dot
-            if (!propertyEnum.getSubEntityAttributes().isEmpty() && graph.length < 2) {
-                throw createRSQLParameterUnsupportedException(node);
-            }
-
-            for (int i = 1; i < graph.length; i++) {
-                final String propertyField = graph[i];
-                finalProperty += FieldNameProvider.SUB_ATTRIBUTE_SEPERATOR + propertyField;
-
-                // the key of map is not in the graph
-                if (propertyEnum.isMap() && graph.length == (i + 1)) {
-                    continue;
-                }
-
-                if (!propertyEnum.containsSubEntityAttribute(propertyField)) {
-                    throw createRSQLParameterUnsupportedException(node);
-                }
-            }
-
-            return finalProperty;
-        }
-
-        private void validateMapParamter(final A propertyEnum, final ComparisonNode node, final String[] graph) {
-            if (!propertyEnum.isMap()) {
-                return;
-
-            }
-            if (!propertyEnum.getSubEntityAttributes().isEmpty()) {
-                throw new UnsupportedOperationException("Currently subentity attributes for maps are not supported");
-            }
-
-            // enum.key
-            final int minAttributeForMap = 2;
-            if (graph.length != minAttributeForMap) {
-                throw new RSQLParameterUnsupportedFieldException("The syntax of the given map search parameter field {"
-                        + node.getSelector() + "} is wrong. Syntax is: fieldname.keyname", new Exception());
-            }
-        }
-
-        private RSQLParameterUnsupportedFieldException createRSQLParameterUnsupportedException(
-                final ComparisonNode node) {
-            return new RSQLParameterUnsupportedFieldException(
-                    "The given search parameter field {" + node.getSelector()
-                            + "} does not exist, must be one of the following fields {" + getExpectedFieldList() + "}",
-                    new Exception());
-        }
-
         private Path<Object> getFieldPath(final A enumField, final String finalProperty) {
             Path<Object> fieldPath = null;
             final String[] split = finalProperty.split("\\" + FieldNameProvider.SUB_ATTRIBUTE_SEPERATOR);
@@ -277,22 +425,10 @@ public final class RSQLUtility {
         }
 
         @Override
-        // Exception squid:S2095 - see
-        // https://jira.sonarsource.com/browse/SONARJAVA-1478
-        @SuppressWarnings({ "squid:S2095" })
         public List<Predicate> visit(final ComparisonNode node, final String param) {
-            A fieldName = null;
-            try {
-                fieldName = getFieldEnumByName(node);
-            } catch (final IllegalArgumentException e) {
-                throw new RSQLParameterUnsupportedFieldException("The given search parameter field {"
-                        + node.getSelector() + "} does not exist, must be one of the following fields {"
-                        + Arrays.stream(enumType.getEnumConstants()).map(v -> v.name().toLowerCase())
-                                .collect(Collectors.toList())
-                        + "}", e);
-
-            }
-            final String finalProperty = getAndValidatePropertyFieldName(fieldName, node);
+            final FieldMapping<A> fieldMapping = getFieldMapping(node, enumType);
+            final A fieldName = fieldMapping.getField();
+            final String finalProperty = fieldMapping.getProperty();
 
             final List<String> values = node.getArguments();
             final List<Object> transformedValue = new ArrayList<>();
@@ -305,44 +441,6 @@ public final class RSQLUtility {
             return mapToPredicate(node, fieldPath, node.getArguments(), transformedValue, fieldName);
         }
 
-        // Exception squid:S2095 - see
-        // https://jira.sonarsource.com/browse/SONARJAVA-1478
-        @SuppressWarnings({ "squid:S2095" })
-        private List<String> getExpectedFieldList() {
-            final List<String> expectedFieldList = Arrays.stream(enumType.getEnumConstants())
-                    .filter(enumField -> enumField.getSubEntityAttributes().isEmpty()).map(enumField -> {
-                        final String enumFieldName = enumField.name().toLowerCase();
-
-                        if (enumField.isMap()) {
-                            return enumFieldName + FieldNameProvider.SUB_ATTRIBUTE_SEPERATOR + "keyName";
-                        }
-
-                        return enumFieldName;
-                    }).collect(Collectors.toList());
-
-            final List<String> expectedSubFieldList = Arrays.stream(enumType.getEnumConstants())
-                    .filter(enumField -> !enumField.getSubEntityAttributes().isEmpty()).flatMap(enumField -> {
-                        final List<String> subEntity = enumField.getSubEntityAttributes().stream()
-                                .map(fieldName -> enumField.name().toLowerCase()
-                                        + FieldNameProvider.SUB_ATTRIBUTE_SEPERATOR + fieldName)
-                                .collect(Collectors.toList());
-
-                        return subEntity.stream();
-                    }).collect(Collectors.toList());
-            expectedFieldList.addAll(expectedSubFieldList);
-            return expectedFieldList;
-        }
-
-        private A getFieldEnumByName(final ComparisonNode node) {
-            String enumName = node.getSelector();
-            final String[] graph = enumName.split("\\" + FieldNameProvider.SUB_ATTRIBUTE_SEPERATOR);
-            if (graph.length != 0) {
-                enumName = graph[0];
-            }
-            LOGGER.debug("get fieldidentifier by name {} of enum type {}", enumName, enumType);
-            return Enum.valueOf(enumType, enumName.toUpperCase());
-        }
-
         private Object convertValueIfNecessary(final ComparisonNode node, final A fieldName, final String value,
                 final Path<Object> fieldPath) {
             // in case the value of an rsql query e.g. type==application is an
@@ -394,29 +492,6 @@ public final class RSQLUtility {
             }
         }
 
-        // Exception squid:S2095 - see
-        // https://jira.sonarsource.com/browse/SONARJAVA-1478
-        @SuppressWarnings({ "rawtypes", "unchecked", "squid:S2095" })
-        private Object transformEnumValue(final ComparisonNode node, final String value,
-                final Class<? extends Object> javaType) {
-            final Class<? extends Enum> tmpEnumType = (Class<? extends Enum>) javaType;
-            try {
-                return Enum.valueOf(tmpEnumType, value.toUpperCase());
-            } catch (final IllegalArgumentException e) {
-                // we could not transform the given string value into the enum
-                // type, so ignore
-                // it and return null and do not filter
-                LOGGER.info("given value {} cannot be transformed into the correct enum type {}", value.toUpperCase(),
-                        javaType);
-                LOGGER.debug("value cannot be transformed to an enum", e);
-
-                throw new RSQLParameterUnsupportedFieldException("field {" + node.getSelector()
-                        + "} must be one of the following values {" + Arrays.stream(tmpEnumType.getEnumConstants())
-                                .map(v -> v.name().toLowerCase()).collect(Collectors.toList())
-                        + "}", e);
-            }
-        }
-
         private List<Predicate> mapToPredicate(final ComparisonNode node, final Path<Object> fieldPath,
                 final List<String> values, final List<Object> transformedValues, final A enumField) {
             // only 'equal' and 'notEqual' can handle transformed value like
@@ -512,8 +587,7 @@ public final class RSQLUtility {
             if (!enumField.isMap()) {
                 return null;
             }
-            final String[] graph = node.getSelector().split("\\" + FieldNameProvider.SUB_ATTRIBUTE_SEPERATOR);
-            final String keyValue = graph[graph.length - 1];
+            final String keyValue = getFieldMapping(node, enumType).getMapKey();
             if (fieldPath instanceof MapJoin) {
                 // Currently we support only string key .So below cast is safe.
                 return cb.equal(cb.upper((Expression<String>) (((MapJoin<?, ?, ?>) fieldPath).key())),
@@ -563,4 +637,67 @@ public final class RSQLUtility {
         }
 
     }
+
+    /**
+     * The validated mapping of an RSQL selector to the field of an entity.
+     *
+     * @param <A>
+     *            the enum for providing the field name of the entity field
+     */
+    static final class FieldMapping<A extends Enum<A> & FieldNameProvider> {
+        private final A field;
+        private final String property;
+        private final String mapKey;
+
+        private FieldMapping(final A field, final String property, final String mapKey) {
+            this.field = field;
+            this.property = property;
+            this.mapKey = mapKey;
+        }
+
+        A getField() {
+            return field;
+        }
+
+        /**
+         * @return the property path of the field, including the key of a map
+         */
+        String getProperty() {
+            return property;
+        }
+
+        /**
+         * @return the key of a map field, otherwise <code>null</code>
+         */
+        String getMapKey() {
+            return mapKey;
+        }
+    }
+
+    private static final class FieldKey {
+        private final Class<?> enumType;
+        private final String selector;
+
+        private FieldKey(final Class<?> enumType, final String selector) {
+            this.enumType = enumType;
+            this.selector = selector;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * enumType.hashCode() + selector.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FieldKey)) {
+                return false;
+            }
+            final FieldKey other = (FieldKey) obj;
+            return enumType.equals(other.enumType) && selector.equals(other.selector);
+        }
+    }
 }
@@ -0,0 +1,15 @@
+    create table sp_report_rollup (
+        tenant varchar(40) not null,
+        series varchar(16) not null,
+        granularity varchar(8) not null,
+        bucket_start bigint not null,
+        amount bigint not null,
+        primary key (tenant, series, granularity, bucket_start)
+);
+
+    create table sp_report_rollup_state (
+        tenant varchar(40) not null,
+        dirty boolean not null,
+        backfilled_at bigint not null,
+        primary key (tenant)
+);
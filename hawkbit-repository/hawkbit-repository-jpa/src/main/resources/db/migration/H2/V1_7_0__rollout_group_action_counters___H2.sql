@@ -0,0 +1,5 @@
+alter table sp_rolloutgroup add column total_actions bigint default 0 not null;
+alter table sp_rolloutgroup add column finished_actions bigint default 0 not null;
+alter table sp_rolloutgroup add column error_actions bigint default 0 not null;
+alter table sp_rolloutgroup add column canceled_actions bigint default 0 not null;
+alter table sp_rolloutgroup add column counters_reconciled_at bigint default 0 not null;
@@ -0,0 +1,10 @@
+    create table sp_tenant_usage (
+        tenant varchar(40) not null,
+        targets bigint not null,
+        actions bigint not null,
+        artifacts bigint not null,
+        artifact_bytes bigint not null,
+        dirty boolean not null,
+        reconciled_at bigint not null,
+        primary key (tenant)
+);
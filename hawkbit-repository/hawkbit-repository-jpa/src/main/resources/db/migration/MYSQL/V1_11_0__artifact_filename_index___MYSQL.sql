@@ -0,0 +1 @@
+    create index sp_idx_artifact_02 on sp_artifact (tenant, provided_file_name);
@@ -0,0 +1,2 @@
+alter table sp_rolloutgroup add column counters_version bigint default 1 not null;
+alter table sp_rolloutgroup add column checked_counters_version bigint default 0 not null;
@@ -0,0 +1,14 @@
+    create table sp_tenant_deletion (
+        id bigint not null auto_increment,
+        created_at bigint,
+        created_by varchar(40),
+        last_modified_at bigint,
+        last_modified_by varchar(40),
+        optlock_revision bigint,
+        tenant varchar(40) not null,
+        step integer not null,
+        deleted_rows bigint not null,
+        primary key (id)
+	);
+
+	alter table sp_tenant_deletion add constraint uk_tenant_deletion_tenant unique (tenant);
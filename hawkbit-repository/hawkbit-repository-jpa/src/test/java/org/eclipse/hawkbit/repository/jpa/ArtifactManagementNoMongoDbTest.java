@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.repository.jpa;
 
+import static org.fest.assertions.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
@@ -15,9 +16,12 @@ import java.io.IOException;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.eclipse.hawkbit.repository.exception.ArtifactUploadFailedException;
+import org.eclipse.hawkbit.repository.jpa.model.JpaLocalArtifact;
 import org.eclipse.hawkbit.repository.jpa.model.JpaSoftwareModule;
+import org.eclipse.hawkbit.repository.model.LocalArtifact;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import ru.yandex.qatools.allure.annotations.Description;
 import ru.yandex.qatools.allure.annotations.Features;
@@ -31,6 +35,9 @@ import ru.yandex.qatools.allure.annotations.Stories;
 @Stories("Artifact Management")
 public class ArtifactManagementNoMongoDbTest extends AbstractJpaIntegrationTest {
 
+    @Autowired
+    private ArtifactDownloadIndex artifactDownloadIndex;
+
     @BeforeClass
     public static void initialize() {
         // set property to mongoPort which does not start any mongoDB of
@@ -55,4 +62,26 @@ public class ArtifactManagementNoMongoDbTest extends AbstractJpaIntegrationTest
         }
     }
 
+    @Test
+    @Description("Verifies that the artifacts of a file name are answered from the download index and that an outdated entry falls back to the query by file name.")
+    public void findLocalArtifactByFilenameFromIndex() {
+        // stored without binary, the lookup only reads the meta data
+        final LocalArtifact artifact = createArtifactWithoutBinary("name 1", "hash1");
+        final LocalArtifact artifact2 = createArtifactWithoutBinary("name 2", "hash2");
+
+        assertThat(artifactManagement.findLocalArtifactByFilename("indexedFile")).containsOnly(artifact, artifact2);
+        final long hits = artifactDownloadIndex.getHits();
+        assertThat(artifactManagement.findLocalArtifactByFilename("indexedFile")).containsOnly(artifact, artifact2);
+        assertThat(artifactDownloadIndex.getHits()).isEqualTo(hits + 1);
+
+        // deleted without eviction, e.g. on another node
+        artifactRepository.delete(artifact2.getId());
+        assertThat(artifactManagement.findLocalArtifactByFilename("indexedFile")).containsOnly(artifact);
+    }
+
+    private LocalArtifact createArtifactWithoutBinary(final String moduleName, final String hash) {
+        final JpaSoftwareModule sm = new JpaSoftwareModule(osType, moduleName, "version 1", null, null);
+        sm.addArtifact(new JpaLocalArtifact(hash, "indexedFile", sm));
+        return softwareModuleRepository.save(sm).getLocalArtifacts().get(0);
+    }
 }
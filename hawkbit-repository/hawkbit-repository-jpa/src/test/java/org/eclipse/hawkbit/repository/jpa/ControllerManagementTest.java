@@ -11,6 +11,7 @@ package org.eclipse.hawkbit.repository.jpa;
 import static org.fest.assertions.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
 
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -18,12 +19,16 @@ import javax.validation.ConstraintViolationException;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetCreatedEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetSecurityTokenChangedEvent;
+import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
 import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.model.Action;
 import org.eclipse.hawkbit.repository.model.Action.Status;
 import org.eclipse.hawkbit.repository.model.ActionStatus;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
 import org.junit.Test;
@@ -39,6 +44,107 @@ public class ControllerManagementTest extends AbstractJpaIntegrationTest {
     @Autowired
     private RepositoryProperties repositoryProperties;
 
+    @Autowired
+    private TargetPollWriteBehindBuffer targetPollWriteBehindBuffer;
+
+    @Autowired
+    private TargetSecurityTokenCache targetSecurityTokenCache;
+
+    @Autowired
+    private ArtifactDownloadIndex artifactDownloadIndex;
+
+    @Test
+    @Description("Verifies that the security token is verified from the cache, including unknown controllers, and that the cache is evicted on target creation, token change and deletion.")
+    public void verifySecurityTokenWithCache() {
+        assertThat(controllerManagament.verifySecurityToken("tokenTarget", "token")).as("unknown controller")
+                .isFalse();
+        final long misses = targetSecurityTokenCache.getMisses();
+        assertThat(controllerManagament.verifySecurityToken("tokenTarget", "token"))
+                .as("unknown controller is cached").isFalse();
+        assertThat(targetSecurityTokenCache.getMisses()).isEqualTo(misses);
+
+        Target target = targetManagement.createTarget(new JpaTarget("tokenTarget", "token"));
+        assertThat(controllerManagament.verifySecurityToken("tokenTarget", "token")).as("evicted on creation")
+                .isTrue();
+        final long hits = targetSecurityTokenCache.getHits();
+        assertThat(controllerManagament.verifySecurityToken("tokenTarget", "token")).isTrue();
+        assertThat(controllerManagament.verifySecurityToken("tokenTarget", "wrongToken")).isFalse();
+        assertThat(targetSecurityTokenCache.getHits()).isEqualTo(hits + 2);
+
+        target.setSecurityToken("newToken");
+        target = targetManagement.updateTarget(target);
+        assertThat(controllerManagament.verifySecurityToken("tokenTarget", "token")).as("evicted on update")
+                .isFalse();
+        assertThat(controllerManagament.verifySecurityToken("tokenTarget", "newToken")).isTrue();
+
+        targetManagement.deleteTargets(target.getId());
+        assertThat(controllerManagament.verifySecurityToken("tokenTarget", "newToken")).as("evicted on deletion")
+                .isFalse();
+        assertThat(targetSecurityTokenCache.getHitRate()).isGreaterThan(0);
+    }
+
+    @Test
+    @Description("Verifies that a controller cached as unknown is evicted by the create event of a target which has been created on another node.")
+    public void verifySecurityTokenEvictedByTargetCreatedEvent() {
+        assertThat(controllerManagament.verifySecurityToken("remoteTokenTarget", "token")).as("unknown controller")
+                .isFalse();
+
+        // created on another node, so the cache of this node is not evicted
+        // by the repository
+        final Target target = targetRepository.save(new JpaTarget("remoteTokenTarget", "token"));
+        assertThat(controllerManagament.verifySecurityToken("remoteTokenTarget", "token"))
+                .as("unknown controller is cached").isFalse();
+
+        targetSecurityTokenCache.onTargetCreated(new TargetCreatedEvent(target));
+        assertThat(controllerManagament.verifySecurityToken("remoteTokenTarget", "token"))
+                .as("evicted on create event").isTrue();
+    }
+
+    @Test
+    @Description("Verifies that a cached security token is evicted by the change event of a token which has been changed on another node.")
+    public void verifySecurityTokenEvictedByTokenChangedEvent() {
+        final JpaTarget target = (JpaTarget) targetManagement.createTarget(new JpaTarget("changedTokenTarget", "token"));
+        assertThat(controllerManagament.verifySecurityToken("changedTokenTarget", "token")).isTrue();
+
+        // changed on another node, so the cache of this node is not evicted
+        // by the repository
+        target.setNew(false);
+        target.setSecurityToken("newToken");
+        targetRepository.save(target);
+        assertThat(controllerManagament.verifySecurityToken("changedTokenTarget", "token"))
+                .as("old token is cached").isTrue();
+
+        targetSecurityTokenCache
+                .onSecurityTokenChanged(new TargetSecurityTokenChangedEvent(target.getTenant(), "changedTokenTarget"));
+        assertThat(controllerManagament.verifySecurityToken("changedTokenTarget", "newToken"))
+                .as("evicted on change event").isTrue();
+    }
+
+    @Test
+    @Description("Verifies that the action which authorizes a download is answered from the download index and that canceled actions are rejected although they are still indexed.")
+    public void downloadActionIsAnsweredFromIndex() {
+        final DistributionSet ds = testdataFactory.createDistributionSet("");
+        final Target target = targetManagement.createTarget(new JpaTarget("downloadTarget"));
+        deploymentManagement.assignDistributionSet(ds.getId(), "downloadTarget");
+        final Action action = deploymentManagement.findActiveActionsByTarget(target).get(0);
+        final SoftwareModule module = ds.getModules().iterator().next();
+
+        assertThat(controllerManagament.getActionForDownloadByTargetAndSoftwareModule("downloadTarget", module))
+                .isEqualTo(action);
+        final long hits = artifactDownloadIndex.getHits();
+        assertThat(controllerManagament.getActionForDownloadByTargetAndSoftwareModule("downloadTarget", module))
+                .isEqualTo(action);
+        assertThat(artifactDownloadIndex.getHits()).isEqualTo(hits + 1);
+
+        deploymentManagement.cancelAction(action, target);
+        try {
+            controllerManagament.getActionForDownloadByTargetAndSoftwareModule("downloadTarget", module);
+            fail("canceled action should not authorize the download");
+        } catch (final EntityNotFoundException e) {
+            assertThat(artifactDownloadIndex.getActionId("downloadTarget", module.getId())).isNull();
+        }
+    }
+
     @Test
     @Description("Controller adds a new action status.")
     public void controllerAddsActionStatus() {
@@ -96,6 +202,38 @@ public class ControllerManagementTest extends AbstractJpaIntegrationTest {
         }
     }
 
+    @Test
+    @Description("Polls are collected by the write-behind buffer and written with the next flush while address changes are written immediately.")
+    public void targetPollIsWrittenBehindIfEnabled() {
+        final URI address = URI.create("http://127.0.0.1");
+        controllerManagament.findOrRegisterTargetIfItDoesNotexist("pollingTarget", address);
+        final Long firstPoll = targetManagement.findTargetByControllerID("pollingTarget").getTargetInfo()
+                .getLastTargetQuery();
+
+        repositoryProperties.getTargetPoll().setWriteBehind(true);
+        try {
+            controllerManagament.updateLastTargetQuery("pollingTarget", address);
+            assertThat(targetPollWriteBehindBuffer.getSize()).as("poll should be buffered").isEqualTo(1);
+            assertThat(targetManagement.findTargetByControllerID("pollingTarget").getTargetInfo()
+                    .getLastTargetQuery()).as("poll should not be written yet").isEqualTo(firstPoll);
+
+            targetPollWriteBehindBuffer.flush();
+            assertThat(targetPollWriteBehindBuffer.getSize()).isEqualTo(0);
+            final Long flushedPoll = targetManagement.findTargetByControllerID("pollingTarget").getTargetInfo()
+                    .getLastTargetQuery();
+            assertThat(flushedPoll).as("poll should be written by flush").isGreaterThanOrEqualTo(firstPoll);
+
+            final URI newAddress = URI.create("http://127.0.0.2");
+            controllerManagament.updateLastTargetQuery("pollingTarget", newAddress);
+            assertThat(targetPollWriteBehindBuffer.getSize()).as("address change should not be buffered")
+                    .isEqualTo(0);
+            assertThat(targetManagement.findTargetByControllerID("pollingTarget").getTargetInfo().getAddress())
+                    .isEqualTo(newAddress);
+        } finally {
+            repositoryProperties.getTargetPoll().setWriteBehind(false);
+        }
+    }
+
     @Test
     @Description("Controller trys to finish an update process after it has been finished by an error action status.")
     public void tryToFinishUpdateProcessMoreThanOnce() {
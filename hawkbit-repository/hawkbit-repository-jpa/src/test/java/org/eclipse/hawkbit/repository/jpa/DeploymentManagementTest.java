@@ -24,6 +24,8 @@ import java.util.stream.Collectors;
 import org.eclipse.hawkbit.eventbus.event.CancelTargetAssignmentEvent;
 import org.eclipse.hawkbit.repository.ActionStatusFields;
 import org.eclipse.hawkbit.repository.DistributionSetAssignmentResult;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetAssignDistributionSetBulkEvent;
 import org.eclipse.hawkbit.repository.eventbus.event.TargetAssignDistributionSetEvent;
 import org.eclipse.hawkbit.repository.exception.ForceQuitActionNotAllowedException;
 import org.eclipse.hawkbit.repository.exception.IncompleteDistributionSetException;
@@ -72,6 +74,9 @@ public class DeploymentManagementTest extends AbstractJpaIntegrationTest {
     @Autowired
     private EventBus eventBus;
 
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
     @Test
     @Description("Test verifies that the repistory retrieves the action including all defined (lazy) details.")
     public void findActionWithLazyDetails() {
@@ -430,6 +435,65 @@ public class DeploymentManagementTest extends AbstractJpaIntegrationTest {
         assertTargetAssignDistributionSetEvents(savedDeployedTargets, ds, events);
     }
 
+    @Test
+    @Description("Assignment to a number of targets above the bulk threshold creates the actions in chunks with "
+            + "the same result as the regular assignment and reports every chunk by one bulk event.")
+    public void assignDistributionSetInBulk() throws InterruptedException {
+        final int bulkThreshold = repositoryProperties.getAssignment().getBulkThreshold();
+        final int chunkSize = repositoryProperties.getAssignment().getChunkSize();
+        repositoryProperties.getAssignment().setBulkThreshold(5);
+        repositoryProperties.getAssignment().setChunkSize(4);
+        try {
+            final EventHandlerMock eventHandlerMock = new EventHandlerMock(1);
+            eventBus.register(eventHandlerMock);
+            final BulkEventHandlerMock bulkEventHandlerMock = new BulkEventHandlerMock(3);
+            eventBus.register(bulkEventHandlerMock);
+
+            List<Target> targets = targetManagement
+                    .createTargets(testdataFactory.generateTargets(10, "bulk", "first description"));
+            final DistributionSet ds = testdataFactory.createDistributionSet("");
+            // one target has the set already assigned and is skipped
+            deploymentManagement.assignDistributionSet(ds, targets.subList(0, 1));
+
+            final DistributionSetAssignmentResult result = deploymentManagement.assignDistributionSet(ds, targets);
+
+            assertThat(result.getAssigned()).as("wrong number of assigned targets").isEqualTo(9);
+            assertThat(result.getAlreadyAssigned()).as("wrong number of already assigned targets").isEqualTo(1);
+            assertThat(result.getActions()).as("wrong number of actions").hasSize(9);
+            assertThat(actionRepository.count()).as("wrong number of actions").isEqualTo(10);
+            assertThat(actionStatusRepository.count()).as("wrong number of action status").isEqualTo(10);
+
+            targets = targetManagement.findTargetByControllerID(
+                    targets.stream().map(Target::getControllerId).collect(Collectors.toList()));
+            for (final Target target : targets) {
+                final List<Action> activeActions = deploymentManagement.findActiveActionsByTarget(target);
+                assertThat(activeActions).as("wrong number of active actions").hasSize(1);
+                assertThat(activeActions.get(0).getStatus()).as("wrong action status").isEqualTo(Status.RUNNING);
+                assertThat(activeActions.get(0).getDistributionSet()).as("action has wrong ds").isEqualTo(ds);
+                assertThat(target.getAssignedDistributionSet()).as("wrong assigned ds").isEqualTo(ds);
+                assertThat(target.getTargetInfo().getUpdateStatus()).as("wrong target update status")
+                        .isEqualTo(TargetUpdateStatus.PENDING);
+            }
+
+            final List<TargetAssignDistributionSetBulkEvent> bulkEvents = bulkEventHandlerMock.getEvents(10,
+                    TimeUnit.SECONDS);
+            assertThat(bulkEvents.stream().map(TargetAssignDistributionSetBulkEvent::getProcessedTargets)
+                    .collect(Collectors.toList())).as("wrong progress of the chunks").containsExactly(4, 8, 10);
+            assertThat(bulkEvents.stream().map(TargetAssignDistributionSetBulkEvent::getTotalTargets)
+                    .collect(Collectors.toSet())).as("wrong total number of targets").containsOnly(10);
+            assertThat(bulkEvents.stream().mapToInt(event -> event.getTargetInfos().size()).sum())
+                    .as("wrong number of updated target infos").isEqualTo(9);
+
+            final List<TargetAssignDistributionSetEvent> events = new ArrayList<>(
+                    eventHandlerMock.getEvents(10, TimeUnit.SECONDS));
+            bulkEvents.forEach(event -> events.addAll(event.getAssignments()));
+            assertTargetAssignDistributionSetEvents(targets, ds, events);
+        } finally {
+            repositoryProperties.getAssignment().setBulkThreshold(bulkThreshold);
+            repositoryProperties.getAssignment().setChunkSize(chunkSize);
+        }
+    }
+
     @Test
     @Description("Test that it is not possible to assign a distribution set that is not complete.")
     public void failDistributionSetAssigmentThatIsNotComplete() throws InterruptedException {
@@ -1053,6 +1117,33 @@ public class DeploymentManagementTest extends AbstractJpaIntegrationTest {
         }
     }
 
+    private static class BulkEventHandlerMock {
+        private final List<TargetAssignDistributionSetBulkEvent> events = Collections
+                .synchronizedList(new LinkedList<>());
+        private final CountDownLatch latch;
+        private final int expectedNumberOfEvents;
+
+        private BulkEventHandlerMock(final int expectedNumberOfEvents) {
+            this.expectedNumberOfEvents = expectedNumberOfEvents;
+            this.latch = new CountDownLatch(expectedNumberOfEvents);
+        }
+
+        @Subscribe
+        public void handleEvent(final TargetAssignDistributionSetBulkEvent event) {
+            events.add(event);
+            latch.countDown();
+        }
+
+        public List<TargetAssignDistributionSetBulkEvent> getEvents(final long timeout, final TimeUnit unit)
+                throws InterruptedException {
+            latch.await(timeout, unit);
+            final List<TargetAssignDistributionSetBulkEvent> handledEvents = new LinkedList<>(events);
+            assertThat(handledEvents).as("Did not receive the expected amount of events (" + expectedNumberOfEvents
+                    + ") within timeout. Received events are " + handledEvents).hasSize(expectedNumberOfEvents);
+            return handledEvents;
+        }
+    }
+
     private static class CancelEventHandlerMock {
         private final List<CancelTargetAssignmentEvent> events = Collections.synchronizedList(new LinkedList<>());
         private final CountDownLatch latch;
@@ -37,6 +37,8 @@ public class MethodSecurityUtil {
         // the authentication process
         // ControllerManagement#getSecurityTokenByControllerId()
         METHOD_SECURITY_EXCLUSION.add("getSecurityTokenByControllerId");
+        // ControllerManagement#verifySecurityToken()
+        METHOD_SECURITY_EXCLUSION.add("verifySecurityToken");
     }
 
     /**
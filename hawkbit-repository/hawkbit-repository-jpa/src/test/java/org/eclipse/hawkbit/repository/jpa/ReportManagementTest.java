@@ -65,6 +65,9 @@ public class ReportManagementTest extends AbstractJpaIntegrationTest {
     @Autowired
     private AuditingHandler auditingHandler;
 
+    @Autowired
+    private ReportRollups reportRollups;
+
     @After
     public void afterTest() {
         auditingHandler.setDateTimeProvider(CurrentDateTimeProvider.INSTANCE);
@@ -173,6 +176,47 @@ public class ReportManagementTest extends AbstractJpaIntegrationTest {
 
     }
 
+    @Test
+    @Description("Ensures that the created targets report is maintained incrementally from the rollups and corrected without a backfill after a bulk delete.")
+    public void targetsCreatedOverPeriodIsServedFromRollups() {
+        final DynamicDateTimeProvider dynamicDateTimeProvider = new DynamicDateTimeProvider();
+        auditingHandler.setDateTimeProvider(dynamicDateTimeProvider);
+        final DistributionSet distributionSet = testdataFactory.createDistributionSet("ds");
+
+        final List<Long> targetIds = new ArrayList<>();
+        for (int month = 0; month < 3; month++) {
+            dynamicDateTimeProvider.nowMinusMonths(month);
+            final Target target = targetManagement.createTarget(new JpaTarget("t" + month));
+            deploymentManagement.assignDistributionSet(distributionSet, Lists.newArrayList(target));
+            targetIds.add(target.getId());
+        }
+
+        final LocalDateTime to = LocalDateTime.now();
+        final LocalDateTime from = to.minusMonths(2);
+        assertThat(reportManagement.targetsCreatedOverPeriod(DateTypes.perMonth(), from, to).getData())
+                .as("created over period has wrong size").hasSize(3);
+        final long backfills = reportRollups.getBackfills();
+
+        dynamicDateTimeProvider.nowMinusMonths(1);
+        targetManagement.createTarget(new JpaTarget("lastMonth"));
+        DataReportSeriesItem<LocalDate>[] data = reportManagement
+                .targetsCreatedOverPeriod(DateTypes.perMonth(), from, to).getData();
+        assertThat(data).as("created over period has wrong size").hasSize(3);
+        assertThat(data[1].getData()).as("targets of last month").isEqualTo(2L);
+        assertThat(reportRollups.getBackfills()).as("buckets are maintained incrementally").isEqualTo(backfills);
+
+        assertThat(reportManagement.feedbackReceivedOverTime(DateTypes.perMonth(), from, to).getData())
+                .as("feedback over period has wrong size").hasSize(3);
+
+        targetManagement.deleteTargets(targetIds.get(0));
+        data = reportManagement.targetsCreatedOverPeriod(DateTypes.perMonth(), from, to).getData();
+        assertThat(data).as("created over period has wrong size").hasSize(2);
+        assertThat(reportManagement.feedbackReceivedOverTime(DateTypes.perMonth(), from, to).getData())
+                .as("actions of the deleted target are subtracted").hasSize(2);
+        assertThat(reportRollups.getBackfills()).as("buckets are corrected without backfill after bulk delete")
+                .isEqualTo(backfills);
+    }
+
     @Test
     @Description("Tests correct statistics calculation including a correct cache evict.")
     public void distributionUsageInstalled() {
@@ -15,13 +15,16 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.repository.OffsetBasedPageRequest;
 import org.eclipse.hawkbit.repository.RolloutGroupManagement;
 import org.eclipse.hawkbit.repository.RolloutManagement;
+import org.eclipse.hawkbit.repository.RolloutProperties;
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
 import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
+import org.eclipse.hawkbit.repository.jpa.model.JpaRolloutGroup;
 import org.eclipse.hawkbit.repository.jpa.utils.MultipleInvokeHelper;
 import org.eclipse.hawkbit.repository.jpa.utils.SuccessCondition;
 import org.eclipse.hawkbit.repository.model.Action;
@@ -70,6 +73,9 @@ public class RolloutManagementTest extends AbstractJpaIntegrationTest {
     @Autowired
     private RolloutGroupManagement rolloutGroupManagement;
 
+    @Autowired
+    private RolloutProperties rolloutProperties;
+
     @Test
     @Description("Verfiying that the rollout is created correctly, executing the filter and split up the targets in the correct group size.")
     public void creatingRolloutIsCorrectPersisted() {
@@ -89,6 +95,39 @@ public class RolloutManagementTest extends AbstractJpaIntegrationTest {
         assertThat(rolloutGroups).hasSize(amountGroups);
     }
 
+    @Test
+    @Description("Verfiying that the targets of a rollout are split up into disjoint groups in the order of their creation also if other targets were created in between.")
+    public void creatingRolloutSplitsInterleavedTargetsIntoDisjointGroups() {
+        for (int i = 0; i < 10; i++) {
+            targetManagement.createTarget(testdataFactory.generateTarget("interleaved-" + i, "rollout"));
+            targetManagement.createTarget(testdataFactory.generateTarget("other-" + i, "other"));
+        }
+        final Rollout createdRollout = createRolloutByVariables("interleavedRollout", "interleavedRollout", 3,
+                "controllerId==interleaved-*", testdataFactory.createDistributionSet("interleaved"), "50", "80");
+
+        final List<RolloutGroup> rolloutGroups = rolloutGroupManagement
+                .findRolloutGroupsByRolloutId(createdRollout.getId(), pageReq).getContent();
+        assertThat(rolloutGroups).hasSize(3);
+        assertThat(rolloutManagement.findRolloutById(createdRollout.getId()).getStatus())
+                .isEqualTo(RolloutStatus.READY);
+
+        final List<String> expectedControllerIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            expectedControllerIds.add("interleaved-" + i);
+        }
+        final int[] expectedGroupSizes = { 4, 4, 2 };
+        for (int i = 0; i < rolloutGroups.size(); i++) {
+            final List<String> groupControllerIds = rolloutGroupManagement
+                    .findRolloutGroupTargets(rolloutGroups.get(i),
+                            new OffsetBasedPageRequest(0, 100, new Sort(Direction.ASC, "id")))
+                    .getContent().stream().map(Target::getControllerId).collect(Collectors.toList());
+            assertThat(rolloutGroups.get(i).getTotalTargets()).isEqualTo(expectedGroupSizes[i]);
+            assertThat(groupControllerIds).isEqualTo(expectedControllerIds.subList(0, expectedGroupSizes[i]));
+            expectedControllerIds.removeAll(groupControllerIds);
+        }
+        assertThat(expectedControllerIds).isEmpty();
+    }
+
     @Test
     @Description("Verfiying that when the rollout is started the actions for all targets in the rollout is created and the state of the first group is running as well as the corresponding actions")
     public void startRolloutSetFirstGroupAndActionsInRunningStateAndOthersInScheduleState() {
@@ -163,6 +202,31 @@ public class RolloutManagementTest extends AbstractJpaIntegrationTest {
                         + group.getStatus() + " state"));
     }
 
+    @Test
+    @Description("Verfiying that rollouts which are not checked within the time budget are released for the next check")
+    public void checkRunningRolloutsReleasesRolloutsWhenTimeBudgetIsExceeded() {
+        final Rollout createdRollout = createSimpleTestRolloutWithTargetsAndDistributionSet(10, 0, 5, "50", "80");
+        rolloutManagement.startRollout(createdRollout);
+        changeStatusForAllRunningActions(createdRollout, Status.FINISHED);
+
+        final long timeBudget = rolloutProperties.getScheduler().getTenantTimeBudget();
+        rolloutProperties.getScheduler().setTenantTimeBudget(0);
+        try {
+            rolloutManagement.checkRunningRollouts(100_000);
+        } finally {
+            rolloutProperties.getScheduler().setTenantTimeBudget(timeBudget);
+        }
+        assertThat(rolloutGroupManagement.findRolloutGroupsByRolloutId(createdRollout.getId(),
+                new OffsetBasedPageRequest(1, 1, new Sort(Direction.ASC, "id"))).getContent().get(0).getStatus())
+                        .isEqualTo(RolloutGroupStatus.SCHEDULED);
+
+        // the released rollout is claimed again although the delay is not over
+        rolloutManagement.checkRunningRollouts(100_000);
+        assertThat(rolloutGroupManagement.findRolloutGroupsByRolloutId(createdRollout.getId(),
+                new OffsetBasedPageRequest(1, 1, new Sort(Direction.ASC, "id"))).getContent().get(0).getStatus())
+                        .isEqualTo(RolloutGroupStatus.RUNNING);
+    }
+
     @Test
     @Description("Verfiying that the error handling action of a group is executed to pause the current rollout")
     public void checkErrorHitOfGroupCallsErrorActionToPauseTheRollout() {
@@ -467,6 +531,83 @@ public class RolloutManagementTest extends AbstractJpaIntegrationTest {
         validateRolloutActionStatus(createdRollout.getId(), validationMap);
     }
 
+    @Test
+    @Description("Verify that the action counters of the rollout groups follow the status changes of the actions.")
+    public void rolloutGroupActionCountersFollowActionStatus() {
+        final Rollout createdRollout = createSimpleTestRolloutWithTargetsAndDistributionSet(10, 0, 2, "100", "80");
+        rolloutManagement.startRollout(createdRollout);
+
+        final List<RolloutGroup> groups = rolloutGroupManagement.findRolloutGroupsByRolloutId(createdRollout.getId(),
+                new OffsetBasedPageRequest(0, 10, new Sort(Direction.ASC, "id"))).getContent();
+        assertActionCounters(groups.get(0), 5, 0, 0, 0);
+        assertActionCounters(groups.get(1), 5, 0, 0, 0);
+
+        // finish two and fail one action of the running group
+        final List<Action> runningActions = deploymentManagement.findActionsByRolloutAndStatus(createdRollout,
+                Status.RUNNING);
+        controllerManagament.addUpdateActionStatus(
+                new JpaActionStatus((JpaAction) runningActions.get(0), Status.FINISHED, System.currentTimeMillis(), ""));
+        controllerManagament.addUpdateActionStatus(
+                new JpaActionStatus((JpaAction) runningActions.get(1), Status.FINISHED, System.currentTimeMillis(), ""));
+        controllerManagament.addUpdateActionStatus(
+                new JpaActionStatus((JpaAction) runningActions.get(2), Status.ERROR, System.currentTimeMillis(), ""));
+
+        // a manual assignment cancels two scheduled actions of the second group
+        final List<Target> scheduledTargets = rolloutGroupManagement
+                .findRolloutGroupTargets(groups.get(1), new OffsetBasedPageRequest(0, 2, new Sort(Direction.ASC, "id")))
+                .getContent();
+        deploymentManagement.assignDistributionSet(testdataFactory.createDistributionSet("dsForCounterTest"),
+                scheduledTargets);
+
+        assertActionCounters(groups.get(0), 5, 2, 1, 0);
+        assertActionCounters(groups.get(1), 5, 0, 0, 2);
+    }
+
+    @Test
+    @Description("Verify that a recount of the action counters does not overwrite a concurrent increment.")
+    public void recountDoesNotOverwriteConcurrentIncrement() {
+        final Rollout createdRollout = createSimpleTestRolloutWithTargetsAndDistributionSet(10, 0, 2, "100", "80");
+        rolloutManagement.startRollout(createdRollout);
+        final JpaRolloutGroup group = (JpaRolloutGroup) rolloutGroupManagement.findRolloutGroupsByRolloutId(
+                createdRollout.getId(), new OffsetBasedPageRequest(0, 1, new Sort(Direction.ASC, "id"))).getContent()
+                .get(0);
+
+        // an action finishes after the group has been loaded for the recount
+        rolloutGroupRepository.incrementActionCounters(group.getId(), 1, 0, 0);
+        assertThat(rolloutGroupRepository.reconcileActionCounters(group.getId(), group.getCountersVersion(), 5, 0, 0,
+                0, System.currentTimeMillis())).isEqualTo(0);
+        assertActionCounters(group, 5, 1, 0, 0);
+
+        final JpaRolloutGroup reloaded = (JpaRolloutGroup) rolloutGroupManagement.findRolloutGroupById(group.getId());
+        assertThat(rolloutGroupRepository.reconcileActionCounters(group.getId(), reloaded.getCountersVersion(), 5, 0,
+                0, 0, System.currentTimeMillis())).isEqualTo(1);
+        assertActionCounters(group, 5, 0, 0, 0);
+    }
+
+    @Test
+    @Description("Verify that the rollout check only evaluates running groups whose action counters changed since the last check.")
+    public void checkRunningRolloutsEvaluatesOnlyChangedGroups() {
+        final Rollout createdRollout = createSimpleTestRolloutWithTargetsAndDistributionSet(10, 0, 2, "100", "80");
+        rolloutManagement.startRollout(createdRollout);
+        final RolloutGroup firstGroup = rolloutGroupManagement.findRolloutGroupsByRolloutId(createdRollout.getId(),
+                new OffsetBasedPageRequest(0, 1, new Sort(Direction.ASC, "id"))).getContent().get(0);
+        assertThat(isCountersChecked(firstGroup)).as("started group is not checked yet").isFalse();
+
+        rolloutManagement.checkRunningRollouts(0);
+        assertThat(isCountersChecked(firstGroup)).as("group has been checked").isTrue();
+
+        final List<Action> runningActions = deploymentManagement.findActionsByRolloutAndStatus(createdRollout,
+                Status.RUNNING);
+        controllerManagament.addUpdateActionStatus(
+                new JpaActionStatus((JpaAction) runningActions.get(0), Status.FINISHED, System.currentTimeMillis(), ""));
+        assertThat(isCountersChecked(firstGroup)).as("finished action marks the group as changed").isFalse();
+
+        rolloutManagement.checkRunningRollouts(0);
+        assertThat(isCountersChecked(firstGroup)).as("changed group has been checked").isTrue();
+        assertThat(rolloutGroupManagement.findRolloutGroupById(firstGroup.getId()).getStatus())
+                .isEqualTo(RolloutGroupStatus.RUNNING);
+    }
+
     @Test
     @Description("Verify that target actions of a rollout get cancelled when another rollout with same targets gets started.")
     public void targetsOfRolloutGetDistributionSetAssignmentByOtherRollout() {
@@ -929,6 +1070,20 @@ public class RolloutManagementTest extends AbstractJpaIntegrationTest {
         }
     }
 
+    private boolean isCountersChecked(final RolloutGroup group) {
+        final JpaRolloutGroup reloaded = (JpaRolloutGroup) rolloutGroupManagement.findRolloutGroupById(group.getId());
+        return reloaded.getCountersVersion() == reloaded.getCheckedCountersVersion();
+    }
+
+    private void assertActionCounters(final RolloutGroup group, final long total, final long finished,
+            final long error, final long canceled) {
+        final JpaRolloutGroup reloaded = (JpaRolloutGroup) rolloutGroupManagement.findRolloutGroupById(group.getId());
+        assertThat(reloaded.getTotalActions()).isEqualTo(total);
+        assertThat(reloaded.getFinishedActions()).isEqualTo(finished);
+        assertThat(reloaded.getErrorActions()).isEqualTo(error);
+        assertThat(reloaded.getCanceledActions()).isEqualTo(canceled);
+    }
+
     private Rollout createSimpleTestRolloutWithTargetsAndDistributionSet(final int amountTargetsForRollout,
             final int amountOtherTargets, final int groupSize, final String successCondition,
             final String errorCondition) {
@@ -8,12 +8,16 @@
  */
 package org.eclipse.hawkbit.repository.jpa;
 
+import static org.fest.assertions.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
+import java.util.stream.Collectors;
+
 import org.eclipse.hawkbit.repository.TargetFilterQueryManagement;
 import org.eclipse.hawkbit.repository.exception.EntityAlreadyExistsException;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTargetFilterQuery;
+import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetFilterQuery;
 import org.junit.Test;
 
@@ -82,4 +86,31 @@ public class TargetFilterQueryManagenmentTest extends AbstractJpaIntegrationTest
 
     }
 
+    @Test
+    @Description("Verifies that the stored target filter queries are matched against a target in memory.")
+    public void findTargetFilterQueryMatchingTarget() {
+        targetFilterQueryManagement.createTargetFilterQuery(new JpaTargetFilterQuery("by name", "name==match*"));
+        targetFilterQueryManagement.createTargetFilterQuery(
+                new JpaTargetFilterQuery("by status", "updatestatus==unknown;controllerid=in=(MATCHING,other)"));
+        final TargetFilterQuery otherName = targetFilterQueryManagement
+                .createTargetFilterQuery(new JpaTargetFilterQuery("by other name", "name==other*"));
+        targetFilterQueryManagement.createTargetFilterQuery(new JpaTargetFilterQuery("by tag", "tag==*"));
+
+        final Target target = targetManagement.createTarget(entityFactory.generateTarget("matching"));
+
+        assertThat(targetFilterQueryManagement.findTargetFilterQueryMatchingTarget(target).stream()
+                .map(TargetFilterQuery::getName).collect(Collectors.toList())).containsOnly("by name", "by status");
+
+        // the compiled queries are evicted on changes
+        otherName.setQuery("name==*ing");
+        targetFilterQueryManagement.updateTargetFilterQuery(otherName);
+        assertThat(targetFilterQueryManagement.findTargetFilterQueryMatchingTarget(target).stream()
+                .map(TargetFilterQuery::getName).collect(Collectors.toList()))
+                        .containsOnly("by name", "by status", "by other name");
+
+        targetFilterQueryManagement.deleteTargetFilterQuery(otherName.getId());
+        assertThat(targetFilterQueryManagement.findTargetFilterQueryMatchingTarget(target).stream()
+                .map(TargetFilterQuery::getName).collect(Collectors.toList())).containsOnly("by name", "by status");
+    }
+
 }
@@ -32,8 +32,12 @@ import org.eclipse.hawkbit.repository.model.TargetTag;
 import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
 import org.eclipse.hawkbit.repository.model.TenantAwareBaseEntity;
 import org.junit.Test;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
 
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.primitives.Ints;
 
@@ -708,6 +712,76 @@ public class TargetManagementSearchTest extends AbstractJpaIntegrationTest {
 
     }
 
+    @Test
+    @Description("Verifies that seeking page by page behind the last target of the previous page returns all targets in the order of the offset based search.")
+    public void targetSearchWithKeysetPaging() {
+        final TargetTag tag = tagManagement.createTargetTag(new JpaTargetTag("keyset"));
+        final List<Target> tagged = targetManagement
+                .createTargets(testdataFactory.generateTargets(12, "tagged", "first description"));
+        targetManagement.toggleTagAssignment(tagged, tag);
+        targetManagement.createTargets(testdataFactory.generateTargets(13, "untagged", "first description"));
+
+        final Sort sort = new Sort(Direction.DESC, "createdAt").and(new Sort(Direction.DESC, "id"));
+        final List<Target> expected = targetManagement
+                .findTargetByFilters(new PageRequest(0, 100, sort), null, null, null, Boolean.FALSE, new String[0])
+                .getContent();
+        final List<Target> expectedTagged = targetManagement.findTargetByFilters(new PageRequest(0, 100, sort), null,
+                null, null, Boolean.FALSE, "keyset").getContent();
+
+        assertThat(findAllByKeyset(sort, 10, Boolean.FALSE, new String[0])).hasSize(25)
+                .containsExactly(expected.toArray(new Target[0]));
+        assertThat(findAllByKeyset(sort, 5, Boolean.FALSE, "keyset")).hasSize(12)
+                .containsExactly(expectedTagged.toArray(new Target[0]));
+    }
+
+    private List<Target> findAllByKeyset(final Sort sort, final int pageSize, final Boolean selectTargetWithNoTag,
+            final String... tagNames) {
+        final List<Target> result = new ArrayList<>();
+        Slice<Target> page = targetManagement.findTargetByFiltersAfter(sort, null, pageSize, null, null, null,
+                selectTargetWithNoTag, tagNames);
+        result.addAll(page.getContent());
+        while (page.hasNext()) {
+            assertThat(page.getContent()).hasSize(pageSize);
+            page = targetManagement.findTargetByFiltersAfter(sort, Iterables.getLast(page.getContent()), pageSize,
+                    null, null, null, selectTargetWithNoTag, tagNames);
+            result.addAll(page.getContent());
+        }
+        return result;
+    }
+
+    @Test
+    @Description("Verifies that seeking behind the last target keeps the order based on installed and assigned DS.")
+    public void targetSearchWithKeysetPagingAndOrderByDistributionSet() {
+        final List<Target> notAssigned = targetManagement
+                .createTargets(testdataFactory.generateTargets(3, "not", "first description"));
+        List<Target> targAssigned = targetManagement
+                .createTargets(testdataFactory.generateTargets(3, "assigned", "first description"));
+        List<Target> targInstalled = targetManagement
+                .createTargets(testdataFactory.generateTargets(3, "installed", "first description"));
+
+        final DistributionSet ds = testdataFactory.createDistributionSet("a");
+
+        targAssigned = deploymentManagement.assignDistributionSet(ds, targAssigned).getAssignedEntity();
+        targInstalled = deploymentManagement.assignDistributionSet(ds, targInstalled).getAssignedEntity();
+        targInstalled = sendUpdateActionStatusToTargets(ds, targInstalled, Status.FINISHED, "installed");
+
+        final List<Target> expected = targetManagement.findTargetsAllOrderByLinkedDistributionSet(pageReq, ds.getId(),
+                null, null, null, Boolean.FALSE, new String[0]).getContent();
+
+        final List<Target> result = new ArrayList<>();
+        Slice<Target> page = targetManagement.findTargetsAllOrderByLinkedDistributionSetAfter(null, 2, ds.getId(),
+                null, null, null, Boolean.FALSE, new String[0]);
+        result.addAll(page.getContent());
+        while (page.hasNext()) {
+            page = targetManagement.findTargetsAllOrderByLinkedDistributionSetAfter(
+                    Iterables.getLast(page.getContent()), 2, ds.getId(), null, null, null, Boolean.FALSE,
+                    new String[0]);
+            result.addAll(page.getContent());
+        }
+
+        assertThat(result).hasSize(9).containsExactly(expected.toArray(new Target[0]));
+    }
+
     @Test
     @Description("Verfies that targets with given assigned DS are returned from repository.")
     public void findTargetByAssignedDistributionSet() {
@@ -16,6 +16,7 @@ import static org.junit.Assert.fail;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -30,6 +31,7 @@ import javax.validation.ConstraintViolationException;
 
 import org.eclipse.hawkbit.im.authentication.SpPermission;
 import org.eclipse.hawkbit.repository.DistributionSetAssignmentResult;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.exception.EntityAlreadyExistsException;
 import org.eclipse.hawkbit.repository.exception.TenantNotExistException;
 import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
@@ -43,9 +45,12 @@ import org.eclipse.hawkbit.repository.model.Tag;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.model.TargetIdName;
 import org.eclipse.hawkbit.repository.model.TargetTag;
+import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
+import org.eclipse.hawkbit.repository.report.model.TenantUsage;
 import org.eclipse.hawkbit.repository.test.util.WithSpringAuthorityRule;
 import org.eclipse.hawkbit.repository.test.util.WithUser;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 
 import com.google.common.collect.Iterables;
@@ -58,6 +63,12 @@ import ru.yandex.qatools.allure.annotations.Stories;
 @Stories("Target Management")
 public class TargetManagementTest extends AbstractJpaIntegrationTest {
 
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
+    @Autowired
+    private TenantUsageCounters tenantUsageCounters;
+
     @Test
     @Description("Ensures that retrieving the target security is only permitted with the necessary permissions.")
     public void getTargetSecurityTokenOnlyWithCorrectPermission() throws Exception {
@@ -178,6 +189,37 @@ public class TargetManagementTest extends AbstractJpaIntegrationTest {
         assertThat(targetManagement.countTargetsAll()).as("target count is wrong").isEqualTo(0);
     }
 
+    @Test
+    @Description("Ensures that the usage statistics of the tenant follow created and deleted targets and actions without recounting them.")
+    public void tenantUsageCountersFollowCreatedAndDeletedTargets() {
+        final String tenant = tenantAware.getCurrentTenant();
+        assertThat(tenantUsageCounters.getUsage(tenant).getTargets()).as("no targets yet").isEqualTo(0);
+        final long reconciliations = tenantUsageCounters.getReconciliations();
+
+        final List<Target> targets = targetManagement
+                .createTargets(testdataFactory.generateTargets(5, "usage", "usage counters"));
+        final DistributionSet set = testdataFactory.createDistributionSet("usage");
+        deploymentManagement.assignDistributionSet(set.getId(),
+                targets.stream().map(Target::getControllerId).toArray(String[]::new));
+
+        TenantUsage usage = tenantUsageCounters.getUsage(tenant);
+        assertThat(usage.getTargets()).as("target count is wrong").isEqualTo(5);
+        assertThat(usage.getActions()).as("action count is wrong").isEqualTo(5);
+        assertThat(tenantUsageCounters.getReconciliations()).as("counters are maintained incrementally")
+                .isEqualTo(reconciliations);
+
+        // bulk delete with cascaded actions is recounted
+        targetManagement.deleteTargets(targets.get(0).getId(), targets.get(1).getId());
+        usage = tenantUsageCounters.getUsage(tenant);
+        assertThat(usage.getTargets()).as("target count is wrong").isEqualTo(3);
+        assertThat(usage.getActions()).as("action count is wrong").isEqualTo(3);
+        assertThat(tenantUsageCounters.getReconciliations()).as("counters are recounted after bulk delete")
+                .isEqualTo(reconciliations + 1);
+
+        tenantUsageCounters.reconcile();
+        assertThat(tenantUsageCounters.getCorrectedDrift()).as("incremental counters drifted").isEqualTo(0);
+    }
+
     private Target createTargetWithAttributes(final String controllerId) {
         Target target = new JpaTarget(controllerId);
         final Map<String, String> testData = new HashMap<>();
@@ -757,6 +799,63 @@ public class TargetManagementTest extends AbstractJpaIntegrationTest {
 
     }
 
+    @Test
+    @Description("Verifies that the cached target count is returned until it is refreshed in the background and evicted on target creation, update and deletion.")
+    public void cachedTargetCountIsRefreshedAsynchronously() throws Exception {
+        final String[] noTags = new String[0];
+        final List<TargetUpdateStatus> unknown = Collections.singletonList(TargetUpdateStatus.UNKNOWN);
+        final List<Target> targets = targetManagement.createTargets(testdataFactory.generateTargets(10, "cached"));
+        assertThat(targetManagement.countTargetByFiltersCached(unknown, null, null, Boolean.FALSE, noTags))
+                .isEqualTo(10L);
+
+        targetManagement.createTargets(testdataFactory.generateTargets(5, "uncached"));
+        assertThat(targetManagement.countTargetByFiltersCached(unknown, null, null, Boolean.FALSE, noTags))
+                .as("count is evicted on create").isEqualTo(15L);
+        assertThat(targetManagement.countTargetByFiltersCached(unknown, "%uncached%", null, Boolean.FALSE, noTags))
+                .as("count of other filter is cached separately").isEqualTo(5L);
+
+        updateStatusWithoutEviction(targets.get(0));
+        assertThat(targetManagement.countTargetByFiltersCached(unknown, null, null, Boolean.FALSE, noTags))
+                .as("count is cached").isEqualTo(15L);
+
+        final long refreshInterval = repositoryProperties.getTargetCount().getRefreshInterval();
+        repositoryProperties.getTargetCount().setRefreshInterval(0);
+        try {
+            assertThat(targetManagement.countTargetByFiltersCached(unknown, null, null, Boolean.FALSE, noTags))
+                    .as("outdated count is returned during refresh").isEqualTo(15L);
+            for (int i = 0; i < 100 && targetManagement.countTargetByFiltersCached(unknown, null, null, Boolean.FALSE,
+                    noTags) != 14L; i++) {
+                Thread.sleep(100);
+            }
+            assertThat(targetManagement.countTargetByFiltersCached(unknown, null, null, Boolean.FALSE, noTags))
+                    .as("count is refreshed").isEqualTo(14L);
+        } finally {
+            repositoryProperties.getTargetCount().setRefreshInterval(refreshInterval);
+        }
+
+        updateStatusWithoutEviction(targets.get(1));
+        final Target updated = targetManagement.findTargetByControllerID(targets.get(2).getControllerId());
+        updated.setDescription("updated");
+        targetManagement.updateTarget(updated);
+        assertThat(targetManagement.countTargetByFiltersCached(unknown, null, null, Boolean.FALSE, noTags))
+                .as("count is evicted on update").isEqualTo(13L);
+
+        targetManagement.deleteTargets(targets.get(3).getId());
+        assertThat(targetManagement.countTargetByFiltersCached(unknown, null, null, Boolean.FALSE, noTags))
+                .as("count is evicted on delete").isEqualTo(12L);
+    }
+
+    /**
+     * Changes the update status of the target like another node would, i.e.
+     * without evicting the target counts cached by this node.
+     */
+    private void updateStatusWithoutEviction(final Target target) {
+        final JpaTargetInfo targetInfo = (JpaTargetInfo) targetManagement
+                .findTargetByControllerIDWithDetails(target.getControllerId()).getTargetInfo();
+        targetInfo.setUpdateStatus(TargetUpdateStatus.IN_SYNC);
+        targetInfoRepository.save(targetInfo);
+    }
+
     @Test
     @Description("Tests the a target can be read with only the read target permission")
     public void targetCanBeReadWithOnlyReadTargetPermission() throws Exception {
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.eventbus;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.eventbus.EventSchema;
+import org.eclipse.hawkbit.eventbus.event.DistributedEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.AbstractPropertyChangeEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.ActionPropertyChangeEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetCreatedEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetTagUpdateEvent;
+import org.eclipse.hawkbit.repository.jpa.model.AbstractJpaTenantAwareBaseEntity;
+import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
+import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
+import org.eclipse.hawkbit.repository.jpa.model.JpaRolloutGroup;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTargetTag;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Action.ActionType;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Repository")
+@Stories("EventBus")
+public class EntityEventSchemasTest {
+
+    private static final String TENANT = "DEFAULT";
+
+    private final EntityEventSchemas schemas = new EntityEventSchemas();
+
+    @Test
+    @Description("Verifies that the schemas of the repository events have unique type IDs outside of the range of the core events.")
+    public void typeIdsAreUnique() {
+        final List<Integer> typeIds = Arrays.asList(schemas.targetCreatedEventSchema(),
+                schemas.actionCreatedEventSchema(), schemas.actionPropertyChangeEventSchema(),
+                schemas.rolloutPropertyChangeEventSchema(), schemas.rolloutGroupPropertyChangeEventSchema(),
+                schemas.rolloutGroupCreatedEventSchema(), schemas.targetTagUpdateEventSchema(),
+                schemas.targetTagDeletedEventSchema(), schemas.distributionSetTagUpdateEventSchema(),
+                schemas.distributionSetTagDeletedEventSchema(), schemas.targetSecurityTokenChangedEventSchema())
+                .stream().map(EventSchema::getTypeId)
+                .collect(Collectors.toList());
+
+        assertThat(typeIds.stream().distinct().count()).isEqualTo(typeIds.size());
+        typeIds.forEach(typeId -> assertThat(typeId).isGreaterThanOrEqualTo(16));
+    }
+
+    @Test
+    @Description("Verifies that an action change is read with the target, the rollout and the change set.")
+    public void actionPropertyChangeEventIncludesChangeSet() throws IOException {
+        final JpaAction action = entity(new JpaAction(), 3L);
+        final JpaTarget target = entity(new JpaTarget("controller1", "token"), 2L);
+        final JpaRollout rollout = entity(new JpaRollout(), 4L);
+        final JpaRolloutGroup rolloutGroup = entity(new JpaRolloutGroup(), 5L);
+        rolloutGroup.setRollout(rollout);
+        action.setTarget(target);
+        action.setRollout(rollout);
+        action.setRolloutGroup(rolloutGroup);
+        action.setActive(false);
+        action.setStatus(Status.FINISHED);
+        action.setActionType(ActionType.FORCED);
+        final Map<String, AbstractPropertyChangeEvent<Action>.Values> changeSet = new HashMap<>();
+        final ActionPropertyChangeEvent event = new ActionPropertyChangeEvent(action, changeSet);
+        changeSet.put("status", event.new Values(Status.RUNNING, Status.FINISHED));
+        changeSet.put("active", event.new Values(true, false));
+        changeSet.put("lastModifiedBy", event.new Values(null, "user"));
+
+        final ActionPropertyChangeEvent read = roundTrip(schemas.actionPropertyChangeEventSchema(), event);
+
+        assertThat(read.getTenant()).isEqualTo(TENANT);
+        assertThat(read.getRevision()).isEqualTo(7L);
+        assertThat(read.getTargetId()).isEqualTo(2L);
+        assertThat(read.getControllerId()).isEqualTo("controller1");
+        final Action readAction = read.getEntity();
+        assertThat(readAction.getId()).isEqualTo(3L);
+        assertThat(readAction.isActive()).isFalse();
+        assertThat(readAction.getStatus()).isEqualTo(Status.FINISHED);
+        assertThat(readAction.getActionType()).isEqualTo(ActionType.FORCED);
+        assertThat(readAction.getRollout().getId()).isEqualTo(4L);
+        assertThat(readAction.getRolloutGroup().getId()).isEqualTo(5L);
+        assertThat(readAction.getDistributionSet()).isNull();
+        assertThat(read.getChangeSet()).hasSize(3);
+        assertThat(read.getChangeSet().get("status").getOldValue()).isEqualTo(Status.RUNNING);
+        assertThat(read.getChangeSet().get("status").getNewValue()).isEqualTo(Status.FINISHED);
+        assertThat(read.getChangeSet().get("active").getNewValue()).isEqualTo(false);
+        assertThat(read.getChangeSet().get("lastModifiedBy").getOldValue()).isNull();
+        assertThat(read.getChangeSet().get("lastModifiedBy").getNewValue()).isEqualTo("user");
+    }
+
+    @Test
+    @Description("Verifies that a created target is read with its controller ID and name.")
+    public void targetCreatedEventIncludesControllerId() throws IOException {
+        final JpaTarget target = entity(new JpaTarget("controller1", "token"), 2L);
+        target.setName("name1");
+
+        final TargetCreatedEvent read = roundTrip(schemas.targetCreatedEventSchema(), new TargetCreatedEvent(target));
+
+        assertThat(read.getTenant()).isEqualTo(TENANT);
+        assertThat(read.getEntity().getId()).isEqualTo(2L);
+        assertThat(read.getEntity().getControllerId()).isEqualTo("controller1");
+        assertThat(read.getEntity().getName()).isEqualTo("name1");
+    }
+
+    @Test
+    @Description("Verifies that an updated tag is read with its name and colour.")
+    public void tagUpdateEventIncludesColour() throws IOException {
+        final JpaTargetTag tag = entity(new JpaTargetTag("tag1", "description1", "#ff0000"), 6L);
+
+        final TargetTagUpdateEvent read = roundTrip(schemas.targetTagUpdateEventSchema(),
+                new TargetTagUpdateEvent(tag));
+
+        assertThat(read.getEntity().getId()).isEqualTo(6L);
+        assertThat(read.getEntity().getName()).isEqualTo("tag1");
+        assertThat(read.getEntity().getDescription()).isEqualTo("description1");
+        assertThat(read.getEntity().getColour()).isEqualTo("#ff0000");
+    }
+
+    private static <T extends AbstractJpaTenantAwareBaseEntity> T entity(final T entity, final Long id) {
+        entity.setId(id);
+        entity.setTenant(TENANT);
+        entity.setOptLockRevision(7L);
+        entity.setCreatedAt(1000L);
+        entity.setCreatedBy("creator");
+        return entity;
+    }
+
+    private static <E extends DistributedEvent> E roundTrip(final EventSchema<E> schema, final E event)
+            throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            schema.write(event, out);
+        }
+        return schema.read(TENANT, new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
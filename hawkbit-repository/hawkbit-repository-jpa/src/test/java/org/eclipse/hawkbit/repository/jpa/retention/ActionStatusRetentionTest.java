@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.retention;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.eclipse.hawkbit.repository.jpa.model.JpaActionStatus;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.ActionStatus;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationKey;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Action Status Retention")
+public class ActionStatusRetentionTest extends AbstractJpaIntegrationTest {
+
+    @Autowired
+    private ActionStatusRetention actionStatusRetention;
+
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
+    @Test
+    @Description("Verifies that the retention compacts the status history of closed actions to the first, the last and the error entries and keeps the history of active actions.")
+    public void retentionCompactsStatusHistoryOfClosedActions() throws InterruptedException {
+        final DistributionSet ds = testdataFactory.createDistributionSet("");
+        final Target closedTarget = targetManagement.createTarget(new JpaTarget("closedTarget"));
+        final Target activeTarget = targetManagement.createTarget(new JpaTarget("activeTarget"));
+        deploymentManagement.assignDistributionSet(ds.getId(), "closedTarget", "activeTarget");
+        Action closedAction = deploymentManagement.findActiveActionsByTarget(closedTarget).get(0);
+        Action activeAction = deploymentManagement.findActiveActionsByTarget(activeTarget).get(0);
+
+        closedAction = addActionStatus(closedAction, Status.RUNNING);
+        // an error which does not close the action, e.g. a failed download
+        // which has been retried
+        actionStatusRepository.save(new JpaActionStatus(closedAction, Status.ERROR, System.currentTimeMillis()));
+        closedAction = addActionStatus(closedAction, Status.RUNNING);
+        closedAction = addActionStatus(closedAction, Status.FINISHED);
+        activeAction = addActionStatus(activeAction, Status.RUNNING);
+        activeAction = addActionStatus(activeAction, Status.RUNNING);
+        assertThat(actionStatusRepository.count()).isEqualTo(8);
+
+        assertThat(actionStatusRetention.compactActionStatus()).as("retention is disabled by default").isEqualTo(0);
+
+        enableRetention();
+        final long reclaimedRows = actionStatusRetention.getReclaimedRows();
+        assertThat(actionStatusRetention.compactActionStatus()).isEqualTo(2);
+        assertThat(actionStatusRetention.getReclaimedRows()).isEqualTo(reclaimedRows + 2);
+
+        final List<ActionStatus> closedHistory = deploymentManagement.findActionStatusByAction(pageReq, closedAction)
+                .getContent();
+        assertThat(closedHistory).hasSize(3);
+        assertThat(closedHistory.stream().map(ActionStatus::getStatus).collect(Collectors.toList()))
+                .containsOnly(Status.RUNNING, Status.ERROR, Status.FINISHED);
+        assertThat(deploymentManagement.findActionStatusByAction(pageReq, activeAction).getNumberOfElements())
+                .isEqualTo(3);
+        assertThat(actionStatusRetention.compactActionStatus()).as("nothing left to compact").isEqualTo(0);
+    }
+
+    @Test
+    @Description("Verifies that the deleted status entries are written to the archive including their messages.")
+    public void retentionArchivesDeletedEntries() throws Exception {
+        final Action action = createClosedActionWithHistory("archivedTarget", 3);
+        final File archiveDirectory = Files.createTempDirectory("action-status-archive").toFile();
+        repositoryProperties.getActionStatusRetention().setArchiveDirectory(archiveDirectory.getAbsolutePath());
+        try {
+            enableRetention();
+            final long archivedRows = actionStatusRetention.getArchivedRows();
+            assertThat(actionStatusRetention.compactActionStatus()).isEqualTo(3);
+            assertThat(actionStatusRetention.getArchivedRows()).isEqualTo(archivedRows + 3);
+
+            final List<String> lines = readArchive(archiveDirectory);
+            assertThat(lines).hasSize(4);
+            assertThat(lines.get(0)).startsWith("id\taction\tstatus");
+            for (final String line : lines.subList(1, 4)) {
+                final String[] columns = line.split("\t");
+                assertThat(columns[1]).isEqualTo(String.valueOf(action.getId()));
+                assertThat(columns[2]).isEqualTo(Status.RUNNING.name());
+                assertThat(columns[4]).isEqualTo("status RUNNING");
+            }
+        } finally {
+            repositoryProperties.getActionStatusRetention().setArchiveDirectory(null);
+            FileUtils.deleteDirectory(archiveDirectory);
+        }
+    }
+
+    @Test
+    @Description("Verifies that retention runs of several nodes at the same time delete and archive every status entry only once.")
+    public void concurrentRetentionRunsClaimEveryEntryOnce() throws Exception {
+        createClosedActionWithHistory("concurrentTarget1", 5);
+        createClosedActionWithHistory("concurrentTarget2", 5);
+        final File archiveDirectory = Files.createTempDirectory("action-status-archive").toFile();
+        repositoryProperties.getActionStatusRetention().setArchiveDirectory(archiveDirectory.getAbsolutePath());
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            enableRetention();
+            final SecurityContext securityContext = SecurityContextHolder.getContext();
+            final Callable<Long> run = () -> {
+                SecurityContextHolder.setContext(securityContext);
+                try {
+                    return actionStatusRetention.compactActionStatus();
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            };
+            final Future<Long> first = executor.submit(run);
+            final Future<Long> second = executor.submit(run);
+
+            assertThat(first.get() + second.get()).isEqualTo(10);
+            final List<String> archivedIds = readArchive(archiveDirectory).stream()
+                    .filter(line -> !line.startsWith("id\t")).map(line -> line.split("\t")[0])
+                    .collect(Collectors.toList());
+            assertThat(archivedIds).hasSize(10);
+            assertThat(archivedIds.stream().distinct().count()).isEqualTo(10);
+        } finally {
+            executor.shutdownNow();
+            repositoryProperties.getActionStatusRetention().setArchiveDirectory(null);
+            FileUtils.deleteDirectory(archiveDirectory);
+        }
+    }
+
+    private Action createClosedActionWithHistory(final String controllerId, final int removableEntries) {
+        final DistributionSet ds = testdataFactory.createDistributionSet(controllerId);
+        final Target target = targetManagement.createTarget(new JpaTarget(controllerId));
+        deploymentManagement.assignDistributionSet(ds.getId(), controllerId);
+        Action action = deploymentManagement.findActiveActionsByTarget(target).get(0);
+        for (int i = 0; i < removableEntries; i++) {
+            action = addActionStatus(action, Status.RUNNING);
+        }
+        return addActionStatus(action, Status.FINISHED);
+    }
+
+    private Action addActionStatus(final Action action, final Status status) {
+        final ActionStatus actionStatus = new JpaActionStatus(action, status, System.currentTimeMillis());
+        actionStatus.addMessage("status " + status);
+        action.setStatus(status);
+        return controllerManagament.addUpdateActionStatus(actionStatus);
+    }
+
+    private void enableRetention() throws InterruptedException {
+        tenantConfigurationManagement.addOrUpdateConfiguration(TenantConfigurationKey.ACTION_STATUS_RETENTION_ENABLED,
+                true);
+        tenantConfigurationManagement.addOrUpdateConfiguration(TenantConfigurationKey.ACTION_STATUS_RETENTION_DAYS,
+                0);
+        // the action has to be closed before the retention period
+        Thread.sleep(10);
+    }
+
+    private static List<String> readArchive(final File archiveDirectory) throws IOException {
+        final List<String> lines = new ArrayList<>();
+        for (final File archive : FileUtils.listFiles(archiveDirectory, new String[] { "gz" }, true)) {
+            try (final BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(new FileInputStream(archive)), StandardCharsets.UTF_8))) {
+                reader.lines().forEach(lines::add);
+            }
+        }
+        return lines;
+    }
+}
@@ -12,6 +12,7 @@ import static org.fest.assertions.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
 
 import java.util.Arrays;
+import java.util.function.Predicate;
 
 import org.eclipse.hawkbit.repository.TargetFields;
 import org.eclipse.hawkbit.repository.exception.RSQLParameterUnsupportedFieldException;
@@ -166,6 +167,33 @@ public class RSQLTargetFieldTest extends AbstractJpaIntegrationTest {
         assertRSQLQuery(TargetFields.TAG.name() + "=out=(Tag1,notexist)", 0);
     }
 
+    @Test
+    @Description("Test that the in-memory matcher matches the same targets as the database query")
+    public void testInMemoryMatcher() {
+        assertInMemoryRSQLQuery(TargetFields.ID.name() + "=out=(targetId123,notexist)");
+        assertInMemoryRSQLQuery(TargetFields.NAME.name() + "==target*");
+        assertInMemoryRSQLQuery(TargetFields.DESCRIPTION.name() + "=out=(targetId123,notexist)");
+        assertInMemoryRSQLQuery(TargetFields.CONTROLLERID.name() + "=in=(targetId123,notexist)");
+        assertInMemoryRSQLQuery(TargetFields.UPDATESTATUS.name() + "!=pending");
+        assertInMemoryRSQLQuery(TargetFields.ATTRIBUTE.name() + ".revision==1*");
+        assertInMemoryRSQLQuery(TargetFields.ATTRIBUTE.name() + ".revision=out=(1.1)");
+        assertInMemoryRSQLQuery(TargetFields.ASSIGNEDDS.name() + ".name==A*");
+        assertInMemoryRSQLQuery(TargetFields.ASSIGNEDDS.name() + ".version==" + TestdataFactory.DEFAULT_VERSION);
+        assertInMemoryRSQLQuery(TargetFields.TAG.name() + "=in=(Tag1,notexist)");
+        assertInMemoryRSQLQuery(TargetFields.TAG.name() + "==noExist*");
+        assertInMemoryRSQLQuery(TargetFields.NAME.name() + "==target*;(" + TargetFields.TAG.name() + "==Tag1,"
+                + TargetFields.ATTRIBUTE.name() + ".revision==1.2)");
+    }
+
+    private void assertInMemoryRSQLQuery(final String rsqlParam) {
+        final long expectedTargets = targetManagement.findTargetsAll(rsqlParam, new PageRequest(0, 100))
+                .getTotalElements();
+
+        final Predicate<Target> matcher = RSQLTargetMatcher.compile(rsqlParam);
+        assertThat(targetManagement.findTargetsAll(new PageRequest(0, 100)).getContent().stream().filter(matcher)
+                .count()).as("targets matching " + rsqlParam + " in memory").isEqualTo(expectedTargets);
+    }
+
     private void assertRSQLQuery(final String rsqlParam, final long expcetedTargets) {
         final Page<Target> findTargetPage = targetManagement.findTargetsAll(rsqlParam, new PageRequest(0, 100));
         final long countTargetsAll = findTargetPage.getTotalElements();
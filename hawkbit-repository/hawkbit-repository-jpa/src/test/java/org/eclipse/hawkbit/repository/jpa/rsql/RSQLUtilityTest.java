@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.repository.jpa.rsql;
 
+import static org.fest.assertions.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
@@ -38,6 +39,7 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import ru.yandex.qatools.allure.annotations.Description;
 import ru.yandex.qatools.allure.annotations.Features;
 import ru.yandex.qatools.allure.annotations.Stories;
 
@@ -59,6 +61,13 @@ public class RSQLUtilityTest {
     @Mock
     private Attribute attribute;
 
+    @Test
+    @Description("Verify that a query is parsed only once and the parsed query is reused")
+    public void parsedQueryIsCached() {
+        final String rsql = "name==cached;version==1.0";
+        assertThat(RSQLUtility.parseRsql(rsql)).isSameAs(RSQLUtility.parseRsql(rsql));
+    }
+
     @Test
     public void wrongRsqlSyntaxThrowSyntaxException() {
         final String wrongRSQL = "name==abc;d";
@@ -10,15 +10,21 @@ package org.eclipse.hawkbit.repository.jpa.tenancy;
 
 import static org.fest.assertions.api.Assertions.assertThat;
 
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.jpa.AbstractJpaIntegrationTest;
+import org.eclipse.hawkbit.repository.jpa.TenantDeletionJob;
 import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSet;
 import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSetType;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTargetTag;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.eclipse.hawkbit.repository.test.util.WithSpringAuthorityRule;
 import org.eclipse.hawkbit.repository.test.util.WithUser;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Slice;
 
@@ -36,6 +42,12 @@ import ru.yandex.qatools.allure.annotations.Stories;
 @Stories("Multi Tenancy")
 public class MultiTenancyEntityTest extends AbstractJpaIntegrationTest {
 
+    @Autowired
+    private TenantDeletionJob tenantDeletionJob;
+
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
     @Test
     @Description(value = "Ensures that multiple targets with same controller-ID can be created for different tenants.")
     public void createMultipleTargetsWithSameIdForDifferentTenant() throws Exception {
@@ -96,6 +108,39 @@ public class MultiTenancyEntityTest extends AbstractJpaIntegrationTest {
         assertThat(systemManagement.findTenants()).as("Expected number if tenants after deletion is").hasSize(2);
     }
 
+    @Test
+    @Description(value = "Ensures that the deletion of a tenant deletes all its data in chunks and that the tenant can be created again afterwards.")
+    @WithUser(tenantId = "mytenant", allSpPermissions = true)
+    public void deleteTenantDeletesAllDataInChunks() throws Exception {
+        final String anotherTenant = "anotherTenant";
+        securityRule.runAs(WithSpringAuthorityRule.withUserAndTenant("user", anotherTenant), () -> {
+            final DistributionSet ds = testdataFactory.createDistributionSet("");
+            final List<Target> targets = testdataFactory.createTargets(5);
+            tagManagement.createTargetTag(new JpaTargetTag("tag"));
+            deploymentManagement.assignDistributionSet(ds, targets);
+            return null;
+        });
+        final int tenants = systemManagement.findTenants().size();
+        final long completedDeletions = tenantDeletionJob.getCompletedDeletions();
+        final int chunkSize = repositoryProperties.getTenantDeletion().getChunkSize();
+        repositoryProperties.getTenantDeletion().setChunkSize(2);
+        try {
+            systemManagement.deleteTenant(anotherTenant);
+        } finally {
+            repositoryProperties.getTenantDeletion().setChunkSize(chunkSize);
+        }
+
+        assertThat(tenantDeletionJob.getCompletedDeletions()).isEqualTo(completedDeletions + 1);
+        assertThat(tenantDeletionJob.findPendingDeletions()).isEmpty();
+        assertThat(systemManagement.findTenants()).hasSize(tenants - 1);
+
+        createTargetForTenant("anotherController", anotherTenant);
+        assertThat(findTargetsForTenant(anotherTenant)).as("only the new target").hasSize(1);
+        assertThat(securityRule.runAs(WithSpringAuthorityRule.withUserAndTenant("user", anotherTenant),
+                () -> distributionSetManagement.findDistributionSetsByDeletedAndOrCompleted(pageReq, false, true)))
+                        .isEmpty();
+    }
+
     @Test
     @Description(value = "Ensures that tenant metadata is retrieved for the current tenant.")
     @WithUser(tenantId = "mytenant", autoCreateTenant = false, allSpPermissions = true)
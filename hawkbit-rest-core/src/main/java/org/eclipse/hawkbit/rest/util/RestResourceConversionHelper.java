@@ -14,6 +14,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -171,8 +173,8 @@ public final class RestResourceConversionHelper {
         response.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(r.getLength()));
 
         try {
-            copyStreams(file.getFileInputStream(), response.getOutputStream(), controllerManagement, statusId,
-                    r.getStart(), r.getLength());
+            copyArtifact(file, response.getOutputStream(), controllerManagement, statusId, r.getStart(),
+                    r.getLength());
         } catch (final IOException e) {
             LOG.error("fullfileRequest of file ({}) failed!", artifact.getFilename(), e);
             throw new FileSteamingFailedException(artifact.getFilename());
@@ -246,8 +248,8 @@ public final class RestResourceConversionHelper {
                         .println("Content-Range: bytes " + r.getStart() + "-" + r.getEnd() + "/" + r.getTotal());
 
                 // Copy single part range of multi part range.
-                copyStreams(file.getFileInputStream(), response.getOutputStream(), controllerManagement, statusId,
-                        r.getStart(), r.getLength());
+                copyArtifact(file, response.getOutputStream(), controllerManagement, statusId, r.getStart(),
+                        r.getLength());
             }
 
             // End with final multipart boundary.
@@ -268,14 +270,55 @@ public final class RestResourceConversionHelper {
         response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
 
         try {
-            copyStreams(file.getFileInputStream(), response.getOutputStream(), controllerManagement, statusId,
-                    r.getStart(), r.getLength());
+            copyArtifact(file, response.getOutputStream(), controllerManagement, statusId, r.getStart(),
+                    r.getLength());
         } catch (final IOException e) {
             LOG.error("standardRangeRequest of file ({}) failed!", artifact.getFilename(), e);
             throw new FileSteamingFailedException(artifact.getFilename());
         }
     }
 
+    /**
+     * Copies the given range of the artifact binary. If the artifact store
+     * provides a {@link FileChannel} the range is read positionally, so range
+     * requests do not have to read the binary from the start. Falls back to
+     * copying the {@link InputStream} otherwise. In both cases the binary is
+     * copied through a heap buffer as the servlet output stream is not a
+     * channel the file could be transferred to directly.
+     */
+    private static long copyArtifact(final DbArtifact file, final OutputStream to,
+            final ControllerManagement controllerManagement, final Long statusId, final long start, final long length)
+            throws IOException {
+        try (final FileChannel channel = file.openFileChannel()) {
+            if (channel != null) {
+                return copyChannel(channel, to, controllerManagement, statusId, start, length);
+            }
+        }
+        return copyStreams(file.getFileInputStream(), to, controllerManagement, statusId, start, length);
+    }
+
+    private static long copyChannel(final FileChannel from, final OutputStream to,
+            final ControllerManagement controllerManagement, final Long statusId, final long start, final long length)
+            throws IOException {
+        checkNotNull(to);
+        final ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+        long total = 0;
+        int progressPercent = 1;
+
+        while (total < length) {
+            buf.clear();
+            buf.limit((int) Math.min(BUFFER_SIZE, length - total));
+            final int r = from.read(buf, start + total);
+            if (r <= 0) {
+                break;
+            }
+            to.write(buf.array(), 0, r);
+            total += r;
+            progressPercent = reportProgress(controllerManagement, statusId, total, length, progressPercent);
+        }
+        return total;
+    }
+
     private static long copyStreams(final InputStream from, final OutputStream to,
             final ControllerManagement controllerManagement, final Long statusId, final long start, final long length)
             throws IOException {
@@ -287,9 +330,13 @@ public final class RestResourceConversionHelper {
 
         // skipp until start is reached
         long skipped = 0;
-        do {
-            skipped += from.skip(start);
-        } while (skipped < start);
+        while (skipped < start) {
+            final long s = from.skip(start - skipped);
+            if (s <= 0) {
+                break;
+            }
+            skipped += s;
+        }
 
         long toRead = length;
         boolean toContinue = true;
@@ -310,19 +357,27 @@ public final class RestResourceConversionHelper {
                 toContinue = false;
             }
 
-            if (controllerManagement != null) {
-                final int newPercent = DoubleMath.roundToInt(total * 100.0 / length, RoundingMode.DOWN);
-
-                // every 10 percent an event
-                if (newPercent == 100 || newPercent > progressPercent + 10) {
-                    progressPercent = newPercent;
-                    controllerManagement.downloadProgressPercent(statusId, progressPercent);
-                }
-            }
+            progressPercent = reportProgress(controllerManagement, statusId, total, length, progressPercent);
         }
         return total;
     }
 
+    private static int reportProgress(final ControllerManagement controllerManagement, final Long statusId,
+            final long total, final long length, final int progressPercent) {
+        if (controllerManagement == null) {
+            return progressPercent;
+        }
+
+        final int newPercent = DoubleMath.roundToInt(total * 100.0 / length, RoundingMode.DOWN);
+
+        // every 10 percent an event
+        if (newPercent == 100 || newPercent > progressPercent + 10) {
+            controllerManagement.downloadProgressPercent(statusId, newPercent);
+            return newPercent;
+        }
+        return progressPercent;
+    }
+
     /**
      * Checks given CSV string for defined match value or * wildcard.
      *
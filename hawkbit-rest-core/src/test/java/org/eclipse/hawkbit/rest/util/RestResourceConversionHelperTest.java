@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.rest.util;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.repository.model.LocalArtifact;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - REST Core")
+@Stories("Artifact download")
+@RunWith(MockitoJUnitRunner.class)
+public class RestResourceConversionHelperTest {
+
+    private static final int ARTIFACT_SIZE = 3 * 1024 * 1024 + 17;
+
+    @Mock
+    private LocalArtifact artifactMock;
+
+    private final byte[] content = new byte[ARTIFACT_SIZE];
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        new Random().nextBytes(content);
+        file = File.createTempFile("artifact", ".bin");
+        Files.write(file.toPath(), content);
+
+        when(artifactMock.getSha1Hash()).thenReturn("sha1");
+        when(artifactMock.getFilename()).thenReturn("file.bin");
+        when(artifactMock.getCreatedAt()).thenReturn(1L);
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    @Description("Verifies that a full download is transferred completely through the file channel.")
+    public void fullDownloadThroughFileChannel() throws IOException {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        final ResponseEntity<InputStream> result = RestResourceConversionHelper.writeFileResponse(artifactMock,
+                response, new MockHttpServletRequest(), channelArtifact());
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    @Description("Verifies that a range download starts at the requested position for channel and stream based artifacts.")
+    public void rangeDownloadThroughFileChannelAndStream() throws IOException {
+        final int start = 1024 * 1024 + 5;
+        final int end = ARTIFACT_SIZE - 100;
+        final byte[] expected = Arrays.copyOfRange(content, start, end + 1);
+
+        for (final DbArtifact dbArtifact : new DbArtifact[] { channelArtifact(), streamArtifact() }) {
+            final MockHttpServletRequest request = new MockHttpServletRequest();
+            request.addHeader("Range", "bytes=" + start + "-" + end);
+            final MockHttpServletResponse response = new MockHttpServletResponse();
+
+            final ResponseEntity<InputStream> result = RestResourceConversionHelper.writeFileResponse(artifactMock,
+                    response, request, dbArtifact);
+
+            assertThat(result.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+            assertThat(response.getContentAsByteArray()).isEqualTo(expected);
+        }
+    }
+
+    private DbArtifact channelArtifact() {
+        final DbArtifact dbArtifact = new DbArtifact() {
+            @Override
+            public FileChannel openFileChannel() throws IOException {
+                return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            }
+        };
+        dbArtifact.setSize((long) ARTIFACT_SIZE);
+        return dbArtifact;
+    }
+
+    private DbArtifact streamArtifact() {
+        final DbArtifact dbArtifact = new DbArtifact();
+        dbArtifact.setSize((long) ARTIFACT_SIZE);
+        dbArtifact.setFileInputStream(new ByteArrayInputStream(content));
+        return dbArtifact;
+    }
+}
@@ -15,6 +15,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.ShallowEtagHeaderFilter;
 
@@ -24,6 +25,9 @@ import org.springframework.web.filter.ShallowEtagHeaderFilter;
  * expensive operation and the response output need to be copied in memory which
  * should be excluded in case of artifact downloads which could be big of size.
  * 
+ * Responses which already carry an ETag, e.g. calculated by the resource from
+ * the state of the entities, keep it and are not hashed.
+ * 
  *
  *
  *
@@ -60,6 +64,13 @@ public class ExcludePathAwareShallowETagFilter extends ShallowEtagHeaderFilter {
         }
     }
 
+    @Override
+    protected boolean isEligibleForEtag(final HttpServletRequest request, final HttpServletResponse response,
+            final int responseStatusCode, final byte[] responseBody) {
+        return !response.containsHeader(HttpHeaders.ETAG)
+                && super.isEligibleForEtag(request, response, responseStatusCode, responseBody);
+    }
+
     private boolean shouldExclude(final HttpServletRequest request) {
         for (final String pattern : excludeAntPaths) {
             if (antMatcher.match(request.getContextPath() + pattern, request.getRequestURI())) {
@@ -8,11 +8,9 @@
  */
 package org.eclipse.hawkbit.security;
 
-import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.eclipse.hawkbit.security.SecurityConstants.SECURITY_LOG_PREFIX;
 
 import java.io.IOException;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 import javax.servlet.FilterChain;
@@ -27,13 +25,12 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-
 /**
  * Filter for protection against denial of service attacks. It reduces the
  * maximum number of request per seconds which can be separately configured for
- * read (GET) and write (PUT/POST/DELETE) requests.
+ * read (GET), write (PUT/POST/DELETE) and artifact download requests. The
+ * requests are limited by {@link RateLimiters} per client IP, tenant or
+ * controller.
  */
 public class DosFilter extends OncePerRequestFilter {
 
@@ -41,23 +38,27 @@ public class DosFilter extends OncePerRequestFilter {
     private static final Logger LOG_DOS = LoggerFactory.getLogger(SECURITY_LOG_PREFIX + ".dos");
     private static final Logger LOG_BLACKLIST = LoggerFactory.getLogger(SECURITY_LOG_PREFIX + ".blacklist");
 
-    private final Pattern ipAdressBlacklist;
+    private static final int DEFAULT_MAX_KEYS = 100_000;
 
-    private final Cache<String, AtomicInteger> readCountCache = CacheBuilder.newBuilder().expireAfterAccess(1, SECONDS)
-            .build();
+    /**
+     * The artifact download paths of the direct device integration API, i.e.
+     * {@code /{tenant}/controller/v1/{controllerId}/softwaremodules/{id}/artifacts/{fileName}}
+     * and {@code /{tenant}/controller/artifacts/v1/**}.
+     */
+    private static final Pattern DOWNLOAD_PATH = Pattern
+            .compile("/[^/]+/controller/(v1/[^/]+/softwaremodules/[^/]+/artifacts/[^/]+|artifacts/v1/.+)");
 
-    private final Cache<String, AtomicInteger> writeCountCache = CacheBuilder.newBuilder().expireAfterAccess(1, SECONDS)
-            .build();
+    private final Pattern ipAdressBlacklist;
 
-    private final Integer maxRead;
-    private final Integer maxWrite;
+    private final RateLimiters rateLimiters;
 
     private final Pattern whitelist;
 
     private final String forwardHeader;
 
     /**
-     * Filter constructor including configuration.
+     * Filter constructor including configuration which limits the requests
+     * per client IP. Artifact downloads are limited by the read threshold.
      *
      * @param maxRead
      *            Maximum number of allowed REST read/GET requests per second
@@ -76,9 +77,28 @@ public class DosFilter extends OncePerRequestFilter {
      */
     public DosFilter(final Integer maxRead, final Integer maxWrite, final String ipDosWhiteListPattern,
             final String ipBlackListPattern, final String forwardHeader) {
+        this(new RateLimiters(RateLimitKey.IP, maxRead, maxWrite, maxRead, DEFAULT_MAX_KEYS), ipDosWhiteListPattern,
+                ipBlackListPattern, forwardHeader);
+    }
+
+    /**
+     * Filter constructor including configuration.
+     *
+     * @param rateLimiters
+     *            which limit the read, write and download requests
+     * @param ipDosWhiteListPattern
+     *            {@link Pattern} with with white list of peer IP addresses for
+     *            DOS filter
+     * @param ipBlackListPattern
+     *            {@link Pattern} with black listed IP addresses
+     * @param forwardHeader
+     *            the header containing the forwarded IP address e.g.
+     *            {@code x-forwarded-for}
+     */
+    public DosFilter(final RateLimiters rateLimiters, final String ipDosWhiteListPattern,
+            final String ipBlackListPattern, final String forwardHeader) {
 
-        this.maxRead = maxRead;
-        this.maxWrite = maxWrite;
+        this.rateLimiters = rateLimiters;
         this.forwardHeader = forwardHeader;
 
         if (ipBlackListPattern != null && !ipBlackListPattern.isEmpty()) {
@@ -107,14 +127,7 @@ public class DosFilter extends OncePerRequestFilter {
             processChain = checkAgainstBlacklist(response, ip);
 
             if (processChain && (whitelist == null || !whitelist.matcher(ip).find())) {
-                // read request
-                if (HttpMethod.valueOf(request.getMethod()) == HttpMethod.GET) {
-                    processChain = handleReadRequest(response, ip);
-                }
-                // write request
-                else {
-                    processChain = handleWriteRequest(response, ip);
-                }
+                processChain = handleRequest(request, response, ip);
             }
         }
 
@@ -147,35 +160,32 @@ public class DosFilter extends OncePerRequestFilter {
         return false;
     }
 
-    private boolean handleWriteRequest(final HttpServletResponse response, final String ip) {
-        boolean processChain = true;
-        final AtomicInteger count = writeCountCache.getIfPresent(ip);
-
-        if (count == null) {
-            writeCountCache.put(ip, new AtomicInteger());
-        } else if (count.getAndIncrement() > maxWrite) {
-            LOG_DOS.info("Registered DOS attack! Client {} is above configured WRITE request threshold ({})!", ip,
-                    maxWrite);
-            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            processChain = false;
+    private boolean handleRequest(final HttpServletRequest request, final HttpServletResponse response,
+            final String ip) {
+        final RateLimiter rateLimiter = getRateLimiter(request);
+        if (rateLimiters.getKey().tryAcquire(rateLimiter, request, ip)) {
+            return true;
         }
 
-        return processChain;
+        final String key = rateLimiters.getKey().resolve(request, ip);
+        LOG_DOS.info("Registered DOS attack! Client {} ({}) is above configured {} request threshold ({})!", key, ip,
+                rateLimiter.getName(), rateLimiter.getPermitsPerSecond());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        return false;
     }
 
-    private boolean handleReadRequest(final HttpServletResponse response, final String ip) {
-        boolean processChain = true;
-        final AtomicInteger count = readCountCache.getIfPresent(ip);
-
-        if (count == null) {
-            readCountCache.put(ip, new AtomicInteger());
-        } else if (count.getAndIncrement() > maxRead) {
-            LOG_DOS.info("Registered DOS attack! Client {} is above configured READ request threshold ({})!", ip,
-                    maxRead);
-            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            processChain = false;
+    private RateLimiter getRateLimiter(final HttpServletRequest request) {
+        if (!HttpMethod.GET.name().equals(request.getMethod())) {
+            return rateLimiters.getWrite();
+        }
+        if (isDownload(request)) {
+            return rateLimiters.getDownload();
         }
+        return rateLimiters.getRead();
+    }
 
-        return processChain;
+    private static boolean isDownload(final HttpServletRequest request) {
+        final String uri = request.getRequestURI();
+        return DOWNLOAD_PATH.matcher(uri).region(request.getContextPath().length(), uri.length()).matches();
     }
 }
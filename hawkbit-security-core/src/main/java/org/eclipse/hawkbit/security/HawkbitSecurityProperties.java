@@ -181,6 +181,28 @@ public class HawkbitSecurityProperties {
              */
             int maxWrite = 50;
 
+            /**
+             * Maximum number of allowed artifact download requests per second
+             * per client. Defaults to {@link #maxRead}, as downloads have been
+             * limited as read requests before they got a budget of their own.
+             */
+            Integer maxDownload;
+
+            /**
+             * Key by which the requests are limited, i.e. per client IP,
+             * tenant or controller. The tenant and the controller are taken
+             * from the unauthenticated request path, so a client can get a
+             * new budget by changing the controller ID in the path. Use the
+             * client IP to limit clients which cannot be trusted.
+             */
+            private RateLimitKey key = RateLimitKey.IP;
+
+            /**
+             * Maximum number of clients per request type tracked by the DOS
+             * filter, the least recently seen client is removed above.
+             */
+            private int maxKeys = 100_000;
+
             public String getWhitelist() {
                 return whitelist;
             }
@@ -205,6 +227,30 @@ public class HawkbitSecurityProperties {
                 this.maxWrite = maxWrite;
             }
 
+            public int getMaxDownload() {
+                return maxDownload != null ? maxDownload : maxRead;
+            }
+
+            public void setMaxDownload(final int maxDownload) {
+                this.maxDownload = maxDownload;
+            }
+
+            public RateLimitKey getKey() {
+                return key;
+            }
+
+            public void setKey(final RateLimitKey key) {
+                this.key = key;
+            }
+
+            public int getMaxKeys() {
+                return maxKeys;
+            }
+
+            public void setMaxKeys(final int maxKeys) {
+                this.maxKeys = maxKeys;
+            }
+
         }
     }
 }
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * The key by which the {@link DosFilter} limits the requests. The tenant and
+ * the controller ID are taken from the path of the direct device integration
+ * API, i.e. {@code /{tenant}/controller/v1/{controllerId}}. Requests of other
+ * APIs are limited per client IP.
+ *
+ * The path is not authenticated when the filter applies, so a client may
+ * choose its key by rotating the tenant or the controller ID and gets a full
+ * budget for every new key. These keys are meant to share the budget fairly
+ * between well-behaving devices behind one IP, e.g. a NAT gateway, and do not
+ * protect against malicious clients, which are limited by {@link #IP} only.
+ */
+public enum RateLimitKey {
+
+    /**
+     * Limits the requests per client IP.
+     */
+    IP,
+
+    /**
+     * Limits the requests per tenant.
+     */
+    TENANT,
+
+    /**
+     * Limits the requests per controller of a tenant.
+     */
+    CONTROLLER;
+
+    private static final String CONTROLLER_PATH = "/controller/v1/";
+
+    /**
+     * Acquires one permit for the key of the given request if available.
+     * The key is not copied out of the request URI.
+     *
+     * @param rateLimiter
+     *            to acquire the permit from
+     * @param request
+     *            to acquire the permit for
+     * @param ip
+     *            the client IP of the request
+     * @return <code>true</code> if the permit has been granted
+     */
+    public boolean tryAcquire(final RateLimiter rateLimiter, final HttpServletRequest request, final String ip) {
+        if (this == IP) {
+            return rateLimiter.tryAcquire(ip);
+        }
+
+        final String uri = request.getRequestURI();
+        final int keyStart = request.getContextPath().length() + 1;
+        final int keyEnd = findKeyEnd(uri, keyStart);
+        return keyEnd < 0 ? rateLimiter.tryAcquire(ip) : rateLimiter.tryAcquire(uri, keyStart, keyEnd);
+    }
+
+    /**
+     * Resolves the key of the given request.
+     *
+     * @param request
+     *            to resolve the key for
+     * @param ip
+     *            the client IP of the request
+     * @return the key of the request
+     */
+    public String resolve(final HttpServletRequest request, final String ip) {
+        if (this == IP) {
+            return ip;
+        }
+
+        final String uri = request.getRequestURI();
+        final int keyStart = request.getContextPath().length() + 1;
+        final int keyEnd = findKeyEnd(uri, keyStart);
+        return keyEnd < 0 ? ip : uri.substring(keyStart, keyEnd);
+    }
+
+    /**
+     * @return the end of the key within the given URI, which starts with the
+     *         tenant, or <code>-1</code> if the URI is not a path of the direct
+     *         device integration API
+     */
+    private int findKeyEnd(final String uri, final int tenantStart) {
+        final int tenantEnd = uri.indexOf('/', tenantStart);
+        if (tenantEnd <= tenantStart || !uri.startsWith(CONTROLLER_PATH, tenantEnd)) {
+            return -1;
+        }
+        if (this == TENANT) {
+            return tenantEnd;
+        }
+
+        final int controllerStart = tenantEnd + CONTROLLER_PATH.length();
+        int controllerEnd = uri.indexOf('/', controllerStart);
+        if (controllerEnd < 0) {
+            controllerEnd = uri.length();
+        }
+        return controllerEnd == controllerStart ? -1 : controllerEnd;
+    }
+}
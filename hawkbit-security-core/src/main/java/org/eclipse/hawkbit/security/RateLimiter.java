@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Rate limiter which grants a number of permits per second to every key, e.g.
+ * to every client IP, with one {@link TokenBucket} per key.
+ *
+ * A known key is looked up without copying it, also if the key is only a part
+ * of a string, e.g. of the request URI. The buckets are kept in a cache which
+ * is bounded by the configured maximum number of keys and expires buckets
+ * which have not been used for a second, i.e. which are full again. The cache
+ * records every access for the expiry and the eviction, so acquiring a permit
+ * is not free of allocations and contention.
+ */
+public class RateLimiter {
+
+    private static final ThreadLocal<BucketKey> LOOKUP_KEYS = ThreadLocal.withInitial(BucketKey::new);
+
+    private final String name;
+
+    private final int permitsPerSecond;
+
+    private final Cache<BucketKey, TokenBucket> buckets;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param name
+     *            of the limiter, e.g. to identify it within the cluster
+     * @param permitsPerSecond
+     *            granted to every key
+     * @param maxKeys
+     *            maximum number of keys with a bucket, the least recently used
+     *            bucket is removed above
+     */
+    public RateLimiter(final String name, final int permitsPerSecond, final int maxKeys) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Permits per second has to be positive");
+        }
+        this.name = name;
+        this.permitsPerSecond = permitsPerSecond;
+        // a bucket grants one second of permits as burst, so it is full again
+        // after one second without request
+        buckets = CacheBuilder.newBuilder().maximumSize(maxKeys).expireAfterAccess(1, TimeUnit.SECONDS).build();
+    }
+
+    /**
+     * Acquires one permit for the given key if available.
+     *
+     * @param key
+     *            to acquire the permit for
+     * @return <code>true</code> if the permit has been granted
+     */
+    public boolean tryAcquire(final String key) {
+        return tryAcquire(key, 0, key.length());
+    }
+
+    /**
+     * Acquires one permit for the key which is the given part of the source
+     * if available.
+     *
+     * @param source
+     *            which contains the key, e.g. the request URI
+     * @param start
+     *            index of the key within the source, inclusive
+     * @param end
+     *            index of the key within the source, exclusive
+     * @return <code>true</code> if the permit has been granted
+     */
+    public boolean tryAcquire(final String source, final int start, final int end) {
+        final long now = System.nanoTime();
+        if (getBucket(source, start, end, now).tryAcquire(now)) {
+            return true;
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    private TokenBucket getBucket(final String source, final int start, final int end, final long now) {
+        final BucketKey lookupKey = LOOKUP_KEYS.get().set(source, start, end);
+        final TokenBucket bucket = buckets.getIfPresent(lookupKey);
+        // does not keep the source, e.g. the request URI
+        lookupKey.set(null, 0, 0);
+        if (bucket != null) {
+            return bucket;
+        }
+
+        final TokenBucket created = new TokenBucket(permitsPerSecond, now);
+        final TokenBucket existing = buckets.asMap().putIfAbsent(new BucketKey(source.substring(start, end)),
+                created);
+        return existing != null ? existing : created;
+    }
+
+    /**
+     * Performs the given action for the bucket of every key.
+     *
+     * @param action
+     *            to perform
+     */
+    public void forEachBucket(final BiConsumer<String, TokenBucket> action) {
+        buckets.asMap().forEach((key, bucket) -> action.accept(key.toString(), bucket));
+    }
+
+    /**
+     * @return the name of the limiter
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the permits per second granted to every key
+     */
+    public int getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * @return the number of keys with a bucket
+     */
+    public long getKeyCount() {
+        return buckets.size();
+    }
+
+    /**
+     * @return the number of denied permits since startup
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * The key of a bucket. The key used for lookups refers to a part of the
+     * source without copying it, the stored keys are the complete source.
+     */
+    private static final class BucketKey {
+        private String source;
+        private int start;
+        private int end;
+        private int hash;
+
+        private BucketKey() {
+        }
+
+        private BucketKey(final String key) {
+            set(key, 0, key.length());
+        }
+
+        private BucketKey set(final String source, final int start, final int end) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+            int h = 0;
+            for (int i = start; i < end; i++) {
+                h = 31 * h + source.charAt(i);
+            }
+            hash = h;
+            return this;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof BucketKey)) {
+                return false;
+            }
+            final BucketKey other = (BucketKey) obj;
+            final int length = end - start;
+            return hash == other.hash && length == other.end - other.start
+                    && source.regionMatches(start, other.source, other.start, length);
+        }
+
+        @Override
+        public String toString() {
+            return start == 0 && end == source.length() ? source : source.substring(start, end);
+        }
+    }
+}
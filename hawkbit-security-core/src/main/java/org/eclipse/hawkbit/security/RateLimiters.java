@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The {@link RateLimiter}s of the {@link DosFilter} with separate budgets for
+ * read, write and artifact download requests.
+ */
+public class RateLimiters {
+
+    private final RateLimitKey key;
+
+    private final RateLimiter read;
+
+    private final RateLimiter write;
+
+    private final RateLimiter download;
+
+    /**
+     * Constructor.
+     *
+     * @param key
+     *            by which the requests are limited
+     * @param maxRead
+     *            maximum number of read/GET requests per second and key
+     * @param maxWrite
+     *            maximum number of write (PUT/POST/etc.) requests per second
+     *            and key
+     * @param maxDownload
+     *            maximum number of artifact download requests per second and
+     *            key
+     * @param maxKeys
+     *            maximum number of keys per limiter, the least recently used
+     *            key is removed above
+     */
+    public RateLimiters(final RateLimitKey key, final int maxRead, final int maxWrite, final int maxDownload,
+            final int maxKeys) {
+        this.key = key;
+        read = new RateLimiter("read", maxRead, maxKeys);
+        write = new RateLimiter("write", maxWrite, maxKeys);
+        download = new RateLimiter("download", maxDownload, maxKeys);
+    }
+
+    /**
+     * Creates the limiters configured by the given properties.
+     *
+     * @param filter
+     *            the DOS filter properties
+     * @return the limiters
+     */
+    public static RateLimiters of(final HawkbitSecurityProperties.Dos.Filter filter) {
+        return new RateLimiters(filter.getKey(), filter.getMaxRead(), filter.getMaxWrite(), filter.getMaxDownload(),
+                filter.getMaxKeys());
+    }
+
+    public RateLimitKey getKey() {
+        return key;
+    }
+
+    public RateLimiter getRead() {
+        return read;
+    }
+
+    public RateLimiter getWrite() {
+        return write;
+    }
+
+    public RateLimiter getDownload() {
+        return download;
+    }
+
+    /**
+     * @return all limiters
+     */
+    public List<RateLimiter> getAll() {
+        return Collections.unmodifiableList(Arrays.asList(read, write, download));
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket which holds up to a capacity of permits and refills
+ * them continuously with a fixed rate.
+ *
+ * Instead of a token count the bucket keeps the theoretical arrival time of the
+ * next request (virtual scheduling of the generic cell rate algorithm). A
+ * permit is granted if this time is not more than the capacity ahead of now,
+ * so acquiring a permit is a single compare-and-set without allocations and
+ * without a refill task.
+ */
+public final class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long emissionIntervalNanos;
+
+    private final long burstToleranceNanos;
+
+    private final AtomicLong theoreticalArrivalNanos;
+
+    private final AtomicLong acquiredPermits = new AtomicLong();
+
+    /**
+     * Constructor for a full bucket.
+     *
+     * @param permitsPerSecond
+     *            the rate in which permits are refilled, the capacity of the
+     *            bucket as well
+     * @param nowNanos
+     *            the current {@link System#nanoTime()}
+     */
+    public TokenBucket(final int permitsPerSecond, final long nowNanos) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Permits per second has to be positive");
+        }
+        emissionIntervalNanos = Math.max(1, NANOS_PER_SECOND / permitsPerSecond);
+        burstToleranceNanos = emissionIntervalNanos * permitsPerSecond;
+        theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Acquires one permit if available.
+     *
+     * @param nowNanos
+     *            the current {@link System#nanoTime()}
+     * @return <code>true</code> if the permit has been granted
+     */
+    public boolean tryAcquire(final long nowNanos) {
+        for (;;) {
+            final long current = theoreticalArrivalNanos.get();
+            final long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            if (next - nowNanos > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(current, next)) {
+                acquiredPermits.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Blocks the bucket, i.e. no permits are granted until the given time.
+     *
+     * @param untilNanos
+     *            the {@link System#nanoTime()} until permits are denied
+     */
+    public void block(final long untilNanos) {
+        final long blocked = untilNanos + burstToleranceNanos - emissionIntervalNanos;
+        theoreticalArrivalNanos.accumulateAndGet(blocked, Math::max);
+    }
+
+    /**
+     * @param nowNanos
+     *            the current {@link System#nanoTime()}
+     * @return <code>true</code> if the bucket is full again and can be
+     *         discarded without loss of information
+     */
+    public boolean isIdle(final long nowNanos) {
+        return theoreticalArrivalNanos.get() - nowNanos <= 0;
+    }
+
+    /**
+     * @return the number of permits granted since the last call, e.g. to
+     *         report them to the other nodes of the cluster
+     */
+    public long drainAcquiredPermits() {
+        return acquiredPermits.getAndSet(0);
+    }
+}
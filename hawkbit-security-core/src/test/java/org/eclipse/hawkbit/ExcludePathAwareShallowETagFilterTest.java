@@ -27,6 +27,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 import ru.yandex.qatools.allure.annotations.Features;
 import ru.yandex.qatools.allure.annotations.Stories;
@@ -89,4 +91,21 @@ public class ExcludePathAwareShallowETagFilterTest {
         verify(filterChainMock, times(1)).doFilter(Mockito.eq(servletRequestMock), responseArgumentCaptor.capture());
         assertThat(mockingDetails(responseArgumentCaptor.getValue()).isMock()).isFalse();
     }
+
+    @Test
+    public void eTagOfResourceIsNotReplaced() throws ServletException, IOException {
+        final String resourceETag = "\"4711-FORCED-1.0\"";
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/include/resource");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        final ExcludePathAwareShallowETagFilter filterUnderTest = new ExcludePathAwareShallowETagFilter("/exclude/**");
+
+        filterUnderTest.doFilter(request, response, (filterRequest, filterResponse) -> {
+            ((HttpServletResponse) filterResponse).setHeader("ETag", resourceETag);
+            filterResponse.getOutputStream().write("content".getBytes());
+        });
+
+        assertThat(response.getHeader("ETag")).isEqualTo(resourceETag);
+        assertThat(response.getContentAsString()).isEqualTo("content");
+    }
 }
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Security")
+@Stories("Rate Limiter Test")
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @Description("Verify that a token bucket grants its capacity as burst and refills with its rate")
+    public void tokenBucketGrantsBurstAndRefills() {
+        final long start = 1_000L;
+        final TokenBucket bucket = new TokenBucket(10, start);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(bucket.tryAcquire(start)).isTrue();
+        }
+        assertThat(bucket.tryAcquire(start)).isFalse();
+        assertThat(bucket.isIdle(start)).isFalse();
+
+        assertThat(bucket.tryAcquire(start + SECOND / 10)).isTrue();
+        assertThat(bucket.tryAcquire(start + SECOND / 10)).isFalse();
+
+        assertThat(bucket.isIdle(start + 2 * SECOND)).isTrue();
+        assertThat(bucket.drainAcquiredPermits()).isEqualTo(11);
+        assertThat(bucket.drainAcquiredPermits()).isEqualTo(0);
+    }
+
+    @Test
+    @Description("Verify that a blocked token bucket grants no permits until the end of the block")
+    public void blockedTokenBucketGrantsNoPermits() {
+        final long start = 1_000L;
+        final TokenBucket bucket = new TokenBucket(10, start);
+
+        bucket.block(start + SECOND);
+
+        assertThat(bucket.tryAcquire(start)).isFalse();
+        assertThat(bucket.tryAcquire(start + SECOND - 1)).isFalse();
+        assertThat(bucket.tryAcquire(start + SECOND)).isTrue();
+    }
+
+    @Test
+    @Description("Verify that the rate limiter has a separate budget per key and is bounded by the maximum number of keys")
+    public void rateLimiterLimitsPerKey() {
+        final RateLimiter rateLimiter = new RateLimiter("read", 5, 2);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(rateLimiter.tryAcquire("first")).isTrue();
+        }
+        assertThat(rateLimiter.tryAcquire("first")).isFalse();
+        assertThat(rateLimiter.tryAcquire("second")).isTrue();
+        assertThat(rateLimiter.getRejected()).isEqualTo(1);
+        assertThat(rateLimiter.getKeyCount()).isEqualTo(2);
+
+        assertThat(rateLimiter.tryAcquire("third")).isTrue();
+        assertThat(rateLimiter.getKeyCount()).isEqualTo(2);
+    }
+
+    @Test
+    @Description("Verify that a key which is a part of a string shares the budget with the same key as string")
+    public void rateLimiterLimitsPartOfString() {
+        final RateLimiter rateLimiter = new RateLimiter("read", 2, 10);
+        final String uri = "/default/controller/v1/4711/deploymentBase/1";
+
+        assertThat(rateLimiter.tryAcquire(uri, 1, 27)).isTrue();
+        assertThat(rateLimiter.tryAcquire("default/controller/v1/4711")).isTrue();
+        assertThat(rateLimiter.tryAcquire(uri, 1, 27)).isFalse();
+        assertThat(rateLimiter.tryAcquire(uri, 1, 8)).as("other key").isTrue();
+
+        final List<String> keys = new ArrayList<>();
+        rateLimiter.forEachBucket((key, bucket) -> keys.add(key));
+        assertThat(keys).containsOnly("default/controller/v1/4711", "default");
+    }
+
+    @Test
+    @Description("Verify that the key of a request is resolved from the path of the direct device integration API")
+    public void rateLimitKeyIsResolvedFromPath() {
+        final MockHttpServletRequest ddiRequest = new MockHttpServletRequest("GET",
+                "/default/controller/v1/4711/deploymentBase/1");
+        final MockHttpServletRequest mgmtRequest = new MockHttpServletRequest("GET", "/rest/v1/targets");
+
+        assertThat(RateLimitKey.IP.resolve(ddiRequest, "10.0.0.1")).isEqualTo("10.0.0.1");
+        assertThat(RateLimitKey.TENANT.resolve(ddiRequest, "10.0.0.1")).isEqualTo("default");
+        assertThat(RateLimitKey.CONTROLLER.resolve(ddiRequest, "10.0.0.1")).isEqualTo("default/controller/v1/4711");
+        assertThat(RateLimitKey.CONTROLLER.resolve(mgmtRequest, "10.0.0.1")).isEqualTo("10.0.0.1");
+
+        final RateLimiter rateLimiter = new RateLimiter("read", 1, 10);
+        assertThat(RateLimitKey.CONTROLLER.tryAcquire(rateLimiter, ddiRequest, "10.0.0.1")).isTrue();
+        assertThat(rateLimiter.tryAcquire("default/controller/v1/4711")).as("same key").isFalse();
+        assertThat(RateLimitKey.CONTROLLER.tryAcquire(rateLimiter, mgmtRequest, "10.0.0.1")).isTrue();
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).as("falls back to the IP").isFalse();
+    }
+
+    @Test
+    @Description("Verify that the download budget defaults to the read budget unless configured")
+    public void downloadBudgetDefaultsToReadBudget() {
+        final HawkbitSecurityProperties.Dos.Filter filter = new HawkbitSecurityProperties.Dos.Filter();
+        filter.setMaxRead(150);
+        assertThat(RateLimiters.of(filter).getDownload().getPermitsPerSecond()).isEqualTo(150);
+
+        filter.setMaxDownload(20);
+        assertThat(RateLimiters.of(filter).getDownload().getPermitsPerSecond()).isEqualTo(20);
+    }
+}
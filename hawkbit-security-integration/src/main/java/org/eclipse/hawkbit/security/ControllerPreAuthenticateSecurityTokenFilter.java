@@ -9,20 +9,14 @@
 package org.eclipse.hawkbit.security;
 
 import org.eclipse.hawkbit.dmf.json.model.TenantSecurityToken;
-import org.eclipse.hawkbit.im.authentication.SpPermission;
-import org.eclipse.hawkbit.im.authentication.TenantAwareAuthenticationDetails;
 import org.eclipse.hawkbit.repository.ControllerManagement;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
 import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.authentication.AnonymousAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.context.SecurityContextImpl;
+
+import com.google.common.base.Strings;
 
 /**
  * An pre-authenticated processing filter which extracts (if enabled through
@@ -80,52 +74,30 @@ public class ControllerPreAuthenticateSecurityTokenFilter extends AbstractContro
         return null;
     }
 
+    /**
+     * Returns the presented token as credentials if it matches the security
+     * token of the target. The token is verified by
+     * {@link ControllerManagement#verifySecurityToken(String, String)} which
+     * serves the token digests from a cache, so the target is not loaded on
+     * every request.
+     */
     @Override
     public HeaderAuthentication getPreAuthenticatedCredentials(final TenantSecurityToken secruityToken) {
-        final String securityToken = tenantAware.runAsTenant(secruityToken.getTenant(),
-                new GetSecurityTokenTenantRunner(secruityToken.getTenant(), secruityToken.getControllerId()));
-        return new HeaderAuthentication(secruityToken.getControllerId(), securityToken);
+        final HeaderAuthentication presented = getPreAuthenticatedPrincipal(secruityToken);
+        final String controllerId = secruityToken.getControllerId();
+        if (presented == null || Strings.isNullOrEmpty(controllerId)
+                || Strings.isNullOrEmpty(presented.getHeaderAuth())) {
+            return new HeaderAuthentication(controllerId, null);
+        }
+
+        LOGGER.trace("verifying security token for controllerId {}", controllerId);
+        final boolean valid = tenantAware.runAsTenant(secruityToken.getTenant(),
+                () -> controllerManagement.verifySecurityToken(controllerId, presented.getHeaderAuth()));
+        return new HeaderAuthentication(controllerId, valid ? presented.getHeaderAuth() : null);
     }
 
     @Override
     protected TenantConfigurationKey getTenantConfigurationKey() {
         return TenantConfigurationKey.AUTHENTICATION_MODE_TARGET_SECURITY_TOKEN_ENABLED;
     }
-
-    private final class GetSecurityTokenTenantRunner implements TenantAware.TenantRunner<String> {
-
-        private final String controllerId;
-        private final String tenant;
-
-        private GetSecurityTokenTenantRunner(final String tenant, final String controllerId) {
-            this.tenant = tenant;
-            this.controllerId = controllerId;
-        }
-
-        @Override
-        public String run() {
-            LOGGER.trace("retrieving security token for controllerId {}", controllerId);
-            final SecurityContext oldContext = SecurityContextHolder.getContext();
-            try {
-                SecurityContextHolder.setContext(getSecurityTokenReadContext());
-                return controllerManagement.getSecurityTokenByControllerId(controllerId);
-            } finally {
-                SecurityContextHolder.setContext(oldContext);
-            }
-        }
-
-        private SecurityContext getSecurityTokenReadContext() {
-            final SecurityContextImpl securityContextImpl = new SecurityContextImpl();
-            securityContextImpl.setAuthentication(getSecurityTokenReadAuthentication());
-            return securityContextImpl;
-        }
-
-        private Authentication getSecurityTokenReadAuthentication() {
-            final AnonymousAuthenticationToken anonymousAuthenticationToken = new AnonymousAuthenticationToken(
-                    "anonymous-read-security-token", "anonymous", com.google.common.collect.Lists
-                            .newArrayList(new SimpleGrantedAuthority(SpPermission.READ_TARGET_SEC_TOKEN)));
-            anonymousAuthenticationToken.setDetails(new TenantAwareAuthenticationDetails(tenant, true));
-            return anonymousAuthenticationToken;
-        }
-    }
 }
@@ -25,6 +25,10 @@ public final class HeaderAuthentication {
         this.headerAuth = headerAuth;
     }
 
+    String getHeaderAuth() {
+        return headerAuth;
+    }
+
     @Override
     public int hashCode() {// NOSONAR - as this is generated
         final int prime = 31;
@@ -18,6 +18,7 @@ import org.eclipse.hawkbit.repository.eventbus.event.DistributionSetTagDeletedEv
 import org.eclipse.hawkbit.repository.eventbus.event.DistributionSetTagUpdateEvent;
 import org.eclipse.hawkbit.repository.eventbus.event.RolloutChangeEvent;
 import org.eclipse.hawkbit.repository.eventbus.event.RolloutGroupChangeEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetAssignDistributionSetBulkEvent;
 import org.eclipse.hawkbit.repository.eventbus.event.TargetCreatedEvent;
 import org.eclipse.hawkbit.repository.eventbus.event.TargetInfoUpdateEvent;
 import org.eclipse.hawkbit.repository.eventbus.event.TargetTagCreatedBulkEvent;
@@ -29,7 +30,7 @@ import org.eclipse.hawkbit.repository.eventbus.event.TargetTagUpdateEvent;
  */
 public class HawkbitEventProvider implements UIEventProvider {
 
-    private static final Set<Class<? extends Event>> SINGLE_EVENTS = new HashSet<>(6);
+    private static final Set<Class<? extends Event>> SINGLE_EVENTS = new HashSet<>(9);
     private static final Set<Class<? extends Event>> BULK_EVENTS = new HashSet<>(3);
 
     static {
@@ -41,6 +42,7 @@ public class HawkbitEventProvider implements UIEventProvider {
         SINGLE_EVENTS.add(RolloutGroupChangeEvent.class);
         SINGLE_EVENTS.add(RolloutChangeEvent.class);
         SINGLE_EVENTS.add(TargetTagUpdateEvent.class);
+        SINGLE_EVENTS.add(TargetAssignDistributionSetBulkEvent.class);
 
         BULK_EVENTS.add(TargetCreatedEvent.class);
         BULK_EVENTS.add(TargetInfoUpdateEvent.class);
@@ -10,6 +10,7 @@ package org.eclipse.hawkbit.ui.management.targettable;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -40,6 +41,11 @@ import com.google.common.base.Strings;
  * Simple implementation of generics bean query which dynamically loads a batch
  * of beans.
  *
+ * While scrolling the batches are loaded with keyset paging behind the last
+ * target of the previous batch, so the cost of a batch does not grow with its
+ * position. Only if the table jumps to a batch whose predecessor has not been
+ * loaded the batch is read by offset. The displayed counts are cached by the
+ * repository and refreshed in the background.
  */
 public class TargetBeanQuery extends AbstractBeanQuery<ProxyTarget> {
     private static final long serialVersionUID = -5645680058303167558L;
@@ -54,6 +60,7 @@ public class TargetBeanQuery extends AbstractBeanQuery<ProxyTarget> {
     private Long pinnedDistId = null;
     private TargetFilterQuery targetFilterQuery;
     private ManagementUIState managementUIState;
+    private final Map<Integer, Target> lastTargetByNextIndex = new HashMap<>();
 
     /**
      * Parametric Constructor.
@@ -101,8 +108,34 @@ public class TargetBeanQuery extends AbstractBeanQuery<ProxyTarget> {
 
     @Override
     protected List<ProxyTarget> loadBeans(final int startIndex, final int count) {
+        final Slice<Target> targetBeans;
+        if (startIndex == 0 || lastTargetByNextIndex.containsKey(startIndex)) {
+            targetBeans = loadTargetsAfter(lastTargetByNextIndex.get(startIndex));
+        } else {
+            targetBeans = loadTargetsByOffset(startIndex);
+        }
+        if (targetBeans.hasContent()) {
+            lastTargetByNextIndex.put(startIndex + targetBeans.getNumberOfElements(),
+                    targetBeans.getContent().get(targetBeans.getNumberOfElements() - 1));
+        }
+        return toProxyTargets(targetBeans);
+    }
+
+    private Slice<Target> loadTargetsAfter(final Target lastTarget) {
+        if (pinnedDistId != null) {
+            return getTargetManagement().findTargetsAllOrderByLinkedDistributionSetAfter(lastTarget,
+                    SPUIDefinitions.PAGE_SIZE, pinnedDistId, distributionId, status, searchText, noTagClicked,
+                    targetTags);
+        } else if (null != targetFilterQuery) {
+            return getTargetManagement().findTargetsAllAfter(targetFilterQuery, sort, lastTarget,
+                    SPUIDefinitions.PAGE_SIZE);
+        }
+        return getTargetManagement().findTargetByFiltersAfter(sort, lastTarget, SPUIDefinitions.PAGE_SIZE, status,
+                searchText, distributionId, noTagClicked, targetTags);
+    }
+
+    private Slice<Target> loadTargetsByOffset(final int startIndex) {
         Slice<Target> targetBeans;
-        final List<ProxyTarget> proxyTargetBeans = new ArrayList<>();
         if (pinnedDistId != null) {
             targetBeans = getTargetManagement().findTargetsAllOrderByLinkedDistributionSet(
                     new OffsetBasedPageRequest(startIndex, SPUIDefinitions.PAGE_SIZE, sort), pinnedDistId,
@@ -118,6 +151,11 @@ public class TargetBeanQuery extends AbstractBeanQuery<ProxyTarget> {
                     new PageRequest(startIndex / SPUIDefinitions.PAGE_SIZE, SPUIDefinitions.PAGE_SIZE, sort), status,
                     searchText, distributionId, noTagClicked, targetTags);
         }
+        return targetBeans;
+    }
+
+    private List<ProxyTarget> toProxyTargets(final Slice<Target> targetBeans) {
+        final List<ProxyTarget> proxyTargetBeans = new ArrayList<>();
         for (final Target targ : targetBeans) {
             final ProxyTarget prxyTarget = new ProxyTarget();
             prxyTarget.setTargetIdName(targ.getTargetIdName());
@@ -177,14 +215,14 @@ public class TargetBeanQuery extends AbstractBeanQuery<ProxyTarget> {
 
     @Override
     public int size() {
-        final long totSize = getTargetManagement().countTargetsAll();
+        final long totSize = getTargetManagement().countTargetByFiltersCached(null, null, null, Boolean.FALSE);
         long size;
         if (null != targetFilterQuery) {
-            size = getTargetManagement().countTargetByTargetFilterQuery(targetFilterQuery);
+            size = getTargetManagement().countTargetByTargetFilterQueryCached(targetFilterQuery);
         } else if (!anyFilterSelected()) {
             size = totSize;
         } else {
-            size = getTargetManagement().countTargetByFilters(status, searchText, distributionId, noTagClicked,
+            size = getTargetManagement().countTargetByFiltersCached(status, searchText, distributionId, noTagClicked,
                     targetTags);
         }
 
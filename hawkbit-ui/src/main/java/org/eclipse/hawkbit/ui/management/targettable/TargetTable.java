@@ -20,6 +20,7 @@ import java.util.stream.Collectors;
 import org.eclipse.hawkbit.eventbus.event.TargetDeletedEvent;
 import org.eclipse.hawkbit.repository.SpPermissionChecker;
 import org.eclipse.hawkbit.repository.TargetManagement;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetAssignDistributionSetBulkEvent;
 import org.eclipse.hawkbit.repository.eventbus.event.TargetCreatedEvent;
 import org.eclipse.hawkbit.repository.eventbus.event.TargetInfoUpdateEvent;
 import org.eclipse.hawkbit.repository.model.Target;
@@ -145,6 +146,19 @@ public class TargetTable extends AbstractTable<Target, TargetIdName> {
         }
     }
 
+    /**
+     * EventListener method which is called when a chunk of a bulk assignment
+     * has been committed.
+     *
+     * @param event
+     *            the bulk assignment event
+     */
+    @EventBusListenerMethod(scope = EventScope.SESSION)
+    void onEvent(final TargetAssignDistributionSetBulkEvent event) {
+        onTargetInfoUpdateEvents(event.getTargetInfos().stream().map(TargetInfoUpdateEvent::new)
+                .collect(Collectors.toList()));
+    }
+
     @EventBusListenerMethod(scope = EventScope.SESSION)
     void onEvent(final DragEvent dragEvent) {
         if (dragEvent == DragEvent.TARGET_TAG_DRAG || dragEvent == DragEvent.DISTRIBUTION_DRAG) {
@@ -51,7 +51,11 @@ import com.vaadin.ui.UI;
  * The strategy also verifies the current tenant in the session with the tenant
  * in the event and only forwards event from the right tenant to the UI.
  *
+ * @deprecated every instance subscribes on the system event bus and runs its
+ *             own scheduler, use the {@link UIEventHubPushStrategy} which
+ *             shares one {@link UIEventHub} between all UIs of the node.
  */
+@Deprecated
 public class DelayedEventBusPushStrategy implements EventPushStrategy {
 
     private static final Logger LOG = LoggerFactory.getLogger(DelayedEventBusPushStrategy.class);
@@ -0,0 +1,348 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ui.push;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.hawkbit.eventbus.event.Event;
+import org.eclipse.hawkbit.repository.eventbus.event.RolloutChangeEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.RolloutGroupChangeEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.TargetInfoUpdateEvent;
+import org.eclipse.hawkbit.ui.UIEventProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Node wide hub which retrieves the events for the UI from the system
+ * {@link EventBus} once and forwards them to all subscribed UIs.
+ *
+ * The subscribed UIs are indexed by tenant and event type. Events are only
+ * collected if a UI of the tenant is subscribed for the event type. Events of
+ * the same entity are coalesced within the push interval, i.e. only the latest
+ * event of e.g. a target info is forwarded, at the position of the latest
+ * event. Every push interval the collected events of a tenant are pushed as
+ * one batch to every UI of the tenant, containing only the event types of the
+ * UI, by a small shared thread pool.
+ */
+public class UIEventHub {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UIEventHub.class);
+
+    private static final int MAX_PENDING_EVENTS_PER_TENANT = 10_000;
+    private static final long PUSH_INITIAL_DELAY_MILLIS = 500;
+    private static final long PUSH_INTERVAL_MILLIS = 2000;
+    private static final int PUSH_THREADS = 4;
+
+    private final EventBus systemEventBus;
+    private final UIEventProvider eventProvider;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<String, PendingEvents> pendingEventsByTenant = new ConcurrentHashMap<>();
+    private volatile Map<String, Map<Class<?>, List<Subscriber>>> subscribersByTenant = Collections.emptyMap();
+
+    private final ScheduledExecutorService pushScheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("ui-event-hub-scheduler-%d").build());
+    private final ExecutorService pushExecutor = Executors.newFixedThreadPool(PUSH_THREADS,
+            new ThreadFactoryBuilder().setNameFormat("ui-event-hub-push-%d").build());
+
+    private final AtomicLong receivedEvents = new AtomicLong();
+    private final AtomicLong coalescedEvents = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong pushedBatches = new AtomicLong();
+
+    /**
+     * Constructor which registers the hub on the system event bus and starts
+     * the push scheduler.
+     *
+     * @param systemEventBus
+     *            the system event bus where to retrieve the events from the
+     *            back-end
+     * @param eventProvider
+     *            the provider of the event types supported by the UI
+     */
+    public UIEventHub(final EventBus systemEventBus, final UIEventProvider eventProvider) {
+        this.systemEventBus = systemEventBus;
+        this.eventProvider = eventProvider;
+        systemEventBus.register(this);
+        pushScheduler.scheduleWithFixedDelay(this::push, PUSH_INITIAL_DELAY_MILLIS, PUSH_INTERVAL_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the hub.
+     */
+    public void shutdown() {
+        systemEventBus.unregister(this);
+        pushScheduler.shutdownNow();
+        pushExecutor.shutdownNow();
+        subscribers.clear();
+        pendingEventsByTenant.clear();
+    }
+
+    /**
+     * Subscribes an UI for the events of the tenant of its session.
+     *
+     * @param subscriber
+     *            the UI to subscribe
+     */
+    public void subscribe(final Subscriber subscriber) {
+        subscribers.add(subscriber);
+        indexSubscribers();
+    }
+
+    /**
+     * Unsubscribes an UI.
+     *
+     * @param subscriber
+     *            the UI to unsubscribe
+     */
+    public void unsubscribe(final Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        indexSubscribers();
+    }
+
+    /**
+     * An {@link EventBus} subscriber which collects the events supported by the
+     * UI for all tenants with subscribed UIs.
+     *
+     * @param event
+     *            the event which has been published from the repository
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void dispatch(final Event event) {
+        if (!isEventProvided(event) || event.getTenant() == null) {
+            return;
+        }
+
+        final String tenant = event.getTenant().toUpperCase();
+        final Map<Class<?>, List<Subscriber>> subscribersByEventType = subscribersByTenant.get(tenant);
+        if (subscribersByEventType == null || !subscribersByEventType.containsKey(event.getClass())) {
+            return;
+        }
+
+        receivedEvents.incrementAndGet();
+        pendingEventsByTenant.computeIfAbsent(tenant, key -> new PendingEvents()).add(event);
+    }
+
+    private boolean isEventProvided(final Event event) {
+        return eventProvider.getSingleEvents().contains(event.getClass())
+                || eventProvider.getBulkEvents().contains(event.getClass());
+    }
+
+    private void push() {
+        try {
+            // the tenant of a subscribed UI changes with the login of the
+            // user
+            final Map<String, Map<Class<?>, List<Subscriber>>> currentSubscribers = indexSubscribers();
+            pendingEventsByTenant.keySet().retainAll(currentSubscribers.keySet());
+
+            pendingEventsByTenant.forEach((tenant, pendingEvents) -> {
+                final List<Event> events = pendingEvents.drain();
+                if (events.isEmpty()) {
+                    return;
+                }
+                final Map<Subscriber, List<Event>> eventsBySubscriber = selectEventsBySubscriber(events,
+                        currentSubscribers.get(tenant));
+                LOG.debug("Pushing {} events of tenant {} to {} UIs", events.size(), tenant,
+                        eventsBySubscriber.size());
+                eventsBySubscriber.forEach((subscriber, subscriberEvents) -> pushExecutor.execute(() -> {
+                    subscriber.push(Collections.unmodifiableList(subscriberEvents));
+                    pushedBatches.incrementAndGet();
+                }));
+            });
+        } catch (final RuntimeException e) {
+            LOG.error("Failed to push events to the UIs", e);
+        }
+    }
+
+    private static Map<Subscriber, List<Event>> selectEventsBySubscriber(final List<Event> events,
+            final Map<Class<?>, List<Subscriber>> subscribersByEventType) {
+        final Map<Subscriber, List<Event>> eventsBySubscriber = new LinkedHashMap<>();
+        for (final Event event : events) {
+            subscribersByEventType.getOrDefault(event.getClass(), Collections.emptyList()).forEach(
+                    subscriber -> eventsBySubscriber.computeIfAbsent(subscriber, key -> new ArrayList<>()).add(event));
+        }
+        return eventsBySubscriber;
+    }
+
+    private synchronized Map<String, Map<Class<?>, List<Subscriber>>> indexSubscribers() {
+        final Map<String, Map<Class<?>, List<Subscriber>>> index = new HashMap<>();
+        for (final Subscriber subscriber : subscribers) {
+            final String tenant = subscriber.getTenant();
+            if (tenant == null) {
+                continue;
+            }
+            final Map<Class<?>, List<Subscriber>> subscribersByEventType = index
+                    .computeIfAbsent(tenant.toUpperCase(), key -> new HashMap<>());
+            subscriber.getEventTypes().forEach(eventType -> subscribersByEventType
+                    .computeIfAbsent(eventType, key -> new ArrayList<>()).add(subscriber));
+        }
+        subscribersByTenant = index;
+        return index;
+    }
+
+    /**
+     * @return the key of events which replace each other within a push
+     *         interval or <code>null</code> if the event has to be forwarded in
+     *         any case
+     */
+    private static Object coalescingKey(final Event event) {
+        if (event instanceof TargetInfoUpdateEvent) {
+            return new CoalescingKey(TargetInfoUpdateEvent.class,
+                    ((TargetInfoUpdateEvent) event).getEntity().getTarget().getId());
+        }
+        if (event instanceof RolloutChangeEvent) {
+            return new CoalescingKey(RolloutChangeEvent.class, ((RolloutChangeEvent) event).getRolloutId());
+        }
+        if (event instanceof RolloutGroupChangeEvent) {
+            return new CoalescingKey(RolloutGroupChangeEvent.class,
+                    ((RolloutGroupChangeEvent) event).getRolloutGroupId());
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of events collected for subscribed tenants since
+     *         startup
+     */
+    public long getReceivedEvents() {
+        return receivedEvents.get();
+    }
+
+    /**
+     * @return the number of events which have been replaced by a later event
+     *         of the same entity since startup
+     */
+    public long getCoalescedEvents() {
+        return coalescedEvents.get();
+    }
+
+    /**
+     * @return the number of events which have been dropped because too many
+     *         events of a tenant were waiting since startup
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * @return the number of batches pushed to the UIs since startup
+     */
+    public long getPushedBatches() {
+        return pushedBatches.get();
+    }
+
+    /**
+     * @return the number of subscribed UIs
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * An UI which retrieves the events of the tenant of its session.
+     */
+    public interface Subscriber {
+
+        /**
+         * @return the tenant of the current user of the UI or
+         *         <code>null</code> if no user is logged in
+         */
+        String getTenant();
+
+        /**
+         * @return the types of the events the UI is interested in
+         */
+        Set<Class<? extends Event>> getEventTypes();
+
+        /**
+         * Pushes the events of the last push interval to the UI.
+         *
+         * @param events
+         *            the events of the types of the UI in the order they have
+         *            been published, must not be modified
+         */
+        void push(List<Event> events);
+    }
+
+    private final class PendingEvents {
+        private Map<Object, Event> events = new LinkedHashMap<>();
+
+        private synchronized void add(final Event event) {
+            final Object key = coalescingKey(event);
+            if (key != null && events.remove(key) != null) {
+                // moves the entity to the position of the latest event, so it
+                // stays behind other events of the entity, e.g. a deletion
+                events.put(key, event);
+                coalescedEvents.incrementAndGet();
+                return;
+            }
+            if (events.size() >= MAX_PENDING_EVENTS_PER_TENANT) {
+                droppedEvents.incrementAndGet();
+                LOG.warn("Limit of pending UI events reached, cannot add more events!!! Dropped event is {}", event);
+                return;
+            }
+            events.put(key != null ? key : new Object(), event);
+        }
+
+        private synchronized List<Event> drain() {
+            if (events.isEmpty()) {
+                return Collections.emptyList();
+            }
+            final List<Event> drained = new ArrayList<>(events.values());
+            events = new LinkedHashMap<>();
+            return drained;
+        }
+    }
+
+    private static final class CoalescingKey {
+        private final Class<?> type;
+        private final Long id;
+
+        private CoalescingKey(final Class<?> type, final Long id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + (id == null ? 0 : id.hashCode());
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CoalescingKey)) {
+                return false;
+            }
+            final CoalescingKey other = (CoalescingKey) obj;
+            return type.equals(other.type) && (id == null ? other.id == null : id.equals(other.id));
+        }
+    }
+}
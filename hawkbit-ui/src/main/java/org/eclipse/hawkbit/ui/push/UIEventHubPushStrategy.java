@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ui.push;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.eventbus.event.Event;
+import org.eclipse.hawkbit.im.authentication.TenantAwareAuthenticationDetails;
+import org.eclipse.hawkbit.ui.UIEventProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.vaadin.spring.events.EventBus.SessionEventBus;
+
+import com.vaadin.server.VaadinSession;
+import com.vaadin.server.VaadinSession.State;
+import com.vaadin.server.WrappedSession;
+import com.vaadin.ui.UI;
+
+/**
+ * A {@link EventPushStrategy} implementation which subscribes the UI on the
+ * node wide {@link UIEventHub}. The hub collects the events of the tenant of
+ * the UI and pushes them as batch, which is forwarded to the
+ * {@link SessionEventBus} in a Vaadin access thread {@link UI#access(Runnable)}.
+ */
+public class UIEventHubPushStrategy implements EventPushStrategy, UIEventHub.Subscriber {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UIEventHubPushStrategy.class);
+
+    private final SessionEventBus eventBus;
+    private final UIEventHub eventHub;
+    private final UIEventProvider eventProvider;
+    private final Set<Class<? extends Event>> eventTypes;
+
+    private UI vaadinUI;
+    private VaadinSession vaadinSession;
+
+    /**
+     * Constructor.
+     *
+     * @param eventBus
+     *            the session event bus to where the events should be dispatched
+     * @param eventHub
+     *            the hub which collects the events from the back-end
+     * @param eventProvider
+     *            the provider of the event types supported by the UI
+     */
+    public UIEventHubPushStrategy(final SessionEventBus eventBus, final UIEventHub eventHub,
+            final UIEventProvider eventProvider) {
+        this.eventBus = eventBus;
+        this.eventHub = eventHub;
+        this.eventProvider = eventProvider;
+        final Set<Class<? extends Event>> providedEventTypes = new HashSet<>(eventProvider.getSingleEvents());
+        providedEventTypes.addAll(eventProvider.getBulkEvents());
+        this.eventTypes = Collections.unmodifiableSet(providedEventTypes);
+    }
+
+    @Override
+    public void init(final UI vaadinUI) {
+        LOG.debug("Initialize event hub push strategy");
+        this.vaadinUI = vaadinUI;
+        this.vaadinSession = vaadinUI.getSession();
+        eventHub.subscribe(this);
+    }
+
+    @Override
+    public void clean() {
+        LOG.debug("Cleanup resources");
+        eventHub.unsubscribe(this);
+    }
+
+    @Override
+    public String getTenant() {
+        final SecurityContext userContext = getUserContext();
+        if (userContext == null || userContext.getAuthentication() == null) {
+            return null;
+        }
+        final Object tenantAuthenticationDetails = userContext.getAuthentication().getDetails();
+        if (tenantAuthenticationDetails instanceof TenantAwareAuthenticationDetails) {
+            return ((TenantAwareAuthenticationDetails) tenantAuthenticationDetails).getTenant();
+        }
+        return null;
+    }
+
+    @Override
+    public Set<Class<? extends Event>> getEventTypes() {
+        return eventTypes;
+    }
+
+    @Override
+    public void push(final List<Event> events) {
+        final SecurityContext userContext = getUserContext();
+        if (userContext == null) {
+            return;
+        }
+
+        final long timestamp = System.currentTimeMillis();
+        final SecurityContext oldContext = SecurityContextHolder.getContext();
+        try {
+            SecurityContextHolder.setContext(userContext);
+
+            vaadinUI.access(() -> {
+                if (vaadinSession.getState() != State.OPEN) {
+                    return;
+                }
+                forwardSingleEvents(events);
+                forwardBulkEvents(events);
+            });
+        } finally {
+            SecurityContextHolder.setContext(oldContext);
+        }
+
+        LOG.debug("UI EventBus aggregator done with sending {} events in {} ms", events.size(),
+                System.currentTimeMillis() - timestamp);
+    }
+
+    private SecurityContext getUserContext() {
+        if (vaadinSession == null) {
+            return null;
+        }
+        final WrappedSession wrappedSession = vaadinSession.getSession();
+        if (wrappedSession == null) {
+            return null;
+        }
+        return (SecurityContext) wrappedSession
+                .getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+    }
+
+    private void forwardBulkEvents(final List<Event> events) {
+        final Set<Class<?>> bulkEventTypes = eventProvider.getFilteredBulkEventsType(events);
+        for (final Class<?> bulkType : bulkEventTypes) {
+            final List<Event> bulkEvents = events.stream().filter(bulkType::isInstance).collect(Collectors.toList());
+            if (!bulkEvents.isEmpty()) {
+                eventBus.publish(vaadinUI, bulkEvents);
+            }
+        }
+    }
+
+    private void forwardSingleEvents(final List<Event> events) {
+        events.stream().filter(event -> eventProvider.getSingleEvents().contains(event.getClass()))
+                .forEach(event -> eventBus.publish(vaadinUI, event));
+    }
+}
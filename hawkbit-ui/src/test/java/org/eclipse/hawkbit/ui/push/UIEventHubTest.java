@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ui.push;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.eventbus.event.Event;
+import org.eclipse.hawkbit.repository.eventbus.event.RolloutChangeEvent;
+import org.eclipse.hawkbit.repository.eventbus.event.RolloutGroupChangeEvent;
+import org.eclipse.hawkbit.ui.UIEventProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.annotation.Description;
+
+import com.google.common.eventbus.EventBus;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Management UI")
+@Stories("UI Event Hub")
+public class UIEventHubTest {
+
+    private static final String TENANT = "DEFAULT";
+
+    private final EventBus systemEventBus = new EventBus();
+    private UIEventHub eventHub;
+
+    @Before
+    public void setUp() {
+        eventHub = new UIEventHub(systemEventBus, new UIEventProvider() {
+            @Override
+            public Set<Class<? extends Event>> getSingleEvents() {
+                return new HashSet<>(Arrays.asList(RolloutChangeEvent.class, RolloutGroupChangeEvent.class));
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        eventHub.shutdown();
+    }
+
+    @Test
+    @Description("Events are only pushed to the UIs of the tenant which are subscribed for the event type.")
+    public void dispatchesEventsByTenantAndEventType() throws InterruptedException {
+        final SubscriberMock rolloutSubscriber = new SubscriberMock(TENANT, RolloutChangeEvent.class);
+        final SubscriberMock groupSubscriber = new SubscriberMock(TENANT, RolloutGroupChangeEvent.class);
+        final SubscriberMock otherTenantSubscriber = new SubscriberMock("OTHER", RolloutChangeEvent.class);
+        eventHub.subscribe(rolloutSubscriber);
+        eventHub.subscribe(groupSubscriber);
+        eventHub.subscribe(otherTenantSubscriber);
+
+        final RolloutChangeEvent rolloutEvent = new RolloutChangeEvent(1, TENANT, 1L);
+        final RolloutGroupChangeEvent groupEvent = new RolloutGroupChangeEvent(1, TENANT, 1L, 2L);
+        systemEventBus.post(rolloutEvent);
+        systemEventBus.post(groupEvent);
+
+        assertThat(rolloutSubscriber.awaitEvents()).as("Pushed events").containsExactly(rolloutEvent);
+        assertThat(groupSubscriber.awaitEvents()).as("Pushed events").containsExactly(groupEvent);
+        assertThat(otherTenantSubscriber.getEvents()).as("Pushed events of other tenant").isEmpty();
+        assertThat(eventHub.getReceivedEvents()).as("Received events").isEqualTo(2);
+    }
+
+    @Test
+    @Description("Events are not collected for event types and tenants without subscribed UI.")
+    public void ignoresEventsWithoutSubscriber() {
+        final SubscriberMock subscriber = new SubscriberMock(TENANT, RolloutChangeEvent.class);
+        eventHub.subscribe(subscriber);
+        eventHub.unsubscribe(subscriber);
+
+        systemEventBus.post(new RolloutChangeEvent(1, TENANT, 1L));
+        systemEventBus.post(new RolloutGroupChangeEvent(1, TENANT, 1L, 2L));
+
+        assertThat(eventHub.getReceivedEvents()).as("Received events").isEqualTo(0);
+        assertThat(eventHub.getSubscriberCount()).as("Subscribed UIs").isEqualTo(0);
+    }
+
+    @Test
+    @Description("Events of the same entity are coalesced to the latest event at the position of the latest event.")
+    public void coalescesEventsOfSameEntityWithoutReordering() throws InterruptedException {
+        final SubscriberMock subscriber = new SubscriberMock(TENANT, RolloutChangeEvent.class,
+                RolloutGroupChangeEvent.class);
+        eventHub.subscribe(subscriber);
+
+        final RolloutChangeEvent firstRolloutEvent = new RolloutChangeEvent(1, TENANT, 1L);
+        final RolloutGroupChangeEvent groupEvent = new RolloutGroupChangeEvent(1, TENANT, 1L, 2L);
+        final RolloutChangeEvent latestRolloutEvent = new RolloutChangeEvent(2, TENANT, 1L);
+        systemEventBus.post(firstRolloutEvent);
+        systemEventBus.post(groupEvent);
+        systemEventBus.post(latestRolloutEvent);
+
+        assertThat(subscriber.awaitEvents()).as("Pushed events").containsExactly(groupEvent, latestRolloutEvent);
+        assertThat(eventHub.getCoalescedEvents()).as("Coalesced events").isEqualTo(1);
+    }
+
+    private static final class SubscriberMock implements UIEventHub.Subscriber {
+        private final String tenant;
+        private final Set<Class<? extends Event>> eventTypes;
+        private final List<Event> events = new ArrayList<>();
+        private final CountDownLatch pushed = new CountDownLatch(1);
+
+        @SafeVarargs
+        private SubscriberMock(final String tenant, final Class<? extends Event>... eventTypes) {
+            this.tenant = tenant;
+            this.eventTypes = new HashSet<>(Arrays.asList(eventTypes));
+        }
+
+        @Override
+        public String getTenant() {
+            return tenant;
+        }
+
+        @Override
+        public Set<Class<? extends Event>> getEventTypes() {
+            return eventTypes;
+        }
+
+        @Override
+        public synchronized void push(final List<Event> pushedEvents) {
+            events.addAll(pushedEvents);
+            pushed.countDown();
+        }
+
+        private List<Event> awaitEvents() throws InterruptedException {
+            assertThat(pushed.await(10, TimeUnit.SECONDS)).as("Events pushed in time").isTrue();
+            return getEvents();
+        }
+
+        private synchronized List<Event> getEvents() {
+            return new ArrayList<>(events);
+        }
+    }
+}